@@ -24,12 +24,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.qpid.proton.engine.BaseHandler;
-import org.apache.qpid.proton.engine.Collector;
 import org.apache.qpid.proton.engine.Connection;
 import org.apache.qpid.proton.engine.Delivery;
 import org.apache.qpid.proton.engine.Event;
 import org.apache.qpid.proton.engine.Link;
 import org.apache.qpid.proton.engine.Receiver;
+import org.apache.qpid.proton.reactor.Reactor;
 
 public class Drain extends BaseHandler {
 
@@ -115,14 +115,12 @@ public class Drain extends BaseHandler {
         int count = args.isEmpty() ? 1 : Integer.parseInt(args.remove(0));
         boolean block = switches.contains("-b");
 
-        Collector collector = Collector.Factory.create();
-
         Drain drain = new Drain(count, block, quiet);
-        Driver driver = new Driver(collector, drain);
+        Reactor reactor = Reactor.Factory.create(drain);
 
-        Pool pool = new Pool(collector);
+        Pool pool = new Pool(reactor.collector());
         pool.incoming(address, null);
 
-        driver.run();
+        reactor.run();
     }
 }
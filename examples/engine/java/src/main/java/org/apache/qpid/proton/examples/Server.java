@@ -22,12 +22,12 @@ package org.apache.qpid.proton.examples;
 
 import org.apache.qpid.proton.amqp.messaging.Accepted;
 import org.apache.qpid.proton.engine.BaseHandler;
-import org.apache.qpid.proton.engine.Collector;
 import org.apache.qpid.proton.engine.Delivery;
 import org.apache.qpid.proton.engine.Event;
 import org.apache.qpid.proton.engine.Link;
 import org.apache.qpid.proton.engine.Receiver;
 import org.apache.qpid.proton.engine.Sender;
+import org.apache.qpid.proton.reactor.Reactor;
 
 import java.io.IOException;
 
@@ -167,13 +167,12 @@ public class Server extends BaseHandler
             args.remove(0) : "localhost";
         int port = !args.isEmpty() ? Integer.parseInt(args.remove(0)) : 5672;
 
-        Collector collector = Collector.Factory.create();
         Router router = new Router();
-        Driver driver = new Driver(collector, new Handshaker(),
-                                   new FlowController(1024), router,
-                                   new Server(router, quiet));
-        driver.listen(host, port);
-        driver.run();
+        Reactor reactor = Reactor.Factory.create(new Handshaker(),
+                                                 new FlowController(1024), router,
+                                                 new Server(router, quiet));
+        reactor.acceptor(host, port, null);
+        reactor.run();
     }
 
 }
@@ -24,12 +24,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.qpid.proton.engine.BaseHandler;
-import org.apache.qpid.proton.engine.Collector;
 import org.apache.qpid.proton.engine.Connection;
 import org.apache.qpid.proton.engine.Delivery;
 import org.apache.qpid.proton.engine.Event;
 import org.apache.qpid.proton.engine.Link;
 import org.apache.qpid.proton.engine.Sender;
+import org.apache.qpid.proton.reactor.Reactor;
 
 public class Spout extends BaseHandler
 {
@@ -102,15 +102,13 @@ public class Spout extends BaseHandler
             args.remove(0) : "//localhost";
         int count = !args.isEmpty() ? Integer.parseInt(args.remove(0)) : 1;
 
-        Collector collector = Collector.Factory.create();
-
         Spout spout = new Spout(count, quiet);
 
-        Driver driver = new Driver(collector, spout);
+        Reactor reactor = Reactor.Factory.create(spout);
 
-        Pool pool = new Pool(collector);
+        Pool pool = new Pool(reactor.collector());
         pool.outgoing(address, null);
 
-        driver.run();
+        reactor.run();
     }
 }
@@ -36,11 +36,13 @@ import org.apache.qpid.proton.driver.Driver;
 import org.apache.qpid.proton.engine.Engine;
 import org.apache.qpid.proton.engine.Collector;
 import org.apache.qpid.proton.engine.Connection;
+import org.apache.qpid.proton.engine.Handler;
 import org.apache.qpid.proton.engine.SslDomain;
 import org.apache.qpid.proton.engine.SslPeerDetails;
 import org.apache.qpid.proton.engine.Transport;
 import org.apache.qpid.proton.message.Message;
 import org.apache.qpid.proton.messenger.Messenger;
+import org.apache.qpid.proton.reactor.Reactor;
 
 public final class Proton
 {
@@ -110,4 +112,9 @@ public final class Proton
         return Driver.Factory.create();
     }
 
+    public static Reactor reactor(Handler... handlers) throws IOException
+    {
+        return Reactor.Factory.create(handlers);
+    }
+
 }
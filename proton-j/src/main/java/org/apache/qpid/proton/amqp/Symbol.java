@@ -21,12 +21,32 @@
 
 package org.apache.qpid.proton.amqp;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.concurrent.ConcurrentHashMap;
 
 public final class Symbol implements Comparable<Symbol>, CharSequence
 {
     private final String _underlying;
-    private static final ConcurrentHashMap<String, Symbol> _symbols = new ConcurrentHashMap<String, Symbol>(2048);
+
+    /**
+     * Symbols are compared by identity, so there is only ever one live symbol for a string. It is
+     * held weakly, so that symbols nothing refers to any more, such as the distinct symbols a
+     * peer may send, are collected and do not grow the map without bound.
+     */
+    private static final ConcurrentHashMap<String, SymbolReference> _symbols = new ConcurrentHashMap<String, SymbolReference>(2048);
+    private static final ReferenceQueue<Symbol> _collected = new ReferenceQueue<Symbol>();
+
+    private static final class SymbolReference extends WeakReference<Symbol>
+    {
+        private final String _key;
+
+        SymbolReference(Symbol symbol)
+        {
+            super(symbol, _collected);
+            _key = symbol._underlying;
+        }
+    }
 
     private Symbol(String underlying)
     {
@@ -76,19 +96,59 @@ public final class Symbol implements Comparable<Symbol>, CharSequence
         {
             return null;
         }
-        Symbol symbol = _symbols.get(symbolVal);
-        if(symbol == null)
+        SymbolReference ref = _symbols.get(symbolVal);
+        Symbol symbol = ref == null ? null : ref.get();
+        if(symbol != null)
+        {
+            return symbol;
+        }
+
+        expungeCollected();
+        Symbol created = new Symbol(symbolVal.intern());
+        SymbolReference createdRef = new SymbolReference(created);
+        while(true)
         {
-            symbolVal = symbolVal.intern();
-            symbol = new Symbol(symbolVal);
-            Symbol existing;
-            if((existing = _symbols.putIfAbsent(symbolVal, symbol)) != null)
+            if(ref == null)
+            {
+                ref = _symbols.putIfAbsent(created._underlying, createdRef);
+                if(ref == null)
+                {
+                    return created;
+                }
+            }
+            else if(_symbols.replace(created._underlying, ref, createdRef))
             {
-                symbol = existing;
+                return created;
+            }
+            else
+            {
+                ref = _symbols.get(symbolVal);
+            }
+
+            // another thread got there first, with a symbol that may itself have been collected
+            symbol = ref == null ? null : ref.get();
+            if(symbol != null)
+            {
+                return symbol;
             }
         }
-        return symbol;
     }
 
+    private static void expungeCollected()
+    {
+        SymbolReference ref;
+        while((ref = (SymbolReference) _collected.poll()) != null)
+        {
+            _symbols.remove(ref._key, ref);
+        }
+    }
 
+    /**
+     * @return the number of strings mapped to symbols, including any collected but not yet
+     *         removed, for tests
+     */
+    static int getInternedCount()
+    {
+        return _symbols.size();
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.blocking;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.qpid.proton.blocking.impl.BlockingConnectionImpl;
+
+/**
+ * An AMQP connection for imperative code, whose operations block the calling thread until the
+ * peer has answered them.
+ *
+ * Each connection does its socket IO on a thread of its own, made by the connection's
+ * {@link ThreadFactory}. Callers are parked, not spinning, while they wait, so on a runtime with
+ * virtual threads, and with a factory that makes them, a small pool of carrier threads can serve
+ * a large number of connections. The default factory makes virtual threads when the runtime
+ * supports them, and daemon threads otherwise.
+ *
+ * A connection, and the senders and receivers it creates, may be used from any number of threads.
+ */
+public interface BlockingConnection
+{
+
+    public static final class Factory
+    {
+        public static BlockingConnection create(String host, int port, long timeout) throws IOException
+        {
+            return new BlockingConnectionImpl(host, port, timeout, null);
+        }
+
+        public static BlockingConnection create(String host, int port, long timeout,
+                                                ThreadFactory threadFactory) throws IOException
+        {
+            return new BlockingConnectionImpl(host, port, timeout, threadFactory);
+        }
+    }
+
+    /**
+     * Opens a link for sending to address, waiting until the peer has attached it.
+     *
+     * @throws org.apache.qpid.proton.TimeoutException if the peer does not attach the link in time
+     */
+    BlockingSender createSender(String address);
+
+    /**
+     * Opens a link for receiving from address, waiting until the peer has attached it, and grants
+     * it credit for that many messages at a time.
+     *
+     * @throws org.apache.qpid.proton.TimeoutException if the peer does not attach the link in time
+     */
+    BlockingReceiver createReceiver(String address, int credit);
+
+    /**
+     * Closes the connection, waiting for the peer to close it too, and then closes the socket.
+     */
+    void close();
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.blocking;
+
+import org.apache.qpid.proton.message.Message;
+
+/**
+ * Receives messages on a link of a {@link BlockingConnection}. Messages are accepted as they
+ * are returned, and credit is granted for each as it is taken.
+ */
+public interface BlockingReceiver
+{
+    /**
+     * Waits for the next message.
+     *
+     * @param timeout how long to wait in milliseconds, or -1 to wait indefinitely
+     * @return the message, or null if none arrived in time
+     * @throws org.apache.qpid.proton.ProtonException if the link or connection is closed
+     */
+    Message receive(long timeout);
+
+    /**
+     * Closes the link, waiting for the peer to close it too.
+     */
+    void close();
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.blocking;
+
+import org.apache.qpid.proton.message.Message;
+
+/**
+ * Sends messages on a link of a {@link BlockingConnection}.
+ */
+public interface BlockingSender
+{
+    /**
+     * Sends message and waits for the peer to settle it, for at most the connection's timeout.
+     *
+     * @throws org.apache.qpid.proton.TimeoutException if the peer does not settle the message in time
+     * @throws org.apache.qpid.proton.ProtonException if the peer does not accept the message, or
+     * the link or connection is closed
+     */
+    void send(Message message);
+
+    /**
+     * Closes the link, waiting for the peer to close it too.
+     */
+    void close();
+}
@@ -0,0 +1,583 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.blocking.impl;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.UUID;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.qpid.proton.InterruptException;
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.ProtonException;
+import org.apache.qpid.proton.TimeoutException;
+import org.apache.qpid.proton.amqp.messaging.Source;
+import org.apache.qpid.proton.amqp.messaging.Target;
+import org.apache.qpid.proton.blocking.BlockingConnection;
+import org.apache.qpid.proton.blocking.BlockingReceiver;
+import org.apache.qpid.proton.blocking.BlockingSender;
+import org.apache.qpid.proton.engine.Connection;
+import org.apache.qpid.proton.engine.EndpointState;
+import org.apache.qpid.proton.engine.Link;
+import org.apache.qpid.proton.engine.Receiver;
+import org.apache.qpid.proton.engine.Sasl;
+import org.apache.qpid.proton.engine.Sender;
+import org.apache.qpid.proton.engine.Session;
+import org.apache.qpid.proton.engine.Transport;
+import org.apache.qpid.proton.engine.TransportException;
+
+/**
+ * All access to the engine is made holding one lock. The IO thread is the only one to use the
+ * socket, and it never holds the lock while blocked in a select or a write. Under the lock it
+ * processes the bytes that have arrived and copies the transport's output into a buffer of its
+ * own, which it then writes once the lock is released. Callers update the engine holding the
+ * lock and wake the IO thread when there is output to send, and callers waiting on the peer are
+ * signalled each time input has been processed. The IO thread also ticks the transport each time
+ * it wakes, and wakes no later than the deadline the tick returns, so heartbeats are sent and
+ * idle timeouts enforced.
+ */
+public class BlockingConnectionImpl implements BlockingConnection
+{
+    private static final Logger _logger = Logger.getLogger("proton.blocking");
+
+    private static final int BUFFER_SIZE = Integer.getInteger("proton.blocking_buffer_size", 64 * 1024);
+    private static final ThreadFactory DEFAULT_THREAD_FACTORY = defaultThreadFactory();
+
+    private final ReentrantLock _lock = new ReentrantLock();
+    private final Condition _changed = _lock.newCondition();
+    private final SocketChannel _channel;
+    private final Selector _selector;
+    private final SelectionKey _key;
+    private final Transport _transport = Proton.transport();
+    private final Connection _connection = Proton.connection();
+    private final Session _session;
+    private final long _timeout;
+
+    private ProtonException _error;
+    private boolean _closing;
+    private int _nextLink;
+
+    /**
+     * A state of the engine that a caller waits for
+     */
+    abstract static class Predicate
+    {
+        abstract boolean test();
+    }
+
+    /**
+     * @param timeout how long in milliseconds to wait for the peer to answer an operation
+     * @param threadFactory makes the connection's IO thread, or null for the default
+     */
+    public BlockingConnectionImpl(String host, int port, long timeout, ThreadFactory threadFactory)
+        throws IOException
+    {
+        _timeout = timeout;
+        _channel = SocketChannel.open(new InetSocketAddress(host, port));
+        _channel.socket().setTcpNoDelay(true);
+        _channel.configureBlocking(false);
+        try
+        {
+            _selector = Selector.open();
+            _key = _channel.register(_selector, SelectionKey.OP_READ);
+        }
+        catch (IOException e)
+        {
+            _channel.close();
+            throw e;
+        }
+
+        Sasl sasl = _transport.sasl();
+        sasl.client();
+        sasl.setMechanisms(new String[]{"ANONYMOUS"});
+        _connection.setContainer(UUID.randomUUID().toString());
+        _connection.setHostname(host);
+        _transport.bind(_connection);
+        _connection.open();
+        _session = _connection.session();
+        _session.open();
+
+        ThreadFactory factory = threadFactory == null ? DEFAULT_THREAD_FACTORY : threadFactory;
+        factory.newThread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                ioLoop();
+            }
+        }).start();
+
+        _lock.lock();
+        try
+        {
+            flush();
+            waitUntil(new Predicate()
+            {
+                @Override
+                boolean test()
+                {
+                    return _connection.getRemoteState() != EndpointState.UNINITIALIZED;
+                }
+            }, _timeout, "connection to " + host + ":" + port + " to open");
+        }
+        catch (RuntimeException e)
+        {
+            _lock.unlock();
+            close();
+            throw e;
+        }
+        _lock.unlock();
+    }
+
+    private static ThreadFactory defaultThreadFactory()
+    {
+        try
+        {
+            // Thread.ofVirtual().factory(), when the runtime has virtual threads
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+                .getMethod("factory").invoke(builder);
+        }
+        catch (Exception e)
+        {
+            return new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(Runnable r)
+                {
+                    Thread thread = new Thread(r, "proton-blocking-connection");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            };
+        }
+    }
+
+    private void ioLoop()
+    {
+        ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer output = ByteBuffer.allocate(BUFFER_SIZE);
+        output.flip();
+        boolean more = false;
+        long wait = 0;
+        try
+        {
+            while (true)
+            {
+                if (more && !output.hasRemaining())
+                {
+                    _selector.selectNow();
+                }
+                else
+                {
+                    _selector.select(wait);
+                }
+                _selector.selectedKeys().clear();
+
+                input.clear();
+                int n = _channel.read(input);
+                input.flip();
+
+                _lock.lock();
+                try
+                {
+                    if (_error != null)
+                    {
+                        return;
+                    }
+                    if (n < 0)
+                    {
+                        _transport.close_tail();
+                        fail(new ProtonException("Connection closed by peer"));
+                        return;
+                    }
+                    if (n > 0)
+                    {
+                        input(input);
+                        _changed.signalAll();
+                    }
+
+                    // sends heartbeats the peer asked for and enforces the local idle timeout
+                    long now = System.currentTimeMillis();
+                    long deadline = _transport.tick(now);
+                    wait = deadline == 0 ? 0 : Math.max(1, deadline - now);
+
+                    if (!output.hasRemaining())
+                    {
+                        output.clear();
+                        output(output);
+                        output.flip();
+                    }
+                    more = _transport.pending() > 0;
+                }
+                finally
+                {
+                    _lock.unlock();
+                }
+
+                while (output.hasRemaining() && _channel.write(output) > 0)
+                {
+                }
+                _key.interestOps(output.hasRemaining()
+                                 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+                                 : SelectionKey.OP_READ);
+            }
+        }
+        catch (IOException e)
+        {
+            _lock.lock();
+            try
+            {
+                fail(new ProtonException(e));
+            }
+            finally
+            {
+                _lock.unlock();
+            }
+        }
+        catch (CancelledKeyException e)
+        {
+            // close() has closed the channel under the IO thread
+            _lock.lock();
+            try
+            {
+                fail(new ProtonException("Connection closed"));
+            }
+            finally
+            {
+                _lock.unlock();
+            }
+        }
+        catch (ProtonException e)
+        {
+            _lock.lock();
+            try
+            {
+                fail(e);
+            }
+            finally
+            {
+                _lock.unlock();
+            }
+        }
+        finally
+        {
+            try
+            {
+                _selector.close();
+            }
+            catch (IOException e)
+            {
+                _logger.log(Level.FINE, "Exception closing selector", e);
+            }
+        }
+    }
+
+    private void input(ByteBuffer buffer)
+    {
+        while (buffer.hasRemaining())
+        {
+            int capacity = _transport.capacity();
+            if (capacity <= 0)
+            {
+                // the transport has stopped taking input, so the rest can only be discarded
+                return;
+            }
+            ByteBuffer tail = _transport.tail();
+            int n = Math.min(tail.remaining(), buffer.remaining());
+            int limit = buffer.limit();
+            buffer.limit(buffer.position() + n);
+            tail.put(buffer);
+            buffer.limit(limit);
+            _transport.process();
+        }
+    }
+
+    /**
+     * Copies as much of the transport's output as fits into buffer. Must be called holding the lock.
+     */
+    private void output(ByteBuffer buffer)
+    {
+        while (buffer.hasRemaining() && _transport.pending() > 0)
+        {
+            ByteBuffer head = _transport.head().duplicate();
+            int n = Math.min(head.remaining(), buffer.remaining());
+            head.limit(head.position() + n);
+            buffer.put(head);
+            _transport.pop(n);
+        }
+    }
+
+    /**
+     * Wakes the IO thread if the transport has output for it to write. Must be called holding the
+     * lock.
+     */
+    void flush()
+    {
+        try
+        {
+            if (_transport.pending() > 0)
+            {
+                _selector.wakeup();
+            }
+        }
+        catch (TransportException e)
+        {
+            fail(e);
+            throw e;
+        }
+    }
+
+    private void fail(ProtonException e)
+    {
+        if (_error == null)
+        {
+            if (!_closing)
+            {
+                _logger.log(Level.FINE, "Connection failed", e);
+            }
+            _error = e;
+        }
+        _changed.signalAll();
+    }
+
+    /**
+     * Waits for predicate to hold. Must be called holding the lock.
+     *
+     * @param timeout how long to wait in milliseconds, or -1 to wait indefinitely
+     * @return false if the timeout expired first
+     * @throws ProtonException if the connection has failed or been closed by the peer
+     */
+    boolean await(Predicate predicate, long timeout)
+    {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        while (true)
+        {
+            if (predicate.test())
+            {
+                return true;
+            }
+            if (_error != null)
+            {
+                throw new ProtonException(_error.getMessage(), _error);
+            }
+            if (_connection.getRemoteState() == EndpointState.CLOSED)
+            {
+                throw new ProtonException("Connection closed by peer: " + _connection.getRemoteCondition());
+            }
+
+            try
+            {
+                if (timeout < 0)
+                {
+                    _changed.await();
+                }
+                else
+                {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0)
+                    {
+                        return false;
+                    }
+                    _changed.awaitNanos(remaining);
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptException();
+            }
+        }
+    }
+
+    /**
+     * Waits for predicate to hold, for at most timeout milliseconds. Must be called holding the lock.
+     *
+     * @throws TimeoutException naming what was awaited if the timeout expires first
+     */
+    void waitUntil(Predicate predicate, long timeout, String what)
+    {
+        if (!await(predicate, timeout))
+        {
+            throw new TimeoutException("Timed out waiting for " + what);
+        }
+    }
+
+    ReentrantLock lock()
+    {
+        return _lock;
+    }
+
+    long timeout()
+    {
+        return _timeout;
+    }
+
+    @Override
+    public BlockingSender createSender(String address)
+    {
+        _lock.lock();
+        try
+        {
+            Sender sender = _session.sender("sender-" + _nextLink++);
+            Target target = new Target();
+            target.setAddress(address);
+            sender.setTarget(target);
+            Source source = new Source();
+            source.setAddress(address);
+            sender.setSource(source);
+            attach(sender);
+            return new BlockingSenderImpl(this, sender);
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public BlockingReceiver createReceiver(String address, int credit)
+    {
+        _lock.lock();
+        try
+        {
+            Receiver receiver = _session.receiver("receiver-" + _nextLink++);
+            Source source = new Source();
+            source.setAddress(address);
+            receiver.setSource(source);
+            Target target = new Target();
+            target.setAddress(address);
+            receiver.setTarget(target);
+            receiver.flow(credit);
+            attach(receiver);
+            return new BlockingReceiverImpl(this, receiver);
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+    }
+
+    private void attach(final Link link)
+    {
+        link.open();
+        flush();
+        waitUntil(new Predicate()
+        {
+            @Override
+            boolean test()
+            {
+                return link.getRemoteState() != EndpointState.UNINITIALIZED;
+            }
+        }, _timeout, "link " + link.getName() + " to attach");
+        checkOpen(link);
+    }
+
+    /**
+     * @throws ProtonException if the peer has closed link
+     */
+    void checkOpen(Link link)
+    {
+        if (link.getRemoteState() == EndpointState.CLOSED)
+        {
+            throw new ProtonException("Link " + link.getName() + " closed by peer: " + link.getRemoteCondition());
+        }
+    }
+
+    /**
+     * Closes link and waits for the peer to close it too. Must be called holding the lock.
+     */
+    void detach(final Link link)
+    {
+        if (link.getLocalState() == EndpointState.CLOSED)
+        {
+            return;
+        }
+        link.close();
+        flush();
+        waitUntil(new Predicate()
+        {
+            @Override
+            boolean test()
+            {
+                return link.getRemoteState() == EndpointState.CLOSED;
+            }
+        }, _timeout, "link " + link.getName() + " to close");
+    }
+
+    @Override
+    public void close()
+    {
+        _lock.lock();
+        try
+        {
+            if (_closing)
+            {
+                return;
+            }
+            _closing = true;
+            if (_error == null)
+            {
+                _connection.close();
+                try
+                {
+                    flush();
+                    await(new Predicate()
+                    {
+                        @Override
+                        boolean test()
+                        {
+                            return _connection.getRemoteState() == EndpointState.CLOSED;
+                        }
+                    }, _timeout);
+                }
+                catch (ProtonException e)
+                {
+                    _logger.log(Level.FINE, "Connection failed while closing", e);
+                }
+            }
+            fail(new ProtonException("Connection closed"));
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+
+        _selector.wakeup();
+        try
+        {
+            _channel.close();
+        }
+        catch (IOException e)
+        {
+            _logger.log(Level.FINE, "Exception closing " + _channel, e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.blocking.impl;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.amqp.messaging.Accepted;
+import org.apache.qpid.proton.blocking.BlockingReceiver;
+import org.apache.qpid.proton.engine.Delivery;
+import org.apache.qpid.proton.engine.Receiver;
+import org.apache.qpid.proton.message.Message;
+
+class BlockingReceiverImpl implements BlockingReceiver
+{
+    private final BlockingConnectionImpl _connection;
+    private final Receiver _receiver;
+
+    private final BlockingConnectionImpl.Predicate _complete = new BlockingConnectionImpl.Predicate()
+    {
+        @Override
+        boolean test()
+        {
+            Delivery delivery = _receiver.current();
+            if (delivery != null && delivery.isReadable() && !delivery.isPartial())
+            {
+                return true;
+            }
+            _connection.checkOpen(_receiver);
+            return false;
+        }
+    };
+
+    BlockingReceiverImpl(BlockingConnectionImpl connection, Receiver receiver)
+    {
+        _connection = connection;
+        _receiver = receiver;
+    }
+
+    @Override
+    public Message receive(long timeout)
+    {
+        _connection.lock().lock();
+        try
+        {
+            if (!_connection.await(_complete, timeout))
+            {
+                return null;
+            }
+
+            Delivery delivery = _receiver.current();
+            byte[] buffer = new byte[delivery.pending()];
+            int read = _receiver.recv(buffer, 0, buffer.length);
+            _receiver.advance();
+
+            Message message = Proton.message();
+            message.decode(buffer, 0, read);
+
+            delivery.disposition(Accepted.getInstance());
+            delivery.settle();
+            _receiver.flow(1);
+            _connection.flush();
+            return message;
+        }
+        finally
+        {
+            _connection.lock().unlock();
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        _connection.lock().lock();
+        try
+        {
+            _connection.detach(_receiver);
+        }
+        finally
+        {
+            _connection.lock().unlock();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.blocking.impl;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import org.apache.qpid.proton.ProtonException;
+import org.apache.qpid.proton.amqp.messaging.Accepted;
+import org.apache.qpid.proton.amqp.transport.DeliveryState;
+import org.apache.qpid.proton.blocking.BlockingSender;
+import org.apache.qpid.proton.codec.ExpandableWritableBuffer;
+import org.apache.qpid.proton.engine.Delivery;
+import org.apache.qpid.proton.engine.Sender;
+import org.apache.qpid.proton.message.Message;
+import org.apache.qpid.proton.message.ProtonJMessage;
+
+class BlockingSenderImpl implements BlockingSender
+{
+    private final BlockingConnectionImpl _connection;
+    private final Sender _sender;
+    private final ExpandableWritableBuffer _buffer = new ExpandableWritableBuffer(1024);
+    private long _nextTag;
+
+    BlockingSenderImpl(BlockingConnectionImpl connection, Sender sender)
+    {
+        _connection = connection;
+        _sender = sender;
+    }
+
+    @Override
+    public void send(Message message)
+    {
+        _connection.lock().lock();
+        try
+        {
+            _connection.checkOpen(_sender);
+            int encoded = encode(message);
+            final Delivery delivery = _sender.delivery(String.valueOf(_nextTag++).getBytes());
+            _sender.send(_buffer.getByteBuffer().array(), 0, encoded);
+            _sender.advance();
+            _connection.flush();
+
+            _connection.waitUntil(new BlockingConnectionImpl.Predicate()
+            {
+                @Override
+                boolean test()
+                {
+                    _connection.checkOpen(_sender);
+                    return delivery.remotelySettled();
+                }
+            }, _connection.timeout(), "message to be settled");
+
+            DeliveryState state = delivery.getRemoteState();
+            delivery.settle();
+            _connection.flush();
+            if (state != null && !(state instanceof Accepted))
+            {
+                throw new ProtonException("Message not accepted: " + state);
+            }
+        }
+        finally
+        {
+            _connection.lock().unlock();
+        }
+    }
+
+    /**
+     * Encodes the message into _buffer, which grows to fit it
+     */
+    private int encode(Message message)
+    {
+        _buffer.clear();
+        if (message instanceof ProtonJMessage)
+        {
+            return ((ProtonJMessage) message).encode(_buffer);
+        }
+        while (true)
+        {
+            ByteBuffer buffer = _buffer.getByteBuffer();
+            try
+            {
+                return message.encode(buffer.array(), 0, buffer.capacity());
+            }
+            catch (BufferOverflowException e)
+            {
+                _buffer.ensureRemaining(buffer.capacity() + 1);
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        _connection.lock().lock();
+        try
+        {
+            _connection.detach(_sender);
+        }
+        finally
+        {
+            _connection.lock().unlock();
+        }
+    }
+}
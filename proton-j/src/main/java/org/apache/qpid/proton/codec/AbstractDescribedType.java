@@ -39,6 +39,11 @@ abstract public class AbstractDescribedType<T,M> implements AMQPType<T>
 
     abstract protected UnsignedLong getDescriptor();
 
+    protected EncoderImpl getEncoder()
+    {
+        return _encoder;
+    }
+
 
     public TypeEncoding<T> getEncoding(final T val)
     {
@@ -50,6 +55,11 @@ abstract public class AbstractDescribedType<T,M> implements AMQPType<T>
             encoding = new DynamicDescribedTypeEncoding(underlyingEncoding);
             _encodings.put(underlyingEncoding, encoding);
         }
+        if(_encoder.isCachingSizes())
+        {
+            // the underlying encoding has just sized this wrapping, which is not seen again
+            _encoder.cacheSize(val, underlyingEncoding.getValueSize(asUnderlying));
+        }
 
         return encoding;
     }
@@ -116,7 +126,8 @@ abstract public class AbstractDescribedType<T,M> implements AMQPType<T>
 
         public int getValueSize(final T val)
         {
-            return _underlyingEncoding.getValueSize(wrap(val));
+            int size = _encoder.getCachedSize(val);
+            return size >= 0 ? size : _underlyingEncoding.getValueSize(wrap(val));
         }
 
         public boolean isFixedSizeVal()
@@ -0,0 +1,96 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.codec;
+
+import java.util.List;
+
+/**
+ * A described type whose value is a list of fields, written field by field straight into the
+ * encoder's buffer rather than through a {@link List} view of the value.
+ * <p>
+ * The list is first written with a one byte size which is back-patched once the fields are
+ * out; only when the fields turn out not to fit is the list rewritten in its four byte form.
+ * The bytes produced are the same as for the wrapped {@link List}.
+ */
+public abstract class AbstractFastPathDescribedType<T> extends AbstractDescribedType<T,List>
+{
+    protected AbstractFastPathDescribedType(EncoderImpl encoder)
+    {
+        super(encoder);
+    }
+
+    /**
+     * @return the number of leading fields of the value that need to be encoded
+     */
+    protected abstract int getFieldCount(T val);
+
+    /**
+     * Writes the first count fields of the value, each with its constructor.
+     */
+    protected abstract void writeFields(T val, int count);
+
+    @Override
+    public void write(final T val)
+    {
+        EncoderImpl encoder = getEncoder();
+        WritableBuffer buffer = encoder.getBuffer();
+
+        encoder.writeRaw(EncodingCodes.DESCRIBED_TYPE_INDICATOR);
+        encoder.writeUnsignedLong(getDescriptor());
+
+        int count = getFieldCount(val);
+        if(count == 0)
+        {
+            encoder.writeRaw(EncodingCodes.LIST0);
+            return;
+        }
+
+        int start = buffer.position();
+        if(count <= 255)
+        {
+            encoder.writeRaw(EncodingCodes.LIST8);
+            encoder.writeRaw((byte) 0);
+            encoder.writeRaw((byte) count);
+            writeFields(val, count);
+
+            int end = buffer.position();
+            int size = end - start - 2;
+            if(size <= 254)
+            {
+                buffer.position(start + 1);
+                buffer.put((byte) size);
+                buffer.position(end);
+                return;
+            }
+            buffer.position(start);
+        }
+
+        encoder.writeRaw(EncodingCodes.LIST32);
+        encoder.writeRaw(0);
+        encoder.writeRaw(count);
+        writeFields(val, count);
+
+        int end = buffer.position();
+        buffer.position(start + 1);
+        buffer.putInt(end - start - 5);
+        buffer.position(end);
+    }
+}
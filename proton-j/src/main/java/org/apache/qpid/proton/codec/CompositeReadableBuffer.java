@@ -0,0 +1,209 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.proton.codec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link ReadableBuffer} over a chain of {@link ByteBuffer} segments, read in the order they
+ * were appended without being copied into one buffer. Values that straddle two segments are
+ * put together a byte at a time; everything else is read straight from the segment holding it.
+ *
+ * Positions count from the start of the first segment.
+ */
+public class CompositeReadableBuffer implements ReadableBuffer
+{
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private ByteBuffer[] _segments = new ByteBuffer[4];
+    /** the position of this buffer at which each segment starts */
+    private int[] _offsets = new int[4];
+    private int _count;
+    private int _index;
+    private int _length;
+
+    /**
+     * Adds the remaining bytes of segment to the end of this buffer. They are read in place, so
+     * must not change while this buffer is in use, but the position and limit of segment itself
+     * are left alone.
+     */
+    public CompositeReadableBuffer append(ByteBuffer segment)
+    {
+        if(segment.hasRemaining())
+        {
+            if(_count == _segments.length)
+            {
+                ByteBuffer[] segments = new ByteBuffer[2 * _count];
+                System.arraycopy(_segments, 0, segments, 0, _count);
+                _segments = segments;
+                int[] offsets = new int[2 * _count];
+                System.arraycopy(_offsets, 0, offsets, 0, _count);
+                _offsets = offsets;
+            }
+            _segments[_count] = segment.slice();
+            _offsets[_count] = _length;
+            _count++;
+            _length += segment.remaining();
+        }
+        return this;
+    }
+
+    public int getSegmentCount()
+    {
+        return _count;
+    }
+
+    public byte get()
+    {
+        return currentSegment().get();
+    }
+
+    public short getShort()
+    {
+        ByteBuffer segment = currentSegment();
+        if(segment.remaining() >= 2)
+        {
+            return segment.getShort();
+        }
+        return (short) readSpanning(2);
+    }
+
+    public int getInt()
+    {
+        ByteBuffer segment = currentSegment();
+        if(segment.remaining() >= 4)
+        {
+            return segment.getInt();
+        }
+        return (int) readSpanning(4);
+    }
+
+    public long getLong()
+    {
+        ByteBuffer segment = currentSegment();
+        if(segment.remaining() >= 8)
+        {
+            return segment.getLong();
+        }
+        return readSpanning(8);
+    }
+
+    public float getFloat()
+    {
+        return Float.intBitsToFloat(getInt());
+    }
+
+    public double getDouble()
+    {
+        return Double.longBitsToDouble(getLong());
+    }
+
+    public void get(byte[] dst, int offset, int length)
+    {
+        if(length > remaining())
+        {
+            throw new BufferUnderflowException();
+        }
+        while(length > 0)
+        {
+            ByteBuffer segment = currentSegment();
+            int count = Math.min(segment.remaining(), length);
+            segment.get(dst, offset, count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    public boolean hasRemaining()
+    {
+        return remaining() > 0;
+    }
+
+    public int remaining()
+    {
+        return _length - position();
+    }
+
+    public int position()
+    {
+        return _count == 0 ? 0 : _offsets[_index] + _segments[_index].position();
+    }
+
+    public void position(int position)
+    {
+        if(position < 0 || position > _length)
+        {
+            throw new IllegalArgumentException("Position " + position + " is outside 0 to " + _length);
+        }
+        if(_count == 0)
+        {
+            return;
+        }
+
+        int index = _count - 1;
+        while(index > 0 && _offsets[index] > position)
+        {
+            index--;
+        }
+        for(int i = 0; i < _count; i++)
+        {
+            ByteBuffer segment = _segments[i];
+            segment.position(i < index ? segment.limit() : i > index ? 0 : position - _offsets[i]);
+        }
+        _index = index;
+    }
+
+    public ByteBuffer currentSegment()
+    {
+        if(_count == 0)
+        {
+            return EMPTY;
+        }
+        ByteBuffer segment = _segments[_index];
+        while(!segment.hasRemaining() && _index < _count - 1)
+        {
+            segment = _segments[++_index];
+        }
+        return segment;
+    }
+
+    private long readSpanning(int size)
+    {
+        if(size > remaining())
+        {
+            throw new BufferUnderflowException();
+        }
+        long value = 0;
+        for(int i = 0; i < size; i++)
+        {
+            value = (value << 8) | (get() & 0xFF);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("[pos: %d, length: %d, segments: %d]", position(), _length, _count);
+    }
+}
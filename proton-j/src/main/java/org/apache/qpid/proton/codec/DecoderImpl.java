@@ -37,8 +37,15 @@ import java.util.*;
 
 public class DecoderImpl implements ByteBufferDecoder
 {
-
-    private ByteBuffer _buffer;
+    /** the largest string scratch space kept between calls */
+    static final int MAX_SCRATCH = 8 * 1024;
+
+    private ReadableBuffer _buffer;
+    /** reads the buffers given to {@link #setByteBuffer(ByteBuffer)}, one after another */
+    private final ReadableBuffer.ByteBufferReader _byteBufferReader = new ReadableBuffer.ByteBufferReader(null);
+    /** scratch space for decoding strings, kept between calls while it is small */
+    private byte[] _stringBytes = new byte[256];
+    private char[] _stringChars = new char[256];
     private PrimitiveTypeEncoding[] _constructors = new PrimitiveTypeEncoding[256];
     private Map<Object, DescribedTypeConstructor> _dynamicTypeConstructors =
             new HashMap<Object, DescribedTypeConstructor>();
@@ -51,7 +58,7 @@ public class DecoderImpl implements ByteBufferDecoder
 
     DecoderImpl(final ByteBuffer buffer)
     {
-        _buffer = buffer;
+        setByteBuffer(buffer);
     }
 
     TypeConstructor readConstructor()
@@ -79,6 +86,13 @@ public class DecoderImpl implements ByteBufferDecoder
                 };
                 register(descriptor, dtc);
             }
+            if(dtc instanceof FastPathDescribedTypeConstructor && nestedEncoding instanceof PrimitiveTypeEncoding
+               && ((PrimitiveTypeEncoding) nestedEncoding).getType() instanceof ListType)
+            {
+                return new FastPathTypeConstructor((FastPathDescribedTypeConstructor) dtc,
+                                                   ((PrimitiveTypeEncoding) nestedEncoding).getEncodingCode(),
+                                                   this);
+            }
             return new DynamicTypeConstructor(dtc, nestedEncoding);
         }
         else
@@ -940,21 +954,88 @@ public class DecoderImpl implements ByteBufferDecoder
     }
 
 
-    <V> V readRaw(TypeDecoder<V> decoder, int size)
+    /**
+     * Reads size bytes of UTF-8. Bytes held in one heap segment are decoded where they are, and
+     * otherwise they are copied out first.
+     */
+    String readRawString(int size)
+    {
+        if (size > _buffer.remaining())
+        {
+            throw new IllegalArgumentException("String of " + size + " bytes overruns the buffer");
+        }
+
+        char[] chars = size <= _stringChars.length ? _stringChars : new char[size];
+        String value;
+        ByteBuffer segment = _buffer.currentSegment();
+        if (segment.hasArray() && segment.remaining() >= size)
+        {
+            value = UTF8.decode(segment.array(), segment.arrayOffset() + segment.position(), size, chars);
+            segment.position(segment.position() + size);
+        }
+        else
+        {
+            byte[] bytes = size <= _stringBytes.length ? _stringBytes : new byte[size];
+            _buffer.get(bytes, 0, size);
+            value = UTF8.decode(bytes, 0, size, chars);
+            if (bytes != _stringBytes && size <= MAX_SCRATCH)
+            {
+                _stringBytes = bytes;
+            }
+        }
+        if (chars != _stringChars && size <= MAX_SCRATCH)
+        {
+            _stringChars = chars;
+        }
+        return value;
+    }
+
+    /**
+     * Reads a symbol of size bytes, looking it up in symbols without copying the bytes out unless
+     * they straddle two segments
+     */
+    Symbol readRawSymbol(SymbolTable symbols, int size)
     {
-        V decode = decoder.decode((ByteBuffer) _buffer.slice().limit(size));
-        _buffer.position(_buffer.position()+size);
-        return decode;
+        if (size > _buffer.remaining())
+        {
+            throw new IllegalArgumentException("Symbol of " + size + " bytes overruns the buffer");
+        }
+
+        ByteBuffer segment = _buffer.currentSegment();
+        if (segment.remaining() >= size)
+        {
+            Symbol symbol = symbols.get(segment, segment.position(), size);
+            segment.position(segment.position() + size);
+            return symbol;
+        }
+
+        byte[] bytes = size <= _stringBytes.length ? _stringBytes : new byte[size];
+        _buffer.get(bytes, 0, size);
+        return symbols.get(ByteBuffer.wrap(bytes, 0, size), 0, size);
     }
 
     public void setByteBuffer(final ByteBuffer buffer)
     {
-        _buffer = buffer;
+        _buffer = _byteBufferReader.setBuffer(buffer);
+    }
+
+    /**
+     * @return the buffer being decoded, which for a {@link ByteBuffer} is a reader the decoder
+     *         reuses for the next one
+     */
+    public ReadableBuffer getBuffer()
+    {
+        return _buffer;
     }
 
-    interface TypeDecoder<V>
+    public void setByteBuffer(final ReadableBuffer buffer)
     {
-        V decode(ByteBuffer buf);
+        _buffer = buffer;
+        if (buffer != _byteBufferReader)
+        {
+            // so that the last ByteBuffer decoded is not kept from the garbage collector
+            _byteBufferReader.setBuffer(null);
+        }
     }
 
     private static class UnknownDescribedType implements DescribedType
@@ -0,0 +1,67 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.codec;
+
+/**
+ * A {@link DecoderImpl} and {@link EncoderImpl} with all of the {@link AMQPDefinedTypes} registered.
+ * <p>
+ * Building and registering the types costs more than the rest of setting up a transport or
+ * a message, so one pair is built per thread and shared by everything that runs on it. The
+ * encoder and decoder hold per-use state, so callers set their buffer before each use and
+ * look the pair up again rather than keeping it across calls that may be made on another thread.
+ */
+public final class EncoderDecoderPair
+{
+    private static final ThreadLocal<EncoderDecoderPair> CURRENT = new ThreadLocal<EncoderDecoderPair>()
+    {
+        @Override
+        protected EncoderDecoderPair initialValue()
+        {
+            return new EncoderDecoderPair();
+        }
+    };
+
+    private final DecoderImpl _decoder = new DecoderImpl();
+    private final EncoderImpl _encoder = new EncoderImpl(_decoder);
+
+    private EncoderDecoderPair()
+    {
+        AMQPDefinedTypes.registerAllTypes(_decoder, _encoder);
+    }
+
+    /**
+     * @return the pair belonging to the calling thread
+     */
+    public static EncoderDecoderPair current()
+    {
+        return CURRENT.get();
+    }
+
+    public DecoderImpl getDecoder()
+    {
+        return _decoder;
+    }
+
+    public EncoderImpl getEncoder()
+    {
+        return _encoder;
+    }
+}
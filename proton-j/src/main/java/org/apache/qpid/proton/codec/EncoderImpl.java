@@ -23,6 +23,7 @@ package org.apache.qpid.proton.codec;
 import java.nio.ByteBuffer;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -41,9 +42,19 @@ import org.apache.qpid.proton.amqp.UnsignedShort;
 public final class EncoderImpl implements ByteBufferEncoder
 {
     private static final byte DESCRIBED_TYPE_OP = (byte)0;
+    private static final int STRING_CHUNK = 1024;
 
 
     private WritableBuffer _buffer;
+    /** strings are encoded here a chunk at a time, and then copied to the buffer */
+    private final byte[] _stringBytes = new byte[3 * (STRING_CHUNK + 1)];
+
+    /**
+     * sizes already worked out for the lists, maps and described values met so far in the value
+     * being sized or written, which cannot change until it is done; empty whenever _sizeScope is 0
+     */
+    private final IdentityHashMap<Object, Integer> _sizes = new IdentityHashMap<Object, Integer>();
+    private int _sizeScope;
 
     private final Map<Class, AMQPType> _typeRegistry = new HashMap<Class, AMQPType>();
     private Map<Object, AMQPType> _describedDescriptorRegistry = new HashMap<Object, AMQPType>();
@@ -141,6 +152,89 @@ public final class EncoderImpl implements ByteBufferEncoder
         _buffer = buf;
     }
 
+    WritableBuffer getBuffer()
+    {
+        return _buffer;
+    }
+
+    /**
+     * Returns the number of bytes {@link #writeObject(Object)} would write for o, without
+     * writing anything.
+     */
+    public int getEncodedSize(final Object o)
+    {
+        if(o != null && o.getClass().isArray() && o.getClass().getComponentType().isPrimitive())
+        {
+            // primitive arrays are only sized as they are written, so write this one to nowhere
+            WritableBuffer buffer = _buffer;
+            DroppingWritableBuffer dropping = new DroppingWritableBuffer();
+            _buffer = dropping;
+            try
+            {
+                writeObject(o);
+            }
+            finally
+            {
+                _buffer = buffer;
+            }
+            return dropping.position();
+        }
+
+        AMQPType type = getType(o);
+        if(type == null)
+        {
+            throw new IllegalArgumentException("Do not know how to write Objects of class " + o.getClass()
+                                                                                                   .getName());
+        }
+
+        _sizeScope++;
+        try
+        {
+            TypeEncoding encoding = type.getEncoding(o);
+            return encoding.getConstructorSize() + encoding.getValueSize(o);
+        }
+        finally
+        {
+            exitSizeScope();
+        }
+    }
+
+    boolean isCachingSizes()
+    {
+        return _sizeScope > 0;
+    }
+
+    /**
+     * @return the size recorded for value by {@link #cacheSize(Object, int)} while sizing or
+     * writing the current value, or -1. For a list or map this is the size of its elements, and
+     * for a described value it is the value size of the underlying encoding.
+     */
+    int getCachedSize(final Object value)
+    {
+        if(_sizeScope == 0)
+        {
+            return -1;
+        }
+        Integer size = _sizes.get(value);
+        return size == null ? -1 : size;
+    }
+
+    void cacheSize(final Object value, final int size)
+    {
+        if(_sizeScope > 0)
+        {
+            _sizes.put(value, size);
+        }
+    }
+
+    private void exitSizeScope()
+    {
+        if(--_sizeScope == 0 && !_sizes.isEmpty())
+        {
+            _sizes.clear();
+        }
+    }
+
 
     @Override
     public AMQPType getType(final Object element)
@@ -659,6 +753,19 @@ public final class EncoderImpl implements ByteBufferEncoder
     }
 
     public void writeObject(final Object o)
+    {
+        _sizeScope++;
+        try
+        {
+            writeObjectValue(o);
+        }
+        finally
+        {
+            exitSizeScope();
+        }
+    }
+
+    private void writeObjectValue(final Object o)
     {
         AMQPType type = _typeRegistry.get(o == null ? Void.class : o.getClass());
 
@@ -774,42 +881,17 @@ public final class EncoderImpl implements ByteBufferEncoder
     void writeRaw(String string)
     {
         final int length = string.length();
-        int c;
-
-        for (int i = 0; i < length; i++)
+        int start = 0;
+        while (start < length)
         {
-            c = string.charAt(i);
-            if ((c & 0xFF80) == 0)          /* U+0000..U+007F */
-            {
-                _buffer.put((byte) c);
-            }
-            else if ((c & 0xF800) == 0)     /* U+0080..U+07FF */
-            {
-                _buffer.put((byte)(0xC0 | ((c >> 6) & 0x1F)));
-                _buffer.put((byte)(0x80 | (c & 0x3F)));
-            }
-            else if ((c & 0xD800) != 0xD800 || (c & 0xDC00) == 0xDC00)     /* U+0800..U+FFFF - excluding surrogate pairs */
+            int end = Math.min(length, start + STRING_CHUNK);
+            if (end < length && Character.isHighSurrogate(string.charAt(end - 1)))
             {
-                _buffer.put((byte)(0xE0 | ((c >> 12) & 0x0F)));
-                _buffer.put((byte)(0x80 | ((c >> 6) & 0x3F)));
-                _buffer.put((byte)(0x80 | (c & 0x3F)));
-            }
-            else
-            {
-                int low;
-
-                if((++i == length) || ((low = string.charAt(i)) & 0xDC00) != 0xDC00)
-                {
-                    throw new IllegalArgumentException("String contains invalid Unicode code points");
-                }
-
-                c = 0x010000 + ((c & 0x03FF) << 10) + (low & 0x03FF);
-
-                _buffer.put((byte)(0xF0 | ((c >> 18) & 0x07)));
-                _buffer.put((byte)(0x80 | ((c >> 12) & 0x3F)));
-                _buffer.put((byte)(0x80 | ((c >> 6) & 0x3F)));
-                _buffer.put((byte)(0x80 | (c & 0x3F)));
+                end++;
             }
+            int size = UTF8.encode(string, start, end, _stringBytes);
+            _buffer.put(_stringBytes, 0, size);
+            start = end;
         }
     }
 }
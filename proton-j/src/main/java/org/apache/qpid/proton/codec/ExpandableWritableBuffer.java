@@ -0,0 +1,192 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link WritableBuffer} that is never full: when a write does not fit, the contents are copied
+ * once into a buffer at least twice the size and writing carries on. Encoding into one never
+ * fails with a {@link java.nio.BufferOverflowException}, so a value is encoded exactly once
+ * however large it turns out to be.
+ *
+ * Subclasses can override {@link #expand(ByteBuffer, int)} to take the larger buffer from
+ * somewhere other than the heap.
+ */
+public class ExpandableWritableBuffer implements WritableBuffer
+{
+    private ByteBuffer _buf;
+
+    public ExpandableWritableBuffer(int initialCapacity)
+    {
+        this(ByteBuffer.allocate(initialCapacity));
+    }
+
+    /**
+     * @param buf the buffer to write into from its position, until it has to be replaced
+     */
+    public ExpandableWritableBuffer(ByteBuffer buf)
+    {
+        _buf = buf;
+        _buf.limit(_buf.capacity());
+    }
+
+    /**
+     * Returns a buffer of at least the given capacity holding the contents of old up to its
+     * capacity, with the same position. old is not used again.
+     */
+    protected ByteBuffer expand(ByteBuffer old, int capacity)
+    {
+        ByteBuffer buf = old.isDirect() ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        copy(old, buf);
+        return buf;
+    }
+
+    /**
+     * Copies all of src, up to its capacity, into the start of dst and gives dst the position of
+     * src, for implementations of {@link #expand(ByteBuffer, int)}.
+     */
+    protected static void copy(ByteBuffer src, ByteBuffer dst)
+    {
+        int position = src.position();
+        src.clear();
+        dst.clear();
+        dst.put(src);
+        dst.position(position);
+    }
+
+    /**
+     * Makes sure that the next size bytes can be written without replacing the buffer.
+     */
+    public void ensureRemaining(int size)
+    {
+        if (_buf.remaining() < size)
+        {
+            int required = _buf.position() + size;
+            if (required < 0)
+            {
+                throw new IllegalArgumentException("Cannot write " + size + " more bytes after " + _buf.position());
+            }
+            long doubled = 2L * _buf.capacity();
+            _buf = expand(_buf, (int) Math.min(Integer.MAX_VALUE, Math.max(required, doubled)));
+        }
+    }
+
+    /**
+     * @return the buffer currently written to, whose position is this buffer's. It is replaced
+     * when it fills up.
+     */
+    public ByteBuffer getByteBuffer()
+    {
+        return _buf;
+    }
+
+    /**
+     * Discards everything written, keeping the current buffer.
+     */
+    public void clear()
+    {
+        _buf.clear();
+    }
+
+    public void put(byte b)
+    {
+        ensureRemaining(1);
+        _buf.put(b);
+    }
+
+    public void putFloat(float f)
+    {
+        ensureRemaining(4);
+        _buf.putFloat(f);
+    }
+
+    public void putDouble(double d)
+    {
+        ensureRemaining(8);
+        _buf.putDouble(d);
+    }
+
+    public void put(byte[] src, int offset, int length)
+    {
+        ensureRemaining(length);
+        _buf.put(src, offset, length);
+    }
+
+    public void putShort(short s)
+    {
+        ensureRemaining(2);
+        _buf.putShort(s);
+    }
+
+    public void putInt(int i)
+    {
+        ensureRemaining(4);
+        _buf.putInt(i);
+    }
+
+    public void putLong(long l)
+    {
+        ensureRemaining(8);
+        _buf.putLong(l);
+    }
+
+    public boolean hasRemaining()
+    {
+        return true;
+    }
+
+    public int remaining()
+    {
+        return Integer.MAX_VALUE - _buf.position();
+    }
+
+    public int position()
+    {
+        return _buf.position();
+    }
+
+    public void position(int position)
+    {
+        if (position > _buf.capacity())
+        {
+            ensureRemaining(position - _buf.position());
+        }
+        _buf.position(position);
+    }
+
+    public void put(ByteBuffer src)
+    {
+        ensureRemaining(src.remaining());
+        _buf.put(src);
+    }
+
+    public int limit()
+    {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("[pos: %d, capacity: %d]", _buf.position(), _buf.capacity());
+    }
+}
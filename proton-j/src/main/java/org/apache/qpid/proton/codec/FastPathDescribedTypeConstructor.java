@@ -0,0 +1,36 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.codec;
+
+/**
+ * A {@link DescribedTypeConstructor} for a described list that can read the fields of the
+ * list straight from the decoder, without them first being collected into a {@link java.util.List}.
+ */
+public interface FastPathDescribedTypeConstructor<V> extends DescribedTypeConstructor<V>
+{
+    /**
+     * Reads the fields of a described list whose header has already been consumed.
+     *
+     * @param decoder the decoder positioned at the first field
+     * @param count the number of fields in the encoded list, all of which must be consumed
+     */
+    V readValue(DecoderImpl decoder, int count);
+}
@@ -0,0 +1,82 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.codec;
+
+/**
+ * Reads a described list by handing its fields to a {@link FastPathDescribedTypeConstructor}.
+ */
+class FastPathTypeConstructor implements TypeConstructor
+{
+    private final FastPathDescribedTypeConstructor _describedTypeConstructor;
+    private final byte _listEncodingCode;
+    private final DecoderImpl _decoder;
+
+    FastPathTypeConstructor(final FastPathDescribedTypeConstructor dtc,
+                            final byte listEncodingCode,
+                            final DecoderImpl decoder)
+    {
+        _describedTypeConstructor = dtc;
+        _listEncodingCode = listEncodingCode;
+        _decoder = decoder;
+    }
+
+    public Object readValue()
+    {
+        int count;
+        switch(_listEncodingCode)
+        {
+            case EncodingCodes.LIST0:
+                count = 0;
+                break;
+            case EncodingCodes.LIST8:
+                _decoder.readRawByte();
+                count = ((int)_decoder.readRawByte()) & 0xff;
+                break;
+            default:
+                _decoder.readRawInt();
+                count = _decoder.readRawInt();
+                break;
+        }
+
+        try
+        {
+            return _describedTypeConstructor.readValue(_decoder, count);
+        }
+        catch (NullPointerException npe)
+        {
+            throw new DecodeException("Unexpected null value - mandatory field not set? ("+npe.getMessage()+")", npe);
+        }
+        catch (ClassCastException cce)
+        {
+            throw new DecodeException("Incorrect type used", cce);
+        }
+    }
+
+    public boolean encodesJavaPrimitive()
+    {
+        return false;
+    }
+
+    public Class getTypeClass()
+    {
+        return _describedTypeConstructor.getTypeClass();
+    }
+}
@@ -69,7 +69,13 @@ public class ListType extends AbstractPrimitiveType<List>
 
     private static int calculateSize(final List val, EncoderImpl encoder)
     {
-        int len = 0;
+        int len = encoder.getCachedSize(val);
+        if(len >= 0)
+        {
+            return len;
+        }
+
+        len = 0;
         final int count = val.size();
 
         for(int i = 0; i < count; i++)
@@ -83,6 +89,10 @@ public class ListType extends AbstractPrimitiveType<List>
             TypeEncoding elementEncoding = type.getEncoding(element);
             len += elementEncoding.getConstructorSize()+elementEncoding.getValueSize(element);
         }
+        if(count > 0)
+        {
+            encoder.cacheSize(val, len);
+        }
         return len;
     }
 
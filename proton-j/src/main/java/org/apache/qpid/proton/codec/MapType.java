@@ -61,7 +61,13 @@ public class MapType extends AbstractPrimitiveType<Map>
 
     private static int calculateSize(final Map val, EncoderImpl encoder)
     {
-        int len = 0;
+        int len = encoder.getCachedSize(val);
+        if(len >= 0)
+        {
+            return len;
+        }
+
+        len = 0;
         Iterator<Map.Entry> iter = val.entrySet().iterator();
 
         while(iter.hasNext())
@@ -73,6 +79,10 @@ public class MapType extends AbstractPrimitiveType<Map>
             len += elementEncoding.getConstructorSize()+elementEncoding.getValueSize(element.getValue());
 
         }
+        if(!val.isEmpty())
+        {
+            encoder.cacheSize(val, len);
+        }
         return len;
     }
 
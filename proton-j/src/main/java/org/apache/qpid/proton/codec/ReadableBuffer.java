@@ -0,0 +1,149 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.proton.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The read side counterpart of {@link WritableBuffer}: a sequence of bytes that a
+ * {@link DecoderImpl} reads from, which need not be held in one contiguous {@link ByteBuffer}.
+ */
+public interface ReadableBuffer
+{
+    byte get();
+
+    short getShort();
+
+    int getInt();
+
+    long getLong();
+
+    float getFloat();
+
+    double getDouble();
+
+    void get(byte[] dst, int offset, int length);
+
+    boolean hasRemaining();
+
+    int remaining();
+
+    int position();
+
+    void position(int position);
+
+    /**
+     * Returns the buffer the next bytes are read from, positioned at them. Its remaining bytes
+     * are contiguous but may be fewer than {@link #remaining()}, and moving its position over
+     * them moves the position of this buffer.
+     */
+    ByteBuffer currentSegment();
+
+    /**
+     * Reads a single heap or direct {@link ByteBuffer} in place. A reader may be re-pointed at
+     * another buffer, so that decoding many buffers in turn needs only one.
+     */
+    class ByteBufferReader implements ReadableBuffer
+    {
+        private ByteBuffer _buf;
+
+        public ByteBufferReader(ByteBuffer buf)
+        {
+            _buf = buf;
+        }
+
+        /**
+         * @return this reader, now reading buf
+         */
+        public ByteBufferReader setBuffer(ByteBuffer buf)
+        {
+            _buf = buf;
+            return this;
+        }
+
+        public byte get()
+        {
+            return _buf.get();
+        }
+
+        public short getShort()
+        {
+            return _buf.getShort();
+        }
+
+        public int getInt()
+        {
+            return _buf.getInt();
+        }
+
+        public long getLong()
+        {
+            return _buf.getLong();
+        }
+
+        public float getFloat()
+        {
+            return _buf.getFloat();
+        }
+
+        public double getDouble()
+        {
+            return _buf.getDouble();
+        }
+
+        public void get(byte[] dst, int offset, int length)
+        {
+            _buf.get(dst, offset, length);
+        }
+
+        public boolean hasRemaining()
+        {
+            return _buf.hasRemaining();
+        }
+
+        public int remaining()
+        {
+            return _buf.remaining();
+        }
+
+        public int position()
+        {
+            return _buf.position();
+        }
+
+        public void position(int position)
+        {
+            _buf.position(position);
+        }
+
+        public ByteBuffer currentSegment()
+        {
+            return _buf;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("[pos: %d, limit: %d, remaining:%d]", _buf.position(), _buf.limit(), _buf.remaining());
+        }
+    }
+}
@@ -20,38 +20,11 @@
  */
 package org.apache.qpid.proton.codec;
 
-import java.nio.ByteBuffer;
-import java.nio.CharBuffer;
-import java.nio.charset.CharacterCodingException;
-import java.nio.charset.Charset;
-import java.nio.charset.CharsetDecoder;
 import java.util.Arrays;
 import java.util.Collection;
 
 public class StringType extends AbstractPrimitiveType<String>
 {
-    private static final Charset Charset_UTF8 = Charset.forName("UTF-8");
-    private static final DecoderImpl.TypeDecoder<String> _stringCreator =
-            new DecoderImpl.TypeDecoder<String>()
-            {
-
-                public String decode(final ByteBuffer buf)
-                {
-                    CharsetDecoder charsetDecoder = Charset_UTF8.newDecoder();
-                    try
-                    {
-                        CharBuffer charBuf = charsetDecoder.decode(buf);
-                        return charBuf.toString();
-                    }
-                    catch (CharacterCodingException e)
-                    {
-                        throw new IllegalArgumentException("Cannot parse String");
-                    }
-
-                }
-            };
-
-
     public static interface StringEncoding extends PrimitiveTypeEncoding<String>
     {
         void setValue(String val, int length);
@@ -85,26 +58,7 @@ public class StringType extends AbstractPrimitiveType<String>
 
     static int calculateUTF8Length(final String s)
     {
-        int len = s.length();
-        final int length = len;
-        for (int i = 0; i < length; i++)
-        {
-            int c = s.charAt(i);
-            if ((c & 0xFF80) != 0)         /* U+0080..    */
-            {
-                len++;
-                if(((c & 0xF800) != 0))    /* U+0800..    */
-                {
-                    len++;
-                    // surrogate pairs should always combine to create a code point with a 4 octet representation
-                    if ((c & 0xD800) == 0xD800 && c < 0xDC00)
-                    {
-                        i++;
-                    }
-                }
-            }
-        }
-        return len;
+        return UTF8.encodedLength(s);
     }
 
 
@@ -166,7 +120,7 @@ public class StringType extends AbstractPrimitiveType<String>
 
             DecoderImpl decoder = getDecoder();
             int size = decoder.readRawInt();
-            return decoder.readRaw(_stringCreator, size);
+            return decoder.readRawString(size);
         }
 
         public void setValue(final String val, final int length)
@@ -225,7 +179,7 @@ public class StringType extends AbstractPrimitiveType<String>
 
             DecoderImpl decoder = getDecoder();
             int size = ((int)decoder.readRawByte()) & 0xff;
-            return decoder.readRaw(_stringCreator, size);
+            return decoder.readRawString(size);
         }
 
         public void setValue(final String val, final int length)
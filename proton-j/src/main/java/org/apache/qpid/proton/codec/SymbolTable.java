@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.qpid.proton.amqp.Symbol;
+
+/**
+ * Maps the encoded bytes of symbols to {@link Symbol}s, so that decoding a symbol that has been
+ * seen before hashes and compares the bytes where they lie and allocates nothing.
+ *
+ * The table is open addressed with a fixed number of slots, and a symbol is only looked for in
+ * the few slots after the one its hash selects. When those are all taken a new symbol replaces
+ * one of them, chosen by its hash, so a peer sending endless distinct symbols churns the table
+ * rather than growing it. Symbols longer than a fixed size are never kept.
+ *
+ * Entries are immutable and published through an {@link AtomicReferenceArray}, so one table is
+ * safely shared by the decoders on all threads; see {@link #getDefault()}.
+ */
+final class SymbolTable
+{
+    static final int DEFAULT_SIZE = Integer.getInteger("proton.symbol_table_size", 4096);
+    static final int DEFAULT_MAX_LENGTH = Integer.getInteger("proton.symbol_table_max_length", 128);
+
+    private static final int PROBES = 4;
+    private static final Charset ASCII_CHARSET = Charset.forName("US-ASCII");
+
+    private static final SymbolTable DEFAULT = new SymbolTable(DEFAULT_SIZE, DEFAULT_MAX_LENGTH);
+
+    private static final class Entry
+    {
+        private final byte[] _bytes;
+        private final int _hash;
+        private final Symbol _symbol;
+
+        Entry(byte[] bytes, int hash, Symbol symbol)
+        {
+            _bytes = bytes;
+            _hash = hash;
+            _symbol = symbol;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> _entries;
+    private final int _mask;
+    private final int _maxLength;
+
+    static SymbolTable getDefault()
+    {
+        return DEFAULT;
+    }
+
+    /**
+     * @param size the number of slots, rounded up to a power of two
+     * @param maxLength the length of the longest symbol kept
+     */
+    SymbolTable(int size, int maxLength)
+    {
+        int slots = Integer.highestOneBit(Math.max(PROBES, size) - 1) << 1;
+        _entries = new AtomicReferenceArray<Entry>(slots);
+        _mask = slots - 1;
+        _maxLength = maxLength;
+    }
+
+    /**
+     * Returns the symbol encoded in the length bytes of buf from position, leaving the buffer's
+     * position and limit alone.
+     */
+    Symbol get(ByteBuffer buf, int position, int length)
+    {
+        if (length > _maxLength)
+        {
+            return Symbol.getSymbol(new String(copy(buf, position, length), ASCII_CHARSET));
+        }
+
+        int hash = hash(buf, position, length);
+        int index = hash & _mask;
+        for (int i = 0; i < PROBES; i++)
+        {
+            int slot = (index + i) & _mask;
+            Entry entry = _entries.get(slot);
+            if (entry == null)
+            {
+                return add(slot, hash, buf, position, length);
+            }
+            if (entry._hash == hash && matches(entry._bytes, buf, position, length))
+            {
+                return entry._symbol;
+            }
+        }
+
+        // every slot the symbol may sit in is taken, so evict one, using hash bits the index
+        // did not, so that symbols sharing an index do not always displace the same entry
+        return add((index + ((hash >>> 24) % PROBES)) & _mask, hash, buf, position, length);
+    }
+
+    private Symbol add(int slot, int hash, ByteBuffer buf, int position, int length)
+    {
+        byte[] bytes = copy(buf, position, length);
+        Symbol symbol = Symbol.getSymbol(new String(bytes, ASCII_CHARSET));
+        _entries.set(slot, new Entry(bytes, hash, symbol));
+        return symbol;
+    }
+
+    private static byte[] copy(ByteBuffer buf, int position, int length)
+    {
+        byte[] bytes = new byte[length];
+        if (buf.hasArray())
+        {
+            System.arraycopy(buf.array(), buf.arrayOffset() + position, bytes, 0, bytes.length);
+        }
+        else
+        {
+            for (int i = 0; i < bytes.length; i++)
+            {
+                bytes[i] = buf.get(position + i);
+            }
+        }
+        return bytes;
+    }
+
+    private static int hash(ByteBuffer buf, int position, int length)
+    {
+        int h = 0;
+        if (buf.hasArray())
+        {
+            byte[] array = buf.array();
+            int offset = buf.arrayOffset() + position;
+            for (int i = 0; i < length; i++)
+            {
+                h = 31 * h + array[offset + i];
+            }
+        }
+        else
+        {
+            for (int i = 0; i < length; i++)
+            {
+                h = 31 * h + buf.get(position + i);
+            }
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(byte[] bytes, ByteBuffer buf, int position, int length)
+    {
+        if (bytes.length != length)
+        {
+            return false;
+        }
+        if (buf.hasArray())
+        {
+            byte[] array = buf.array();
+            int offset = buf.arrayOffset() + position;
+            for (int i = 0; i < length; i++)
+            {
+                if (bytes[i] != array[offset + i])
+                {
+                    return false;
+                }
+            }
+        }
+        else
+        {
+            for (int i = 0; i < length; i++)
+            {
+                if (bytes[i] != buf.get(position + i))
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of symbols held, for tests
+     */
+    int size()
+    {
+        int size = 0;
+        for (int i = 0; i < _entries.length(); i++)
+        {
+            if (_entries.get(i) != null)
+            {
+                size++;
+            }
+        }
+        return size;
+    }
+}
@@ -22,42 +22,14 @@ package org.apache.qpid.proton.codec;
 
 import org.apache.qpid.proton.amqp.Symbol;
 
-import java.nio.ByteBuffer;
-import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 
 public class SymbolType extends AbstractPrimitiveType<Symbol>
 {
-    private static final Charset ASCII_CHARSET = Charset.forName("US-ASCII");
     private final SymbolEncoding _symbolEncoding;
     private final SymbolEncoding _shortSymbolEncoding;
 
-    private final Map<ByteBuffer, Symbol> _symbolCache = new HashMap<ByteBuffer, Symbol>();
-    private DecoderImpl.TypeDecoder<Symbol> _symbolCreator =
-            new DecoderImpl.TypeDecoder<Symbol>()
-            {
-
-                public Symbol decode(final ByteBuffer buf)
-                {
-
-                    Symbol symbol = _symbolCache.get(buf);
-                    if(symbol == null)
-                    {
-                        byte[] bytes = new byte[buf.limit()];
-                        buf.get(bytes);
-
-                        String str = new String(bytes, ASCII_CHARSET);
-                        symbol = Symbol.getSymbol(str);
-
-                        _symbolCache.put(ByteBuffer.wrap(bytes), symbol);
-                    }
-                    return symbol;
-                }
-            };
-
     public static interface SymbolEncoding extends PrimitiveTypeEncoding<Symbol>
     {
 
@@ -141,7 +113,7 @@ public class SymbolType extends AbstractPrimitiveType<Symbol>
         {
             DecoderImpl decoder = getDecoder();
             int size = decoder.readRawInt();
-            return decoder.readRaw(_symbolCreator, size);
+            return decoder.readRawSymbol(SymbolTable.getDefault(), size);
         }
     }
     
@@ -195,7 +167,7 @@ public class SymbolType extends AbstractPrimitiveType<Symbol>
         {
             DecoderImpl decoder = getDecoder();
             int size = ((int)decoder.readRawByte()) & 0xff;
-            return decoder.readRaw(_symbolCreator, size);
+            return decoder.readRawSymbol(SymbolTable.getDefault(), size);
         }
     }
 }
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.codec;
+
+/**
+ * Converts between Strings and UTF-8 on byte arrays, without the CharsetEncoder and
+ * CharsetDecoder objects the JDK creates for each conversion. Most strings in AMQP, such as
+ * addresses and property keys, are ASCII, so each direction first tries a loop that copies
+ * ASCII bytes as they are.
+ *
+ * Malformed input is rejected as the JDK's UTF-8 charset rejects it: overlong forms, encoded
+ * surrogates, code points beyond U+10FFFF and unpaired surrogates in Strings are errors.
+ */
+final class UTF8
+{
+    private UTF8()
+    {
+    }
+
+    /**
+     * @return the number of bytes needed to encode s
+     */
+    static int encodedLength(final String s)
+    {
+        final int length = s.length();
+        int i = 0;
+        while (i < length && s.charAt(i) < 0x80)
+        {
+            i++;
+        }
+
+        int len = length;
+        for (; i < length; i++)
+        {
+            int c = s.charAt(i);
+            if ((c & 0xFF80) != 0)         /* U+0080..    */
+            {
+                len++;
+                if(((c & 0xF800) != 0))    /* U+0800..    */
+                {
+                    len++;
+                    // surrogate pairs should always combine to create a code point with a 4 octet representation
+                    if ((c & 0xD800) == 0xD800 && c < 0xDC00)
+                    {
+                        i++;
+                    }
+                }
+            }
+        }
+        return len;
+    }
+
+    /**
+     * Encodes the chars of s from start up to end into dst, which must have room for three bytes
+     * per char. A high surrogate at end - 1 must not be separated from its low surrogate.
+     *
+     * @return the number of bytes written
+     */
+    static int encode(final String s, final int start, final int end, final byte[] dst)
+    {
+        int i = start;
+        int pos = 0;
+        while (i < end)
+        {
+            char c = s.charAt(i);
+            if (c >= 0x80)
+            {
+                break;
+            }
+            dst[pos++] = (byte) c;
+            i++;
+        }
+
+        for (; i < end; i++)
+        {
+            int c = s.charAt(i);
+            if ((c & 0xFF80) == 0)          /* U+0000..U+007F */
+            {
+                dst[pos++] = (byte) c;
+            }
+            else if ((c & 0xF800) == 0)     /* U+0080..U+07FF */
+            {
+                dst[pos++] = (byte)(0xC0 | ((c >> 6) & 0x1F));
+                dst[pos++] = (byte)(0x80 | (c & 0x3F));
+            }
+            else if ((c & 0xD800) != 0xD800 || (c & 0xDC00) == 0xDC00)     /* U+0800..U+FFFF - excluding surrogate pairs */
+            {
+                dst[pos++] = (byte)(0xE0 | ((c >> 12) & 0x0F));
+                dst[pos++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+                dst[pos++] = (byte)(0x80 | (c & 0x3F));
+            }
+            else
+            {
+                int low;
+
+                if((++i == end) || ((low = s.charAt(i)) & 0xDC00) != 0xDC00)
+                {
+                    throw new IllegalArgumentException("String contains invalid Unicode code points");
+                }
+
+                c = 0x010000 + ((c & 0x03FF) << 10) + (low & 0x03FF);
+
+                dst[pos++] = (byte)(0xF0 | ((c >> 18) & 0x07));
+                dst[pos++] = (byte)(0x80 | ((c >> 12) & 0x3F));
+                dst[pos++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+                dst[pos++] = (byte)(0x80 | (c & 0x3F));
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Decodes length bytes of src from offset.
+     *
+     * @param chars room for at least length chars, used if the bytes are not all ASCII
+     */
+    @SuppressWarnings("deprecation")
+    static String decode(final byte[] src, final int offset, final int length, final char[] chars)
+    {
+        final int end = offset + length;
+        int i = offset;
+        while (i < end && src[i] >= 0)
+        {
+            i++;
+        }
+        if (i == end)
+        {
+            // the deprecated constructor copies the bytes straight into the String's chars, or
+            // keeps them as they are on runtimes with compact strings
+            return new String(src, 0, offset, length);
+        }
+
+        int pos = 0;
+        for (int j = offset; j < i; j++)
+        {
+            chars[pos++] = (char) src[j];
+        }
+
+        while (i < end)
+        {
+            int b = src[i++];
+            if (b >= 0)
+            {
+                chars[pos++] = (char) b;
+            }
+            else if ((b & 0xE0) == 0xC0)
+            {
+                checkAvailable(i, end, 1);
+                int c = ((b & 0x1F) << 6) | continuation(src[i++]);
+                if (c < 0x80)
+                {
+                    throw malformed();
+                }
+                chars[pos++] = (char) c;
+            }
+            else if ((b & 0xF0) == 0xE0)
+            {
+                checkAvailable(i, end, 2);
+                int c = ((b & 0x0F) << 12) | (continuation(src[i++]) << 6) | continuation(src[i++]);
+                if (c < 0x800 || (c >= 0xD800 && c <= 0xDFFF))
+                {
+                    throw malformed();
+                }
+                chars[pos++] = (char) c;
+            }
+            else if ((b & 0xF8) == 0xF0)
+            {
+                checkAvailable(i, end, 3);
+                int c = ((b & 0x07) << 18) | (continuation(src[i++]) << 12) |
+                        (continuation(src[i++]) << 6) | continuation(src[i++]);
+                if (c < 0x10000 || c > 0x10FFFF)
+                {
+                    throw malformed();
+                }
+                c -= 0x10000;
+                chars[pos++] = (char) (0xD800 | (c >> 10));
+                chars[pos++] = (char) (0xDC00 | (c & 0x3FF));
+            }
+            else
+            {
+                throw malformed();
+            }
+        }
+        return new String(chars, 0, pos);
+    }
+
+    private static void checkAvailable(int i, int end, int count)
+    {
+        if (end - i < count)
+        {
+            throw malformed();
+        }
+    }
+
+    private static int continuation(byte b)
+    {
+        if ((b & 0xC0) != 0x80)
+        {
+            throw malformed();
+        }
+        return b & 0x3F;
+    }
+
+    private static IllegalArgumentException malformed()
+    {
+        return new IllegalArgumentException("Cannot parse String");
+    }
+}
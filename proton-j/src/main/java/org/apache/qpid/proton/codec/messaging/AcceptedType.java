@@ -25,12 +25,12 @@ import java.util.List;
 import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.Accepted;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
 import org.apache.qpid.proton.codec.DescribedTypeConstructor;
 import org.apache.qpid.proton.codec.EncoderImpl;
 
-public final class AcceptedType extends AbstractDescribedType<Accepted,List> implements DescribedTypeConstructor<Accepted>
+public final class AcceptedType extends AbstractFastPathDescribedType<Accepted> implements DescribedTypeConstructor<Accepted>
 {
 
     private static final Object[] DESCRIPTORS =
@@ -58,6 +58,17 @@ public final class AcceptedType extends AbstractDescribedType<Accepted,List> imp
         return Collections.EMPTY_LIST;
     }
 
+    @Override
+    protected int getFieldCount(Accepted val)
+    {
+        return 0;
+    }
+
+    @Override
+    protected void writeFields(Accepted val, int count)
+    {
+    }
+
     @Override
     public Class<Accepted> getTypeClass()
     {
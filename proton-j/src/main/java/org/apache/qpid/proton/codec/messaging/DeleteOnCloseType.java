@@ -28,13 +28,13 @@ import java.util.List;
 import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.DeleteOnClose;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
 import org.apache.qpid.proton.codec.DescribedTypeConstructor;
 import org.apache.qpid.proton.codec.EncoderImpl;
 
 
-public class DeleteOnCloseType extends AbstractDescribedType<DeleteOnClose,List> implements DescribedTypeConstructor<DeleteOnClose>
+public class DeleteOnCloseType extends AbstractFastPathDescribedType<DeleteOnClose> implements DescribedTypeConstructor<DeleteOnClose>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -60,6 +60,17 @@ public class DeleteOnCloseType extends AbstractDescribedType<DeleteOnClose,List>
         return Collections.EMPTY_LIST;
     }
 
+    @Override
+    protected int getFieldCount(DeleteOnClose val)
+    {
+        return 0;
+    }
+
+    @Override
+    protected void writeFields(DeleteOnClose val, int count)
+    {
+    }
+
     public DeleteOnClose newInstance(Object described)
     {
         return DeleteOnClose.getInstance();
@@ -28,13 +28,13 @@ import java.util.List;
 import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.DeleteOnNoLinksOrMessages;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
 import org.apache.qpid.proton.codec.DescribedTypeConstructor;
 import org.apache.qpid.proton.codec.EncoderImpl;
 
 
-public class DeleteOnNoLinksOrMessagesType extends AbstractDescribedType<DeleteOnNoLinksOrMessages,List> implements DescribedTypeConstructor<DeleteOnNoLinksOrMessages>
+public class DeleteOnNoLinksOrMessagesType extends AbstractFastPathDescribedType<DeleteOnNoLinksOrMessages> implements DescribedTypeConstructor<DeleteOnNoLinksOrMessages>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -59,6 +59,17 @@ public class DeleteOnNoLinksOrMessagesType extends AbstractDescribedType<DeleteO
         return Collections.EMPTY_LIST;
     }
 
+    @Override
+    protected int getFieldCount(DeleteOnNoLinksOrMessages val)
+    {
+        return 0;
+    }
+
+    @Override
+    protected void writeFields(DeleteOnNoLinksOrMessages val, int count)
+    {
+    }
+
     public DeleteOnNoLinksOrMessages newInstance(Object described)
     {
         return DeleteOnNoLinksOrMessages.getInstance();
@@ -28,12 +28,12 @@ import java.util.List;
 import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.DeleteOnNoLinks;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
 import org.apache.qpid.proton.codec.DescribedTypeConstructor;
 import org.apache.qpid.proton.codec.EncoderImpl;
 
-public class DeleteOnNoLinksType extends AbstractDescribedType<DeleteOnNoLinks,List> implements DescribedTypeConstructor<DeleteOnNoLinks>
+public class DeleteOnNoLinksType extends AbstractFastPathDescribedType<DeleteOnNoLinks> implements DescribedTypeConstructor<DeleteOnNoLinks>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -58,6 +58,17 @@ public class DeleteOnNoLinksType extends AbstractDescribedType<DeleteOnNoLinks,L
         return Collections.EMPTY_LIST;
     }
 
+    @Override
+    protected int getFieldCount(DeleteOnNoLinks val)
+    {
+        return 0;
+    }
+
+    @Override
+    protected void writeFields(DeleteOnNoLinks val, int count)
+    {
+    }
+
     @Override
     public DeleteOnNoLinks newInstance(Object described)
     {
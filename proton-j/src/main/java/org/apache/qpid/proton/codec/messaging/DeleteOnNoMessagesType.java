@@ -28,13 +28,13 @@ import java.util.List;
 import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.DeleteOnNoMessages;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
 import org.apache.qpid.proton.codec.DescribedTypeConstructor;
 import org.apache.qpid.proton.codec.EncoderImpl;
 
 
-public class DeleteOnNoMessagesType extends AbstractDescribedType<DeleteOnNoMessages,List> implements DescribedTypeConstructor<DeleteOnNoMessages>
+public class DeleteOnNoMessagesType extends AbstractFastPathDescribedType<DeleteOnNoMessages> implements DescribedTypeConstructor<DeleteOnNoMessages>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -59,6 +59,17 @@ public class DeleteOnNoMessagesType extends AbstractDescribedType<DeleteOnNoMess
         return Collections.EMPTY_LIST;
     }
 
+    @Override
+    protected int getFieldCount(DeleteOnNoMessages val)
+    {
+        return 0;
+    }
+
+    @Override
+    protected void writeFields(DeleteOnNoMessages val, int count)
+    {
+    }
+
     @Override
     public DeleteOnNoMessages newInstance(Object described)
     {
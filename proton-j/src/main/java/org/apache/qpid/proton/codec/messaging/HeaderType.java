@@ -30,13 +30,13 @@ import org.apache.qpid.proton.amqp.UnsignedByte;
 import org.apache.qpid.proton.amqp.UnsignedInteger;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.Header;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
 import org.apache.qpid.proton.codec.DescribedTypeConstructor;
 import org.apache.qpid.proton.codec.EncoderImpl;
 
 
-public class HeaderType extends AbstractDescribedType<Header,List> implements DescribedTypeConstructor<Header>
+public class HeaderType extends AbstractFastPathDescribedType<Header> implements DescribedTypeConstructor<Header>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -62,6 +62,54 @@ public class HeaderType extends AbstractDescribedType<Header,List> implements De
         return new HeaderWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(Header val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(Header val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeBoolean(val.getDurable());
+                    break;
+                case 1:
+                    encoder.writeUnsignedByte(val.getPriority());
+                    break;
+                case 2:
+                    encoder.writeUnsignedInteger(val.getTtl());
+                    break;
+                case 3:
+                    encoder.writeBoolean(val.getFirstAcquirer());
+                    break;
+                case 4:
+                    encoder.writeUnsignedInteger(val.getDeliveryCount());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(Header val)
+    {
+        return val.getDeliveryCount() != null
+              ? 5
+              : val.getFirstAcquirer() != null
+              ? 4
+              : val.getTtl() != null
+              ? 3
+              : val.getPriority() != null
+              ? 2
+              : val.getDurable() != null
+              ? 1
+              : 0;
+    }
+
 
     public final class HeaderWrapper extends AbstractList
     {
@@ -97,18 +145,7 @@ public class HeaderType extends AbstractDescribedType<Header,List> implements De
 
             public int size()
             {
-                return _impl.getDeliveryCount() != null
-                          ? 5
-                          : _impl.getFirstAcquirer() != null
-                          ? 4
-                          : _impl.getTtl() != null
-                          ? 3
-                          : _impl.getPriority() != null
-                          ? 2
-                          : _impl.getDurable() != null
-                          ? 1
-                          : 0;
-
+                return fieldCount(_impl);
             }
 
 
@@ -29,13 +29,13 @@ import java.util.Map;
 import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.Modified;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
 import org.apache.qpid.proton.codec.DescribedTypeConstructor;
 import org.apache.qpid.proton.codec.EncoderImpl;
 
 
-public class ModifiedType  extends AbstractDescribedType<Modified,List> implements DescribedTypeConstructor<Modified>
+public class ModifiedType  extends AbstractFastPathDescribedType<Modified> implements DescribedTypeConstructor<Modified>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -60,6 +60,44 @@ public class ModifiedType  extends AbstractDescribedType<Modified,List> implemen
         return new ModifiedWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(Modified val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(Modified val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeBoolean(val.getDeliveryFailed());
+                    break;
+                case 1:
+                    encoder.writeBoolean(val.getUndeliverableHere());
+                    break;
+                case 2:
+                    encoder.writeMap(val.getMessageAnnotations());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(Modified val)
+    {
+        return val.getMessageAnnotations() != null
+              ? 3
+              : val.getUndeliverableHere() != null
+              ? 2
+              : val.getDeliveryFailed() != null
+              ? 1
+              : 0;
+    }
+
 
     public final class ModifiedWrapper extends AbstractList
     {
@@ -89,14 +127,7 @@ public class ModifiedType  extends AbstractDescribedType<Modified,List> implemen
 
         public int size()
         {
-            return _impl.getMessageAnnotations() != null
-                      ? 3
-                      : _impl.getUndeliverableHere() != null
-                      ? 2
-                      : _impl.getDeliveryFailed() != null
-                      ? 1
-                      : 0;
-
+            return fieldCount(_impl);
         }
 
     }
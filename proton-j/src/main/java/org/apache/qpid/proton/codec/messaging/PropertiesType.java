@@ -31,13 +31,13 @@ import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedInteger;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.Properties;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
 import org.apache.qpid.proton.codec.DescribedTypeConstructor;
 import org.apache.qpid.proton.codec.EncoderImpl;
 
 
-public class PropertiesType  extends AbstractDescribedType<Properties,List> implements DescribedTypeConstructor<Properties>
+public class PropertiesType  extends AbstractFastPathDescribedType<Properties> implements DescribedTypeConstructor<Properties>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -62,6 +62,94 @@ public class PropertiesType  extends AbstractDescribedType<Properties,List> impl
         return new PropertiesWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(Properties val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(Properties val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeObject(val.getMessageId());
+                    break;
+                case 1:
+                    encoder.writeBinary(val.getUserId());
+                    break;
+                case 2:
+                    encoder.writeString(val.getTo());
+                    break;
+                case 3:
+                    encoder.writeString(val.getSubject());
+                    break;
+                case 4:
+                    encoder.writeString(val.getReplyTo());
+                    break;
+                case 5:
+                    encoder.writeObject(val.getCorrelationId());
+                    break;
+                case 6:
+                    encoder.writeSymbol(val.getContentType());
+                    break;
+                case 7:
+                    encoder.writeSymbol(val.getContentEncoding());
+                    break;
+                case 8:
+                    encoder.writeTimestamp(val.getAbsoluteExpiryTime());
+                    break;
+                case 9:
+                    encoder.writeTimestamp(val.getCreationTime());
+                    break;
+                case 10:
+                    encoder.writeString(val.getGroupId());
+                    break;
+                case 11:
+                    encoder.writeUnsignedInteger(val.getGroupSequence());
+                    break;
+                case 12:
+                    encoder.writeString(val.getReplyToGroupId());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(Properties val)
+    {
+        return val.getReplyToGroupId() != null
+              ? 13
+              : val.getGroupSequence() != null
+              ? 12
+              : val.getGroupId() != null
+              ? 11
+              : val.getCreationTime() != null
+              ? 10
+              : val.getAbsoluteExpiryTime() != null
+              ? 9
+              : val.getContentEncoding() != null
+              ? 8
+              : val.getContentType() != null
+              ? 7
+              : val.getCorrelationId() != null
+              ? 6
+              : val.getReplyTo() != null
+              ? 5
+              : val.getSubject() != null
+              ? 4
+              : val.getTo() != null
+              ? 3
+              : val.getUserId() != null
+              ? 2
+              : val.getMessageId() != null
+              ? 1
+              : 0;
+    }
+
     private static final class PropertiesWrapper extends AbstractList
     {
 
@@ -111,34 +199,7 @@ public class PropertiesType  extends AbstractDescribedType<Properties,List> impl
 
         public int size()
         {
-            return _impl.getReplyToGroupId() != null
-                      ? 13
-                      : _impl.getGroupSequence() != null
-                      ? 12
-                      : _impl.getGroupId() != null
-                      ? 11
-                      : _impl.getCreationTime() != null
-                      ? 10
-                      : _impl.getAbsoluteExpiryTime() != null
-                      ? 9
-                      : _impl.getContentEncoding() != null
-                      ? 8
-                      : _impl.getContentType() != null
-                      ? 7
-                      : _impl.getCorrelationId() != null
-                      ? 6
-                      : _impl.getReplyTo() != null
-                      ? 5
-                      : _impl.getSubject() != null
-                      ? 4
-                      : _impl.getTo() != null
-                      ? 3
-                      : _impl.getUserId() != null
-                      ? 2
-                      : _impl.getMessageId() != null
-                      ? 1
-                      : 0;
-
+            return fieldCount(_impl);
         }
 
     }
@@ -29,13 +29,13 @@ import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedInteger;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.Received;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
 import org.apache.qpid.proton.codec.DescribedTypeConstructor;
 import org.apache.qpid.proton.codec.EncoderImpl;
 
 
-public final class ReceivedType extends AbstractDescribedType<Received,List> implements DescribedTypeConstructor<Received>
+public final class ReceivedType extends AbstractFastPathDescribedType<Received> implements DescribedTypeConstructor<Received>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -60,6 +60,39 @@ public final class ReceivedType extends AbstractDescribedType<Received,List> imp
         return new ReceivedWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(Received val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(Received val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeUnsignedInteger(val.getSectionNumber());
+                    break;
+                case 1:
+                    encoder.writeUnsignedLong(val.getSectionOffset());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(Received val)
+    {
+        return val.getSectionOffset() != null
+              ? 2
+              : val.getSectionOffset() != null
+              ? 1
+              : 0;
+    }
+
 
     private static final class ReceivedWrapper extends AbstractList
     {
@@ -87,12 +120,7 @@ public final class ReceivedType extends AbstractDescribedType<Received,List> imp
 
         public int size()
         {
-            return _impl.getSectionOffset() != null
-                      ? 2
-                      : _impl.getSectionOffset() != null
-                      ? 1
-                      : 0;
-
+            return fieldCount(_impl);
         }
     }
 
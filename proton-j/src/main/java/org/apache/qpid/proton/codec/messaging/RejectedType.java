@@ -28,14 +28,14 @@ import java.util.List;
 import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.Rejected;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
 import org.apache.qpid.proton.codec.DescribedTypeConstructor;
 import org.apache.qpid.proton.codec.EncoderImpl;
 import org.apache.qpid.proton.amqp.transport.ErrorCondition;
 
 
-public class RejectedType  extends AbstractDescribedType<Rejected,List> implements DescribedTypeConstructor<Rejected>
+public class RejectedType  extends AbstractFastPathDescribedType<Rejected> implements DescribedTypeConstructor<Rejected>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -60,6 +60,34 @@ public class RejectedType  extends AbstractDescribedType<Rejected,List> implemen
         return new RejectedWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(Rejected val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(Rejected val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeObject(val.getError());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(Rejected val)
+    {
+        return val.getError() != null
+              ? 1
+              : 0;
+    }
+
 
     private static final class RejectedWrapper extends AbstractList
     {
@@ -85,10 +113,7 @@ public class RejectedType  extends AbstractDescribedType<Rejected,List> implemen
 
         public int size()
         {
-            return _impl.getError() != null
-                      ? 1
-                      : 0;
-
+            return fieldCount(_impl);
         }
     }
 
@@ -28,13 +28,13 @@ import java.util.List;
 import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.Released;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
 import org.apache.qpid.proton.codec.DescribedTypeConstructor;
 import org.apache.qpid.proton.codec.EncoderImpl;
 
 
-public class ReleasedType extends AbstractDescribedType<Released,List> implements DescribedTypeConstructor<Released>
+public class ReleasedType extends AbstractFastPathDescribedType<Released> implements DescribedTypeConstructor<Released>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -59,6 +59,17 @@ public class ReleasedType extends AbstractDescribedType<Released,List> implement
         return Collections.EMPTY_LIST;
     }
 
+    @Override
+    protected int getFieldCount(Released val)
+    {
+        return 0;
+    }
+
+    @Override
+    protected void writeFields(Released val, int count)
+    {
+    }
+
 
     public Released newInstance(Object described)
     {
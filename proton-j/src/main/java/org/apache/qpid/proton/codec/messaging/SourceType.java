@@ -31,7 +31,7 @@ import org.apache.qpid.proton.amqp.UnsignedInteger;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.Outcome;
 import org.apache.qpid.proton.amqp.messaging.Source;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
 import org.apache.qpid.proton.codec.DescribedTypeConstructor;
 import org.apache.qpid.proton.codec.EncoderImpl;
@@ -39,7 +39,7 @@ import org.apache.qpid.proton.amqp.messaging.TerminusDurability;
 import org.apache.qpid.proton.amqp.messaging.TerminusExpiryPolicy;
 
 
-public class SourceType extends AbstractDescribedType<Source,List> implements DescribedTypeConstructor<Source>
+public class SourceType extends AbstractFastPathDescribedType<Source> implements DescribedTypeConstructor<Source>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -64,6 +64,84 @@ public class SourceType extends AbstractDescribedType<Source,List> implements De
         return new SourceWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(Source val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(Source val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeString(val.getAddress());
+                    break;
+                case 1:
+                    encoder.writeUnsignedInteger(val.getDurable().getValue());
+                    break;
+                case 2:
+                    encoder.writeSymbol(val.getExpiryPolicy().getPolicy());
+                    break;
+                case 3:
+                    encoder.writeUnsignedInteger(val.getTimeout());
+                    break;
+                case 4:
+                    encoder.writeBoolean(val.getDynamic());
+                    break;
+                case 5:
+                    encoder.writeMap(val.getDynamicNodeProperties());
+                    break;
+                case 6:
+                    encoder.writeSymbol(val.getDistributionMode());
+                    break;
+                case 7:
+                    encoder.writeMap(val.getFilter());
+                    break;
+                case 8:
+                    encoder.writeObject(val.getDefaultOutcome());
+                    break;
+                case 9:
+                    encoder.writeObject(val.getOutcomes());
+                    break;
+                case 10:
+                    encoder.writeObject(val.getCapabilities());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(Source val)
+    {
+        return val.getCapabilities() != null
+              ? 11
+              : val.getOutcomes() != null
+              ? 10
+              : val.getDefaultOutcome() != null
+              ? 9
+              : val.getFilter() != null
+              ? 8
+              : val.getDistributionMode() != null
+              ? 7
+              : val.getDynamicNodeProperties() != null
+              ? 6
+              : val.getDynamic()
+              ? 5
+              : (val.getTimeout() != null && !val.getTimeout().equals(UnsignedInteger.ZERO))
+              ? 4
+              : val.getExpiryPolicy() != TerminusExpiryPolicy.SESSION_END
+              ? 3
+              : val.getDurable() != TerminusDurability.NONE
+              ? 2
+              : val.getAddress() != null
+              ? 1
+              : 0;
+    }
+
 
     private static final class SourceWrapper extends AbstractList
     {
@@ -109,30 +187,7 @@ public class SourceType extends AbstractDescribedType<Source,List> implements De
 
         public int size()
         {
-            return _impl.getCapabilities() != null
-                      ? 11
-                      : _impl.getOutcomes() != null
-                      ? 10
-                      : _impl.getDefaultOutcome() != null
-                      ? 9
-                      : _impl.getFilter() != null
-                      ? 8
-                      : _impl.getDistributionMode() != null
-                      ? 7
-                      : _impl.getDynamicNodeProperties() != null
-                      ? 6
-                      : _impl.getDynamic()
-                      ? 5
-                      : (_impl.getTimeout() != null && !_impl.getTimeout().equals(UnsignedInteger.ZERO))
-                      ? 4
-                      : _impl.getExpiryPolicy() != TerminusExpiryPolicy.SESSION_END
-                      ? 3
-                      : _impl.getDurable() != TerminusDurability.NONE
-                      ? 2
-                      : _impl.getAddress() != null
-                      ? 1
-                      : 0;
-
+            return fieldCount(_impl);
         }
 
     }
@@ -30,7 +30,7 @@ import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedInteger;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.Target;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
 import org.apache.qpid.proton.codec.DescribedTypeConstructor;
 import org.apache.qpid.proton.codec.EncoderImpl;
@@ -38,7 +38,7 @@ import org.apache.qpid.proton.amqp.messaging.TerminusDurability;
 import org.apache.qpid.proton.amqp.messaging.TerminusExpiryPolicy;
 
 
-public class TargetType extends AbstractDescribedType<Target,List> implements DescribedTypeConstructor<Target>
+public class TargetType extends AbstractFastPathDescribedType<Target> implements DescribedTypeConstructor<Target>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -63,6 +63,64 @@ public class TargetType extends AbstractDescribedType<Target,List> implements De
         return new TargetWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(Target val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(Target val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeString(val.getAddress());
+                    break;
+                case 1:
+                    encoder.writeUnsignedInteger(val.getDurable().getValue());
+                    break;
+                case 2:
+                    encoder.writeSymbol(val.getExpiryPolicy().getPolicy());
+                    break;
+                case 3:
+                    encoder.writeUnsignedInteger(val.getTimeout());
+                    break;
+                case 4:
+                    encoder.writeBoolean(val.getDynamic());
+                    break;
+                case 5:
+                    encoder.writeMap(val.getDynamicNodeProperties());
+                    break;
+                case 6:
+                    encoder.writeObject(val.getCapabilities());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(Target val)
+    {
+        return val.getCapabilities() != null
+              ? 7
+              : val.getDynamicNodeProperties() != null
+              ? 6
+              : val.getDynamic()
+              ? 5
+              : (val.getTimeout() != null && !val.getTimeout().equals(UnsignedInteger.ZERO))
+              ? 4
+              : !val.getExpiryPolicy().equals(TerminusExpiryPolicy.SESSION_END)
+              ? 3
+              : !val.getDurable().equals(TerminusDurability.NONE)
+              ? 2
+              : val.getAddress() != null
+              ? 1
+              : 0;
+    }
+
 
     private static final class TargetWrapper extends AbstractList
     {
@@ -100,22 +158,7 @@ public class TargetType extends AbstractDescribedType<Target,List> implements De
 
         public int size()
         {
-            return _impl.getCapabilities() != null
-                      ? 7
-                      : _impl.getDynamicNodeProperties() != null
-                      ? 6
-                      : _impl.getDynamic()
-                      ? 5
-                      : (_impl.getTimeout() != null && !_impl.getTimeout().equals(UnsignedInteger.ZERO))
-                      ? 4
-                      : !_impl.getExpiryPolicy().equals(TerminusExpiryPolicy.SESSION_END)
-                      ? 3
-                      : !_impl.getDurable().equals(TerminusDurability.NONE)
-                      ? 2
-                      : _impl.getAddress() != null
-                      ? 1
-                      : 0;
-
+            return fieldCount(_impl);
         }
     }
 
@@ -36,14 +36,15 @@ import org.apache.qpid.proton.amqp.transport.Role;
 import org.apache.qpid.proton.amqp.transport.SenderSettleMode;
 import org.apache.qpid.proton.amqp.transport.Source;
 import org.apache.qpid.proton.amqp.transport.Target;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.DecodeException;
 import org.apache.qpid.proton.codec.Decoder;
-import org.apache.qpid.proton.codec.DescribedTypeConstructor;
+import org.apache.qpid.proton.codec.DecoderImpl;
 import org.apache.qpid.proton.codec.EncoderImpl;
+import org.apache.qpid.proton.codec.FastPathDescribedTypeConstructor;
 
 
-public final class AttachType extends AbstractDescribedType<Attach,List> implements DescribedTypeConstructor<Attach>
+public final class AttachType extends AbstractFastPathDescribedType<Attach> implements FastPathDescribedTypeConstructor<Attach>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -68,6 +69,93 @@ public final class AttachType extends AbstractDescribedType<Attach,List> impleme
         return new AttachWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(Attach val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(Attach val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeString(val.getName());
+                    break;
+                case 1:
+                    encoder.writeUnsignedInteger(val.getHandle());
+                    break;
+                case 2:
+                    encoder.writeBoolean(val.getRole().getValue());
+                    break;
+                case 3:
+                    encoder.writeUnsignedByte(val.getSndSettleMode().getValue());
+                    break;
+                case 4:
+                    encoder.writeUnsignedByte(val.getRcvSettleMode().getValue());
+                    break;
+                case 5:
+                    encoder.writeObject(val.getSource());
+                    break;
+                case 6:
+                    encoder.writeObject(val.getTarget());
+                    break;
+                case 7:
+                    encoder.writeMap(val.getUnsettled());
+                    break;
+                case 8:
+                    encoder.writeBoolean(val.getIncompleteUnsettled());
+                    break;
+                case 9:
+                    encoder.writeUnsignedInteger(val.getInitialDeliveryCount());
+                    break;
+                case 10:
+                    encoder.writeUnsignedLong(val.getMaxMessageSize());
+                    break;
+                case 11:
+                    encoder.writeObject(val.getOfferedCapabilities());
+                    break;
+                case 12:
+                    encoder.writeObject(val.getDesiredCapabilities());
+                    break;
+                case 13:
+                    encoder.writeMap(val.getProperties());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(Attach val)
+    {
+        return val.getProperties() != null
+              ? 14
+              : val.getDesiredCapabilities() != null
+              ? 13
+              : val.getOfferedCapabilities() != null
+              ? 12
+              : val.getMaxMessageSize() != null
+              ? 11
+              : val.getInitialDeliveryCount() != null
+              ? 10
+              : val.getIncompleteUnsettled()
+              ? 9
+              : val.getUnsettled() != null
+              ? 8
+              : val.getTarget() != null
+              ? 7
+              : val.getSource() != null
+              ? 6
+              : (val.getRcvSettleMode() != null && !val.getRcvSettleMode().equals(ReceiverSettleMode.FIRST))
+              ? 5
+              : (val.getSndSettleMode() != null && !val.getSndSettleMode().equals(SenderSettleMode.MIXED))
+              ? 4
+              : 3;
+    }
+
 
     public static class AttachWrapper extends AbstractList
     {
@@ -120,30 +208,7 @@ public final class AttachType extends AbstractDescribedType<Attach,List> impleme
 
             public int size()
             {
-                return _attach.getProperties() != null
-                          ? 14
-                          : _attach.getDesiredCapabilities() != null
-                          ? 13
-                          : _attach.getOfferedCapabilities() != null
-                          ? 12
-                          : _attach.getMaxMessageSize() != null
-                          ? 11
-                          : _attach.getInitialDeliveryCount() != null
-                          ? 10
-                          : _attach.getIncompleteUnsettled()
-                          ? 9
-                          : _attach.getUnsettled() != null
-                          ? 8
-                          : _attach.getTarget() != null
-                          ? 7
-                          : _attach.getSource() != null
-                          ? 6
-                          : (_attach.getRcvSettleMode() != null && !_attach.getRcvSettleMode().equals(ReceiverSettleMode.FIRST))
-                          ? 5
-                          : (_attach.getSndSettleMode() != null && !_attach.getSndSettleMode().equals(SenderSettleMode.MIXED))
-                          ? 4
-                          : 3;
-
+                return fieldCount(_attach);
             }
 
     }
@@ -159,60 +224,92 @@ public final class AttachType extends AbstractDescribedType<Attach,List> impleme
             throw new DecodeException("The role field cannot be omitted");
         }
 
-        switch(14 - l.size())
+        for(int i = 0; i < l.size(); i++)
+        {
+            setField(o, i, l.get(i));
+        }
+
+        return o;
+    }
+
+    public Attach readValue(DecoderImpl decoder, int count)
+    {
+        Attach o = new Attach();
+
+        if(count <= 2)
+        {
+            throw new DecodeException("The role field cannot be omitted");
+        }
+
+        for(int i = 0; i < count; i++)
         {
+            setField(o, i, decoder.readObject());
+        }
+
+        return o;
+    }
 
+    private static void setField(Attach o, int index, Object value)
+    {
+        switch(index)
+        {
             case 0:
-                o.setProperties( (Map) l.get( 13 ) );
+                o.setName( (String) value );
+                break;
             case 1:
-                Object val1 = l.get( 12 );
-                if( val1 == null || val1.getClass().isArray() )
-                {
-                    o.setDesiredCapabilities( (Symbol[]) val1 );
-                }
-                else
-                {
-                    o.setDesiredCapabilities( (Symbol) val1 );
-                }
+                o.setHandle( (UnsignedInteger) value );
+                break;
             case 2:
-                Object val2 = l.get( 11 );
-                if( val2 == null || val2.getClass().isArray() )
-                {
-                    o.setOfferedCapabilities( (Symbol[]) val2 );
-                }
-                else
-                {
-                    o.setOfferedCapabilities( (Symbol) val2 );
-                }
+                o.setRole( Boolean.TRUE.equals( value ) ? Role.RECEIVER : Role.SENDER);
+                break;
             case 3:
-                o.setMaxMessageSize( (UnsignedLong) l.get( 10 ) );
+                o.setSndSettleMode(value == null ? SenderSettleMode.MIXED : SenderSettleMode.values()[((UnsignedByte) value).intValue()]);
+                break;
             case 4:
-                o.setInitialDeliveryCount( (UnsignedInteger) l.get( 9 ) );
+                o.setRcvSettleMode(value == null ? ReceiverSettleMode.FIRST : ReceiverSettleMode.values()[((UnsignedByte) value).intValue()]);
+                break;
             case 5:
-                Boolean incompleteUnsettled = (Boolean) l.get(8);
-                o.setIncompleteUnsettled(incompleteUnsettled == null ? false : incompleteUnsettled);
+                o.setSource( (Source) value );
+                break;
             case 6:
-                o.setUnsettled( (Map) l.get( 7 ) );
+                o.setTarget( (Target) value );
+                break;
             case 7:
-                o.setTarget( (Target) l.get( 6 ) );
+                o.setUnsettled( (Map) value );
+                break;
             case 8:
-                o.setSource( (Source) l.get( 5 ) );
+                o.setIncompleteUnsettled(value == null ? false : (Boolean) value);
+                break;
             case 9:
-                UnsignedByte rcvSettleMode = (UnsignedByte) l.get(4);
-                o.setRcvSettleMode(rcvSettleMode == null ? ReceiverSettleMode.FIRST : ReceiverSettleMode.values()[rcvSettleMode.intValue()]);
+                o.setInitialDeliveryCount( (UnsignedInteger) value );
+                break;
             case 10:
-                UnsignedByte sndSettleMode = (UnsignedByte) l.get(3);
-                o.setSndSettleMode(sndSettleMode == null ? SenderSettleMode.MIXED : SenderSettleMode.values()[sndSettleMode.intValue()]);
+                o.setMaxMessageSize( (UnsignedLong) value );
+                break;
             case 11:
-                o.setRole( Boolean.TRUE.equals( l.get( 2 ) ) ? Role.RECEIVER : Role.SENDER);
+                if(value == null || value.getClass().isArray())
+                {
+                    o.setOfferedCapabilities( (Symbol[]) value );
+                }
+                else
+                {
+                    o.setOfferedCapabilities( (Symbol) value );
+                }
+                break;
             case 12:
-                o.setHandle( (UnsignedInteger) l.get( 1 ) );
+                if(value == null || value.getClass().isArray())
+                {
+                    o.setDesiredCapabilities( (Symbol[]) value );
+                }
+                else
+                {
+                    o.setDesiredCapabilities( (Symbol) value );
+                }
+                break;
             case 13:
-                o.setName( (String) l.get( 0 ) );
+                o.setProperties( (Map) value );
+                break;
         }
-
-
-        return o;
     }
 
     public Class<Attach> getTypeClass()
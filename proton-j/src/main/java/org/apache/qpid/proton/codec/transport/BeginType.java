@@ -31,14 +31,15 @@ import org.apache.qpid.proton.amqp.UnsignedInteger;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.UnsignedShort;
 import org.apache.qpid.proton.amqp.transport.Begin;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.DecodeException;
 import org.apache.qpid.proton.codec.Decoder;
-import org.apache.qpid.proton.codec.DescribedTypeConstructor;
+import org.apache.qpid.proton.codec.DecoderImpl;
 import org.apache.qpid.proton.codec.EncoderImpl;
+import org.apache.qpid.proton.codec.FastPathDescribedTypeConstructor;
 
 
-public final class BeginType extends AbstractDescribedType<Begin,List> implements DescribedTypeConstructor<Begin>
+public final class BeginType extends AbstractFastPathDescribedType<Begin> implements FastPathDescribedTypeConstructor<Begin>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -63,6 +64,61 @@ public final class BeginType extends AbstractDescribedType<Begin,List> implement
         return new BeginWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(Begin val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(Begin val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeUnsignedShort(val.getRemoteChannel());
+                    break;
+                case 1:
+                    encoder.writeUnsignedInteger(val.getNextOutgoingId());
+                    break;
+                case 2:
+                    encoder.writeUnsignedInteger(val.getIncomingWindow());
+                    break;
+                case 3:
+                    encoder.writeUnsignedInteger(val.getOutgoingWindow());
+                    break;
+                case 4:
+                    encoder.writeUnsignedInteger(val.getHandleMax());
+                    break;
+                case 5:
+                    encoder.writeObject(val.getOfferedCapabilities());
+                    break;
+                case 6:
+                    encoder.writeObject(val.getDesiredCapabilities());
+                    break;
+                case 7:
+                    encoder.writeMap(val.getProperties());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(Begin val)
+    {
+        return val.getProperties() != null
+              ? 8
+              : val.getDesiredCapabilities() != null
+              ? 7
+              : val.getOfferedCapabilities() != null
+              ? 6
+              : (val.getHandleMax() != null && !val.getHandleMax().equals(UnsignedInteger.MAX_VALUE))
+              ? 5
+              : 4;
+    }
+
     private static class BeginWrapper extends AbstractList
     {
 
@@ -102,16 +158,7 @@ public final class BeginType extends AbstractDescribedType<Begin,List> implement
 
         public int size()
         {
-            return _begin.getProperties() != null
-                      ? 8
-                      : _begin.getDesiredCapabilities() != null
-                      ? 7
-                      : _begin.getOfferedCapabilities() != null
-                      ? 6
-                      : (_begin.getHandleMax() != null && !_begin.getHandleMax().equals(UnsignedInteger.MAX_VALUE))
-                      ? 5
-                      : 4;
-
+            return fieldCount(_begin);
         }
     }
 
@@ -126,46 +173,74 @@ public final class BeginType extends AbstractDescribedType<Begin,List> implement
             throw new DecodeException("The outgoing-window field cannot be omitted");
         }
 
-        switch(8 - l.size())
+        for(int i = 0; i < l.size(); i++)
+        {
+            setField(o, i, l.get(i));
+        }
+
+        return o;
+    }
+
+    public Begin readValue(DecoderImpl decoder, int count)
+    {
+        Begin o = new Begin();
+
+        if(count <= 3)
+        {
+            throw new DecodeException("The outgoing-window field cannot be omitted");
+        }
+
+        for(int i = 0; i < count; i++)
         {
+            setField(o, i, decoder.readObject());
+        }
 
+        return o;
+    }
+
+    private static void setField(Begin o, int index, Object value)
+    {
+        switch(index)
+        {
             case 0:
-                o.setProperties( (Map) l.get( 7 ) );
+                o.setRemoteChannel( (UnsignedShort) value );
+                break;
             case 1:
-                Object val1 = l.get( 6 );
-                if( val1 == null || val1.getClass().isArray() )
+                o.setNextOutgoingId( (UnsignedInteger) value );
+                break;
+            case 2:
+                o.setIncomingWindow( (UnsignedInteger) value );
+                break;
+            case 3:
+                o.setOutgoingWindow( (UnsignedInteger) value );
+                break;
+            case 4:
+                o.setHandleMax(value == null ? UnsignedInteger.MAX_VALUE : (UnsignedInteger) value);
+                break;
+            case 5:
+                if(value == null || value.getClass().isArray())
                 {
-                    o.setDesiredCapabilities( (Symbol[]) val1 );
+                    o.setOfferedCapabilities( (Symbol[]) value );
                 }
                 else
                 {
-                    o.setDesiredCapabilities( (Symbol) val1 );
+                    o.setOfferedCapabilities( (Symbol) value );
                 }
-            case 2:
-                Object val2 = l.get( 5 );
-                if( val2 == null || val2.getClass().isArray() )
+                break;
+            case 6:
+                if(value == null || value.getClass().isArray())
                 {
-                    o.setOfferedCapabilities( (Symbol[]) val2 );
+                    o.setDesiredCapabilities( (Symbol[]) value );
                 }
                 else
                 {
-                    o.setOfferedCapabilities( (Symbol) val2 );
+                    o.setDesiredCapabilities( (Symbol) value );
                 }
-            case 3:
-                UnsignedInteger handleMax = (UnsignedInteger) l.get(4);
-                o.setHandleMax(handleMax == null ? UnsignedInteger.MAX_VALUE : handleMax);
-            case 4:
-                o.setOutgoingWindow( (UnsignedInteger) l.get( 3 ) );
-            case 5:
-                o.setIncomingWindow( (UnsignedInteger) l.get( 2 ) );
-            case 6:
-                o.setNextOutgoingId( (UnsignedInteger) l.get( 1 ) );
+                break;
             case 7:
-                o.setRemoteChannel( (UnsignedShort) l.get( 0 ) );
+                o.setProperties( (Map) value );
+                break;
         }
-
-
-        return o;
     }
 
     public Class<Begin> getTypeClass()
@@ -29,13 +29,14 @@ import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.transport.Close;
 import org.apache.qpid.proton.amqp.transport.ErrorCondition;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
-import org.apache.qpid.proton.codec.DescribedTypeConstructor;
+import org.apache.qpid.proton.codec.DecoderImpl;
 import org.apache.qpid.proton.codec.EncoderImpl;
+import org.apache.qpid.proton.codec.FastPathDescribedTypeConstructor;
 
 
-public final class CloseType extends AbstractDescribedType<Close,List> implements DescribedTypeConstructor<Close>
+public final class CloseType extends AbstractFastPathDescribedType<Close> implements FastPathDescribedTypeConstructor<Close>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -61,20 +62,63 @@ public final class CloseType extends AbstractDescribedType<Close,List> implement
         return error == null ? Collections.EMPTY_LIST : Collections.singletonList(error);
     }
 
+    @Override
+    protected int getFieldCount(Close val)
+    {
+        return val.getError() == null ? 0 : 1;
+    }
+
+    @Override
+    protected void writeFields(Close val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeObject(val.getError());
+                    break;
+            }
+        }
+    }
+
     public Close newInstance(Object described)
     {
         List l = (List) described;
 
         Close o = new Close();
 
-        if(!l.isEmpty())
+        for(int i = 0; i < l.size(); i++)
+        {
+            setField(o, i, l.get(i));
+        }
+
+        return o;
+    }
+
+    public Close readValue(DecoderImpl decoder, int count)
+    {
+        Close o = new Close();
+
+        for(int i = 0; i < count; i++)
         {
-            o.setError( (ErrorCondition) l.get( 0 ) );
+            setField(o, i, decoder.readObject());
         }
 
         return o;
     }
 
+    private static void setField(Close o, int index, Object value)
+    {
+        switch(index)
+        {
+            case 0:
+                o.setError( (ErrorCondition) value );
+                break;
+        }
+    }
+
     public Class<Close> getTypeClass()
     {
         return Close.class;
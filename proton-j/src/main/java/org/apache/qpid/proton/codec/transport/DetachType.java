@@ -30,14 +30,15 @@ import org.apache.qpid.proton.amqp.UnsignedInteger;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.transport.Detach;
 import org.apache.qpid.proton.amqp.transport.ErrorCondition;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.DecodeException;
 import org.apache.qpid.proton.codec.Decoder;
-import org.apache.qpid.proton.codec.DescribedTypeConstructor;
+import org.apache.qpid.proton.codec.DecoderImpl;
 import org.apache.qpid.proton.codec.EncoderImpl;
+import org.apache.qpid.proton.codec.FastPathDescribedTypeConstructor;
 
 
-public final class DetachType extends AbstractDescribedType<Detach,List> implements DescribedTypeConstructor<Detach>
+public final class DetachType extends AbstractFastPathDescribedType<Detach> implements FastPathDescribedTypeConstructor<Detach>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -62,6 +63,42 @@ public final class DetachType extends AbstractDescribedType<Detach,List> impleme
         return new DetachWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(Detach val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(Detach val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeUnsignedInteger(val.getHandle());
+                    break;
+                case 1:
+                    encoder.writeBoolean(val.getClosed());
+                    break;
+                case 2:
+                    encoder.writeObject(val.getError());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(Detach val)
+    {
+        return val.getError() != null
+              ? 3
+              : val.getClosed()
+              ? 2
+              : 1;
+    }
+
     public static class DetachWrapper extends AbstractList
     {
 
@@ -91,12 +128,7 @@ public final class DetachType extends AbstractDescribedType<Detach,List> impleme
 
         public int size()
         {
-            return _detach.getError() != null
-                      ? 3
-                      : _detach.getClosed()
-                      ? 2
-                      : 1;
-
+            return fieldCount(_detach);
         }
     }
 
@@ -111,22 +143,47 @@ public final class DetachType extends AbstractDescribedType<Detach,List> impleme
             throw new DecodeException("The handle field cannot be omitted");
         }
 
-        switch(3 - l.size())
+        for(int i = 0; i < l.size(); i++)
         {
+            setField(o, i, l.get(i));
+        }
 
-            case 0:
-                o.setError( (ErrorCondition) l.get( 2 ) );
-            case 1:
-                Boolean closed = (Boolean) l.get(1);
-                o.setClosed(closed == null ? false : closed);
-            case 2:
-                o.setHandle( (UnsignedInteger) l.get( 0 ) );
+        return o;
+    }
+
+    public Detach readValue(DecoderImpl decoder, int count)
+    {
+        Detach o = new Detach();
+
+        if(count == 0)
+        {
+            throw new DecodeException("The handle field cannot be omitted");
         }
 
+        for(int i = 0; i < count; i++)
+        {
+            setField(o, i, decoder.readObject());
+        }
 
         return o;
     }
 
+    private static void setField(Detach o, int index, Object value)
+    {
+        switch(index)
+        {
+            case 0:
+                o.setHandle( (UnsignedInteger) value );
+                break;
+            case 1:
+                o.setClosed(value == null ? false : (Boolean) value);
+                break;
+            case 2:
+                o.setError( (ErrorCondition) value );
+                break;
+        }
+    }
+
     public Class<Detach> getTypeClass()
     {
         return Detach.class;
@@ -31,14 +31,15 @@ import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.transport.DeliveryState;
 import org.apache.qpid.proton.amqp.transport.Disposition;
 import org.apache.qpid.proton.amqp.transport.Role;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.DecodeException;
 import org.apache.qpid.proton.codec.Decoder;
-import org.apache.qpid.proton.codec.DescribedTypeConstructor;
+import org.apache.qpid.proton.codec.DecoderImpl;
 import org.apache.qpid.proton.codec.EncoderImpl;
+import org.apache.qpid.proton.codec.FastPathDescribedTypeConstructor;
 
 
-public final class DispositionType extends AbstractDescribedType<Disposition,List> implements DescribedTypeConstructor<Disposition>
+public final class DispositionType extends AbstractFastPathDescribedType<Disposition> implements FastPathDescribedTypeConstructor<Disposition>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -63,6 +64,55 @@ public final class DispositionType extends AbstractDescribedType<Disposition,Lis
         return new DispositionWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(Disposition val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(Disposition val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeBoolean(val.getRole().getValue());
+                    break;
+                case 1:
+                    encoder.writeUnsignedInteger(val.getFirst());
+                    break;
+                case 2:
+                    encoder.writeUnsignedInteger(val.getLast());
+                    break;
+                case 3:
+                    encoder.writeBoolean(val.getSettled());
+                    break;
+                case 4:
+                    encoder.writeObject(val.getState());
+                    break;
+                case 5:
+                    encoder.writeBoolean(val.getBatchable());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(Disposition val)
+    {
+        return val.getBatchable()
+              ? 6
+              : val.getState() != null
+              ? 5
+              : val.getSettled()
+              ? 4
+              : val.getLast() != null
+              ? 3
+              : 2;
+    }
+
 
     private static final class DispositionWrapper extends AbstractList
     {
@@ -99,16 +149,7 @@ public final class DispositionType extends AbstractDescribedType<Disposition,Lis
 
         public int size()
         {
-            return _disposition.getBatchable()
-                      ? 6
-                      : _disposition.getState() != null
-                      ? 5
-                      : _disposition.getSettled()
-                      ? 4
-                      : _disposition.getLast() != null
-                      ? 3
-                      : 2;
-
+            return fieldCount(_disposition);
         }
     }
 
@@ -123,27 +164,54 @@ public final class DispositionType extends AbstractDescribedType<Disposition,Lis
                 throw new DecodeException("The first field cannot be omitted");
             }
 
-            switch(6 - l.size())
+            for(int i = 0; i < l.size(); i++)
             {
+                setField(o, i, l.get(i));
+            }
 
+            return o;
+        }
+
+        public Disposition readValue(DecoderImpl decoder, int count)
+        {
+            Disposition o = new Disposition();
+
+            if(count == 0)
+            {
+                throw new DecodeException("The first field cannot be omitted");
+            }
+
+            for(int i = 0; i < count; i++)
+            {
+                setField(o, i, decoder.readObject());
+            }
+
+            return o;
+        }
+
+        private static void setField(Disposition o, int index, Object value)
+        {
+            switch(index)
+            {
                 case 0:
-                    Boolean batchable = (Boolean) l.get(5);
-                    o.setBatchable(batchable == null ? false : batchable);
+                    o.setRole( Boolean.TRUE.equals(value) ? Role.RECEIVER : Role.SENDER );
+                    break;
                 case 1:
-                    o.setState( (DeliveryState) l.get( 4 ) );
+                    o.setFirst( (UnsignedInteger) value );
+                    break;
                 case 2:
-                    Boolean settled = (Boolean) l.get(3);
-                    o.setSettled(settled == null ? false : settled);
+                    o.setLast( (UnsignedInteger) value );
+                    break;
                 case 3:
-                    o.setLast( (UnsignedInteger) l.get( 2 ) );
+                    o.setSettled(value == null ? false : (Boolean) value);
+                    break;
                 case 4:
-                    o.setFirst( (UnsignedInteger) l.get( 1 ) );
+                    o.setState( (DeliveryState) value );
+                    break;
                 case 5:
-                    o.setRole( Boolean.TRUE.equals(l.get( 0 )) ? Role.RECEIVER : Role.SENDER );
+                    o.setBatchable(value == null ? false : (Boolean) value);
+                    break;
             }
-
-
-            return o;
         }
 
         public Class<Disposition> getTypeClass()
@@ -29,13 +29,14 @@ import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.transport.End;
 import org.apache.qpid.proton.amqp.transport.ErrorCondition;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.Decoder;
-import org.apache.qpid.proton.codec.DescribedTypeConstructor;
+import org.apache.qpid.proton.codec.DecoderImpl;
 import org.apache.qpid.proton.codec.EncoderImpl;
+import org.apache.qpid.proton.codec.FastPathDescribedTypeConstructor;
 
 
-public final class EndType extends AbstractDescribedType<End,List> implements DescribedTypeConstructor<End>
+public final class EndType extends AbstractFastPathDescribedType<End> implements FastPathDescribedTypeConstructor<End>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -61,6 +62,27 @@ public final class EndType extends AbstractDescribedType<End,List> implements De
         return errorCondition == null ? Collections.EMPTY_LIST : Collections.singletonList(errorCondition);
     }
 
+    @Override
+    protected int getFieldCount(End val)
+    {
+        return val.getError() == null ? 0 : 1;
+    }
+
+    @Override
+    protected void writeFields(End val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeObject(val.getError());
+                    break;
+            }
+        }
+    }
+
 
     public End newInstance(Object described)
     {
@@ -68,15 +90,36 @@ public final class EndType extends AbstractDescribedType<End,List> implements De
 
         End o = new End();
 
-        if(!l.isEmpty())
+        for(int i = 0; i < l.size(); i++)
         {
-            o.setError( (ErrorCondition) l.get( 0 ) );
+            setField(o, i, l.get(i));
         }
 
+        return o;
+    }
+
+    public End readValue(DecoderImpl decoder, int count)
+    {
+        End o = new End();
+
+        for(int i = 0; i < count; i++)
+        {
+            setField(o, i, decoder.readObject());
+        }
 
         return o;
     }
 
+    private static void setField(End o, int index, Object value)
+    {
+        switch(index)
+        {
+            case 0:
+                o.setError( (ErrorCondition) value );
+                break;
+        }
+    }
+
     public Class<End> getTypeClass()
     {
         return End.class;
@@ -29,14 +29,15 @@ import java.util.Map;
 import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.transport.ErrorCondition;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.DecodeException;
 import org.apache.qpid.proton.codec.Decoder;
-import org.apache.qpid.proton.codec.DescribedTypeConstructor;
+import org.apache.qpid.proton.codec.DecoderImpl;
 import org.apache.qpid.proton.codec.EncoderImpl;
+import org.apache.qpid.proton.codec.FastPathDescribedTypeConstructor;
 
 
-public final class ErrorConditionType extends AbstractDescribedType<ErrorCondition,List> implements DescribedTypeConstructor<ErrorCondition>
+public final class ErrorConditionType extends AbstractFastPathDescribedType<ErrorCondition> implements FastPathDescribedTypeConstructor<ErrorCondition>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -61,6 +62,42 @@ public final class ErrorConditionType extends AbstractDescribedType<ErrorConditi
         return new ErrorConditionWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(ErrorCondition val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(ErrorCondition val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeSymbol(val.getCondition());
+                    break;
+                case 1:
+                    encoder.writeString(val.getDescription());
+                    break;
+                case 2:
+                    encoder.writeMap(val.getInfo());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(ErrorCondition val)
+    {
+        return val.getInfo() != null
+              ? 3
+              : val.getDescription() != null
+              ? 2
+              : 1;
+    }
+
     public static class ErrorConditionWrapper extends AbstractList
     {
 
@@ -90,12 +127,7 @@ public final class ErrorConditionType extends AbstractDescribedType<ErrorConditi
 
         public int size()
         {
-            return _errorCondition.getInfo() != null
-                      ? 3
-                      : _errorCondition.getDescription() != null
-                      ? 2
-                      : 1;
-
+            return fieldCount(_errorCondition);
         }
 
     }
@@ -111,21 +143,47 @@ public final class ErrorConditionType extends AbstractDescribedType<ErrorConditi
             throw new DecodeException("The condition field cannot be omitted");
         }
 
-        switch(3 - l.size())
+        for(int i = 0; i < l.size(); i++)
         {
+            setField(o, i, l.get(i));
+        }
 
-            case 0:
-                o.setInfo( (Map) l.get( 2 ) );
-            case 1:
-                o.setDescription( (String) l.get( 1 ) );
-            case 2:
-                o.setCondition( (Symbol) l.get( 0 ) );
+        return o;
+    }
+
+    public ErrorCondition readValue(DecoderImpl decoder, int count)
+    {
+        ErrorCondition o = new ErrorCondition();
+
+        if(count == 0)
+        {
+            throw new DecodeException("The condition field cannot be omitted");
         }
 
+        for(int i = 0; i < count; i++)
+        {
+            setField(o, i, decoder.readObject());
+        }
 
         return o;
     }
 
+    private static void setField(ErrorCondition o, int index, Object value)
+    {
+        switch(index)
+        {
+            case 0:
+                o.setCondition( (Symbol) value );
+                break;
+            case 1:
+                o.setDescription( (String) value );
+                break;
+            case 2:
+                o.setInfo( (Map) value );
+                break;
+        }
+    }
+
     public Class<ErrorCondition> getTypeClass()
     {
         return ErrorCondition.class;
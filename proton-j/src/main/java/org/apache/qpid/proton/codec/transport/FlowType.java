@@ -30,14 +30,15 @@ import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedInteger;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.transport.Flow;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.DecodeException;
 import org.apache.qpid.proton.codec.Decoder;
-import org.apache.qpid.proton.codec.DescribedTypeConstructor;
+import org.apache.qpid.proton.codec.DecoderImpl;
 import org.apache.qpid.proton.codec.EncoderImpl;
+import org.apache.qpid.proton.codec.FastPathDescribedTypeConstructor;
 
 
-public final class FlowType extends AbstractDescribedType<Flow,List> implements DescribedTypeConstructor<Flow>
+public final class FlowType extends AbstractFastPathDescribedType<Flow> implements FastPathDescribedTypeConstructor<Flow>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -62,6 +63,76 @@ public final class FlowType extends AbstractDescribedType<Flow,List> implements
         return new FlowWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(Flow val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(Flow val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeUnsignedInteger(val.getNextIncomingId());
+                    break;
+                case 1:
+                    encoder.writeUnsignedInteger(val.getIncomingWindow());
+                    break;
+                case 2:
+                    encoder.writeUnsignedInteger(val.getNextOutgoingId());
+                    break;
+                case 3:
+                    encoder.writeUnsignedInteger(val.getOutgoingWindow());
+                    break;
+                case 4:
+                    encoder.writeUnsignedInteger(val.getHandle());
+                    break;
+                case 5:
+                    encoder.writeUnsignedInteger(val.getDeliveryCount());
+                    break;
+                case 6:
+                    encoder.writeUnsignedInteger(val.getLinkCredit());
+                    break;
+                case 7:
+                    encoder.writeUnsignedInteger(val.getAvailable());
+                    break;
+                case 8:
+                    encoder.writeBoolean(val.getDrain());
+                    break;
+                case 9:
+                    encoder.writeBoolean(val.getEcho());
+                    break;
+                case 10:
+                    encoder.writeMap(val.getProperties());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(Flow val)
+    {
+        return val.getProperties() != null
+              ? 11
+              : val.getEcho()
+              ? 10
+              : val.getDrain()
+              ? 9
+              : val.getAvailable() != null
+              ? 8
+              : val.getLinkCredit() != null
+              ? 7
+              : val.getDeliveryCount() != null
+              ? 6
+              : val.getHandle() != null
+              ? 5
+              : 4;
+    }
+
     public static class FlowWrapper extends AbstractList
     {
 
@@ -108,22 +179,7 @@ public final class FlowType extends AbstractDescribedType<Flow,List> implements
 
         public int size()
         {
-            return _flow.getProperties() != null
-                      ? 11
-                      : _flow.getEcho()
-                      ? 10
-                      : _flow.getDrain()
-                      ? 9
-                      : _flow.getAvailable() != null
-                      ? 8
-                      : _flow.getLinkCredit() != null
-                      ? 7
-                      : _flow.getDeliveryCount() != null
-                      ? 6
-                      : _flow.getHandle() != null
-                      ? 5
-                      : 4;
-
+            return fieldCount(_flow);
         }
     }
 
@@ -138,37 +194,69 @@ public final class FlowType extends AbstractDescribedType<Flow,List> implements
             throw new DecodeException("The outgoing-window field cannot be omitted");
         }
 
-        switch(11 - l.size())
+        for(int i = 0; i < l.size(); i++)
+        {
+            setField(o, i, l.get(i));
+        }
+
+        return o;
+    }
+
+    public Flow readValue(DecoderImpl decoder, int count)
+    {
+        Flow o = new Flow();
+
+        if(count <= 3)
+        {
+            throw new DecodeException("The outgoing-window field cannot be omitted");
+        }
+
+        for(int i = 0; i < count; i++)
         {
+            setField(o, i, decoder.readObject());
+        }
+
+        return o;
+    }
 
+    private static void setField(Flow o, int index, Object value)
+    {
+        switch(index)
+        {
             case 0:
-                o.setProperties( (Map) l.get( 10 ) );
+                o.setNextIncomingId( (UnsignedInteger) value );
+                break;
             case 1:
-                Boolean echo = (Boolean) l.get(9);
-                o.setEcho(echo == null ? false : echo);
+                o.setIncomingWindow( (UnsignedInteger) value );
+                break;
             case 2:
-                Boolean drain = (Boolean) l.get(8);
-                o.setDrain(drain == null ? false : drain );
+                o.setNextOutgoingId( (UnsignedInteger) value );
+                break;
             case 3:
-                o.setAvailable( (UnsignedInteger) l.get( 7 ) );
+                o.setOutgoingWindow( (UnsignedInteger) value );
+                break;
             case 4:
-                o.setLinkCredit( (UnsignedInteger) l.get( 6 ) );
+                o.setHandle( (UnsignedInteger) value );
+                break;
             case 5:
-                o.setDeliveryCount( (UnsignedInteger) l.get( 5 ) );
+                o.setDeliveryCount( (UnsignedInteger) value );
+                break;
             case 6:
-                o.setHandle( (UnsignedInteger) l.get( 4 ) );
+                o.setLinkCredit( (UnsignedInteger) value );
+                break;
             case 7:
-                o.setOutgoingWindow( (UnsignedInteger) l.get( 3 ) );
+                o.setAvailable( (UnsignedInteger) value );
+                break;
             case 8:
-                o.setNextOutgoingId( (UnsignedInteger) l.get( 2 ) );
+                o.setDrain(value == null ? false : (Boolean) value);
+                break;
             case 9:
-                o.setIncomingWindow( (UnsignedInteger) l.get( 1 ) );
+                o.setEcho(value == null ? false : (Boolean) value);
+                break;
             case 10:
-                o.setNextIncomingId( (UnsignedInteger) l.get( 0 ) );
+                o.setProperties( (Map) value );
+                break;
         }
-
-
-        return o;
     }
 
     public Class<Flow> getTypeClass()
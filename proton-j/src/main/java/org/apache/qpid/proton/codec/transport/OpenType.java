@@ -31,14 +31,15 @@ import org.apache.qpid.proton.amqp.UnsignedInteger;
 import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.UnsignedShort;
 import org.apache.qpid.proton.amqp.transport.Open;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.DecodeException;
 import org.apache.qpid.proton.codec.Decoder;
-import org.apache.qpid.proton.codec.DescribedTypeConstructor;
+import org.apache.qpid.proton.codec.DecoderImpl;
 import org.apache.qpid.proton.codec.EncoderImpl;
+import org.apache.qpid.proton.codec.FastPathDescribedTypeConstructor;
 
 
-public final class OpenType extends AbstractDescribedType<Open,List> implements DescribedTypeConstructor<Open>
+public final class OpenType extends AbstractFastPathDescribedType<Open> implements FastPathDescribedTypeConstructor<Open>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -64,6 +65,77 @@ public final class OpenType extends AbstractDescribedType<Open,List> implements
         return new OpenWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(Open val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(Open val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeString(val.getContainerId());
+                    break;
+                case 1:
+                    encoder.writeString(val.getHostname());
+                    break;
+                case 2:
+                    encoder.writeUnsignedInteger(val.getMaxFrameSize());
+                    break;
+                case 3:
+                    encoder.writeUnsignedShort(val.getChannelMax());
+                    break;
+                case 4:
+                    encoder.writeUnsignedInteger(val.getIdleTimeOut());
+                    break;
+                case 5:
+                    encoder.writeObject(val.getOutgoingLocales());
+                    break;
+                case 6:
+                    encoder.writeObject(val.getIncomingLocales());
+                    break;
+                case 7:
+                    encoder.writeObject(val.getOfferedCapabilities());
+                    break;
+                case 8:
+                    encoder.writeObject(val.getDesiredCapabilities());
+                    break;
+                case 9:
+                    encoder.writeMap(val.getProperties());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(Open val)
+    {
+        return val.getProperties() != null
+              ? 10
+              : val.getDesiredCapabilities() != null
+              ? 9
+              : val.getOfferedCapabilities() != null
+              ? 8
+              : val.getIncomingLocales() != null
+              ? 7
+              : val.getOutgoingLocales() != null
+              ? 6
+              : val.getIdleTimeOut() != null
+              ? 5
+              : (val.getChannelMax() != null && !val.getChannelMax().equals(UnsignedShort.MAX_VALUE))
+              ? 4
+              : (val.getMaxFrameSize() != null && !val.getMaxFrameSize().equals(UnsignedInteger.MAX_VALUE))
+              ? 3
+              : val.getHostname() != null
+              ? 2
+              : 1;
+    }
+
 
     public static class OpenWrapper extends AbstractList
     {
@@ -108,26 +180,7 @@ public final class OpenType extends AbstractDescribedType<Open,List> implements
 
         public int size()
         {
-            return _open.getProperties() != null
-                      ? 10
-                      : _open.getDesiredCapabilities() != null
-                      ? 9
-                      : _open.getOfferedCapabilities() != null
-                      ? 8
-                      : _open.getIncomingLocales() != null
-                      ? 7
-                      : _open.getOutgoingLocales() != null
-                      ? 6
-                      : _open.getIdleTimeOut() != null
-                      ? 5
-                      : (_open.getChannelMax() != null && !_open.getChannelMax().equals(UnsignedShort.MAX_VALUE))
-                      ? 4
-                      : (_open.getMaxFrameSize() != null && !_open.getMaxFrameSize().equals(UnsignedInteger.MAX_VALUE))
-                      ? 3
-                      : _open.getHostname() != null
-                      ? 2
-                      : 1;
-
+            return fieldCount(_open);
         }
 
     }
@@ -143,67 +196,94 @@ public final class OpenType extends AbstractDescribedType<Open,List> implements
             throw new DecodeException("The container-id field cannot be omitted");
         }
 
-        switch(10 - l.size())
+        for(int i = 0; i < l.size(); i++)
+        {
+            setField(o, i, l.get(i));
+        }
+
+        return o;
+    }
+
+    public Open readValue(DecoderImpl decoder, int count)
+    {
+        Open o = new Open();
+
+        if(count == 0)
+        {
+            throw new DecodeException("The container-id field cannot be omitted");
+        }
+
+        for(int i = 0; i < count; i++)
         {
+            setField(o, i, decoder.readObject());
+        }
+
+        return o;
+    }
 
+    private static void setField(Open o, int index, Object value)
+    {
+        switch(index)
+        {
             case 0:
-                o.setProperties( (Map) l.get( 9 ) );
+                o.setContainerId( (String) value );
+                break;
             case 1:
-                Object val1 = l.get( 8 );
-                if( val1 == null || val1.getClass().isArray() )
+                o.setHostname( (String) value );
+                break;
+            case 2:
+                o.setMaxFrameSize(value == null ? UnsignedInteger.MAX_VALUE : (UnsignedInteger) value);
+                break;
+            case 3:
+                o.setChannelMax(value == null ? UnsignedShort.MAX_VALUE : (UnsignedShort) value);
+                break;
+            case 4:
+                o.setIdleTimeOut( (UnsignedInteger) value );
+                break;
+            case 5:
+                if(value == null || value.getClass().isArray())
                 {
-                    o.setDesiredCapabilities( (Symbol[]) val1 );
+                    o.setOutgoingLocales( (Symbol[]) value );
                 }
                 else
                 {
-                    o.setDesiredCapabilities( (Symbol) val1 );
+                    o.setOutgoingLocales( (Symbol) value );
                 }
-            case 2:
-                Object val2 = l.get( 7 );
-                if( val2 == null || val2.getClass().isArray() )
+                break;
+            case 6:
+                if(value == null || value.getClass().isArray())
                 {
-                    o.setOfferedCapabilities( (Symbol[]) val2 );
+                    o.setIncomingLocales( (Symbol[]) value );
                 }
                 else
                 {
-                    o.setOfferedCapabilities( (Symbol) val2 );
+                    o.setIncomingLocales( (Symbol) value );
                 }
-            case 3:
-                Object val3 = l.get( 6 );
-                if( val3 == null || val3.getClass().isArray() )
+                break;
+            case 7:
+                if(value == null || value.getClass().isArray())
                 {
-                    o.setIncomingLocales( (Symbol[]) val3 );
+                    o.setOfferedCapabilities( (Symbol[]) value );
                 }
                 else
                 {
-                    o.setIncomingLocales( (Symbol) val3 );
+                    o.setOfferedCapabilities( (Symbol) value );
                 }
-            case 4:
-                Object val4 = l.get( 5 );
-                if( val4 == null || val4.getClass().isArray() )
+                break;
+            case 8:
+                if(value == null || value.getClass().isArray())
                 {
-                    o.setOutgoingLocales( (Symbol[]) val4 );
+                    o.setDesiredCapabilities( (Symbol[]) value );
                 }
                 else
                 {
-                    o.setOutgoingLocales( (Symbol) val4 );
+                    o.setDesiredCapabilities( (Symbol) value );
                 }
-            case 5:
-                o.setIdleTimeOut( (UnsignedInteger) l.get( 4 ) );
-            case 6:
-                UnsignedShort channelMax = (UnsignedShort) l.get(3);
-                o.setChannelMax(channelMax == null ? UnsignedShort.MAX_VALUE : channelMax);
-            case 7:
-                UnsignedInteger maxFrameSize = (UnsignedInteger) l.get(2);
-                o.setMaxFrameSize(maxFrameSize == null ? UnsignedInteger.MAX_VALUE : maxFrameSize);
-            case 8:
-                o.setHostname( (String) l.get( 1 ) );
+                break;
             case 9:
-                o.setContainerId( (String) l.get( 0 ) );
+                o.setProperties( (Map) value );
+                break;
         }
-
-
-        return o;
     }
 
     public Class<Open> getTypeClass()
@@ -33,14 +33,15 @@ import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.transport.DeliveryState;
 import org.apache.qpid.proton.amqp.transport.ReceiverSettleMode;
 import org.apache.qpid.proton.amqp.transport.Transfer;
-import org.apache.qpid.proton.codec.AbstractDescribedType;
+import org.apache.qpid.proton.codec.AbstractFastPathDescribedType;
 import org.apache.qpid.proton.codec.DecodeException;
 import org.apache.qpid.proton.codec.Decoder;
-import org.apache.qpid.proton.codec.DescribedTypeConstructor;
+import org.apache.qpid.proton.codec.DecoderImpl;
 import org.apache.qpid.proton.codec.EncoderImpl;
+import org.apache.qpid.proton.codec.FastPathDescribedTypeConstructor;
 
 
-public final class TransferType extends AbstractDescribedType<Transfer,List> implements DescribedTypeConstructor<Transfer>
+public final class TransferType extends AbstractFastPathDescribedType<Transfer> implements FastPathDescribedTypeConstructor<Transfer>
 {
     private static final Object[] DESCRIPTORS =
     {
@@ -66,6 +67,82 @@ public final class TransferType extends AbstractDescribedType<Transfer,List> imp
         return new TransferWrapper(val);
     }
 
+    @Override
+    protected int getFieldCount(Transfer val)
+    {
+        return fieldCount(val);
+    }
+
+    @Override
+    protected void writeFields(Transfer val, int count)
+    {
+        EncoderImpl encoder = getEncoder();
+        for(int i = 0; i < count; i++)
+        {
+            switch(i)
+            {
+                case 0:
+                    encoder.writeUnsignedInteger(val.getHandle());
+                    break;
+                case 1:
+                    encoder.writeUnsignedInteger(val.getDeliveryId());
+                    break;
+                case 2:
+                    encoder.writeBinary(val.getDeliveryTag());
+                    break;
+                case 3:
+                    encoder.writeUnsignedInteger(val.getMessageFormat());
+                    break;
+                case 4:
+                    encoder.writeBoolean(val.getSettled());
+                    break;
+                case 5:
+                    encoder.writeBoolean(val.getMore());
+                    break;
+                case 6:
+                    encoder.writeUnsignedByte(val.getRcvSettleMode() == null ? null : val.getRcvSettleMode().getValue());
+                    break;
+                case 7:
+                    encoder.writeObject(val.getState());
+                    break;
+                case 8:
+                    encoder.writeBoolean(val.getResume());
+                    break;
+                case 9:
+                    encoder.writeBoolean(val.getAborted());
+                    break;
+                case 10:
+                    encoder.writeBoolean(val.getBatchable());
+                    break;
+            }
+        }
+    }
+
+    private static int fieldCount(Transfer val)
+    {
+        return val.getBatchable()
+              ? 11
+              : val.getAborted()
+              ? 10
+              : val.getResume()
+              ? 9
+              : val.getState() != null
+              ? 8
+              : val.getRcvSettleMode() != null
+              ? 7
+              : val.getMore()
+              ? 6
+              : val.getSettled() != null
+              ? 5
+              : val.getMessageFormat() != null
+              ? 4
+              : val.getDeliveryTag() != null
+              ? 3
+              : val.getDeliveryId() != null
+              ? 2
+              : 1;
+    }
+
 
     public static class TransferWrapper extends AbstractList
     {
@@ -112,28 +189,7 @@ public final class TransferType extends AbstractDescribedType<Transfer,List> imp
 
         public int size()
         {
-            return _transfer.getBatchable()
-                      ? 11
-                      : _transfer.getAborted()
-                      ? 10
-                      : _transfer.getResume()
-                      ? 9
-                      : _transfer.getState() != null
-                      ? 8
-                      : _transfer.getRcvSettleMode() != null
-                      ? 7
-                      : _transfer.getMore()
-                      ? 6
-                      : _transfer.getSettled() != null
-                      ? 5
-                      : _transfer.getMessageFormat() != null
-                      ? 4
-                      : _transfer.getDeliveryTag() != null
-                      ? 3
-                      : _transfer.getDeliveryId() != null
-                      ? 2
-                      : 1;
-
+            return fieldCount(_transfer);
         }
 
     }
@@ -149,40 +205,69 @@ public final class TransferType extends AbstractDescribedType<Transfer,List> imp
                 throw new DecodeException("The handle field cannot be omitted");
             }
 
-            switch(11 - l.size())
+            for(int i = 0; i < l.size(); i++)
             {
+                setField(o, i, l.get(i));
+            }
+
+            return o;
+        }
+
+        public Transfer readValue(DecoderImpl decoder, int count)
+        {
+            Transfer o = new Transfer();
+
+            if(count == 0)
+            {
+                throw new DecodeException("The handle field cannot be omitted");
+            }
 
+            for(int i = 0; i < count; i++)
+            {
+                setField(o, i, decoder.readObject());
+            }
+
+            return o;
+        }
+
+        private static void setField(Transfer o, int index, Object value)
+        {
+            switch(index)
+            {
                 case 0:
-                    Boolean batchable = (Boolean) l.get(10);
-                    o.setBatchable(batchable == null ? false : batchable);
+                    o.setHandle( (UnsignedInteger) value );
+                    break;
                 case 1:
-                    Boolean aborted = (Boolean) l.get(9);
-                    o.setAborted(aborted == null ? false : aborted);
+                    o.setDeliveryId( (UnsignedInteger) value );
+                    break;
                 case 2:
-                    Boolean resume = (Boolean) l.get(8);
-                    o.setResume(resume == null ? false : resume);
+                    o.setDeliveryTag( (Binary) value );
+                    break;
                 case 3:
-                    o.setState( (DeliveryState) l.get( 7 ) );
+                    o.setMessageFormat( (UnsignedInteger) value );
+                    break;
                 case 4:
-                    UnsignedByte receiverSettleMode = (UnsignedByte) l.get(6);
-                    o.setRcvSettleMode(receiverSettleMode == null ? null : ReceiverSettleMode.values()[receiverSettleMode.intValue()]);
+                    o.setSettled( (Boolean) value );
+                    break;
                 case 5:
-                    Boolean more = (Boolean) l.get(5);
-                    o.setMore(more == null ? false : more );
+                    o.setMore(value == null ? false : (Boolean) value);
+                    break;
                 case 6:
-                    o.setSettled( (Boolean) l.get( 4 ) );
+                    o.setRcvSettleMode(value == null ? null : ReceiverSettleMode.values()[((UnsignedByte) value).intValue()]);
+                    break;
                 case 7:
-                    o.setMessageFormat( (UnsignedInteger) l.get( 3 ) );
+                    o.setState( (DeliveryState) value );
+                    break;
                 case 8:
-                    o.setDeliveryTag( (Binary) l.get( 2 ) );
+                    o.setResume(value == null ? false : (Boolean) value);
+                    break;
                 case 9:
-                    o.setDeliveryId( (UnsignedInteger) l.get( 1 ) );
+                    o.setAborted(value == null ? false : (Boolean) value);
+                    break;
                 case 10:
-                    o.setHandle( (UnsignedInteger) l.get( 0 ) );
+                    o.setBatchable(value == null ? false : (Boolean) value);
+                    break;
             }
-
-
-            return o;
         }
 
         public Class<Transfer> getTypeClass()
@@ -108,6 +108,27 @@ public interface Driver
      */
     <C> Listener<C> createListener(String host, int port, C context);
 
+    /**
+     * Construct a listener on a Unix domain socket. Needs a Java 16 or later runtime.
+     *
+     * @param path file system path to bind the socket to, which must not already exist
+     * @param context application-supplied, can be accessed via
+     *                {@link Listener#getContext() getContext()} method on a listener.
+     * @return a new listener on the given path, null if error
+     */
+    <C> Listener<C> createUnixListener(String path, C context);
+
+    /**
+     * Construct a listener for connections from within the same JVM, which exchange bytes with
+     * it in memory rather than over a socket.
+     *
+     * @param name name to register the listener under, unique within the JVM
+     * @param context application-supplied, can be accessed via
+     *                {@link Listener#getContext() getContext()} method on a listener.
+     * @return a new listener registered as name, null if error
+     */
+    <C> Listener<C> createLocalListener(String name, C context);
+
     /**
      * Create a listener using the existing channel.
      *
@@ -130,6 +151,30 @@ public interface Driver
      */
     <C> Connector<C> createConnector(String host, int port, C context);
 
+    /**
+     * Construct a connector to a Unix domain socket. Needs a Java 16 or later runtime.
+     *
+     * @param path file system path of the remote socket
+     * @param context application-supplied, can be accessed via
+     *                {@link Connector#getContext() getContext()} method on a listener.
+     *
+     * @return a new connector to the given path, or null on error.
+     */
+    <C> Connector<C> createUnixConnector(String path, C context);
+
+    /**
+     * Construct a connector to a listener created by {@link #createLocalListener(String, Object)}
+     * in the same JVM, possibly on another driver. If there is no such listener the connector
+     * closes as one whose connection was refused.
+     *
+     * @param name name of the listener
+     * @param context application-supplied, can be accessed via
+     *                {@link Connector#getContext() getContext()} method on a listener.
+     *
+     * @return a new connector to the named listener.
+     */
+    <C> Connector<C> createLocalConnector(String name, C context);
+
     /**
      * Create a connector using the existing file descriptor.
      *
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.driver.impl;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.qpid.proton.driver.Connector;
+import org.apache.qpid.proton.driver.Driver;
+import org.apache.qpid.proton.driver.Listener;
+
+/**
+ * The bookkeeping shared by the drivers: the listeners and connectors they own, the queues of
+ * those ready for the application, and connections to local listeners, which need no IO.
+ */
+abstract class AbstractDriver implements Driver
+{
+    protected final Collection<Listener> _listeners = new LinkedList<Listener>();
+    protected final Collection<Connector> _connectors = new LinkedList<Connector>();
+    protected final Logger _logger = Logger.getLogger("proton.driver");
+    private final Queue<Connector> _selectedConnectors = new ArrayDeque<Connector>();
+    private final Queue<Listener> _selectedListeners = new ArrayDeque<Listener>();
+    private final Queue<Selectable> _signalled = new ConcurrentLinkedQueue<Selectable>();
+
+    void selectListener(Listener l)
+    {
+        _selectedListeners.add(l);
+    }
+
+    public Listener listener()
+    {
+        Listener listener = _selectedListeners.poll();
+        if (listener != null) {
+            ((Selectable) listener).unselected();
+        }
+
+        return listener;
+    }
+
+    void selectConnector(Connector c)
+    {
+        _selectedConnectors.add(c);
+    }
+
+    public Connector connector()
+    {
+        Connector connector = _selectedConnectors.poll();
+        if (connector != null) {
+            ((Selectable) connector).unselected();
+        }
+        return connector;
+    }
+
+    /**
+     * Selects s during the next {@link #doWait(long)}, without making it report a wakeup. May be
+     * called from any thread.
+     */
+    void signal(Selectable s)
+    {
+        _signalled.add(s);
+        signalled();
+    }
+
+    /**
+     * Makes a {@link #doWait(long)} in progress return. May be called from any thread.
+     */
+    protected abstract void signalled();
+
+    protected boolean hasSignalled()
+    {
+        return !_signalled.isEmpty();
+    }
+
+    /**
+     * Selects everything signalled since the last call. Called by {@link #doWait(long)}.
+     */
+    protected void selectSignalled()
+    {
+        Selectable s;
+        while ((s = _signalled.poll()) != null) {
+            s.selected();
+        }
+    }
+
+    public <C> Listener<C> createLocalListener(String name, C context)
+    {
+        LocalListenerImpl<C> listener = new LocalListenerImpl<C>(this, name, context);
+        if (!LocalListenerImpl.register(listener)) {
+            _logger.log(Level.SEVERE, "A local listener is already registered as " + name);
+            return null;
+        }
+        _listeners.add(listener);
+        _logger.fine("Created local listener " + name + ": " + context);
+        return listener;
+    }
+
+    public <C> Connector<C> createLocalConnector(String name, C context)
+    {
+        LocalPipe in = new LocalPipe();
+        LocalPipe out = new LocalPipe();
+        Connector<C> co = createLocalConnector(in, out, context, null);
+        LocalListenerImpl<?> listener = LocalListenerImpl.lookup(name);
+        if (listener == null || !listener.connect(out, in)) {
+            _logger.log(Level.FINE, "No local listener registered as " + name);
+            // behaves as a refused connection does, with the peer gone before it answers
+            in.close();
+            out.close();
+        }
+        return co;
+    }
+
+    <C> Connector<C> createLocalConnector(LocalPipe in, LocalPipe out, C context, Listener<C> l)
+    {
+        LocalConnectorImpl<C> co = new LocalConnectorImpl<C>(this, l, in, out, context);
+        _connectors.add(co);
+        co.signal();
+        return co;
+    }
+
+    public <C> void removeConnector(Connector<C> c)
+    {
+        _connectors.remove(c);
+    }
+
+    public Iterable<Listener> listeners()
+    {
+        return _listeners;
+    }
+
+    public Iterable<Connector> connectors()
+    {
+        return _connectors;
+    }
+}
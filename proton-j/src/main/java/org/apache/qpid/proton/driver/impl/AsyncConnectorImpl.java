@@ -0,0 +1,370 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.driver.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.driver.Connector;
+import org.apache.qpid.proton.driver.Listener;
+import org.apache.qpid.proton.engine.Connection;
+import org.apache.qpid.proton.engine.Sasl;
+import org.apache.qpid.proton.engine.Transport;
+import org.apache.qpid.proton.engine.TransportException;
+
+/**
+ * A connector whose socket reads and writes complete on the threads of an
+ * {@link AsyncDriverImpl}'s channel group. At most one read and one write are outstanding, each
+ * on a buffer from the driver's pool that the completion thread owns until it clears
+ * {@code _reading} or {@code _writing}. Everything else, including all use of the transport,
+ * happens in {@link #process()} on the application's thread.
+ */
+class AsyncConnectorImpl<C> implements Connector<C>, Selectable
+{
+    private final AsyncDriverImpl _driver;
+    private final Listener<C> _listener;
+    private final AsynchronousSocketChannel _channel;
+    private final Logger _logger = Logger.getLogger("proton.driver");
+    private C _context;
+
+    private Connection _connection;
+    private Transport _transport = Proton.transport();
+
+    // bytes read but not yet taken by the transport, between position and limit
+    private ByteBuffer _input;
+    private ByteBuffer _output;
+
+    private volatile boolean _connected = false;
+    private volatile Throwable _connectError;
+    private volatile boolean _reading = false;
+    private volatile boolean _readEnded = false;
+    private volatile boolean _writing = false;
+    private volatile Throwable _writeError;
+
+    private boolean _inputDone = false;
+    private boolean _outputDone = false;
+    private boolean _closed = false;
+
+    private boolean _selected = false;
+
+    private final CompletionHandler<Integer, Void> _readHandler = new CompletionHandler<Integer, Void>()
+    {
+        public void completed(Integer result, Void attachment)
+        {
+            if (result < 0) {
+                _readEnded = true;
+            }
+            _reading = false;
+            _driver.signal(AsyncConnectorImpl.this);
+        }
+
+        public void failed(Throwable exc, Void attachment)
+        {
+            if (!_closed) {
+                _logger.log(Level.FINE, AsyncConnectorImpl.this + " error reading", exc);
+            }
+            _readEnded = true;
+            _reading = false;
+            _driver.signal(AsyncConnectorImpl.this);
+        }
+    };
+
+    // the buffer being written is the attachment, since close() may clear _output meanwhile
+    private final CompletionHandler<Integer, ByteBuffer> _writeHandler = new CompletionHandler<Integer, ByteBuffer>()
+    {
+        public void completed(Integer result, ByteBuffer buffer)
+        {
+            if (buffer.hasRemaining()) {
+                _channel.write(buffer, buffer, this);
+            } else {
+                buffer.clear();
+                _writing = false;
+                _driver.signal(AsyncConnectorImpl.this);
+            }
+        }
+
+        public void failed(Throwable exc, ByteBuffer buffer)
+        {
+            _writeError = exc;
+            _writing = false;
+            _driver.signal(AsyncConnectorImpl.this);
+        }
+    };
+
+    AsyncConnectorImpl(AsyncDriverImpl driver, Listener<C> listener, AsynchronousSocketChannel c, C context)
+    {
+        _driver = driver;
+        _listener = listener;
+        _channel = c;
+        _context = context;
+    }
+
+    /**
+     * Called once the socket is connected, or has failed to connect. May be called from any thread.
+     */
+    void connected(Throwable error)
+    {
+        _connectError = error;
+        _connected = true;
+        _driver.signal(this);
+    }
+
+    public void selected()
+    {
+        if (!_selected) {
+            _selected = true;
+            _driver.selectConnector(this);
+        }
+    }
+
+    public void unselected()
+    {
+        _selected = false;
+    }
+
+    public boolean process() throws IOException
+    {
+        if (isClosed() || !_connected) return false;
+
+        Throwable error = _connectError;
+        if (error != null) {
+            close();
+            if (error instanceof IOException) {
+                throw (IOException) error;
+            }
+            throw new IOException(error);
+        }
+
+        boolean processed = false;
+        if (!_inputDone && read()) {
+            processed = true;
+        }
+        if (!_outputDone && write()) {
+            processed = true;
+        }
+
+        if (_outputDone && _inputDone) {
+            close();
+        }
+
+        return processed;
+    }
+
+    private boolean read()
+    {
+        if (_reading) {
+            return false;
+        }
+
+        boolean processed = false;
+        if (_input != null) {
+            _input.flip();
+            while (_input.hasRemaining())
+            {
+                int capacity = _transport.capacity();
+                if (capacity < 0) {
+                    _inputDone = true;
+                    break;
+                }
+                if (capacity == 0) {
+                    break;
+                }
+
+                ByteBuffer tail = _transport.tail();
+                int n = Math.min(tail.remaining(), _input.remaining());
+                int limit = _input.limit();
+                _input.limit(_input.position() + n);
+                tail.put(_input);
+                _input.limit(limit);
+                processed = true;
+                try {
+                    _transport.process();
+                } catch (TransportException e) {
+                    _logger.log(Level.SEVERE, this + " error processing input", e);
+                }
+            }
+            _input.compact();
+        }
+
+        if (_inputDone || _transport.capacity() < 0) {
+            _inputDone = true;
+            return processed;
+        }
+        if (_readEnded && (_input == null || _input.position() == 0)) {
+            _transport.close_tail();
+            _inputDone = true;
+            return true;
+        }
+
+        if (!_readEnded && _transport.capacity() > 0) {
+            if (_input == null) {
+                _input = _driver.acquireBuffer();
+            }
+            if (_input.hasRemaining()) {
+                _reading = true;
+                _channel.read(_input, null, _readHandler);
+            }
+        }
+        return processed;
+    }
+
+    private boolean write()
+    {
+        if (_writing) {
+            return false;
+        }
+        if (_writeError != null) {
+            _logger.log(Level.FINE, this + " error writing", _writeError);
+            _outputDone = true;
+            return false;
+        }
+
+        boolean processed = false;
+        try {
+            if (_output == null) {
+                _output = _driver.acquireBuffer();
+            }
+            while (_output.hasRemaining())
+            {
+                ByteBuffer[] head = ConnectorImpl.headBuffers(_transport);
+                int copied = 0;
+                for (int i = 0; i < head.length && _output.hasRemaining(); i++) {
+                    ByteBuffer buffer = head[i];
+                    int n = Math.min(buffer.remaining(), _output.remaining());
+                    int limit = buffer.limit();
+                    buffer.limit(buffer.position() + n);
+                    _output.put(buffer);
+                    buffer.limit(limit);
+                    copied += n;
+                }
+                if (copied == 0) {
+                    break;
+                }
+                _transport.pop(copied);
+            }
+
+            if (_output.position() > 0) {
+                _output.flip();
+                _writing = true;
+                _channel.write(_output, _output, _writeHandler);
+                processed = true;
+            } else if (_transport.pending() < 0) {
+                _outputDone = true;
+                try {
+                    _channel.shutdownOutput();
+                } catch (IOException e) {
+                    _logger.log(Level.FINE, this + " error shutting down output", e);
+                }
+            }
+        } catch (TransportException e) {
+            _logger.log(Level.SEVERE, this + " error", e);
+            _inputDone = true;
+            _outputDone = true;
+        }
+        return processed;
+    }
+
+    public Listener<C> listener()
+    {
+        return _listener;
+    }
+
+    public Sasl sasl()
+    {
+        return _transport.sasl();
+    }
+
+    public Connection getConnection()
+    {
+        return _connection;
+    }
+
+    public void setConnection(Connection connection)
+    {
+        _connection = connection;
+        _transport.bind(_connection);
+    }
+
+    public Transport getTransport()
+    {
+        return _transport;
+    }
+
+    public C getContext()
+    {
+        return _context;
+    }
+
+    public void setContext(C context)
+    {
+        _context = context;
+    }
+
+    public void close()
+    {
+        if (!isClosed())
+        {
+            try
+            {
+                _channel.close();
+            }
+            catch (IOException e)
+            {
+                _logger.log(Level.SEVERE, "Exception when closing connection", e);
+            }
+            finally
+            {
+                _closed = true;
+                // a buffer with an operation outstanding is left to the garbage collector
+                if (_input != null && !_reading) {
+                    _driver.releaseBuffer(_input);
+                }
+                if (_output != null && !_writing) {
+                    _driver.releaseBuffer(_output);
+                }
+                _input = null;
+                _output = null;
+                selected();
+            }
+        }
+    }
+
+    public boolean isClosed()
+    {
+        return _closed;
+    }
+
+    public void destroy()
+    {
+        close();
+        _driver.removeConnector(this);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "AsyncConnectorImpl [_channel=" + _channel + "]";
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.driver.impl;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousChannelGroup;
+import java.nio.channels.AsynchronousServerSocketChannel;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+
+import org.apache.qpid.proton.ProtonUnsupportedOperationException;
+import org.apache.qpid.proton.driver.Connector;
+import org.apache.qpid.proton.driver.Listener;
+
+/**
+ * A driver whose sockets are NIO.2 asynchronous channels, so that their IO completes on the
+ * threads of an {@link AsynchronousChannelGroup} that can be shared with other services, rather
+ * than on a selector of the driver's own.
+ *
+ * Transports are not thread safe, so completion handlers never touch them. A completed read or
+ * write only signals its connector, which moves bytes between its pooled buffers and the
+ * transport when the application next calls {@link Connector#process()}, as it does with
+ * {@link DriverImpl}.
+ *
+ * Channels passed in from outside and Unix domain sockets are not supported, since they cannot
+ * be used asynchronously.
+ */
+public class AsyncDriverImpl extends AbstractDriver
+{
+    private static final int BUFFER_SIZE = Integer.getInteger("pn.async_buffer_size", 64 * 1024);
+
+    private final AsynchronousChannelGroup _group;
+    private final Queue<ByteBuffer> _buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+    private final Object _wakeupLock = new Object();
+    private boolean _woken = false;
+
+    /**
+     * @param group the group whose threads complete the driver's IO, or null for the JVM's
+     *              default group
+     */
+    public AsyncDriverImpl(AsynchronousChannelGroup group)
+    {
+        _group = group;
+    }
+
+    ByteBuffer acquireBuffer()
+    {
+        ByteBuffer buffer = _buffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+        return buffer;
+    }
+
+    void releaseBuffer(ByteBuffer buffer)
+    {
+        buffer.clear();
+        _buffers.add(buffer);
+    }
+
+    public void wakeup()
+    {
+        synchronized (_wakeupLock) {
+            _woken = true;
+            _wakeupLock.notifyAll();
+        }
+    }
+
+    protected void signalled()
+    {
+        synchronized (_wakeupLock) {
+            _wakeupLock.notifyAll();
+        }
+    }
+
+    public boolean doWait(long timeout)
+    {
+        boolean woken;
+        synchronized (_wakeupLock) {
+            long deadline = System.currentTimeMillis() + timeout;
+            try {
+                while (!_woken && !hasSignalled() && timeout != 0) {
+                    if (timeout < 0) {
+                        _wakeupLock.wait();
+                    } else {
+                        long remaining = deadline - System.currentTimeMillis();
+                        if (remaining <= 0) {
+                            break;
+                        }
+                        _wakeupLock.wait(remaining);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            woken = _woken;
+            _woken = false;
+        }
+
+        selectSignalled();
+        return woken;
+    }
+
+    public void destroy()
+    {
+        for (Listener<?> l : new ArrayList<Listener>(_listeners)) {
+            try {
+                l.close();
+            } catch (IOException e) {
+                _logger.log(Level.FINE, "Exception when closing listener", e);
+            }
+        }
+        for (Connector<?> c : new ArrayList<Connector>(_connectors)) {
+            c.close();
+        }
+        _listeners.clear();
+        _connectors.clear();
+    }
+
+    public <C> Listener<C> createListener(String host, int port, C context)
+    {
+        try
+        {
+            AsynchronousServerSocketChannel channel = AsynchronousServerSocketChannel.open(_group);
+            channel.bind(new InetSocketAddress(host, port));
+            AsyncListenerImpl<C> listener = new AsyncListenerImpl<C>(this, channel, context);
+            _listeners.add(listener);
+            listener.start();
+            _logger.fine("Created listener on " + host + ":" + port + ": " + context);
+            return listener;
+        }
+        catch (IOException e)
+        {
+            _logger.log(Level.SEVERE, "Exception when listening on " + host + ":" + port, e);
+        }
+        return null;
+    }
+
+    public <C> Listener<C> createListener(ServerSocketChannel c, C context)
+    {
+        throw new ProtonUnsupportedOperationException("An asynchronous driver cannot use a selectable channel");
+    }
+
+    public <C> Listener<C> createUnixListener(String path, C context)
+    {
+        throw new ProtonUnsupportedOperationException("An asynchronous driver cannot use Unix domain sockets");
+    }
+
+    public <C> Connector<C> createConnector(String host, int port, C context)
+    {
+        try
+        {
+            AsynchronousSocketChannel channel = AsynchronousSocketChannel.open(_group);
+            // Disable the Nagle algorithm on TCP connections.
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            final AsyncConnectorImpl<C> co = new AsyncConnectorImpl<C>(this, null, channel, context);
+            _connectors.add(co);
+            channel.connect(new InetSocketAddress(host, port), null, new CompletionHandler<Void, Void>()
+            {
+                public void completed(Void result, Void attachment)
+                {
+                    co.connected(null);
+                }
+
+                public void failed(Throwable exc, Void attachment)
+                {
+                    co.connected(exc);
+                }
+            });
+            return co;
+        }
+        catch (IOException e)
+        {
+            _logger.log(Level.SEVERE, "Exception when connecting to " + host + ":" + port, e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    public <C> Connector<C> createConnector(SelectableChannel c, C context)
+    {
+        throw new ProtonUnsupportedOperationException("An asynchronous driver cannot use a selectable channel");
+    }
+
+    public <C> Connector<C> createUnixConnector(String path, C context)
+    {
+        throw new ProtonUnsupportedOperationException("An asynchronous driver cannot use Unix domain sockets");
+    }
+
+    <C> Connector<C> createServerConnector(AsynchronousSocketChannel channel, Listener<C> l)
+    {
+        AsyncConnectorImpl<C> co = new AsyncConnectorImpl<C>(this, l, channel, null);
+        _connectors.add(co);
+        co.connected(null);
+        return co;
+    }
+}
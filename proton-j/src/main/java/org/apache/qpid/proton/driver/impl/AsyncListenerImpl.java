@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.driver.impl;
+
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.channels.AsynchronousServerSocketChannel;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.qpid.proton.driver.Connector;
+import org.apache.qpid.proton.driver.Listener;
+
+/**
+ * Keeps an accept outstanding on its channel, queueing each accepted socket until the
+ * application calls {@link #accept()}.
+ */
+class AsyncListenerImpl<C> implements Listener<C>, Selectable
+{
+    private C _context;
+    private final AsynchronousServerSocketChannel _channel;
+    private final AsyncDriverImpl _driver;
+    private final Logger _logger = Logger.getLogger("proton.driver");
+    private final Queue<AsynchronousSocketChannel> _accepted = new ConcurrentLinkedQueue<AsynchronousSocketChannel>();
+    private volatile boolean _closed = false;
+    private boolean _selected = false;
+
+    private final CompletionHandler<AsynchronousSocketChannel, Void> _acceptHandler =
+        new CompletionHandler<AsynchronousSocketChannel, Void>()
+    {
+        public void completed(AsynchronousSocketChannel channel, Void attachment)
+        {
+            _accepted.add(channel);
+            _driver.signal(AsyncListenerImpl.this);
+            start();
+        }
+
+        public void failed(Throwable exc, Void attachment)
+        {
+            if (!_closed) {
+                _logger.log(Level.SEVERE, "Exception when accepting connection", exc);
+            }
+        }
+    };
+
+    AsyncListenerImpl(AsyncDriverImpl driver, AsynchronousServerSocketChannel c, C context)
+    {
+        _driver = driver;
+        _channel = c;
+        _context = context;
+    }
+
+    void start()
+    {
+        if (!_closed) {
+            _channel.accept(null, _acceptHandler);
+        }
+    }
+
+    public void selected()
+    {
+        if (!_selected) {
+            _selected = true;
+            _driver.selectListener(this);
+        }
+    }
+
+    public void unselected()
+    {
+        _selected = false;
+    }
+
+    public Connector<C> accept()
+    {
+        AsynchronousSocketChannel c = _accepted.poll();
+        if (c == null) {
+            return null;
+        }
+        if (!_accepted.isEmpty()) {
+            // one connection is accepted per selection, as with a selector
+            _driver.signal(this);
+        }
+        try {
+            c.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        } catch (IOException e) {
+            _logger.log(Level.FINE, "Exception when disabling Nagle's algorithm", e);
+        }
+        return _driver.createServerConnector(c, this);
+    }
+
+    public C getContext()
+    {
+        return _context;
+    }
+
+    public void setContext(C context)
+    {
+        _context = context;
+    }
+
+    public void close() throws IOException
+    {
+        _closed = true;
+        _channel.close();
+    }
+}
@@ -29,17 +29,20 @@ import org.apache.qpid.proton.Proton;
 import org.apache.qpid.proton.driver.Connector;
 import org.apache.qpid.proton.driver.Listener;
 import org.apache.qpid.proton.engine.Connection;
+import org.apache.qpid.proton.engine.ProtonJTransport;
 import org.apache.qpid.proton.engine.Sasl;
 import org.apache.qpid.proton.engine.Transport;
 import org.apache.qpid.proton.engine.TransportException;
 
-class ConnectorImpl<C> implements Connector<C>
+class ConnectorImpl<C> implements Connector<C>, Selectable
 {
     private static int DEFAULT_BUFFER_SIZE = 64 * 1024;
     private static int readBufferSize = Integer.getInteger
         ("pn.receive_buffer_size", DEFAULT_BUFFER_SIZE);
     private static int writeBufferSize = Integer.getInteger
         ("pn.send_buffer_size", DEFAULT_BUFFER_SIZE);
+    private static int maxReads = Integer.getInteger("pn.max_reads", 16);
+    private static int maxReadBytes = Integer.getInteger("pn.max_read_bytes", 4 * DEFAULT_BUFFER_SIZE);
 
     enum ConnectorState {UNINITIALIZED, OPENED, EOS, CLOSED};
 
@@ -70,7 +73,7 @@ class ConnectorImpl<C> implements Connector<C>
         _key = key;
     }
 
-    void selected()
+    public void selected()
     {
         if (!_selected) {
             _selected = true;
@@ -79,7 +82,7 @@ class ConnectorImpl<C> implements Connector<C>
         }
     }
 
-    void unselected()
+    public void unselected()
     {
         _selected = false;
     }
@@ -107,94 +110,159 @@ class ConnectorImpl<C> implements Connector<C>
         {
             close();
         }
+        else
+        {
+            updateInterest();
+        }
 
         return processed;
     }
 
+    /**
+     * Reads until the socket is drained, or the per-selection limits on reads and bytes are
+     * reached, processing the input only when the transport's buffer fills and once at the end.
+     */
     private boolean read() throws IOException
     {
         if (!_readAllowed) return false;
         _readAllowed = false;
-        boolean processed = false;
 
-        int interest = _key.interestOps();
-        int capacity = _transport.capacity();
-        if (capacity == Transport.END_OF_STREAM)
-        {
-            _inputDone = true;
-        }
-        else
+        int total = 0;
+        int unprocessed = 0;
+        boolean eos = false;
+        for (int reads = 0; reads < maxReads && total < maxReadBytes; reads++)
         {
+            int capacity = _transport.capacity();
+            if (capacity == 0 && unprocessed > 0)
+            {
+                processInput();
+                unprocessed = 0;
+                capacity = _transport.capacity();
+            }
+            if (capacity <= 0)
+            {
+                break;
+            }
+
             ByteBuffer tail = _transport.tail();
+            int requested = tail.remaining();
             int bytesRead = _channel.read(tail);
             if (bytesRead < 0) {
-                _transport.close_tail();
-                _inputDone = true;
-            } else if (bytesRead > 0) {
-                try {
-                    _transport.process();
-                } catch (TransportException e) {
-                    _logger.log(Level.SEVERE, this + " error processing input", e);
-                }
-                processed = true;
+                eos = true;
+                break;
+            }
+            total += bytesRead;
+            unprocessed += bytesRead;
+            if (bytesRead < requested) {
+                // a short read leaves the socket empty, so another would only return 0
+                break;
             }
         }
 
-        capacity = _transport.capacity();
-        if (capacity > 0) {
-            interest |= SelectionKey.OP_READ;
-        } else {
-            interest &= ~SelectionKey.OP_READ;
-            if (capacity < 0) {
-                _inputDone = true;
-            }
+        if (unprocessed > 0)
+        {
+            processInput();
+        }
+        if (eos)
+        {
+            _transport.close_tail();
+        }
+        if (_transport.capacity() < 0)
+        {
+            _inputDone = true;
         }
-        _key.interestOps(interest);
 
-        return processed;
+        return total > 0;
+    }
+
+    private void processInput()
+    {
+        try {
+            _transport.process();
+        } catch (TransportException e) {
+            _logger.log(Level.SEVERE, this + " error processing input", e);
+        }
     }
 
+    /**
+     * Writes until the transport has no more output or the socket will not take it all.
+     */
     private boolean write() throws IOException
     {
         boolean processed = false;
 
-        int interest = _key.interestOps();
-        boolean writeBlocked = false;
-
         try {
-            while (_transport.pending() > 0 && !writeBlocked)
+            while (true)
             {
-                ByteBuffer head = _transport.head();
-                int wrote = _channel.write(head);
+                ByteBuffer[] head = headBuffers(_transport);
+                long remaining = remaining(head);
+                if (remaining == 0) {
+                    break;
+                }
+
+                long wrote = _channel.write(head);
                 if (wrote > 0) {
                     processed = true;
-                    _transport.pop(wrote);
-                } else {
-                    writeBlocked = true;
+                    _transport.pop((int) wrote);
+                }
+                if (wrote < remaining) {
+                    // the socket buffer is full, so wait to be told it is writable again
+                    break;
                 }
             }
 
-            int pending = _transport.pending();
-            if (pending > 0) {
-                interest |= SelectionKey.OP_WRITE;
-            } else {
-                interest &= ~SelectionKey.OP_WRITE;
-                if (pending < 0) {
-                    _outputDone = true;
-                }
+            if (_transport.pending() < 0) {
+                _outputDone = true;
             }
         } catch (TransportException e) {
             _logger.log(Level.SEVERE, this + " error", e);
-            interest &= ~SelectionKey.OP_WRITE;
             _inputDone = true;
             _outputDone = true;
         }
 
-        _key.interestOps(interest);
-
         return processed;
     }
 
+    /**
+     * Re-arms the selection key once per call to {@link #process()}, and only if the interest set
+     * has changed, since every update costs a system call at the next select.
+     */
+    private void updateInterest()
+    {
+        int interest = 0;
+        if (!_inputDone && _transport.capacity() > 0) {
+            interest |= SelectionKey.OP_READ;
+        }
+        if (!_outputDone && _transport.pending() > 0) {
+            interest |= SelectionKey.OP_WRITE;
+        }
+        if (_key.interestOps() != interest) {
+            _key.interestOps(interest);
+        }
+    }
+
+    /**
+     * Frame headers and large transfer payloads are returned as separate buffers so that they
+     * can be written with a single gathering write, without first being copied together.
+     */
+    static ByteBuffer[] headBuffers(Transport transport)
+    {
+        if (transport instanceof ProtonJTransport) {
+            return ((ProtonJTransport) transport).headBuffers();
+        } else {
+            return transport.pending() > 0 ? new ByteBuffer[] { transport.head() } : new ByteBuffer[0];
+        }
+    }
+
+    static long remaining(ByteBuffer[] buffers)
+    {
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        return remaining;
+    }
+
     public Listener<C> listener()
     {
         return _listener;
@@ -20,6 +20,7 @@
  */
 package org.apache.qpid.proton.driver.impl;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
@@ -29,29 +30,18 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
-import java.util.ArrayDeque;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import org.apache.qpid.proton.driver.Connector;
-import org.apache.qpid.proton.driver.Driver;
 import org.apache.qpid.proton.driver.Listener;
 
-public class DriverImpl implements Driver
+public class DriverImpl extends AbstractDriver
 {
     private Selector _selector;
-    private Collection<Listener> _listeners = new LinkedList();
-    private Collection<Connector> _connectors = new LinkedList();
-    private Logger _logger = Logger.getLogger("proton.driver");
-    private Object _wakeupLock = new Object();
-    private boolean _woken = false;
-    private Queue<ConnectorImpl> _selectedConnectors = new ArrayDeque<ConnectorImpl>();
-    private Queue<ListenerImpl> _selectedListeners = new ArrayDeque<ListenerImpl>();
+    private final AtomicBoolean _woken = new AtomicBoolean();
+    // set between a wakeup of the selector and the next select, so bursts wake it only once
+    private final AtomicBoolean _wakeupPending = new AtomicBoolean();
 
     public DriverImpl() throws IOException
     {
@@ -60,22 +50,25 @@ public class DriverImpl implements Driver
 
     public void wakeup()
     {
-        synchronized (_wakeupLock) {
-            _woken = true;
+        _woken.set(true);
+        wakeSelector();
+    }
+
+    private void wakeSelector()
+    {
+        if (_wakeupPending.compareAndSet(false, true)) {
+            _selector.wakeup();
         }
-        _selector.wakeup();
     }
 
     public boolean doWait(long timeout)
     {
         try
         {
-            boolean woken;
-            synchronized (_wakeupLock) {
-                woken = _woken;
-            }
+            _wakeupPending.set(false);
+            boolean woken = _woken.get();
 
-            if (woken || timeout == 0) {
+            if (woken || timeout == 0 || hasSignalled()) {
                 _selector.selectNow();
             } else if (timeout < 0) {
                 _selector.select();
@@ -83,10 +76,7 @@ public class DriverImpl implements Driver
                 _selector.select(timeout);
             }
 
-            synchronized (_wakeupLock) {
-                woken = woken || _woken;
-                _woken = false;
-            }
+            woken = _woken.getAndSet(false) || woken;
 
             for (SelectionKey key : _selector.selectedKeys()) {
                 if (key.isAcceptable()) {
@@ -100,6 +90,8 @@ public class DriverImpl implements Driver
 
             _selector.selectedKeys().clear();
 
+            selectSignalled();
+
             return woken;
         }
         catch (IOException e)
@@ -109,33 +101,9 @@ public class DriverImpl implements Driver
         }
     }
 
-    void selectListener(ListenerImpl l)
-    {
-        _selectedListeners.add(l);
-    }
-
-    public Listener listener()
-    {
-        ListenerImpl listener = _selectedListeners.poll();
-        if (listener != null) {
-            listener.unselected();
-        }
-
-        return listener;
-    }
-
-    void selectConnector(ConnectorImpl c)
+    protected void signalled()
     {
-        _selectedConnectors.add(c);
-    }
-
-    public Connector connector()
-    {
-        ConnectorImpl connector = _selectedConnectors.poll();
-        if (connector != null) {
-            connector.unselected();
-        }
-        return connector;
+        wakeSelector();
     }
 
     public void destroy()
@@ -177,9 +145,32 @@ public class DriverImpl implements Driver
         return null;
     }
 
+    public <C> Listener<C> createUnixListener(String path, C context)
+    {
+        try
+        {
+            ServerSocketChannel serverSocketChannel = UnixDomainSockets.openServerSocket(path);
+            serverSocketChannel.configureBlocking(false);
+            Listener<C> listener = createListener(serverSocketChannel, context, new File(path));
+            _logger.fine("Created listener on unix:" + path + ": " + context);
+
+            return listener;
+        }
+        catch (IOException e)
+        {
+            _logger.log(Level.SEVERE, "Exception when listening on unix:" + path, e);
+        }
+        return null;
+    }
+
     public <C> Listener<C> createListener(ServerSocketChannel c, C context)
     {
-        Listener<C> l = new ListenerImpl<C>(this, c, context);
+        return createListener(c, context, null);
+    }
+
+    private <C> Listener<C> createListener(ServerSocketChannel c, C context, File socketFile)
+    {
+        Listener<C> l = new ListenerImpl<C>(this, c, context, socketFile);
         SelectionKey key = registerInterest(c,SelectionKey.OP_ACCEPT);
         key.attach(l);
         _listeners.add(l);
@@ -205,6 +196,22 @@ public class DriverImpl implements Driver
         }
     }
 
+    public <C> Connector<C> createUnixConnector(String path, C context)
+    {
+        try
+        {
+            SocketChannel channel = UnixDomainSockets.openSocket();
+            channel.configureBlocking(false);
+            channel.connect(UnixDomainSockets.address(path));
+            return createConnector(channel, context);
+        }
+        catch (IOException e)
+        {
+            _logger.log(Level.SEVERE, "Exception when connecting to unix:" + path, e);
+            throw new RuntimeException(e);
+        }
+    }
+
     public <C> Connector<C> createConnector(SelectableChannel c, C context)
     {
         SelectionKey key = registerInterest(c, SelectionKey.OP_READ | SelectionKey.OP_WRITE);
@@ -214,21 +221,6 @@ public class DriverImpl implements Driver
         return co;
     }
 
-    public <C> void removeConnector(Connector<C> c)
-    {
-        _connectors.remove(c);
-    }
-
-    public Iterable<Listener> listeners()
-    {
-        return _listeners;
-    }
-
-    public Iterable<Connector> connectors()
-    {
-        return _connectors;
-    }
-
     protected <C> Connector<C> createServerConnector(SelectableChannel c, C context, Listener<C> l)
     {
         SelectionKey key = registerInterest(c, SelectionKey.OP_READ | SelectionKey.OP_WRITE);
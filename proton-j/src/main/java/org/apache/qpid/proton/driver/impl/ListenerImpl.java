@@ -20,6 +20,7 @@
  */
 package org.apache.qpid.proton.driver.impl;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
@@ -29,22 +30,34 @@ import java.util.logging.Logger;
 import org.apache.qpid.proton.driver.Connector;
 import org.apache.qpid.proton.driver.Listener;
 
-class ListenerImpl<C> implements Listener<C>
+class ListenerImpl<C> implements Listener<C>, Selectable
 {
     private C _context;
     private final ServerSocketChannel _channel;
     private final DriverImpl _driver;
+    // the Unix domain socket file the channel is bound to, or null
+    private final File _socketFile;
     private final Logger _logger = Logger.getLogger("proton.driver");
     private boolean _selected = false;
 
     ListenerImpl(DriverImpl driver, ServerSocketChannel c, C context)
+    {
+        this(driver, c, context, null);
+    }
+
+    /**
+     * @param socketFile the Unix domain socket file c is bound to, removed when the listener is
+     *                   closed, or null
+     */
+    ListenerImpl(DriverImpl driver, ServerSocketChannel c, C context, File socketFile)
     {
         _driver = driver;
         _channel = c;
         _context = context;
+        _socketFile = socketFile;
     }
 
-    void selected()
+    public void selected()
     {
         if (!_selected) {
             _selected = true;
@@ -52,7 +65,7 @@ class ListenerImpl<C> implements Listener<C>
         }
     }
 
-    void unselected()
+    public void unselected()
     {
         _selected = false;
     }
@@ -87,6 +100,12 @@ class ListenerImpl<C> implements Listener<C>
 
     public void close() throws IOException
     {
-        _channel.socket().close();
+        // a Unix domain channel has no ServerSocket, and closing the channel closes either kind
+        _channel.close();
+        // closing a Unix domain channel leaves its file behind, and binding fails while it exists
+        if (_socketFile != null && _socketFile.exists() && !_socketFile.delete())
+        {
+            _logger.log(Level.WARNING, "Could not remove socket file " + _socketFile);
+        }
     }
 }
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.driver.impl;
+
+import java.nio.ByteBuffer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.driver.Connector;
+import org.apache.qpid.proton.driver.Listener;
+import org.apache.qpid.proton.engine.Connection;
+import org.apache.qpid.proton.engine.Sasl;
+import org.apache.qpid.proton.engine.Transport;
+import org.apache.qpid.proton.engine.TransportException;
+
+/**
+ * A connector to a peer in the same JVM. The bytes the transport produces go straight into the
+ * peer's inbound {@link LocalPipe}, so there is no socket, and the connector is selected when its
+ * own inbound pipe is written to rather than by the driver's selector.
+ */
+class LocalConnectorImpl<C> implements Connector<C>, Selectable
+{
+    private final AbstractDriver _driver;
+    private final Listener<C> _listener;
+    private final LocalPipe _in;
+    private final LocalPipe _out;
+    private final Logger _logger = Logger.getLogger("proton.driver");
+    private C _context;
+
+    private Connection _connection;
+    private Transport _transport = Proton.transport();
+
+    private boolean _inputDone = false;
+    private boolean _outputDone = false;
+    private boolean _closed = false;
+
+    private boolean _selected = false;
+
+    LocalConnectorImpl(AbstractDriver driver, Listener<C> listener, LocalPipe in, LocalPipe out, C context)
+    {
+        _driver = driver;
+        _listener = listener;
+        _in = in;
+        _out = out;
+        _context = context;
+        in.setReader(this);
+        out.setWriter(this);
+    }
+
+    /**
+     * Has the connector selected on its driver's thread. May be called from any thread.
+     */
+    void signal()
+    {
+        _driver.signal(this);
+    }
+
+    public void selected()
+    {
+        if (!_selected) {
+            _selected = true;
+            _driver.selectConnector(this);
+        }
+    }
+
+    public void unselected()
+    {
+        _selected = false;
+    }
+
+    public boolean process()
+    {
+        if (isClosed()) return false;
+
+        boolean processed = false;
+        if (!_inputDone && read()) {
+            processed = true;
+        }
+        if (!_outputDone && write()) {
+            processed = true;
+        }
+
+        if (_outputDone && _inputDone) {
+            close();
+        }
+
+        return processed;
+    }
+
+    private boolean read()
+    {
+        boolean processed = false;
+        while (true)
+        {
+            int capacity = _transport.capacity();
+            if (capacity < 0) {
+                _inputDone = true;
+                break;
+            }
+            if (capacity == 0) {
+                break;
+            }
+
+            int n = _in.read(_transport.tail());
+            if (n < 0) {
+                _transport.close_tail();
+                _inputDone = true;
+                break;
+            } else if (n == 0) {
+                break;
+            } else {
+                processed = true;
+                try {
+                    _transport.process();
+                } catch (TransportException e) {
+                    _logger.log(Level.SEVERE, this + " error processing input", e);
+                }
+            }
+        }
+        return processed;
+    }
+
+    private boolean write()
+    {
+        boolean processed = false;
+        try {
+            while (true)
+            {
+                ByteBuffer[] head = ConnectorImpl.headBuffers(_transport);
+                long remaining = ConnectorImpl.remaining(head);
+                if (remaining == 0) {
+                    break;
+                }
+                long written = _out.write(head);
+                if (written > 0) {
+                    _transport.pop((int) written);
+                    processed = true;
+                }
+                if (written < remaining) {
+                    // the pipe is full, and this is signalled once the peer has read from it
+                    break;
+                }
+            }
+
+            if (_transport.pending() < 0) {
+                _outputDone = true;
+                _out.close();
+            }
+        } catch (TransportException e) {
+            _logger.log(Level.SEVERE, this + " error", e);
+            _inputDone = true;
+            _outputDone = true;
+            _out.close();
+        }
+        return processed;
+    }
+
+    public Listener<C> listener()
+    {
+        return _listener;
+    }
+
+    public Sasl sasl()
+    {
+        return _transport.sasl();
+    }
+
+    public Connection getConnection()
+    {
+        return _connection;
+    }
+
+    public void setConnection(Connection connection)
+    {
+        _connection = connection;
+        _transport.bind(_connection);
+    }
+
+    public Transport getTransport()
+    {
+        return _transport;
+    }
+
+    public C getContext()
+    {
+        return _context;
+    }
+
+    public void setContext(C context)
+    {
+        _context = context;
+    }
+
+    public void close()
+    {
+        if (!isClosed())
+        {
+            _closed = true;
+            _out.close();
+            _in.close();
+            selected();
+        }
+    }
+
+    public boolean isClosed()
+    {
+        return _closed;
+    }
+
+    public void destroy()
+    {
+        close();
+        _driver.removeConnector(this);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "LocalConnectorImpl [_listener=" + _listener + "]";
+    }
+}
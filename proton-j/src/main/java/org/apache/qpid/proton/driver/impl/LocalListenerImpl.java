@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.driver.impl;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.qpid.proton.driver.Connector;
+import org.apache.qpid.proton.driver.Listener;
+
+/**
+ * Accepts connections made by {@link org.apache.qpid.proton.driver.Driver#createLocalConnector(String, Object)} from any
+ * driver in the JVM. Each pending connection is the pair of pipes it will read and write.
+ */
+class LocalListenerImpl<C> implements Listener<C>, Selectable
+{
+    private static final ConcurrentMap<String, LocalListenerImpl<?>> _registry =
+        new ConcurrentHashMap<String, LocalListenerImpl<?>>();
+
+    private C _context;
+    private final String _name;
+    private final AbstractDriver _driver;
+    private final Queue<LocalPipe[]> _pending = new ConcurrentLinkedQueue<LocalPipe[]>();
+    private volatile boolean _closed = false;
+    private boolean _selected = false;
+
+    LocalListenerImpl(AbstractDriver driver, String name, C context)
+    {
+        _driver = driver;
+        _name = name;
+        _context = context;
+    }
+
+    static boolean register(LocalListenerImpl<?> listener)
+    {
+        return _registry.putIfAbsent(listener._name, listener) == null;
+    }
+
+    static LocalListenerImpl<?> lookup(String name)
+    {
+        return _registry.get(name);
+    }
+
+    /**
+     * Queues a connection to be accepted on the listener's driver. May be called from any thread.
+     *
+     * @return false if the listener has been closed
+     */
+    boolean connect(LocalPipe in, LocalPipe out)
+    {
+        if (_closed) {
+            return false;
+        }
+        LocalPipe[] pipes = new LocalPipe[] { in, out };
+        _pending.add(pipes);
+        if (_closed) {
+            // close() may have drained the queue before the pipes were added, in which case
+            // they would never be accepted, so they are taken back for the caller to close
+            _pending.remove(pipes);
+            return false;
+        }
+        _driver.signal(this);
+        return true;
+    }
+
+    public void selected()
+    {
+        if (!_selected) {
+            _selected = true;
+            _driver.selectListener(this);
+        }
+    }
+
+    public void unselected()
+    {
+        _selected = false;
+    }
+
+    public Connector<C> accept()
+    {
+        LocalPipe[] pipes = _pending.poll();
+        if (pipes == null) {
+            return null;
+        }
+        if (!_pending.isEmpty()) {
+            // one connection is accepted per selection, as with a socket
+            _driver.signal(this);
+        }
+        return _driver.createLocalConnector(pipes[0], pipes[1], null, this);
+    }
+
+    public C getContext()
+    {
+        return _context;
+    }
+
+    public void setContext(C context)
+    {
+        _context = context;
+    }
+
+    public void close()
+    {
+        _closed = true;
+        _registry.remove(_name, this);
+        LocalPipe[] pipes;
+        while ((pipes = _pending.poll()) != null) {
+            pipes[0].close();
+            pipes[1].close();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "LocalListenerImpl [_name=" + _name + "]";
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.driver.impl;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Carries bytes one way between two {@link LocalConnectorImpl}s, which may belong to drivers on
+ * different threads. Written bytes are copied once, since the writing transport reuses its
+ * output buffers, and the reader is signalled through its driver rather than a selector.
+ *
+ * A pipe holds at most a fixed number of bytes, as a socket's buffers do. Once it is full the
+ * writer takes no more of its transport's output, which stays pending in the transport, and it
+ * is signalled when the reader has made room.
+ */
+class LocalPipe
+{
+    static final int CAPACITY = Integer.getInteger("proton.local_pipe_capacity", 1024 * 1024);
+
+    private final ArrayDeque<ByteBuffer> _chunks = new ArrayDeque<ByteBuffer>();
+    private final int _capacity;
+    private int _queued;
+    private boolean _full;
+    private boolean _closed;
+    private LocalConnectorImpl<?> _reader;
+    private LocalConnectorImpl<?> _writer;
+
+    LocalPipe()
+    {
+        this(CAPACITY);
+    }
+
+    /**
+     * @param capacity the most bytes held for the reader
+     */
+    LocalPipe(int capacity)
+    {
+        _capacity = capacity;
+    }
+
+    /**
+     * Attaches the connector to signal when the pipe has bytes for it or is closed
+     */
+    void setReader(LocalConnectorImpl<?> reader)
+    {
+        synchronized (this) {
+            _reader = reader;
+        }
+    }
+
+    /**
+     * Attaches the connector to signal when a full pipe has room again
+     */
+    void setWriter(LocalConnectorImpl<?> writer)
+    {
+        synchronized (this) {
+            _writer = writer;
+        }
+    }
+
+    /**
+     * Takes as many of the remaining bytes of buffers as the pipe has room for, advancing their
+     * positions past them. Bytes written after the pipe is closed are all taken and dropped, as
+     * they would be by a peer that has gone away.
+     *
+     * @return the number of bytes taken
+     */
+    long write(ByteBuffer[] buffers)
+    {
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        if (remaining == 0) {
+            return 0;
+        }
+
+        int size;
+        synchronized (this) {
+            if (_closed) {
+                for (ByteBuffer buffer : buffers) {
+                    buffer.position(buffer.limit());
+                }
+                return remaining;
+            }
+            size = (int) Math.min(remaining, _capacity - _queued);
+            _full = size < remaining;
+            // reserved now and copied outside the lock; a pipe has only the one writer
+            _queued += size;
+        }
+        if (size == 0) {
+            return 0;
+        }
+
+        ByteBuffer chunk = ByteBuffer.allocate(size);
+        for (int i = 0; i < buffers.length && chunk.hasRemaining(); i++) {
+            ByteBuffer buffer = buffers[i];
+            int limit = buffer.limit();
+            buffer.limit(buffer.position() + Math.min(buffer.remaining(), chunk.remaining()));
+            chunk.put(buffer);
+            buffer.limit(limit);
+        }
+        chunk.flip();
+
+        LocalConnectorImpl<?> reader;
+        synchronized (this) {
+            if (!_closed) {
+                _chunks.add(chunk);
+            }
+            reader = _reader;
+        }
+        if (reader != null) {
+            reader.signal();
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of bytes copied into dst, or -1 if the pipe is closed and drained
+     */
+    int read(ByteBuffer dst)
+    {
+        LocalConnectorImpl<?> writer = null;
+        int read = 0;
+        synchronized (this) {
+            ByteBuffer chunk;
+            while (dst.hasRemaining() && (chunk = _chunks.peek()) != null) {
+                if (chunk.remaining() <= dst.remaining()) {
+                    read += chunk.remaining();
+                    dst.put(chunk);
+                    _chunks.poll();
+                } else {
+                    int limit = chunk.limit();
+                    chunk.limit(chunk.position() + dst.remaining());
+                    read += chunk.remaining();
+                    dst.put(chunk);
+                    chunk.limit(limit);
+                }
+            }
+            if (read == 0) {
+                return _closed && _chunks.isEmpty() ? -1 : 0;
+            }
+            _queued -= read;
+            if (_full) {
+                _full = false;
+                writer = _writer;
+            }
+        }
+        if (writer != null) {
+            writer.signal();
+        }
+        return read;
+    }
+
+    void close()
+    {
+        LocalConnectorImpl<?> reader;
+        LocalConnectorImpl<?> writer = null;
+        synchronized (this) {
+            if (_closed) {
+                return;
+            }
+            _closed = true;
+            reader = _reader;
+            if (_full) {
+                // what it has left to write can now be dropped
+                _full = false;
+                writer = _writer;
+            }
+        }
+        if (reader != null) {
+            reader.signal();
+        }
+        if (writer != null) {
+            writer.signal();
+        }
+    }
+}
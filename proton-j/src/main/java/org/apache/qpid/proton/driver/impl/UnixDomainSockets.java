@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.driver.impl;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.SocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Opens Unix domain socket channels. proton-j is built for Java 6, so the Java 16 API for these
+ * (UnixDomainSocketAddress and StandardProtocolFamily.UNIX) is looked up when the class loads,
+ * and using it on an older runtime fails with an IOException.
+ */
+final class UnixDomainSockets
+{
+    private static final Object UNIX;
+    private static final Method ADDRESS_OF;
+    private static final Method OPEN_SOCKET;
+    private static final Method OPEN_SERVER_SOCKET;
+    private static final Method BIND;
+
+    static
+    {
+        Object unix = null;
+        Method addressOf = null;
+        Method openSocket = null;
+        Method openServerSocket = null;
+        Method bind = null;
+        try
+        {
+            Class<?> family = Class.forName("java.net.ProtocolFamily");
+            unix = Class.forName("java.net.StandardProtocolFamily").getField("UNIX").get(null);
+            addressOf = Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", String.class);
+            openSocket = SocketChannel.class.getMethod("open", family);
+            openServerSocket = ServerSocketChannel.class.getMethod("open", family);
+            bind = ServerSocketChannel.class.getMethod("bind", SocketAddress.class);
+        }
+        catch (Exception e)
+        {
+            unix = null;
+        }
+        UNIX = unix;
+        ADDRESS_OF = addressOf;
+        OPEN_SOCKET = openSocket;
+        OPEN_SERVER_SOCKET = openServerSocket;
+        BIND = bind;
+    }
+
+    private UnixDomainSockets()
+    {
+    }
+
+    static boolean isSupported()
+    {
+        return UNIX != null;
+    }
+
+    static SocketAddress address(String path) throws IOException
+    {
+        return (SocketAddress) invoke(ADDRESS_OF, null, path);
+    }
+
+    /**
+     * @return a new unconnected channel, in blocking mode
+     */
+    static SocketChannel openSocket() throws IOException
+    {
+        return (SocketChannel) invoke(OPEN_SOCKET, null, UNIX);
+    }
+
+    /**
+     * @return a new channel bound to path, in blocking mode. The socket file is left behind when
+     * the channel is closed, and binding fails while it exists, so the caller must remove it.
+     */
+    static ServerSocketChannel openServerSocket(String path) throws IOException
+    {
+        ServerSocketChannel channel = (ServerSocketChannel) invoke(OPEN_SERVER_SOCKET, null, UNIX);
+        try
+        {
+            invoke(BIND, channel, address(path));
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    private static Object invoke(Method method, Object target, Object arg) throws IOException
+    {
+        if (!isSupported())
+        {
+            throw new IOException("Unix domain sockets need Java 16 or later");
+        }
+        try
+        {
+            return method.invoke(target, arg);
+        }
+        catch (InvocationTargetException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IOException(e);
+        }
+    }
+}
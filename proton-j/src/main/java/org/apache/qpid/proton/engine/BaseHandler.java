@@ -29,6 +29,12 @@ package org.apache.qpid.proton.engine;
 public class BaseHandler implements Handler
 {
 
+    @Override public void onReactorInit(Event e) { onUnhandled(e); }
+    @Override public void onReactorQuiesced(Event e) { onUnhandled(e); }
+    @Override public void onReactorFinal(Event e) { onUnhandled(e); }
+
+    @Override public void onTimerTask(Event e) { onUnhandled(e); }
+
     @Override public void onConnectionInit(Event e) { onUnhandled(e); }
     @Override public void onConnectionLocalOpen(Event e) { onUnhandled(e); }
     @Override public void onConnectionRemoteOpen(Event e) { onUnhandled(e); }
@@ -29,6 +29,12 @@ package org.apache.qpid.proton.engine;
 public interface Handler
 {
 
+    void onReactorInit(Event e);
+    void onReactorQuiesced(Event e);
+    void onReactorFinal(Event e);
+
+    void onTimerTask(Event e);
+
     void onConnectionInit(Event e);
     void onConnectionLocalOpen(Event e);
     void onConnectionRemoteOpen(Event e);
@@ -18,7 +18,11 @@
  */
 package org.apache.qpid.proton.engine;
 
+import java.nio.ByteBuffer;
+
 import org.apache.qpid.proton.engine.Transport;
+import org.apache.qpid.proton.engine.impl.BufferProvider;
+import org.apache.qpid.proton.engine.impl.OutputScheduler;
 import org.apache.qpid.proton.engine.impl.ProtocolTracer;
 
 /**
@@ -29,4 +33,32 @@ public interface ProtonJTransport extends Transport
     void setProtocolTracer(ProtocolTracer protocolTracer);
 
     ProtocolTracer getProtocolTracer();
+
+    OutputScheduler getOutputScheduler();
+
+    /**
+     * Sets the policy deciding which senders get to write transfers when there are more than
+     * fit in the output. The default is a {@link org.apache.qpid.proton.engine.impl.DeficitRoundRobinScheduler}.
+     */
+    void setOutputScheduler(OutputScheduler outputScheduler);
+
+    BufferProvider getBufferProvider();
+
+    /**
+     * Sets where the transport borrows its frame input and output buffers from, which must be
+     * done before it is first used. The default is the shared
+     * {@link org.apache.qpid.proton.engine.impl.PooledBufferProvider#getDefault()}.
+     */
+    void setBufferProvider(BufferProvider bufferProvider);
+
+    /**
+     * Returns the pending output as a sequence of read-only buffers, which may include views of
+     * delivery data that has not been copied into the output buffer. Intended for a gathering
+     * write such as {@link java.nio.channels.GatheringByteChannel#write(ByteBuffer[])}; the bytes
+     * written should then be consumed with {@link #pop(int)}, which invalidates the buffers.
+     *
+     * If the output passes through a layer that has to transform it, such as SSL, the result is
+     * the single buffer returned by {@link #head()}.
+     */
+    ByteBuffer[] headBuffers();
 }
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.engine.impl;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Supplies a transport with its frame input and output buffers. A transport borrows a buffer
+ * only while it has unprocessed input or unwritten output, and gives it back when it has been
+ * consumed, so idle transports hold no buffers.
+ *
+ * One provider may be shared by transports driven from different threads, so implementations
+ * must be thread safe.
+ */
+public interface BufferProvider
+{
+    /**
+     * @return an empty buffer with at least the given capacity, which may be direct
+     */
+    ByteBuffer acquire(int capacity);
+
+    /**
+     * Gives back a buffer returned by {@link #acquire(int)}. The caller must not use it, or any
+     * view of it, afterwards.
+     */
+    void release(ByteBuffer buffer);
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.engine.impl;
+
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.transport.FrameBody;
+import org.apache.qpid.proton.framing.TransportFrame;
+
+/**
+ * A frame whose payload is a slice of a pooled {@link InputChunk} rather than a private copy.
+ *
+ * The frame holds a reference to the chunk until {@link #release()} is called by the
+ * {@link FrameParser} once the frame has been handled.
+ */
+class ChunkedTransportFrame extends TransportFrame
+{
+    private InputChunk _chunk;
+
+    ChunkedTransportFrame(final int channel,
+                          final FrameBody body,
+                          final Binary payload,
+                          final InputChunk chunk)
+    {
+        super(channel, body, payload);
+        _chunk = chunk.retain();
+    }
+
+    InputChunk getChunk()
+    {
+        return _chunk;
+    }
+
+    void release()
+    {
+        if(_chunk != null)
+        {
+            _chunk.release();
+            _chunk = null;
+        }
+    }
+}
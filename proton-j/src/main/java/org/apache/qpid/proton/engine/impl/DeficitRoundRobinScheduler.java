@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.engine.impl;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.qpid.proton.engine.Sender;
+
+/**
+ * Shares the output between ready senders by deficit round robin on frame bytes.
+ *
+ * Each time a sender comes round it is credited with the quantum times its weight, and it
+ * keeps writing frames until that credit is spent. A frame may overdraw the credit, which is
+ * then made up on the following rounds, so a sender of large frames gets no more than its
+ * share over time while a sender of small ones is never stuck behind more than one round. An
+ * overdraft is kept while the sender is not ready and charged when it is ready again, so
+ * going idle after a large frame does not clear it. Unspent credit is not kept.
+ */
+public class DeficitRoundRobinScheduler implements OutputScheduler
+{
+    static final int DEFAULT_QUANTUM = Integer.getInteger("proton.output_scheduler_quantum", 16 * 1024);
+
+    private static final class Entry
+    {
+        private final Sender _sender;
+        private int _deficit;
+
+        Entry(Sender sender, int deficit)
+        {
+            _sender = sender;
+            _deficit = deficit;
+        }
+    }
+
+    private final int _quantum;
+    private final ArrayDeque<Entry> _ready = new ArrayDeque<Entry>();
+    private Map<Sender, Integer> _weights;
+    // the credit senders that are not ready overdrew on their last turn
+    private Map<Sender, Integer> _overdrafts;
+
+    public DeficitRoundRobinScheduler()
+    {
+        this(DEFAULT_QUANTUM);
+    }
+
+    public DeficitRoundRobinScheduler(int quantum)
+    {
+        if (quantum <= 0)
+        {
+            throw new IllegalArgumentException("quantum must be positive: " + quantum);
+        }
+        _quantum = quantum;
+    }
+
+    /**
+     * Gives the sender weight times the share of a sender with the default weight of 1.
+     */
+    public void setWeight(Sender sender, int weight)
+    {
+        if (weight <= 0)
+        {
+            throw new IllegalArgumentException("weight must be positive: " + weight);
+        }
+        if (_weights == null)
+        {
+            _weights = new WeakHashMap<Sender, Integer>();
+        }
+        _weights.put(sender, weight);
+    }
+
+    public int getWeight(Sender sender)
+    {
+        Integer weight = _weights == null ? null : _weights.get(sender);
+        return weight == null ? 1 : weight;
+    }
+
+    @Override
+    public void ready(Sender sender)
+    {
+        int deficit = _quantum * getWeight(sender);
+        if (_overdrafts != null)
+        {
+            Integer overdraft = _overdrafts.remove(sender);
+            if (overdraft != null)
+            {
+                deficit -= overdraft;
+            }
+        }
+        // next() passes over an entry whose overdraft exceeds a quantum until it is made up
+        _ready.addLast(new Entry(sender, deficit));
+    }
+
+    @Override
+    public Sender next()
+    {
+        while (!_ready.isEmpty())
+        {
+            Entry head = _ready.peekFirst();
+            if (head._deficit > 0)
+            {
+                return head._sender;
+            }
+            _ready.pollFirst();
+            head._deficit += _quantum * getWeight(head._sender);
+            _ready.addLast(head);
+        }
+        return null;
+    }
+
+    @Override
+    public void sent(Sender sender, int bytes, boolean ready)
+    {
+        Entry head = _ready.peekFirst();
+        if (head == null || head._sender != sender)
+        {
+            throw new IllegalStateException("sent() must follow next() for the same sender");
+        }
+        head._deficit -= bytes;
+        if (!ready)
+        {
+            _ready.pollFirst();
+            if (head._deficit < 0)
+            {
+                if (_overdrafts == null)
+                {
+                    _overdrafts = new WeakHashMap<Sender, Integer>();
+                }
+                _overdrafts.put(sender, -head._deficit);
+            }
+        }
+    }
+}
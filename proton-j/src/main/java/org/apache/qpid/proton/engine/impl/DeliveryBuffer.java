@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.engine.impl;
+
+import java.nio.ByteBuffer;
+
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.codec.WritableBuffer;
+
+/**
+ * The data of a delivery, held as a list of segments (a rope) rather than a single array.
+ *
+ * Appending never re-copies data that is already buffered, and readers consume the
+ * segments in order without flattening them. Segments are either owned by the buffer
+ * (sent data, which has to be copied out of the caller's array) or shared views of
+ * received frame payloads, which may be backed by a pooled {@link InputChunk}.
+ */
+class DeliveryBuffer
+{
+    static final int MAX_SEGMENT_SIZE = 64 * 1024;
+
+    private static final class Segment
+    {
+        private final byte[] _array;
+        private final InputChunk _chunk;
+        private final boolean _owned;
+        private int _offset;
+        private int _length;
+        private Segment _next;
+
+        Segment(byte[] array, int offset, int length, InputChunk chunk, boolean owned)
+        {
+            _array = array;
+            _offset = offset;
+            _length = length;
+            _chunk = chunk;
+            _owned = owned;
+        }
+
+        int spare()
+        {
+            return _owned ? _array.length - (_offset + _length) : 0;
+        }
+    }
+
+    private Segment _head;
+    private Segment _tail;
+    private int _length;
+    private int _segmentCount;
+    private int _chunkCount;
+
+    int length()
+    {
+        return _length;
+    }
+
+    boolean isEmpty()
+    {
+        return _length == 0;
+    }
+
+    int getSegmentCount()
+    {
+        return _segmentCount;
+    }
+
+    /**
+     * Returns true if any of the buffered data is a view of a pooled input chunk.
+     */
+    boolean isPooled()
+    {
+        return _chunkCount > 0;
+    }
+
+    /**
+     * Copies the given bytes onto the end of the buffer, filling the spare capacity of the
+     * last owned segment before allocating a new one. New segments grow with the amount
+     * already buffered, up to {@link #MAX_SEGMENT_SIZE}.
+     */
+    void append(byte[] bytes, int offset, int length)
+    {
+        Segment tail = _tail;
+        if(tail != null && tail.spare() > 0)
+        {
+            int count = Math.min(tail.spare(), length);
+            System.arraycopy(bytes, offset, tail._array, tail._offset + tail._length, count);
+            tail._length += count;
+            _length += count;
+            offset += count;
+            length -= count;
+        }
+
+        if(length > 0)
+        {
+            int capacity = Math.max(length, Math.min(_length, MAX_SEGMENT_SIZE));
+            byte[] array = new byte[capacity];
+            System.arraycopy(bytes, offset, array, 0, length);
+            link(new Segment(array, 0, length, null, true));
+            _length += length;
+        }
+    }
+
+    /**
+     * Appends a view of the given bytes without copying them. If chunk is not null it is
+     * retained until the bytes have been consumed or the buffer is cleared.
+     */
+    void append(byte[] array, int offset, int length, InputChunk chunk)
+    {
+        if(length > 0)
+        {
+            if(chunk != null)
+            {
+                chunk.retain();
+                _chunkCount++;
+            }
+            link(new Segment(array, offset, length, chunk, false));
+            _length += length;
+        }
+    }
+
+    /**
+     * Consumes up to length bytes into the given array.
+     *
+     * @return the number of bytes consumed
+     */
+    int get(byte[] bytes, int offset, int length)
+    {
+        int consumed = 0;
+        while(_head != null && consumed < length)
+        {
+            Segment segment = _head;
+            int count = Math.min(segment._length, length - consumed);
+            System.arraycopy(segment._array, segment._offset, bytes, offset + consumed, count);
+            consumed += count;
+            skip(segment, count);
+        }
+        return consumed;
+    }
+
+    /**
+     * Consumes up to length bytes into the given buffer, one segment at a time.
+     *
+     * @return the number of bytes consumed
+     */
+    int get(WritableBuffer buffer, int length)
+    {
+        int consumed = 0;
+        while(_head != null && consumed < length)
+        {
+            Segment segment = _head;
+            int count = Math.min(segment._length, length - consumed);
+            buffer.put(segment._array, segment._offset, count);
+            consumed += count;
+            skip(segment, count);
+        }
+        return consumed;
+    }
+
+    /**
+     * Consumes up to length bytes from the first segment, returning them as a read-only view
+     * rather than copying them. Bytes backed by a pooled input chunk are copied, since the
+     * chunk is released as soon as they are consumed.
+     */
+    ByteBuffer take(int length)
+    {
+        Segment segment = _head;
+        if(segment == null)
+        {
+            return ByteBuffer.allocate(0);
+        }
+
+        int count = Math.min(segment._length, length);
+        ByteBuffer view;
+        if(segment._chunk == null)
+        {
+            view = ByteBuffer.wrap(segment._array, segment._offset, count).asReadOnlyBuffer();
+        }
+        else
+        {
+            byte[] copy = new byte[count];
+            System.arraycopy(segment._array, segment._offset, copy, 0, count);
+            view = ByteBuffer.wrap(copy).asReadOnlyBuffer();
+        }
+        skip(segment, count);
+        return view;
+    }
+
+    /**
+     * Returns the first length bytes without consuming them. The result is a view if they
+     * lie within a single segment, and a copy otherwise.
+     */
+    Binary peek(int length)
+    {
+        length = Math.min(length, _length);
+        if(_head == null)
+        {
+            return null;
+        }
+        else if(_head._length >= length)
+        {
+            return new Binary(_head._array, _head._offset, length);
+        }
+
+        byte[] bytes = new byte[length];
+        int copied = 0;
+        for(Segment segment = _head; copied < length; segment = segment._next)
+        {
+            int count = Math.min(segment._length, length - copied);
+            System.arraycopy(segment._array, segment._offset, bytes, copied, count);
+            copied += count;
+        }
+        return new Binary(bytes);
+    }
+
+    /**
+     * Discards all of the buffered data, releasing any pooled chunks.
+     */
+    void clear()
+    {
+        while(_head != null)
+        {
+            unlinkHead();
+        }
+        _length = 0;
+    }
+
+    private void skip(Segment segment, int count)
+    {
+        segment._offset += count;
+        segment._length -= count;
+        _length -= count;
+        if(segment._length == 0)
+        {
+            unlinkHead();
+        }
+    }
+
+    private void link(Segment segment)
+    {
+        if(_tail == null)
+        {
+            _head = _tail = segment;
+        }
+        else
+        {
+            _tail._next = segment;
+            _tail = segment;
+        }
+        _segmentCount++;
+    }
+
+    private void unlinkHead()
+    {
+        Segment head = _head;
+        _head = head._next;
+        if(_head == null)
+        {
+            _tail = null;
+        }
+        head._next = null;
+        _segmentCount--;
+        if(head._chunk != null)
+        {
+            head._chunk.release();
+            _chunkCount--;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.engine.impl;
+
+import org.apache.qpid.proton.engine.TransportException;
+
+/**
+ * Maps the delivery ids of a session's unsettled deliveries to the deliveries themselves.
+ *
+ * Delivery ids are allocated sequentially within a session, so the deliveries are held in a
+ * circular array indexed by the distance of their id from the lowest id held. Ids are compared
+ * using serial number arithmetic, so the map continues to work when ids wrap past 2^32 - 1.
+ * None of the operations allocate unless the array has to grow. An id more than 2^24 from the
+ * lowest id held is rejected with a {@link TransportException}, so a peer cannot force a huge
+ * array to be allocated.
+ */
+final class DeliveryIdMap
+{
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 24;
+
+    private DeliveryImpl[] _slots = new DeliveryImpl[INITIAL_CAPACITY];
+    /** index of the slot holding the delivery with id _base */
+    private int _head;
+    private int _base;
+    /** number of slots from _base up to and including the highest id held */
+    private int _span;
+    private int _size;
+
+    int size()
+    {
+        return _size;
+    }
+
+    boolean isEmpty()
+    {
+        return _size == 0;
+    }
+
+    /**
+     * @return the lowest id held; only meaningful if the map is not empty
+     */
+    int getLowestId()
+    {
+        return _base;
+    }
+
+    /**
+     * @return the highest id held; only meaningful if the map is not empty
+     */
+    int getHighestId()
+    {
+        return _base + _span - 1;
+    }
+
+    DeliveryImpl get(int deliveryId)
+    {
+        int offset = deliveryId - _base;
+        if (offset < 0 || offset >= _span)
+        {
+            return null;
+        }
+        return _slots[(_head + offset) & (_slots.length - 1)];
+    }
+
+    void put(int deliveryId, DeliveryImpl delivery)
+    {
+        if (_size == 0)
+        {
+            _base = deliveryId;
+            _head = 0;
+            _span = 0;
+        }
+
+        int offset = deliveryId - _base;
+        if (offset < 0)
+        {
+            ensureCapacity(_span - offset);
+            _head = (_head + offset) & (_slots.length - 1);
+            _base = deliveryId;
+            _span -= offset;
+            offset = 0;
+        }
+        else if (offset >= _span)
+        {
+            ensureCapacity(offset + 1);
+            _span = offset + 1;
+        }
+
+        int index = (_head + offset) & (_slots.length - 1);
+        if (_slots[index] == null)
+        {
+            _size++;
+        }
+        _slots[index] = delivery;
+    }
+
+    DeliveryImpl remove(int deliveryId)
+    {
+        int offset = deliveryId - _base;
+        if (offset < 0 || offset >= _span)
+        {
+            return null;
+        }
+
+        int mask = _slots.length - 1;
+        int index = (_head + offset) & mask;
+        DeliveryImpl delivery = _slots[index];
+        if (delivery == null)
+        {
+            return null;
+        }
+        _slots[index] = null;
+
+        if (--_size == 0)
+        {
+            _head = 0;
+            _span = 0;
+        }
+        else if (offset == 0)
+        {
+            while (_slots[_head] == null)
+            {
+                _head = (_head + 1) & mask;
+                _base++;
+                _span--;
+            }
+        }
+        else if (offset == _span - 1)
+        {
+            while (_slots[(_head + _span - 1) & mask] == null)
+            {
+                _span--;
+            }
+        }
+        return delivery;
+    }
+
+    private void ensureCapacity(int span)
+    {
+        if (span > MAX_CAPACITY || span < 0)
+        {
+            throw new TransportException("Delivery id is too far from the oldest unsettled delivery id %d",
+                                         _base & 0xFFFFFFFFL);
+        }
+        if (span <= _slots.length)
+        {
+            return;
+        }
+
+        int capacity = _slots.length;
+        while (capacity < span)
+        {
+            capacity <<= 1;
+        }
+
+        DeliveryImpl[] slots = new DeliveryImpl[capacity];
+        int mask = _slots.length - 1;
+        for (int i = 0; i < _span; i++)
+        {
+            slots[i] = _slots[(_head + i) & mask];
+        }
+        _slots = slots;
+        _head = 0;
+    }
+}
@@ -39,6 +39,10 @@ public class DeliveryImpl implements Delivery
     private DeliveryImpl _transportWorkPrev;
     boolean _transportWork;
 
+    /** the next delivery waiting to transfer on the same sender, see {@link TransportSender} */
+    DeliveryImpl _scheduledNext;
+    boolean _scheduled;
+
     private Object _context;
 
     private final byte[] _tag;
@@ -61,12 +65,10 @@ public class DeliveryImpl implements Delivery
     private int _flags = (byte) 0;
 
     private TransportDelivery _transportDelivery;
-    private byte[] _data;
-    private int _dataSize;
+    private final DeliveryBuffer _data = new DeliveryBuffer();
     private boolean _complete;
     private boolean _updated;
     private boolean _done;
-    private int _offset;
 
     DeliveryImpl(final byte[] tag, final LinkImpl link, DeliveryImpl previous)
     {
@@ -126,6 +128,11 @@ public class DeliveryImpl implements Delivery
         }
 
         _settled = true;
+        if(_data.isPooled())
+        {
+            // pooled input chunks may be reused as soon as they are released
+            _data.clear();
+        }
         _link.decrementUnsettled();
         if(!_remoteSettled)
         {
@@ -200,21 +207,7 @@ public class DeliveryImpl implements Delivery
 
     int recv(byte[] bytes, int offset, int size)
     {
-
-        final int consumed;
-        if(_data != null)
-        {
-            //TODO - should only be if no bytes left
-            consumed = Math.min(size, _dataSize);
-
-            System.arraycopy(_data, _offset, bytes, offset, consumed);
-            _offset += consumed;
-            _dataSize -= consumed;
-        }
-        else
-        {
-            _dataSize =  consumed = 0;
-        }
+        final int consumed = _data.get(bytes, offset, size);
         return (_complete && consumed == 0) ? Transport.END_OF_STREAM : consumed;  //TODO - Implement
     }
 
@@ -274,51 +267,19 @@ public class DeliveryImpl implements Delivery
 
     int send(byte[] bytes, int offset, int length)
     {
-        if(_data == null)
-        {
-            _data = new byte[length];
-        }
-        else if(_data.length - _dataSize < length)
-        {
-            byte[] oldData = _data;
-            _data = new byte[oldData.length + _dataSize];
-            System.arraycopy(oldData,_offset,_data,0,_dataSize);
-            _offset = 0;
-        }
-        System.arraycopy(bytes,offset,_data,_dataSize+_offset,length);
-        _dataSize+=length;
+        _data.append(bytes, offset, length);
         addToTransportWorkList();
         return length;  //TODO - Implement.
     }
 
-    byte[] getData()
+    DeliveryBuffer getData()
     {
         return _data;
     }
 
-    int getDataOffset()
-    {
-        return _offset;
-    }
-
     int getDataLength()
     {
-        return _dataSize;  //TODO - Implement.
-    }
-
-    void setData(byte[] data)
-    {
-        _data = data;
-    }
-
-    void setDataLength(int length)
-    {
-        _dataSize = length;
-    }
-
-    public void setDataOffset(int arrayOffset)
-    {
-        _offset = arrayOffset;
+        return _data.length();
     }
 
     public boolean isWritable()
@@ -385,7 +346,7 @@ public class DeliveryImpl implements Delivery
             if (isDone()) {
                 return false;
             } else {
-                return _complete || _dataSize > 0;
+                return _complete || _data.length() > 0;
             }
         } else {
             return false;
@@ -414,17 +375,16 @@ public class DeliveryImpl implements Delivery
             .append(", _remoteDeliveryState=").append(_remoteDeliveryState)
             .append(", _flags=").append(_flags)
             .append(", _transportDelivery=").append(_transportDelivery)
-            .append(", _dataSize=").append(_dataSize)
+            .append(", _dataSize=").append(_data.length())
             .append(", _complete=").append(_complete)
             .append(", _updated=").append(_updated)
-            .append(", _done=").append(_done)
-            .append(", _offset=").append(_offset).append("]");
+            .append(", _done=").append(_done).append("]");
         return builder.toString();
     }
 
     public int pending()
     {
-        return _dataSize;
+        return _data.length();
     }
 
 }
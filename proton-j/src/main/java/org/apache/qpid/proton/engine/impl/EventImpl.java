@@ -70,6 +70,18 @@ class EventImpl implements Event
     public void dispatch(Handler handler)
     {
         switch (type) {
+        case REACTOR_INIT:
+            handler.onReactorInit(this);
+            break;
+        case REACTOR_QUIESCED:
+            handler.onReactorQuiesced(this);
+            break;
+        case REACTOR_FINAL:
+            handler.onReactorFinal(this);
+            break;
+        case TIMER_TASK:
+            handler.onTimerTask(this);
+            break;
         case CONNECTION_INIT:
             handler.onConnectionInit(this);
             break;
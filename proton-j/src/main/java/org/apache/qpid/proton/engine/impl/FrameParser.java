@@ -31,7 +31,10 @@ import java.util.logging.Logger;
 import org.apache.qpid.proton.amqp.Binary;
 import org.apache.qpid.proton.amqp.transport.FrameBody;
 import org.apache.qpid.proton.codec.ByteBufferDecoder;
+import org.apache.qpid.proton.codec.CompositeReadableBuffer;
+import org.apache.qpid.proton.codec.EncoderDecoderPair;
 import org.apache.qpid.proton.codec.DecodeException;
+import org.apache.qpid.proton.codec.ReadableBuffer;
 import org.apache.qpid.proton.engine.Transport;
 import org.apache.qpid.proton.engine.TransportException;
 import org.apache.qpid.proton.framing.TransportFrame;
@@ -63,10 +66,15 @@ class FrameParser implements TransportInput
     }
 
     private final FrameHandler _frameHandler;
+    /** the decoder to use, or null to use the calling thread's shared one */
     private final ByteBufferDecoder _decoder;
     private final int _maxFrameSize;
+    private final InputChunkPool _chunkPool;
+    private final BufferProvider _bufferProvider;
 
     private ByteBuffer _inputBuffer = null;
+    /** the pooled chunk backing _inputBuffer when zero-copy input is enabled */
+    private InputChunk _inputChunk;
     private boolean _tail_closed = false;
 
     private State _state = State.HEADER0;
@@ -74,8 +82,10 @@ class FrameParser implements TransportInput
     /** the stated size of the current frame */
     private int _size;
 
-    /** holds the current frame that is being parsed */
-    private ByteBuffer _frameBuffer;
+    /** holds the pieces of the current frame received so far, when it arrives in more than one */
+    private CompositeReadableBuffer _frameBuffer;
+    /** reads the current frame in place, when it arrives whole */
+    private final ReadableBuffer.ByteBufferReader _frameReader = new ReadableBuffer.ByteBufferReader(null);
 
     private TransportFrame _heldFrame;
     private TransportException _parsingError;
@@ -86,11 +96,38 @@ class FrameParser implements TransportInput
      * we know not to process any more input if it was an error.
      */
 
+    FrameParser(FrameHandler frameHandler, int maxFrameSize, boolean zeroCopyInput,
+                BufferProvider bufferProvider)
+    {
+        this(frameHandler, null, maxFrameSize, zeroCopyInput, bufferProvider);
+    }
+
     FrameParser(FrameHandler frameHandler, ByteBufferDecoder decoder, int maxFrameSize)
+    {
+        this(frameHandler, decoder, maxFrameSize, false);
+    }
+
+    /**
+     * @param zeroCopyInput if true, transfer payloads are handed to the frame handler as slices of
+     * pooled, reference counted input chunks instead of being copied into a new array
+     */
+    FrameParser(FrameHandler frameHandler, ByteBufferDecoder decoder, int maxFrameSize, boolean zeroCopyInput)
+    {
+        this(frameHandler, decoder, maxFrameSize, zeroCopyInput, PooledBufferProvider.getDefault());
+    }
+
+    /**
+     * @param bufferProvider lends the input buffer while there is unprocessed input, unless
+     * zero-copy input is enabled
+     */
+    FrameParser(FrameHandler frameHandler, ByteBufferDecoder decoder, int maxFrameSize, boolean zeroCopyInput,
+                BufferProvider bufferProvider)
     {
         _frameHandler = frameHandler;
+        _bufferProvider = bufferProvider;
         _decoder = decoder;
         _maxFrameSize = maxFrameSize > 0 ? maxFrameSize : 4*1024;
+        _chunkPool = zeroCopyInput ? new InputChunkPool(_maxFrameSize) : null;
     }
 
     private void input(ByteBuffer in) throws TransportException
@@ -104,7 +141,7 @@ class FrameParser implements TransportInput
         TransportException frameParsingError = null;
         int size = _size;
         State state = _state;
-        ByteBuffer oldIn = null;
+        ReadableBuffer frameBytes = null;
 
         boolean transportAccepting = true;
 
@@ -291,35 +328,39 @@ class FrameParser implements TransportInput
 
                     if(in.remaining() < size-4)
                     {
-                        _frameBuffer = ByteBuffer.allocate(size-4);
-                        _frameBuffer.put(in);
+                        _frameBuffer = new CompositeReadableBuffer();
+                        _frameBuffer.append(copy(in));
                         state = State.BUFFERING;
                         break;
                     }
                 case BUFFERING:
                     if(_frameBuffer != null)
                     {
-                        if(in.remaining() < _frameBuffer.remaining())
+                        int needed = size - 4 - _frameBuffer.remaining();
+                        if(in.remaining() < needed)
                         {
-                            _frameBuffer.put(in);
+                            _frameBuffer.append(copy(in));
                             break;
                         }
-                        else
-                        {
-                            ByteBuffer dup = in.duplicate();
-                            dup.limit(dup.position()+_frameBuffer.remaining());
-                            in.position(in.position()+_frameBuffer.remaining());
-                            _frameBuffer.put(dup);
-                            oldIn = in;
-                            _frameBuffer.flip();
-                            in = _frameBuffer;
-                            state = State.PARSING;
-                        }
+
+                        // the pieces received so far were copied, but the rest is read in place
+                        ByteBuffer rest = in.duplicate();
+                        rest.limit(rest.position() + needed);
+                        in.position(rest.limit());
+                        frameBytes = _frameBuffer.append(rest);
+                    }
+                    else
+                    {
+                        ByteBuffer body = in.duplicate();
+                        body.limit(body.position() + size - 4);
+                        in.position(body.limit());
+                        frameBytes = _frameReader.setBuffer(body);
                     }
+                    state = State.PARSING;
 
                 case PARSING:
 
-                    int dataOffset = (in.get() << 2) & 0x3FF;
+                    int dataOffset = (frameBytes.get() << 2) & 0x3FF;
 
                     if(dataOffset < 8)
                     {
@@ -336,8 +377,8 @@ class FrameParser implements TransportInput
 
                     // type
 
-                    int type = in.get() & 0xFF;
-                    int channel = in.getShort() & 0xFFFF;
+                    int type = frameBytes.get() & 0xFF;
+                    int channel = frameBytes.getShort() & 0xFFFF;
 
                     if(type != 0)
                     {
@@ -349,41 +390,46 @@ class FrameParser implements TransportInput
                     // note that this skips over the extended header if it's present
                     if(dataOffset!=8)
                     {
-                        in.position(in.position()+dataOffset-8);
+                        frameBytes.position(frameBytes.position()+dataOffset-8);
                     }
 
-                    // oldIn null iff not working on duplicated buffer
                     final int frameBodySize = size - dataOffset;
-                    if(oldIn == null)
-                    {
-                        oldIn = in;
-                        in = in.duplicate();
-                        final int endPos = in.position() + frameBodySize;
-                        in.limit(endPos);
-                        oldIn.position(endPos);
-
-                    }
 
                     try
                     {
                         if (frameBodySize > 0)
                         {
 
-                            _decoder.setByteBuffer(in);
-                            Object val = _decoder.readObject();
-                            _decoder.setByteBuffer(null);
+                            ByteBufferDecoder decoder = _decoder == null ? EncoderDecoderPair.current().getDecoder() : _decoder;
+                            decoder.setByteBuffer(frameBytes);
+                            Object val = decoder.readObject();
+                            decoder.setByteBuffer((ReadableBuffer)null);
 
                             Binary payload;
+                            InputChunk payloadChunk = null;
+                            int payloadSize = frameBytes.remaining();
+                            ByteBuffer segment = frameBytes.currentSegment();
 
-                            if(in.hasRemaining())
+                            if(payloadSize == 0)
                             {
-                                byte[] payloadBytes = new byte[in.remaining()];
-                                in.get(payloadBytes);
-                                payload = new Binary(payloadBytes);
+                                payload = null;
+                            }
+                            else if(_chunkPool != null && segment.remaining() >= payloadSize)
+                            {
+                                // the payload is a slice of either a piece copied while buffering,
+                                // which it can keep, or of the pooled input chunk
+                                payload = new Binary(segment.array(), segment.arrayOffset() + segment.position(), payloadSize);
+                                segment.position(segment.position() + payloadSize);
+                                if(_inputChunk != null && segment.array() == _inputChunk.getBytes())
+                                {
+                                    payloadChunk = _inputChunk;
+                                }
                             }
                             else
                             {
-                                payload = null;
+                                byte[] payloadBytes = new byte[payloadSize];
+                                frameBytes.get(payloadBytes, 0, payloadSize);
+                                payload = new Binary(payloadBytes);
                             }
 
                             if(val instanceof FrameBody)
@@ -393,11 +439,14 @@ class FrameParser implements TransportInput
                                 {
                                     TRACE_LOGGER.log(Level.FINE, "IN: CH["+channel+"] : " + frameBody + (payload == null ? "" : "[" + payload + "]"));
                                 }
-                                TransportFrame frame = new TransportFrame(channel, frameBody, payload);
+                                TransportFrame frame = payloadChunk == null
+                                        ? new TransportFrame(channel, frameBody, payload)
+                                        : new ChunkedTransportFrame(channel, frameBody, payload, payloadChunk);
 
                                 if(_frameHandler.isHandlingFrames())
                                 {
                                     _tail_closed = _frameHandler.handleFrame(frame);
+                                    releaseFrame(frame);
                                 }
                                 else
                                 {
@@ -421,8 +470,7 @@ class FrameParser implements TransportInput
                             }
                         }
                         reset();
-                        in = oldIn;
-                        oldIn = null;
+                        frameBytes = null;
                         _frameBuffer = null;
                         state = State.SIZE_0;
                     }
@@ -499,7 +547,12 @@ class FrameParser implements TransportInput
         }
 
         if (_inputBuffer == null) {
-            _inputBuffer = newWriteableBuffer(_maxFrameSize);
+            if (_chunkPool != null) {
+                _inputChunk = _chunkPool.acquire();
+                _inputBuffer = ByteBuffer.wrap(_inputChunk.getBytes());
+            } else {
+                _inputBuffer = _bufferProvider.acquire(_maxFrameSize);
+            }
         }
 
         return _inputBuffer;
@@ -518,10 +571,15 @@ class FrameParser implements TransportInput
             }
             finally
             {
-                if (_inputBuffer.hasRemaining()) {
+                if (_inputChunk != null && _inputChunk.isShared()) {
+                    // payload slices still refer to this chunk, so leave it to them
+                    // and carry any partial frame over into a fresh one
+                    recycleSharedChunk();
+                } else if (_inputBuffer.hasRemaining()) {
                     _inputBuffer.compact();
-                } else if (_inputBuffer.capacity() > TransportImpl.BUFFER_RELEASE_THRESHOLD) {
-                    _inputBuffer = null;
+                } else if (_inputChunk == null || _inputBuffer.capacity() > TransportImpl.BUFFER_RELEASE_THRESHOLD) {
+                    // all the input is processed, so the buffer goes back until more arrives
+                    releaseInputBuffer();
                 } else {
                     _inputBuffer.clear();
                 }
@@ -533,6 +591,41 @@ class FrameParser implements TransportInput
         }
     }
 
+    private void recycleSharedChunk()
+    {
+        ByteBuffer remaining = _inputBuffer;
+        releaseInputBuffer();
+        if (remaining.hasRemaining() && !_tail_closed) {
+            tail().put(remaining);
+        }
+    }
+
+    private void releaseInputBuffer()
+    {
+        if (_inputChunk != null) {
+            _inputChunk.release();
+            _inputChunk = null;
+        } else {
+            _bufferProvider.release(_inputBuffer);
+        }
+        _inputBuffer = null;
+    }
+
+    private static ByteBuffer copy(ByteBuffer in)
+    {
+        ByteBuffer copy = ByteBuffer.allocate(in.remaining());
+        copy.put(in);
+        copy.flip();
+        return copy;
+    }
+
+    private void releaseFrame(TransportFrame frame)
+    {
+        if (frame instanceof ChunkedTransportFrame) {
+            ((ChunkedTransportFrame) frame).release();
+        }
+    }
+
     @Override
     public void close_tail()
     {
@@ -559,6 +652,7 @@ class FrameParser implements TransportInput
         if(_heldFrame != null && _frameHandler.isHandlingFrames())
         {
             _tail_closed = _frameHandler.handleFrame(_heldFrame);
+            releaseFrame(_heldFrame);
             _heldFrame = null;
         }
     }
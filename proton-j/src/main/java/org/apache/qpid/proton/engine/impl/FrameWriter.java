@@ -22,12 +22,14 @@ package org.apache.qpid.proton.engine.impl;
 
 import org.apache.qpid.proton.amqp.Binary;
 import org.apache.qpid.proton.amqp.transport.FrameBody;
+import org.apache.qpid.proton.codec.EncoderDecoderPair;
 import org.apache.qpid.proton.codec.EncoderImpl;
-import org.apache.qpid.proton.codec.WritableBuffer;
+import org.apache.qpid.proton.codec.ExpandableWritableBuffer;
 import org.apache.qpid.proton.framing.TransportFrame;
 
-import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
 
 /**
  * FrameWriter
@@ -40,9 +42,52 @@ class FrameWriter
     static final byte AMQP_FRAME_TYPE = 0;
     static final byte SASL_FRAME_TYPE = (byte) 1;
 
-    private EncoderImpl _encoder;
+    /**
+     * Payload slices at least this large are referenced rather than copied into the frame buffer
+     */
+    static final int MIN_SPLICE_SIZE = Integer.getInteger("proton.transport_min_splice_size", 1024);
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    /**
+     * A view of delivery data that logically sits at a position in the frame buffer
+     */
+    private static final class Splice
+    {
+        private int _position;
+        private final ByteBuffer _data;
+
+        Splice(int position, ByteBuffer data)
+        {
+            _position = position;
+            _data = data;
+        }
+    }
+
+    /**
+     * Grows by swapping its buffer for a larger one from the provider
+     */
+    private final class FrameBuffer extends ExpandableWritableBuffer
+    {
+        FrameBuffer(ByteBuffer buf)
+        {
+            super(buf);
+        }
+
+        @Override
+        protected ByteBuffer expand(ByteBuffer old, int capacity)
+        {
+            _bbuf = _bufferProvider.acquire(capacity);
+            copy(old, _bbuf);
+            _bufferProvider.release(old);
+            return _bbuf;
+        }
+    }
+
+    /** borrowed from _bufferProvider while there is unconsumed output, null otherwise */
     private ByteBuffer _bbuf;
-    private WritableBuffer _buffer;
+    private FrameBuffer _buffer;
+    private BufferProvider _bufferProvider;
     private int _maxFrameSize;
     private byte _frameType;
     final private Ref<ProtocolTracer> _protocolTracer;
@@ -52,13 +97,14 @@ class FrameWriter
     private int _payloadStart;
     private int _performativeSize;
 
-    FrameWriter(EncoderImpl encoder, int maxFrameSize, byte frameType,
+    private final ArrayDeque<Splice> _splices = new ArrayDeque<Splice>();
+    private int _splicedBytes;
+    private int _frameSplicedBytes;
+    private int _lastFrameSize;
+
+    FrameWriter(int maxFrameSize, byte frameType,
                 Ref<ProtocolTracer> protocolTracer, TransportImpl transport)
     {
-        _encoder = encoder;
-        _bbuf = ByteBuffer.allocate(1024);
-        _buffer = new WritableBuffer.ByteBufferWrapper(_bbuf);
-        _encoder.setByteBuffer(_buffer);
         _maxFrameSize = maxFrameSize;
         _frameType = frameType;
         _protocolTracer = protocolTracer;
@@ -70,44 +116,52 @@ class FrameWriter
         _maxFrameSize = maxFrameSize;
     }
 
-    private void grow()
+    private void ensureBuffer()
+    {
+        if (_bbuf == null)
+        {
+            _bufferProvider = _transport.getBufferProvider();
+            _bbuf = _bufferProvider.acquire(INITIAL_BUFFER_SIZE);
+            _buffer = new FrameBuffer(_bbuf);
+        }
+    }
+
+    private void releaseBuffer()
     {
-        ByteBuffer old = _bbuf;
-        _bbuf = ByteBuffer.allocate(_bbuf.capacity() * 2);
-        _buffer = new WritableBuffer.ByteBufferWrapper(_bbuf);
-        old.flip();
-        _bbuf.put(old);
-        _encoder.setByteBuffer(_buffer);
+        _bufferProvider.release(_bbuf);
+        _bbuf = null;
+        _buffer = null;
+    }
+
+    /**
+     * @return the size in bytes of the frame most recently written, including its payload
+     */
+    int getLastFrameSize()
+    {
+        return _lastFrameSize;
     }
 
     void writeHeader(byte[] header)
     {
+        ensureBuffer();
         _buffer.put(header, 0, header.length);
     }
 
     private void startFrame()
     {
+        ensureBuffer();
         _frameStart = _buffer.position();
+        _frameSplicedBytes = 0;
     }
 
     private void writePerformative(Object frameBody)
     {
-        while (_buffer.remaining() < 8) {
-            grow();
-        }
-
-        while (true)
+        _buffer.position(_frameStart + 8);
+        if (frameBody != null)
         {
-            try
-            {
-                _buffer.position(_frameStart + 8);
-                if (frameBody != null) _encoder.writeObject(frameBody);
-                break;
-            }
-            catch (BufferOverflowException e)
-            {
-                grow();
-            }
+            EncoderImpl encoder = EncoderDecoderPair.current().getEncoder();
+            encoder.setByteBuffer(_buffer);
+            encoder.writeObject(frameBody);
         }
 
         _payloadStart = _buffer.position();
@@ -116,7 +170,8 @@ class FrameWriter
 
     private void endFrame(int channel)
     {
-        int frameSize = _buffer.position() - _frameStart;
+        int frameSize = _buffer.position() - _frameStart + _frameSplicedBytes;
+        _lastFrameSize = frameSize;
         int limit = _buffer.position();
         _buffer.position(_frameStart);
         _buffer.putInt(frameSize);
@@ -124,9 +179,6 @@ class FrameWriter
         _buffer.put(_frameType);
         _buffer.putShort((short) channel);
         _buffer.position(limit);
-
-        int offset = _bbuf.arrayOffset() + _frameStart;
-        //System.out.println("RAW: \"" + new Binary(_bbuf.array(), offset, frameSize) + "\"");
     }
 
     void writeFrame(int channel, Object frameBody, ByteBuffer payload,
@@ -136,7 +188,7 @@ class FrameWriter
 
         writePerformative(frameBody);
 
-        if(_maxFrameSize > 0 && payload != null && (payload.remaining() + _performativeSize) > _maxFrameSize)
+        if(payload != null && isPayloadTooLarge(payload.remaining()))
         {
             if(onPayloadTooLarge != null)
             {
@@ -154,30 +206,13 @@ class FrameWriter
         // XXX: this is a bit of a hack but it eliminates duplicate
         // code, further refactor will fix this
         if (_frameType == AMQP_FRAME_TYPE) {
-            TransportFrame frame = new TransportFrame(channel, (FrameBody) frameBody, Binary.create(originalPayload));
-            _transport.log(TransportImpl.OUTGOING, frame);
-
-            ProtocolTracer tracer = _protocolTracer.get();
-            if(tracer != null)
-            {
-                tracer.sentFrame(frame);
-            }
+            traceFrame(channel, frameBody, Binary.create(originalPayload));
         }
 
-        int capacity;
-        if (_maxFrameSize > 0) {
-            capacity = _maxFrameSize - _performativeSize;
-        } else {
-            capacity = Integer.MAX_VALUE;
-        }
-        int payloadSize = Math.min(payload == null ? 0 : payload.remaining(), capacity);
+        int payloadSize = Math.min(payload == null ? 0 : payload.remaining(), payloadCapacity());
 
         if(payloadSize > 0)
         {
-            while (_buffer.remaining() < payloadSize) {
-                grow();
-            }
-
             int oldLimit = payload.limit();
             payload.limit(payload.position() + payloadSize);
             _buffer.put(payload);
@@ -187,32 +222,217 @@ class FrameWriter
         endFrame(channel);
     }
 
+    /**
+     * Writes a frame whose payload is taken from the segments of a delivery's data, consuming as
+     * much of it as fits in the frame.
+     */
+    void writeFrame(int channel, FrameBody frameBody, DeliveryBuffer payload,
+                    Runnable onPayloadTooLarge)
+    {
+        startFrame();
+
+        // a payload that fills the frame on its own will not fit whatever the performative's
+        // size, so the performative is told before it is written rather than written twice
+        boolean tooLarge = _maxFrameSize > 0 && payload.length() >= _maxFrameSize - 8;
+        if(tooLarge && onPayloadTooLarge != null)
+        {
+            onPayloadTooLarge.run();
+        }
+
+        writePerformative(frameBody);
+
+        if(!tooLarge && !payload.isEmpty() && isPayloadTooLarge(payload.length()))
+        {
+            if(onPayloadTooLarge != null)
+            {
+                onPayloadTooLarge.run();
+            }
+            writePerformative(frameBody);
+        }
+
+        int payloadSize = Math.min(payload.length(), payloadCapacity());
+
+        if(_transport.isTracingFrames() || _protocolTracer.get() != null)
+        {
+            // only flatten the payload when someone is going to look at it
+            traceFrame(channel, frameBody, payloadSize == 0 ? null : payload.peek(payloadSize));
+        }
+
+        if(payloadSize >= MIN_SPLICE_SIZE)
+        {
+            while(payloadSize > 0)
+            {
+                ByteBuffer slice = payload.take(payloadSize);
+                _splices.add(new Splice(_buffer.position(), slice));
+                _splicedBytes += slice.remaining();
+                _frameSplicedBytes += slice.remaining();
+                payloadSize -= slice.remaining();
+            }
+        }
+        else if(payloadSize > 0)
+        {
+            _buffer.ensureRemaining(payloadSize);
+            payload.get(_buffer, payloadSize);
+        }
+
+        endFrame(channel);
+    }
+
+    private boolean isPayloadTooLarge(int payloadSize)
+    {
+        return _maxFrameSize > 0 && (payloadSize + _performativeSize) > _maxFrameSize;
+    }
+
+    private int payloadCapacity()
+    {
+        if (_maxFrameSize > 0) {
+            return _maxFrameSize - _performativeSize;
+        } else {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    private void traceFrame(int channel, Object frameBody, Binary payload)
+    {
+        TransportFrame frame = new TransportFrame(channel, (FrameBody) frameBody, payload);
+        _transport.log(TransportImpl.OUTGOING, frame);
+
+        ProtocolTracer tracer = _protocolTracer.get();
+        if(tracer != null)
+        {
+            tracer.sentFrame(frame);
+        }
+    }
+
     void writeFrame(Object frameBody)
     {
-        writeFrame(0, frameBody, null, null);
+        writeFrame(0, frameBody, (ByteBuffer) null, null);
     }
 
     boolean isFull() {
         // XXX: this should probably be tunable
-        return _bbuf.position() > 64*1024;
+        return (_bbuf == null ? 0 : _bbuf.position()) + _splicedBytes > 64*1024;
     }
 
     int readBytes(ByteBuffer dst)
     {
+        return consume(dst, dst.remaining());
+    }
+
+    /**
+     * Adds read-only views of all of the pending output to buffers, in order. The views stay valid
+     * until the output is consumed with {@link #pop(int)} or {@link #readBytes(ByteBuffer)}.
+     */
+    void gatherInto(List<ByteBuffer> buffers)
+    {
+        int start = 0;
+        for (Splice splice : _splices)
+        {
+            if (splice._position > start)
+            {
+                buffers.add(view(start, splice._position));
+                start = splice._position;
+            }
+            buffers.add(splice._data.duplicate());
+        }
+        if (_bbuf != null && _bbuf.position() > start)
+        {
+            buffers.add(view(start, _bbuf.position()));
+        }
+    }
+
+    void pop(int bytes)
+    {
+        consume(null, bytes);
+    }
+
+    private ByteBuffer view(int start, int end)
+    {
+        ByteBuffer view = _bbuf.asReadOnlyBuffer();
+        view.limit(end);
+        view.position(start);
+        return view;
+    }
+
+    /**
+     * Consumes up to size bytes of pending output, copying them into dst unless it is null.
+     */
+    private int consume(ByteBuffer dst, int size)
+    {
+        if (_bbuf == null)
+        {
+            return 0;
+        }
+
         ByteBuffer src = _bbuf.duplicate();
         src.flip();
 
-        int size = Math.min(src.remaining(), dst.remaining());
-        int limit = src.limit();
-        src.limit(size);
-        dst.put(src);
-        src.limit(limit);
+        int consumed = 0;
+        while (consumed < size)
+        {
+            Splice splice = _splices.peek();
+            int boundary = splice == null ? src.limit() : splice._position;
+            if (src.position() < boundary)
+            {
+                int count = Math.min(boundary - src.position(), size - consumed);
+                if (dst != null)
+                {
+                    int limit = src.limit();
+                    src.limit(src.position() + count);
+                    dst.put(src);
+                    src.limit(limit);
+                }
+                else
+                {
+                    src.position(src.position() + count);
+                }
+                consumed += count;
+            }
+            else if (splice != null)
+            {
+                ByteBuffer data = splice._data;
+                int count = Math.min(data.remaining(), size - consumed);
+                if (dst != null)
+                {
+                    int limit = data.limit();
+                    data.limit(data.position() + count);
+                    dst.put(data);
+                    data.limit(limit);
+                }
+                else
+                {
+                    data.position(data.position() + count);
+                }
+                consumed += count;
+                _splicedBytes -= count;
+                if (!data.hasRemaining())
+                {
+                    _splices.poll();
+                }
+            }
+            else
+            {
+                break;
+            }
+        }
+
+        int shift = src.position();
         _bbuf.rewind();
         _bbuf.put(src);
+        for (Splice splice : _splices)
+        {
+            splice._position -= shift;
+        }
+
+        if (_bbuf.position() == 0 && _splices.isEmpty())
+        {
+            // everything has been written, so give the buffer back until there is more
+            releaseBuffer();
+        }
 
         //System.out.println("RAW: \"" + new Binary(dst.array(), dst.arrayOffset(), dst.position()) + "\"");
 
-        return size;
+        return consumed;
     }
 
 }
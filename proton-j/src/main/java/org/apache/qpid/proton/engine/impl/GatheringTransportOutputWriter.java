@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.engine.impl;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+interface GatheringTransportOutputWriter extends TransportOutputWriter
+{
+    /**
+     * Adds read-only views of my pending output bytes to buffers rather than copying
+     * them. The views are valid until {@link #popGathered(int)} is called.
+     * Returns true on end of stream.
+     */
+    boolean gatherInto(List<ByteBuffer> buffers);
+
+    /**
+     * Consumes bytes of the output previously returned from {@link #gatherInto(List)}.
+     */
+    void popGathered(int bytes);
+}
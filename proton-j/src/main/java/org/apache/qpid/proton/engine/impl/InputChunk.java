@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.engine.impl;
+
+/**
+ * A reference counted block of input bytes handed out by an {@link InputChunkPool}.
+ *
+ * Transfer payloads parsed in zero-copy mode are slices of a chunk, so the chunk
+ * must not be reused until every delivery referring to it has been read or freed.
+ * The chunk is returned to its pool when the last reference is released.
+ */
+class InputChunk
+{
+    private final InputChunkPool _pool;
+    private final byte[] _bytes;
+    private int _references;
+
+    InputChunk(InputChunkPool pool, int size)
+    {
+        _pool = pool;
+        _bytes = new byte[size];
+    }
+
+    byte[] getBytes()
+    {
+        return _bytes;
+    }
+
+    boolean isShared()
+    {
+        return _references > 1;
+    }
+
+    InputChunk retain()
+    {
+        if(_references <= 0)
+        {
+            throw new IllegalStateException("chunk has already been released");
+        }
+        _references++;
+        return this;
+    }
+
+    void release()
+    {
+        if(_references <= 0)
+        {
+            throw new IllegalStateException("chunk has already been released");
+        }
+        if(--_references == 0)
+        {
+            _pool.recycle(this);
+        }
+    }
+
+    void acquired()
+    {
+        _references = 1;
+    }
+
+    int getReferenceCount()
+    {
+        return _references;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.engine.impl;
+
+import java.util.ArrayDeque;
+
+/**
+ * A bounded free list of equally sized {@link InputChunk}s.
+ *
+ * Used by a {@link FrameParser} when zero-copy input is enabled. Like the rest of the
+ * transport it is not thread-safe; deliveries holding chunks must be read and freed on
+ * the thread that drives the transport.
+ */
+class InputChunkPool
+{
+    static final int DEFAULT_MAX_POOLED = Integer.getInteger("proton.transport_input_chunk_pool_size", 16);
+
+    private final int _chunkSize;
+    private final int _maxPooled;
+    private final ArrayDeque<InputChunk> _free = new ArrayDeque<InputChunk>();
+
+    InputChunkPool(int chunkSize)
+    {
+        this(chunkSize, DEFAULT_MAX_POOLED);
+    }
+
+    InputChunkPool(int chunkSize, int maxPooled)
+    {
+        _chunkSize = chunkSize;
+        _maxPooled = maxPooled;
+    }
+
+    /**
+     * Returns a chunk holding a single reference, owned by the caller.
+     */
+    InputChunk acquire()
+    {
+        InputChunk chunk = _free.poll();
+        if(chunk == null)
+        {
+            chunk = new InputChunk(this, _chunkSize);
+        }
+        chunk.acquired();
+        return chunk;
+    }
+
+    void recycle(InputChunk chunk)
+    {
+        if(_free.size() < _maxPooled && chunk.getBytes().length <= TransportImpl.BUFFER_RELEASE_THRESHOLD)
+        {
+            _free.push(chunk);
+        }
+    }
+
+    int getChunkSize()
+    {
+        return _chunkSize;
+    }
+
+    int getPooledCount()
+    {
+        return _free.size();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.engine.impl;
+
+import org.apache.qpid.proton.engine.Sender;
+
+/**
+ * Decides the order in which senders on a transport get to write transfer frames when they
+ * have more to send than fits in the output at once.
+ *
+ * The transport offers a sender with {@link #ready(Sender)} once it has a transfer it is able
+ * to write, then repeatedly asks for {@link #next()}, writes a single frame for it and reports
+ * back with {@link #sent(Sender, int, boolean)}. A sender is not offered again while it is ready.
+ */
+public interface OutputScheduler
+{
+    void ready(Sender sender);
+
+    /**
+     * @return the sender to write the next transfer frame for, or null if no sender is ready
+     */
+    Sender next();
+
+    /**
+     * @param sender the sender last returned by {@link #next()}
+     * @param bytes the size of the frame written for it, which may be 0 if it had nothing to write
+     * @param ready whether the sender still has a transfer it is able to write
+     */
+    void sent(Sender sender, int bytes, boolean ready);
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.engine.impl;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link BufferProvider} that keeps released direct buffers for reuse. Requests are rounded up
+ * to a power of two, so frame writers growing through arbitrary sizes still share a few size
+ * classes, and the classes are indexed by that power in a fixed array. Each class holds at most
+ * a fixed number of bytes; buffers beyond that, and buffers larger than the largest pooled size,
+ * are left to the garbage collector.
+ *
+ * Transports use the shared instance returned by {@link #getDefault()} unless given another.
+ */
+public class PooledBufferProvider implements BufferProvider
+{
+    static final int MAX_SIZE = Integer.getInteger("proton.transport_buffer_pool_max_size", 1024 * 1024);
+    static final int CLASS_BYTES = Integer.getInteger("proton.transport_buffer_pool_class_bytes", 16 * 1024 * 1024);
+
+    private static final PooledBufferProvider DEFAULT = new PooledBufferProvider(MAX_SIZE, CLASS_BYTES);
+
+    private static final class SizeClass
+    {
+        private final Queue<ByteBuffer> _free = new ConcurrentLinkedQueue<ByteBuffer>();
+        private final AtomicInteger _freeCount = new AtomicInteger();
+        private final int _maxFree;
+
+        SizeClass(int maxFree)
+        {
+            _maxFree = maxFree;
+        }
+    }
+
+    private final int _maxSize;
+    /** the class at index i holds buffers of capacity 2^i */
+    private final SizeClass[] _classes;
+
+    public static PooledBufferProvider getDefault()
+    {
+        return DEFAULT;
+    }
+
+    /**
+     * @param maxSize the largest capacity that is pooled
+     * @param classBytes the most bytes kept free in each size class, though every class keeps at
+     *                   least one buffer
+     */
+    public PooledBufferProvider(int maxSize, int classBytes)
+    {
+        _maxSize = maxSize;
+        _classes = new SizeClass[ceilingLog2(Math.max(1, maxSize)) + 1];
+        for (int i = 0; i < _classes.length; i++)
+        {
+            _classes[i] = new SizeClass(Math.max(1, classBytes >> i));
+        }
+    }
+
+    private static int ceilingLog2(int capacity)
+    {
+        return capacity <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(capacity - 1);
+    }
+
+    /**
+     * @return an empty direct buffer with at least the capacity asked for, rounded up to a power
+     *         of two if it is pooled
+     */
+    @Override
+    public ByteBuffer acquire(int capacity)
+    {
+        if (capacity > _maxSize)
+        {
+            return ByteBuffer.allocateDirect(capacity);
+        }
+
+        int index = ceilingLog2(capacity);
+        SizeClass sizeClass = _classes[index];
+        ByteBuffer buffer = sizeClass._free.poll();
+        if (buffer != null)
+        {
+            sizeClass._freeCount.decrementAndGet();
+            buffer.clear();
+            return buffer;
+        }
+        return ByteBuffer.allocateDirect(1 << index);
+    }
+
+    @Override
+    public void release(ByteBuffer buffer)
+    {
+        int capacity = buffer.capacity();
+        // rounded down, so a buffer that did not come from acquire still satisfies its class
+        int index = 31 - Integer.numberOfLeadingZeros(capacity);
+        if (!buffer.isDirect() || index < 0 || index >= _classes.length)
+        {
+            return;
+        }
+
+        SizeClass sizeClass = _classes[index];
+        if (sizeClass._freeCount.incrementAndGet() <= sizeClass._maxFree)
+        {
+            sizeClass._free.add(buffer);
+        }
+        else
+        {
+            sizeClass._freeCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return the number of buffers held for reuse in the size class serving the given capacity
+     */
+    int getFreeCount(int capacity)
+    {
+        return capacity > _maxSize ? 0 : _classes[ceilingLog2(capacity)]._freeCount.get();
+    }
+}
@@ -21,7 +21,6 @@
 package org.apache.qpid.proton.engine.impl;
 
 import java.util.Iterator;
-import org.apache.qpid.proton.amqp.UnsignedInteger;
 import org.apache.qpid.proton.engine.Delivery;
 import org.apache.qpid.proton.engine.Receiver;
 
@@ -44,7 +43,7 @@ public class ReceiverImpl extends LinkImpl implements Receiver
             decrementCredit();
             getSession().incrementIncomingBytes(-current.pending());
             getSession().incrementIncomingDeliveries(-1);
-            if (getSession().getTransportSession().getIncomingWindowSize().equals(UnsignedInteger.ZERO)) {
+            if (getSession().getTransportSession().getIncomingWindowSize() == 0) {
                 modified();
             }
         }
@@ -89,7 +88,7 @@ public class ReceiverImpl extends LinkImpl implements Receiver
         int consumed = _current.recv(bytes, offset, size);
         if (consumed > 0) {
             getSession().incrementIncomingBytes(-consumed);
-            if (getSession().getTransportSession().getIncomingWindowSize().equals(UnsignedInteger.ZERO)) {
+            if (getSession().getTransportSession().getIncomingWindowSize() == 0) {
                 modified();
             }
         }
@@ -26,6 +26,7 @@ import java.nio.ByteBuffer;
 import org.apache.qpid.proton.amqp.Binary;
 import org.apache.qpid.proton.amqp.security.SaslFrameBody;
 import org.apache.qpid.proton.codec.ByteBufferDecoder;
+import org.apache.qpid.proton.codec.EncoderDecoderPair;
 import org.apache.qpid.proton.codec.DecodeException;
 import org.apache.qpid.proton.engine.TransportException;
 
@@ -51,8 +52,14 @@ class SaslFrameParser
     private ByteBuffer _buffer;
 
     private int _ignore = 8;
+    /** the decoder to use, or null to use the calling thread's shared one */
     private final ByteBufferDecoder _decoder;
 
+    SaslFrameParser(SaslFrameHandler sasl)
+    {
+        this(sasl, null);
+    }
+
 
     SaslFrameParser(SaslFrameHandler sasl, ByteBufferDecoder decoder)
     {
@@ -203,8 +210,9 @@ class SaslFrameParser
 
                     try
                     {
-                        _decoder.setByteBuffer(input);
-                        Object val = _decoder.readObject();
+                        ByteBufferDecoder decoder = _decoder == null ? EncoderDecoderPair.current().getDecoder() : _decoder;
+                        decoder.setByteBuffer(input);
+                        Object val = decoder.readObject();
 
                         Binary payload;
 
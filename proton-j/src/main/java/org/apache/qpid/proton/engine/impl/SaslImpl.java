@@ -38,9 +38,6 @@ import org.apache.qpid.proton.amqp.security.SaslFrameBody;
 import org.apache.qpid.proton.amqp.security.SaslInit;
 import org.apache.qpid.proton.amqp.security.SaslMechanisms;
 import org.apache.qpid.proton.amqp.security.SaslResponse;
-import org.apache.qpid.proton.codec.AMQPDefinedTypes;
-import org.apache.qpid.proton.codec.DecoderImpl;
-import org.apache.qpid.proton.codec.EncoderImpl;
 import org.apache.qpid.proton.engine.Sasl;
 import org.apache.qpid.proton.engine.Transport;
 import org.apache.qpid.proton.engine.TransportException;
@@ -51,9 +48,6 @@ public class SaslImpl implements Sasl, SaslFrameBody.SaslFrameBodyHandler<Void>,
 
     public static final byte SASL_FRAME_TYPE = (byte) 1;
 
-    private final DecoderImpl _decoder = new DecoderImpl();
-    private final EncoderImpl _encoder = new EncoderImpl(_decoder);
-
     private final TransportImpl _transport;
 
     private boolean _tail_closed = false;
@@ -95,9 +89,8 @@ public class SaslImpl implements Sasl, SaslFrameBody.SaslFrameBodyHandler<Void>,
         _inputBuffer = newWriteableBuffer(maxFrameSize);
         _outputBuffer = newWriteableBuffer(maxFrameSize);
 
-        AMQPDefinedTypes.registerAllTypes(_decoder,_encoder);
-        _frameParser = new SaslFrameParser(this, _decoder);
-        _frameWriter = new FrameWriter(_encoder, maxFrameSize, FrameWriter.SASL_FRAME_TYPE, null, _transport);
+        _frameParser = new SaslFrameParser(this);
+        _frameWriter = new FrameWriter(maxFrameSize, FrameWriter.SASL_FRAME_TYPE, null, _transport);
     }
 
     void fail() {
@@ -506,7 +499,7 @@ public class SaslImpl implements Sasl, SaslFrameBody.SaslFrameBodyHandler<Void>,
         return builder.toString();
     }
 
-    private class SaslTransportWrapper implements TransportWrapper
+    private class SaslTransportWrapper implements TransportWrapper, GatheringTransportOutput
     {
         private final TransportInput _underlyingInput;
         private final TransportOutput _underlyingOutput;
@@ -686,6 +679,20 @@ public class SaslImpl implements Sasl, SaslFrameBody.SaslFrameBodyHandler<Void>,
             }
         }
 
+        @Override
+        public ByteBuffer[] headBuffers()
+        {
+            if (isOutputInSaslMode() || _outputBuffer.position() != 0
+                || !(_underlyingOutput instanceof GatheringTransportOutput))
+            {
+                return pending() > 0 ? new ByteBuffer[] { head() } : new ByteBuffer[0];
+            }
+            else
+            {
+                return ((GatheringTransportOutput) _underlyingOutput).headBuffers();
+            }
+        }
+
         @Override
         public void pop(int bytes)
         {
@@ -23,6 +23,7 @@ import static org.apache.qpid.proton.engine.impl.ByteBufferUtils.pourBufferToArr
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,10 +31,13 @@ import org.apache.qpid.proton.amqp.Binary;
 import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedInteger;
 import org.apache.qpid.proton.amqp.UnsignedShort;
+import org.apache.qpid.proton.amqp.messaging.Accepted;
+import org.apache.qpid.proton.amqp.messaging.Released;
 import org.apache.qpid.proton.amqp.transport.Attach;
 import org.apache.qpid.proton.amqp.transport.Begin;
 import org.apache.qpid.proton.amqp.transport.Close;
 import org.apache.qpid.proton.amqp.transport.ConnectionError;
+import org.apache.qpid.proton.amqp.transport.DeliveryState;
 import org.apache.qpid.proton.amqp.transport.Detach;
 import org.apache.qpid.proton.amqp.transport.Disposition;
 import org.apache.qpid.proton.amqp.transport.End;
@@ -43,14 +47,12 @@ import org.apache.qpid.proton.amqp.transport.FrameBody;
 import org.apache.qpid.proton.amqp.transport.Open;
 import org.apache.qpid.proton.amqp.transport.Role;
 import org.apache.qpid.proton.amqp.transport.Transfer;
-import org.apache.qpid.proton.codec.AMQPDefinedTypes;
-import org.apache.qpid.proton.codec.DecoderImpl;
-import org.apache.qpid.proton.codec.EncoderImpl;
 import org.apache.qpid.proton.engine.Connection;
 import org.apache.qpid.proton.engine.EndpointState;
 import org.apache.qpid.proton.engine.Event;
 import org.apache.qpid.proton.engine.ProtonJTransport;
 import org.apache.qpid.proton.engine.Sasl;
+import org.apache.qpid.proton.engine.Sender;
 import org.apache.qpid.proton.engine.Ssl;
 import org.apache.qpid.proton.engine.SslDomain;
 import org.apache.qpid.proton.engine.SslPeerDetails;
@@ -64,9 +66,10 @@ import org.apache.qpid.proton.framing.TransportFrame;
 
 public class TransportImpl extends EndpointImpl
     implements ProtonJTransport, FrameBody.FrameBodyHandler<Integer>,
-        FrameHandler, TransportOutputWriter
+        FrameHandler, GatheringTransportOutputWriter
 {
     static final int BUFFER_RELEASE_THRESHOLD = Integer.getInteger("proton.transport_buffer_release_threshold", 2 * 1024 * 1024);
+    static final boolean ZERO_COPY_INPUT = Boolean.getBoolean("proton.transport_zero_copy_input");
 
     private static final boolean getBooleanEnv(String name)
     {
@@ -100,9 +103,6 @@ public class TransportImpl extends EndpointImpl
     private Map<LinkImpl, TransportLink<?>> _transportLinkState = new HashMap<LinkImpl, TransportLink<?>>();
 
 
-    private DecoderImpl _decoder = new DecoderImpl();
-    private EncoderImpl _encoder = new EncoderImpl(_decoder);
-
     private int _maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
     private int _remoteMaxFrameSize = 512;
     private int _channelMax = 65535;
@@ -115,6 +115,8 @@ public class TransportImpl extends EndpointImpl
     private SaslImpl _sasl;
     private SslImpl _ssl;
     private final Ref<ProtocolTracer> _protocolTracer = new Ref(null);
+    private OutputScheduler _outputScheduler = new DeficitRoundRobinScheduler();
+    private BufferProvider _bufferProvider = PooledBufferProvider.getDefault();
 
     private TransportResult _lastTransportResult = TransportResultFactory.ok();
 
@@ -122,6 +124,10 @@ public class TransportImpl extends EndpointImpl
     private boolean _processingStarted;
 
     private FrameHandler _frameHandler = this;
+    private InputChunk _frameChunk;
+
+    private Disposition _pendingDisposition;
+    private int _pendingDispositionChannel;
     private boolean _head_closed = false;
     private ErrorCondition _condition = null;
 
@@ -153,10 +159,8 @@ public class TransportImpl extends EndpointImpl
      */
     TransportImpl(int maxFrameSize)
     {
-        AMQPDefinedTypes.registerAllTypes(_decoder, _encoder);
-
         _maxFrameSize = maxFrameSize;
-        _frameWriter = new FrameWriter(_encoder, _remoteMaxFrameSize,
+        _frameWriter = new FrameWriter(_remoteMaxFrameSize,
                                        FrameWriter.AMQP_FRAME_TYPE,
                                        _protocolTracer,
                                        this);
@@ -167,9 +171,9 @@ public class TransportImpl extends EndpointImpl
         if(!_init)
         {
             _init = true;
-            _frameParser = new FrameParser(_frameHandler , _decoder, _maxFrameSize);
+            _frameParser = new FrameParser(_frameHandler, _maxFrameSize, ZERO_COPY_INPUT, _bufferProvider);
             _inputProcessor = _frameParser;
-            _outputProcessor = new TransportOutputAdaptor(this, _maxFrameSize);
+            _outputProcessor = new TransportOutputAdaptor(this, _maxFrameSize, _bufferProvider);
         }
     }
 
@@ -309,6 +313,31 @@ public class TransportImpl extends EndpointImpl
 
     @Override
     public boolean writeInto(ByteBuffer outputBuffer)
+    {
+        processOutput();
+
+        _frameWriter.readBytes(outputBuffer);
+
+        return _isCloseSent || _head_closed;
+    }
+
+    @Override
+    public boolean gatherInto(List<ByteBuffer> buffers)
+    {
+        processOutput();
+
+        _frameWriter.gatherInto(buffers);
+
+        return _isCloseSent || _head_closed;
+    }
+
+    @Override
+    public void popGathered(int bytes)
+    {
+        _frameWriter.pop(bytes);
+    }
+
+    private void processOutput()
     {
         processHeader();
         processOpen();
@@ -324,10 +353,6 @@ public class TransportImpl extends EndpointImpl
         processDetach();
         processEnd();
         processClose();
-
-        _frameWriter.readBytes(outputBuffer);
-
-        return _isCloseSent || _head_closed;
     }
 
     @Override
@@ -436,15 +461,19 @@ public class TransportImpl extends EndpointImpl
     private void writeFlow(TransportSession ssn, TransportLink link)
     {
         Flow flow = new Flow();
-        flow.setNextIncomingId(ssn.getNextIncomingId());
-        flow.setNextOutgoingId(ssn.getNextOutgoingId());
+        if (ssn.isNextIncomingIdSet()) {
+            flow.setNextIncomingId(UnsignedInteger.valueOf(ssn.getNextIncomingId()));
+        }
+        flow.setNextOutgoingId(UnsignedInteger.valueOf(ssn.getNextOutgoingId()));
         ssn.updateWindows();
-        flow.setIncomingWindow(ssn.getIncomingWindowSize());
-        flow.setOutgoingWindow(ssn.getOutgoingWindowSize());
+        flow.setIncomingWindow(UnsignedInteger.valueOf(ssn.getIncomingWindowSize()));
+        flow.setOutgoingWindow(UnsignedInteger.valueOf(ssn.getOutgoingWindowSize()));
         if (link != null) {
             flow.setHandle(link.getLocalHandle());
-            flow.setDeliveryCount(link.getDeliveryCount());
-            flow.setLinkCredit(link.getLinkCredit());
+            if (link.isDeliveryCountSet()) {
+                flow.setDeliveryCount(UnsignedInteger.valueOf(link.getDeliveryCount()));
+            }
+            flow.setLinkCredit(UnsignedInteger.valueOf((int) link.getLinkCredit()));
             flow.setDrain(link.getLink().getDrain());
         }
         writeFrame(ssn.getLocalChannel(), flow, null, null);
@@ -465,10 +494,10 @@ public class TransportImpl extends EndpointImpl
                     {
                         TransportSender transportLink = sender.getTransportLink();
                         TransportSession transportSession = sender.getSession().getTransportSession();
-                        UnsignedInteger credits = transportLink.getLinkCredit();
-                        transportLink.setLinkCredit(UnsignedInteger.valueOf(0));
-                        transportLink.setDeliveryCount(transportLink.getDeliveryCount().add(credits));
-                        transportLink.setLinkCredit(UnsignedInteger.ZERO);
+                        long credits = transportLink.getLinkCredit();
+                        transportLink.setLinkCredit(0);
+                        transportLink.setDeliveryCount(transportLink.getDeliveryCount() + (int) credits);
+                        transportLink.setLinkCredit(0);
                         sender.setDrained(0);
 
                         writeFlow(transportSession, transportLink);
@@ -514,109 +543,170 @@ public class TransportImpl extends EndpointImpl
                     }
                 }
             }
+            processScheduledTransfers();
+            flushDisposition();
         }
     }
 
+    /**
+     * Deliveries with a transfer to write are queued on their sender, which is handed to the
+     * output scheduler once it can send; the transfers are written later by
+     * {@link #processScheduledTransfers()}. Anything else is dealt with here.
+     */
     private boolean processTransportWorkSender(DeliveryImpl delivery,
                                                SenderImpl snd)
     {
-        TransportLink<SenderImpl> tpLink = snd.getTransportLink();
-        SessionImpl session = snd.getSession();
-        TransportSession tpSession = session.getTransportSession();
-
-        boolean wasDone = delivery.isDone();
+        TransportSender tpLink = snd.getTransportLink();
 
-        if(!delivery.isDone() &&
-           (delivery.getDataLength() > 0 || delivery != snd.current()) &&
-           tpSession.hasOutgoingCredit() && tpLink.hasCredit() &&
-           tpSession.isLocalChannelSet() &&
-           tpLink.getLocalHandle() != null && !_frameWriter.isFull())
+        if(hasTransfer(delivery, snd))
         {
-            UnsignedInteger deliveryId = tpSession.getOutgoingDeliveryId();
-            TransportDelivery tpDelivery = new TransportDelivery(deliveryId, delivery, tpLink);
-            delivery.setTransportDelivery(tpDelivery);
-
-            final Transfer transfer = new Transfer();
-            transfer.setDeliveryId(deliveryId);
-            transfer.setDeliveryTag(new Binary(delivery.getTag()));
-            transfer.setHandle(tpLink.getLocalHandle());
-
-            if(delivery.getLocalState() != null)
-            {
-                transfer.setState(delivery.getLocalState());
-            }
-
-            if(delivery.isSettled())
+            if(!delivery._scheduled)
             {
-                transfer.setSettled(Boolean.TRUE);
+                tpLink.schedule(delivery);
             }
-            else
+            if(!tpLink.isReady() && canTransfer(snd))
             {
-                tpSession.addUnsettledOutgoing(deliveryId, delivery);
+                tpLink.setReady(true);
+                _outputScheduler.ready(snd);
             }
+            return false;
+        }
 
-            if(snd.current() == delivery)
+        if(delivery.isDone() && delivery.getLocalState() != null)
+        {
+            TransportSession tpSession = snd.getSession().getTransportSession();
+            TransportDelivery tpDelivery = delivery.getTransportDelivery();
+            writeDisposition(tpSession.getLocalChannel(), Role.SENDER, tpDelivery.getDeliveryId(),
+                             delivery.isSettled(), delivery.getLocalState());
+            if(delivery.isSettled())
             {
-                transfer.setMore(true);
+                tpDelivery.settled();
             }
+        }
 
-            transfer.setMessageFormat(UnsignedInteger.ZERO);
+        return !delivery.isBuffered();
+    }
 
-            // TODO - large frames
-            ByteBuffer payload = delivery.getData() ==  null ? null :
-                ByteBuffer.wrap(delivery.getData(), delivery.getDataOffset(),
-                                delivery.getDataLength());
+    private boolean hasTransfer(DeliveryImpl delivery, SenderImpl snd)
+    {
+        return !delivery.isDone() && (delivery.getDataLength() > 0 || delivery != snd.current());
+    }
+
+    private boolean canTransfer(SenderImpl snd)
+    {
+        TransportLink<SenderImpl> tpLink = snd.getTransportLink();
+        TransportSession tpSession = snd.getSession().getTransportSession();
+        return tpSession.hasOutgoingCredit() && tpLink.hasCredit() &&
+               tpSession.isLocalChannelSet() && tpLink.getLocalHandle() != null;
+    }
 
-            writeFrame(tpSession.getLocalChannel(), transfer, payload,
-                       new PartialTransfer(transfer));
-            tpSession.incrementOutgoingId();
-            tpSession.decrementRemoteIncomingWindow();
+    /**
+     * Writes transfer frames for the senders the output scheduler picks until it has none ready
+     * or the output is full.
+     */
+    private void processScheduledTransfers()
+    {
+        Sender sender;
+        while(!_frameWriter.isFull() && (sender = _outputScheduler.next()) != null)
+        {
+            SenderImpl snd = (SenderImpl) sender;
+            TransportSender tpLink = snd.getTransportLink();
 
-            if(payload == null || !payload.hasRemaining())
+            int written = 0;
+            DeliveryImpl delivery = nextScheduledTransfer(tpLink, snd);
+            if(delivery != null && canTransfer(snd))
             {
-                session.incrementOutgoingBytes(-delivery.pending());
-                delivery.setData(null);
-                delivery.setDataLength(0);
-
-                if (!transfer.getMore()) {
-                    delivery.setDone();
-                    tpLink.setDeliveryCount(tpLink.getDeliveryCount().add(UnsignedInteger.ONE));
-                    tpLink.setLinkCredit(tpLink.getLinkCredit().subtract(UnsignedInteger.ONE));
-                    tpSession.incrementOutgoingDeliveryId();
-                    session.incrementOutgoingDeliveries(-1);
-                    snd.decrementQueued();
+                writeTransfer(delivery, snd);
+                written = _frameWriter.getLastFrameSize();
+
+                if(!hasTransfer(delivery, snd))
+                {
+                    tpLink.unscheduleHead();
+                    if(!delivery.isBuffered())
+                    {
+                        delivery.clearTransportWork();
+                    }
                 }
             }
-            else
-            {
-                int delta = delivery.getDataLength() - payload.remaining();
-                delivery.setDataOffset(delivery.getDataOffset() + delta);
-                delivery.setDataLength(payload.remaining());
-                session.incrementOutgoingBytes(-delta);
-            }
 
-            getConnectionImpl().put(Event.Type.LINK_FLOW, snd);
+            boolean ready = nextScheduledTransfer(tpLink, snd) != null && canTransfer(snd);
+            tpLink.setReady(ready);
+            _outputScheduler.sent(snd, written, ready);
         }
+    }
 
-        if(wasDone && delivery.getLocalState() != null)
+    /**
+     * Drops deliveries from the head of the sender's queue that no longer have a transfer to
+     * write, for instance because they were settled or freed while waiting.
+     */
+    private DeliveryImpl nextScheduledTransfer(TransportSender tpLink, SenderImpl snd)
+    {
+        DeliveryImpl delivery = tpLink.getScheduledHead();
+        while(delivery != null && !(delivery._transportWork && hasTransfer(delivery, snd)))
         {
-            TransportDelivery tpDelivery = delivery.getTransportDelivery();
-            Disposition disposition = new Disposition();
-            disposition.setFirst(tpDelivery.getDeliveryId());
-            disposition.setLast(tpDelivery.getDeliveryId());
-            disposition.setRole(Role.SENDER);
-            disposition.setSettled(delivery.isSettled());
-            if(delivery.isSettled())
-            {
-                tpDelivery.settled();
-            }
-            disposition.setState(delivery.getLocalState());
+            tpLink.unscheduleHead();
+            delivery = tpLink.getScheduledHead();
+        }
+        return delivery;
+    }
+
+    private void writeTransfer(DeliveryImpl delivery, SenderImpl snd)
+    {
+        TransportLink<SenderImpl> tpLink = snd.getTransportLink();
+        SessionImpl session = snd.getSession();
+        TransportSession tpSession = session.getTransportSession();
+
+        UnsignedInteger deliveryId = UnsignedInteger.valueOf(tpSession.getOutgoingDeliveryId());
+        TransportDelivery tpDelivery = new TransportDelivery(deliveryId, delivery, tpLink);
+        delivery.setTransportDelivery(tpDelivery);
+
+        final Transfer transfer = new Transfer();
+        transfer.setDeliveryId(deliveryId);
+        transfer.setDeliveryTag(new Binary(delivery.getTag()));
+        transfer.setHandle(tpLink.getLocalHandle());
 
-            writeFrame(tpSession.getLocalChannel(), disposition, null,
-                       null);
+        if(delivery.getLocalState() != null)
+        {
+            transfer.setState(delivery.getLocalState());
         }
 
-        return !delivery.isBuffered();
+        if(delivery.isSettled())
+        {
+            transfer.setSettled(Boolean.TRUE);
+        }
+        else
+        {
+            tpSession.addUnsettledOutgoing(deliveryId, delivery);
+        }
+
+        if(snd.current() == delivery)
+        {
+            transfer.setMore(true);
+        }
+
+        transfer.setMessageFormat(UnsignedInteger.ZERO);
+
+        DeliveryBuffer payload = delivery.getData();
+        int pending = payload.length();
+
+        _frameWriter.writeFrame(tpSession.getLocalChannel(), transfer, payload,
+                                new PartialTransfer(transfer));
+        tpSession.incrementOutgoingId();
+        tpSession.decrementRemoteIncomingWindow();
+
+        session.incrementOutgoingBytes(payload.length() - pending);
+
+        if(payload.isEmpty() && !transfer.getMore())
+        {
+            delivery.setDone();
+            tpLink.incrementDeliveryCount();
+            tpLink.decrementLinkCredit();
+            tpSession.incrementOutgoingDeliveryId();
+            session.incrementOutgoingDeliveries(-1);
+            snd.decrementQueued();
+        }
+
+        getConnectionImpl().put(Event.Type.LINK_FLOW, snd);
     }
 
     private boolean processTransportWorkReceiver(DeliveryImpl delivery,
@@ -628,14 +718,8 @@ public class TransportImpl extends EndpointImpl
 
         if (tpSession.isLocalChannelSet())
         {
-            Disposition disposition = new Disposition();
-            disposition.setFirst(tpDelivery.getDeliveryId());
-            disposition.setLast(tpDelivery.getDeliveryId());
-            disposition.setRole(Role.RECEIVER);
-            disposition.setSettled(delivery.isSettled());
-
-            disposition.setState(delivery.getLocalState());
-            writeFrame(tpSession.getLocalChannel(), disposition, null, null);
+            writeDisposition(tpSession.getLocalChannel(), Role.RECEIVER, tpDelivery.getDeliveryId(),
+                             delivery.isSettled(), delivery.getLocalState());
             if (delivery.isSettled())
             {
                 tpDelivery.settled();
@@ -646,6 +730,70 @@ public class TransportImpl extends EndpointImpl
         return false;
     }
 
+    /**
+     * Extends the pending disposition to cover the given delivery if it has the same channel, role,
+     * settled flag and state and the delivery id is adjacent to its range, otherwise flushes the
+     * pending disposition and starts a new one.
+     */
+    private void writeDisposition(int channel, Role role, UnsignedInteger deliveryId,
+                                  boolean settled, DeliveryState state)
+    {
+        Disposition pending = _pendingDisposition;
+        if (pending != null && channel == _pendingDispositionChannel && role == pending.getRole()
+            && settled == pending.getSettled() && isSameState(state, pending.getState()))
+        {
+            // ranges are never extended across the wrap of the delivery id
+            if (deliveryId.equals(pending.getLast().add(UnsignedInteger.ONE))
+                && deliveryId.compareTo(pending.getLast()) > 0)
+            {
+                pending.setLast(deliveryId);
+                return;
+            }
+            if (pending.getFirst().equals(deliveryId.add(UnsignedInteger.ONE))
+                && deliveryId.compareTo(pending.getFirst()) < 0)
+            {
+                pending.setFirst(deliveryId);
+                return;
+            }
+        }
+
+        flushDisposition();
+
+        Disposition disposition = new Disposition();
+        disposition.setFirst(deliveryId);
+        disposition.setLast(deliveryId);
+        disposition.setRole(role);
+        disposition.setSettled(settled);
+        disposition.setState(state);
+
+        _pendingDisposition = disposition;
+        _pendingDispositionChannel = channel;
+    }
+
+    private void flushDisposition()
+    {
+        if (_pendingDisposition != null)
+        {
+            Disposition disposition = _pendingDisposition;
+            _pendingDisposition = null;
+            if (disposition.getFirst().equals(disposition.getLast()))
+            {
+                disposition.setLast(null);
+            }
+            writeFrame(_pendingDispositionChannel, disposition, null, null);
+        }
+    }
+
+    /**
+     * Only outcomes that carry no fields can be shared by deliveries with distinct state objects.
+     */
+    private static boolean isSameState(DeliveryState state, DeliveryState other)
+    {
+        return state == other
+               || (state instanceof Accepted && other instanceof Accepted)
+               || (state instanceof Released && other instanceof Released);
+    }
+
     private void processReceiverFlow()
     {
         if(_connectionEndpoint != null)
@@ -663,7 +811,7 @@ public class TransportImpl extends EndpointImpl
                     {
                         int credits = receiver.clearUnsentCredits();
                         if(credits != 0 || receiver.getDrain() ||
-                           transportSession.getIncomingWindowSize().equals(UnsignedInteger.ZERO))
+                           transportSession.getIncomingWindowSize() == 0)
                         {
                             transportLink.addCredit(credits);
                             writeFlow(transportSession, transportLink);
@@ -683,7 +831,7 @@ public class TransportImpl extends EndpointImpl
 
                     if(session.getLocalState() == EndpointState.ACTIVE)
                     {
-                        if(transportSession.getIncomingWindowSize().equals(UnsignedInteger.ZERO))
+                        if(transportSession.getIncomingWindowSize() == 0)
                         {
                             writeFlow(transportSession, null);
                         }
@@ -828,9 +976,9 @@ public class TransportImpl extends EndpointImpl
                             begin.setRemoteChannel(UnsignedShort.valueOf((short) transportSession.getRemoteChannel()));
                         }
                         begin.setHandleMax(transportSession.getHandleMax());
-                        begin.setIncomingWindow(transportSession.getIncomingWindowSize());
-                        begin.setOutgoingWindow(transportSession.getOutgoingWindowSize());
-                        begin.setNextOutgoingId(transportSession.getNextOutgoingId());
+                        begin.setIncomingWindow(UnsignedInteger.valueOf(transportSession.getIncomingWindowSize()));
+                        begin.setOutgoingWindow(UnsignedInteger.valueOf(transportSession.getOutgoingWindowSize()));
+                        begin.setNextOutgoingId(UnsignedInteger.valueOf(transportSession.getNextOutgoingId()));
 
                         writeFrame(channelId, begin, null, null);
                         transportSession.sentBegin();
@@ -1070,7 +1218,7 @@ public class TransportImpl extends EndpointImpl
             }
             transportSession.setRemoteChannel(channel);
             session.setRemoteState(EndpointState.ACTIVE);
-            transportSession.setNextIncomingId(begin.getNextOutgoingId());
+            transportSession.setNextIncomingId(begin.getNextOutgoingId().intValue());
             _remoteSessions.put(channel, transportSession);
 
             _connectionEndpoint.put(Event.Type.SESSION_REMOTE_OPEN, session);
@@ -1111,9 +1259,9 @@ public class TransportImpl extends EndpointImpl
                 {
                     link = transportLink.getLink();
                 }
-                if(attach.getRole() == Role.SENDER)
+                if(attach.getRole() == Role.SENDER && attach.getInitialDeliveryCount() != null)
                 {
-                    transportLink.setDeliveryCount(attach.getInitialDeliveryCount());
+                    transportLink.setDeliveryCount(attach.getInitialDeliveryCount().intValue());
                 }
 
                 link.setRemoteState(EndpointState.ACTIVE);
@@ -1155,7 +1303,7 @@ public class TransportImpl extends EndpointImpl
         TransportSession transportSession = _remoteSessions.get(channel);
         if(transportSession != null)
         {
-            transportSession.handleTransfer(transfer, payload);
+            transportSession.handleTransfer(transfer, payload, _frameChunk);
         }
         else
         {
@@ -1272,7 +1420,18 @@ public class TransportImpl extends EndpointImpl
             tracer.receivedFrame(frame);
         }
 
-        frame.getBody().invoke(this,frame.getPayload(), frame.getChannel());
+        if (frame instanceof ChunkedTransportFrame)
+        {
+            _frameChunk = ((ChunkedTransportFrame) frame).getChunk();
+        }
+        try
+        {
+            frame.getBody().invoke(this,frame.getPayload(), frame.getChannel());
+        }
+        finally
+        {
+            _frameChunk = null;
+        }
         return _closeReceived;
     }
 
@@ -1330,6 +1489,42 @@ public class TransportImpl extends EndpointImpl
         this._protocolTracer.set(protocolTracer);
     }
 
+    @Override
+    public OutputScheduler getOutputScheduler()
+    {
+        return _outputScheduler;
+    }
+
+    @Override
+    public void setOutputScheduler(OutputScheduler outputScheduler)
+    {
+        _outputScheduler = outputScheduler;
+        // senders handed to the old scheduler are offered to the new one on the next pass
+        for (TransportLink<?> tpLink : _transportLinkState.values())
+        {
+            if (tpLink instanceof TransportSender)
+            {
+                ((TransportSender) tpLink).setReady(false);
+            }
+        }
+    }
+
+    @Override
+    public BufferProvider getBufferProvider()
+    {
+        return _bufferProvider;
+    }
+
+    @Override
+    public void setBufferProvider(BufferProvider bufferProvider)
+    {
+        if (_init)
+        {
+            throw new IllegalStateException("The buffer provider must be set before the transport is used");
+        }
+        _bufferProvider = bufferProvider;
+    }
+
     @Override
     public ByteBuffer getInputBuffer()
     {
@@ -1411,6 +1606,24 @@ public class TransportImpl extends EndpointImpl
         return _outputProcessor.head();
     }
 
+    @Override
+    public ByteBuffer[] headBuffers()
+    {
+        init();
+        if (_outputProcessor instanceof GatheringTransportOutput)
+        {
+            return ((GatheringTransportOutput) _outputProcessor).headBuffers();
+        }
+        else if (_outputProcessor.pending() > 0)
+        {
+            return new ByteBuffer[] { _outputProcessor.head() };
+        }
+        else
+        {
+            return new ByteBuffer[0];
+        }
+    }
+
     @Override
     public void pop(int bytes)
     {
@@ -1541,6 +1754,11 @@ public class TransportImpl extends EndpointImpl
     static String INCOMING = "<-";
     static String OUTGOING = "->";
 
+    boolean isTracingFrames()
+    {
+        return (_levels & TRACE_FRM) != 0;
+    }
+
     void log(String event, TransportFrame frame)
     {
         if ((_levels & TRACE_FRM) != 0) {
@@ -30,8 +30,11 @@ class TransportLink<T extends LinkImpl>
     private UnsignedInteger _localHandle;
     private String _name;
     private UnsignedInteger _remoteHandle;
-    private UnsignedInteger _deliveryCount;
-    private UnsignedInteger _linkCredit = UnsignedInteger.ZERO;
+    // the delivery count is a serial number, so is held as an int that wraps. The credit is an
+    // unsigned count, so is held as a long to cover all of its range.
+    private int _deliveryCount;
+    private boolean _deliveryCountSet;
+    private long _linkCredit;
     private T _link;
     private UnsignedInteger _remoteDeliveryCount;
     private UnsignedInteger _remoteLinkCredit;
@@ -114,24 +117,32 @@ class TransportLink<T extends LinkImpl>
         _remoteHandle = null;
     }
 
-    public UnsignedInteger getDeliveryCount()
+    public int getDeliveryCount()
     {
         return _deliveryCount;
     }
 
-    public UnsignedInteger getLinkCredit()
+    /**
+     * @return false for a receiver that has not yet received the sender's initial delivery count
+     */
+    public boolean isDeliveryCountSet()
+    {
+        return _deliveryCountSet;
+    }
+
+    public long getLinkCredit()
     {
         return _linkCredit;
     }
 
     public void addCredit(int credits)
     {
-        _linkCredit = UnsignedInteger.valueOf(_linkCredit.intValue() + credits);
+        _linkCredit += credits;
     }
 
     public boolean hasCredit()
     {
-        return getLinkCredit().compareTo(UnsignedInteger.ZERO) > 0;
+        return _linkCredit > 0;
     }
 
     public T getLink()
@@ -148,14 +159,15 @@ class TransportLink<T extends LinkImpl>
         _link.getConnectionImpl().put(Event.Type.LINK_FLOW, _link);
     }
 
-    void setLinkCredit(UnsignedInteger linkCredit)
+    void setLinkCredit(long linkCredit)
     {
         _linkCredit = linkCredit;
     }
 
-    public void setDeliveryCount(UnsignedInteger deliveryCount)
+    public void setDeliveryCount(int deliveryCount)
     {
         _deliveryCount = deliveryCount;
+        _deliveryCountSet = true;
     }
 
     public void settled(TransportDelivery transportDelivery)
@@ -181,12 +193,12 @@ class TransportLink<T extends LinkImpl>
 
     void decrementLinkCredit()
     {
-        _linkCredit = _linkCredit.subtract(UnsignedInteger.ONE);
+        _linkCredit--;
     }
 
     void incrementDeliveryCount()
     {
-        _deliveryCount = _deliveryCount.add(UnsignedInteger.ONE);
+        _deliveryCount++;
     }
 
     public void receivedDetach()
@@ -21,25 +21,43 @@ package org.apache.qpid.proton.engine.impl;
 import static org.apache.qpid.proton.engine.impl.ByteBufferUtils.*;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 
 import org.apache.qpid.proton.engine.Transport;
 
-class TransportOutputAdaptor implements TransportOutput
+class TransportOutputAdaptor implements GatheringTransportOutput
 {
     private static final ByteBuffer _emptyHead = newReadableBuffer(0).asReadOnlyBuffer();
+    private static final ByteBuffer[] _emptyHeadBuffers = new ByteBuffer[0];
 
     private final TransportOutputWriter _transportOutputWriter;
     private final int _maxFrameSize;
+    private final BufferProvider _bufferProvider;
 
     private ByteBuffer _outputBuffer = null;
     private ByteBuffer _head = null;
     private boolean _output_done = false;
     private boolean _head_closed = false;
 
+    /** true while the pending output is being consumed through {@link #headBuffers()} */
+    private boolean _gathering = false;
+    private final ArrayList<ByteBuffer> _gathered = new ArrayList<ByteBuffer>();
+
     TransportOutputAdaptor(TransportOutputWriter transportOutputWriter, int maxFrameSize)
+    {
+        this(transportOutputWriter, maxFrameSize, PooledBufferProvider.getDefault());
+    }
+
+    /**
+     * @param bufferProvider lends the output buffer while output copied by {@link #head()} is
+     * waiting to be popped
+     */
+    TransportOutputAdaptor(TransportOutputWriter transportOutputWriter, int maxFrameSize,
+                           BufferProvider bufferProvider)
     {
         _transportOutputWriter = transportOutputWriter;
         _maxFrameSize = maxFrameSize > 0 ? maxFrameSize : 4*1024;
+        _bufferProvider = bufferProvider;
     }
 
     @Override
@@ -49,6 +67,12 @@ class TransportOutputAdaptor implements TransportOutput
             return Transport.END_OF_STREAM;
         }
 
+        if (_gathering)
+        {
+            int pending = gather();
+            return (_output_done && pending == 0) ? Transport.END_OF_STREAM : pending;
+        }
+
         if(_outputBuffer == null)
         {
             init_buffers();
@@ -57,7 +81,7 @@ class TransportOutputAdaptor implements TransportOutput
         _output_done = _transportOutputWriter.writeInto(_outputBuffer);
         _head.limit(_outputBuffer.position());
 
-        if (_outputBuffer.position() == 0 && _outputBuffer.capacity() > TransportImpl.BUFFER_RELEASE_THRESHOLD)
+        if (_outputBuffer.position() == 0)
         {
             release_buffers();
         }
@@ -75,20 +99,57 @@ class TransportOutputAdaptor implements TransportOutput
     @Override
     public ByteBuffer head()
     {
+        _gathering = false;
         pending();
         return _head != null ? _head : _emptyHead;
     }
 
+    /**
+     * Returns the pending output without copying it into the output buffer, provided that the
+     * writer supports it and no output has already been copied by {@link #head()}.
+     */
+    @Override
+    public ByteBuffer[] headBuffers()
+    {
+        if (_head_closed) {
+            return _emptyHeadBuffers;
+        }
+
+        boolean copied = _outputBuffer != null && _outputBuffer.position() > 0;
+        if (copied || !(_transportOutputWriter instanceof GatheringTransportOutputWriter)) {
+            return new ByteBuffer[] { head() };
+        }
+
+        _gathering = true;
+        gather();
+        return _gathered.toArray(new ByteBuffer[_gathered.size()]);
+    }
+
+    private int gather()
+    {
+        _gathered.clear();
+        _output_done = ((GatheringTransportOutputWriter) _transportOutputWriter).gatherInto(_gathered);
+
+        int pending = 0;
+        for (int i = 0; i < _gathered.size(); i++) {
+            pending += _gathered.get(i).remaining();
+        }
+        return pending;
+    }
+
     @Override
     public void pop(int bytes)
     {
-        if (_outputBuffer != null) {
+        if (_gathering) {
+            _gathered.clear();
+            ((GatheringTransportOutputWriter) _transportOutputWriter).popGathered(bytes);
+        } else if (_outputBuffer != null) {
             _outputBuffer.flip();
             _outputBuffer.position(bytes);
             _outputBuffer.compact();
             _head.position(0);
             _head.limit(_outputBuffer.position());
-            if (_outputBuffer.position() == 0 && _outputBuffer.capacity() > TransportImpl.BUFFER_RELEASE_THRESHOLD) {
+            if (_outputBuffer.position() == 0) {
                 release_buffers();
             }
         }
@@ -103,12 +164,15 @@ class TransportOutputAdaptor implements TransportOutput
     }
 
     private void init_buffers() {
-        _outputBuffer = newWriteableBuffer(_maxFrameSize);
+        _outputBuffer = _bufferProvider.acquire(_maxFrameSize);
         _head = _outputBuffer.asReadOnlyBuffer();
         _head.limit(0);
     }
 
     private void release_buffers() {
+        if (_outputBuffer != null) {
+            _bufferProvider.release(_outputBuffer);
+        }
         _head = null;
         _outputBuffer = null;
     }
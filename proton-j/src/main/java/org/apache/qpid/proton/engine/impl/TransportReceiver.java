@@ -43,13 +43,13 @@ class TransportReceiver extends TransportLink<ReceiverImpl>
     {
         super.handleFlow(flow);
         int remote = getRemoteDeliveryCount().intValue();
-        int local = getDeliveryCount().intValue();
+        int local = getDeliveryCount();
         int delta = remote - local;
         if(delta > 0)
         {
             getLink().addCredit(-delta);
-            setLinkCredit(getRemoteLinkCredit());
-            setDeliveryCount(getRemoteDeliveryCount());
+            setLinkCredit(getRemoteLinkCredit().longValue());
+            setDeliveryCount(remote);
             getLink().setDrained(getLink().getDrained() + delta);
         }
 
@@ -21,13 +21,18 @@
 
 package org.apache.qpid.proton.engine.impl;
 
-import org.apache.qpid.proton.amqp.UnsignedInteger;
 import org.apache.qpid.proton.amqp.transport.Flow;
 
 class TransportSender extends TransportLink<SenderImpl>
 {
     private boolean _drain;
-    private static final UnsignedInteger ORIGINAL_DELIVERY_COUNT = UnsignedInteger.ZERO;
+    private static final int ORIGINAL_DELIVERY_COUNT = 0;
+
+    /** deliveries with transfers still to write, in the order they must go out */
+    private DeliveryImpl _scheduledHead;
+    private DeliveryImpl _scheduledTail;
+    /** whether the sender has been handed to the output scheduler as ready */
+    private boolean _ready;
 
     TransportSender(SenderImpl link)
     {
@@ -43,18 +48,62 @@ class TransportSender extends TransportLink<SenderImpl>
         _drain = flow.getDrain();
         getLink().setDrain(flow.getDrain());
         int oldCredit = getLink().getCredit();
-        UnsignedInteger oldLimit = getLinkCredit().add(getDeliveryCount());
-        UnsignedInteger transferLimit = flow.getLinkCredit().add(flow.getDeliveryCount() == null
-                                                                         ? ORIGINAL_DELIVERY_COUNT
-                                                                         : flow.getDeliveryCount());
-        UnsignedInteger linkCredit = transferLimit.subtract(getDeliveryCount());
+        long oldLinkCredit = getLinkCredit();
+        int remoteDeliveryCount = flow.getDeliveryCount() == null
+                                  ? ORIGINAL_DELIVERY_COUNT
+                                  : flow.getDeliveryCount().intValue();
+        // the credit is unsigned, while the delivery counts are serial numbers
+        long linkCredit = flow.getLinkCredit().longValue() + (remoteDeliveryCount - getDeliveryCount());
 
         setLinkCredit(linkCredit);
-        getLink().setCredit(transferLimit.subtract(oldLimit).intValue() + oldCredit);
+        long credit = linkCredit - oldLinkCredit + oldCredit;
+        getLink().setCredit((int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, credit)));
 
         DeliveryImpl current = getLink().current();
         getLink().getConnectionImpl().workUpdate(current);
         setLinkCredit(linkCredit);
     }
 
+    void schedule(DeliveryImpl delivery)
+    {
+        delivery._scheduled = true;
+        delivery._scheduledNext = null;
+        if(_scheduledTail == null)
+        {
+            _scheduledHead = delivery;
+        }
+        else
+        {
+            _scheduledTail._scheduledNext = delivery;
+        }
+        _scheduledTail = delivery;
+    }
+
+    DeliveryImpl getScheduledHead()
+    {
+        return _scheduledHead;
+    }
+
+    DeliveryImpl unscheduleHead()
+    {
+        DeliveryImpl delivery = _scheduledHead;
+        _scheduledHead = delivery._scheduledNext;
+        if(_scheduledHead == null)
+        {
+            _scheduledTail = null;
+        }
+        delivery._scheduledNext = null;
+        delivery._scheduled = false;
+        return delivery;
+    }
+
+    boolean isReady()
+    {
+        return _ready;
+    }
+
+    void setReady(boolean ready)
+    {
+        _ready = ready;
+    }
 }
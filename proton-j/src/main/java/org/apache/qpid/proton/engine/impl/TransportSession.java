@@ -39,26 +39,33 @@ class TransportSession
     private int _remoteChannel = -1;
     private boolean _openSent;
     private UnsignedInteger _handleMax = UnsignedInteger.valueOf(1024);
-    private UnsignedInteger _outgoingDeliveryId = UnsignedInteger.ZERO;
-    private UnsignedInteger _incomingWindowSize = UnsignedInteger.ZERO;
-    private UnsignedInteger _outgoingWindowSize = UnsignedInteger.ZERO;
-    private UnsignedInteger _nextOutgoingId = UnsignedInteger.ONE;
-    private UnsignedInteger _nextIncomingId = null;
+
+    // Ids and windows are held as ints and only boxed when a performative is written. Ids use
+    // RFC-1982 serial number arithmetic, which int arithmetic already gives by wrapping.
+    private int _outgoingDeliveryId = 0;
+    private int _incomingWindowSize = 0;
+    private int _outgoingWindowSize = 0;
+    private int _nextOutgoingId = 1;
+    private int _nextIncomingId;
+    private boolean _nextIncomingIdSet;
 
     private TransportLink[] _remoteHandleMap = new TransportLink[1024];
     private TransportLink[] _localHandleMap = new TransportLink[1024];
     private Map<String, TransportLink> _halfOpenLinks = new HashMap<String, TransportLink>();
 
 
-    private UnsignedInteger _incomingDeliveryId = null;
-    private UnsignedInteger _remoteIncomingWindow;
+    private int _incomingDeliveryId;
+    private boolean _incomingDeliveryIdSet;
+    /**
+     * the number of transfers the peer can currently accept; never positive until a flow is
+     * received. The window is an unsigned count, so it is held as a long to cover all of its range.
+     */
+    private long _remoteIncomingWindow;
     private UnsignedInteger _remoteOutgoingWindow;
-    private UnsignedInteger _remoteNextIncomingId = _nextOutgoingId;
+    private int _remoteNextIncomingId = _nextOutgoingId;
     private UnsignedInteger _remoteNextOutgoingId;
-    private Map<UnsignedInteger, DeliveryImpl>
-            _unsettledIncomingDeliveriesById = new HashMap<UnsignedInteger, DeliveryImpl>();
-    private Map<UnsignedInteger, DeliveryImpl>
-            _unsettledOutgoingDeliveriesById = new HashMap<UnsignedInteger, DeliveryImpl>();
+    private final DeliveryIdMap _unsettledIncomingDeliveriesById = new DeliveryIdMap();
+    private final DeliveryIdMap _unsettledOutgoingDeliveriesById = new DeliveryIdMap();
     private int _unsettledIncomingSize;
     private boolean _endReceived;
     private boolean _beginSent;
@@ -148,7 +155,7 @@ class TransportSession
         return _handleMax;
     }
 
-    public UnsignedInteger getIncomingWindowSize()
+    public int getIncomingWindowSize()
     {
         return _incomingWindowSize;
     }
@@ -158,15 +165,15 @@ class TransportSession
         // incoming window
         int size = _transport.getMaxFrameSize();
         if (size <= 0) {
-            _incomingWindowSize = UnsignedInteger.valueOf(2147483647); // biggest legal value
+            _incomingWindowSize = 2147483647; // biggest legal value
         } else {
-            _incomingWindowSize = UnsignedInteger.valueOf((_session.getIncomingCapacity() - _session.getIncomingBytes())/size);
+            _incomingWindowSize = (_session.getIncomingCapacity() - _session.getIncomingBytes())/size;
         }
 
         // outgoing window
         int outgoingDeliveries = _session.getOutgoingDeliveries();
         if (size <= 0) {
-            _outgoingWindowSize = UnsignedInteger.valueOf(outgoingDeliveries);
+            _outgoingWindowSize = outgoingDeliveries;
         } else {
             int outgoingBytes = _session.getOutgoingBytes();
             int frames = outgoingBytes/size;
@@ -174,29 +181,29 @@ class TransportSession
                 frames++;
             }
             if (frames > outgoingDeliveries) {
-                _outgoingWindowSize = UnsignedInteger.valueOf(frames);
+                _outgoingWindowSize = frames;
             } else {
-                _outgoingWindowSize = UnsignedInteger.valueOf(outgoingDeliveries);
+                _outgoingWindowSize = outgoingDeliveries;
             }
         }
     }
 
-    public UnsignedInteger getOutgoingDeliveryId()
+    public int getOutgoingDeliveryId()
     {
         return _outgoingDeliveryId;
     }
 
     void incrementOutgoingDeliveryId()
     {
-        _outgoingDeliveryId = _outgoingDeliveryId.add(UnsignedInteger.ONE);
+        _outgoingDeliveryId++;
     }
 
-    public UnsignedInteger getOutgoingWindowSize()
+    public int getOutgoingWindowSize()
     {
         return _outgoingWindowSize;
     }
 
-    public UnsignedInteger getNextOutgoingId()
+    public int getNextOutgoingId()
     {
         return _nextOutgoingId;
     }
@@ -253,10 +260,20 @@ class TransportSession
     }
 
     public void handleTransfer(Transfer transfer, Binary payload)
+    {
+        handleTransfer(transfer, payload, null);
+    }
+
+    /**
+     * @param payloadChunk the pooled input chunk the payload is a slice of, or null if the
+     * payload is privately owned
+     */
+    void handleTransfer(Transfer transfer, Binary payload, InputChunk payloadChunk)
     {
         DeliveryImpl delivery;
         incrementNextIncomingId();
-        if(transfer.getDeliveryId() == null || transfer.getDeliveryId().equals(_incomingDeliveryId))
+        if(transfer.getDeliveryId() == null
+           || (_incomingDeliveryIdSet && transfer.getDeliveryId().intValue() == _incomingDeliveryId))
         {
             TransportReceiver transportReceiver = (TransportReceiver) getLinkFromRemoteHandle(transfer.getHandle());
             ReceiverImpl receiver = transportReceiver.getReceiver();
@@ -268,14 +285,15 @@ class TransportSession
         else
         {
             // TODO - check deliveryId has been incremented by one
-            _incomingDeliveryId = transfer.getDeliveryId();
+            _incomingDeliveryId = transfer.getDeliveryId().intValue();
+            _incomingDeliveryIdSet = true;
             // TODO - check link handle valid and a receiver
             TransportReceiver transportReceiver = (TransportReceiver) getLinkFromRemoteHandle(transfer.getHandle());
             ReceiverImpl receiver = transportReceiver.getReceiver();
             Binary deliveryTag = transfer.getDeliveryTag();
             delivery = receiver.delivery(deliveryTag.getArray(), deliveryTag.getArrayOffset(),
                                                       deliveryTag.getLength());
-            TransportDelivery transportDelivery = new TransportDelivery(_incomingDeliveryId, delivery, transportReceiver);
+            TransportDelivery transportDelivery = new TransportDelivery(transfer.getDeliveryId(), delivery, transportReceiver);
             delivery.setTransportDelivery(transportDelivery);
             _unsettledIncomingDeliveriesById.put(_incomingDeliveryId, delivery);
             getSession().incrementIncomingDeliveries(1);
@@ -285,24 +303,9 @@ class TransportSession
             delivery.setRemoteDeliveryState(transfer.getState());
         }
         _unsettledIncomingSize++;
-        // TODO - should this be a copy?
         if(payload != null)
         {
-            if(delivery.getDataLength() == 0)
-            {
-                delivery.setData(payload.getArray());
-                delivery.setDataLength(payload.getLength());
-                delivery.setDataOffset(payload.getArrayOffset());
-            }
-            else
-            {
-                byte[] data = new byte[delivery.getDataLength() + payload.getLength()];
-                System.arraycopy(delivery.getData(), delivery.getDataOffset(), data, 0, delivery.getDataLength());
-                System.arraycopy(payload.getArray(), payload.getArrayOffset(), data, delivery.getDataLength(), payload.getLength());
-                delivery.setData(data);
-                delivery.setDataOffset(0);
-                delivery.setDataLength(data.length);
-            }
+            delivery.getData().append(payload.getArray(), payload.getArrayOffset(), payload.getLength(), payloadChunk);
             getSession().incrementIncomingBytes(payload.getLength());
         }
         delivery.updateWork();
@@ -319,10 +322,10 @@ class TransportSession
             delivery.setRemoteSettled(true);
         }
 
-        _incomingWindowSize = _incomingWindowSize.subtract(UnsignedInteger.ONE);
+        _incomingWindowSize--;
 
         // this will cause a flow to happen
-        if (_incomingWindowSize.equals(UnsignedInteger.ZERO)) {
+        if (_incomingWindowSize == 0) {
             delivery.getLink().modified(false);
         }
 
@@ -334,14 +337,14 @@ class TransportSession
         unsetLocalChannel();
     }
 
-    private void setRemoteIncomingWindow(UnsignedInteger incomingWindow)
+    private void setRemoteIncomingWindow(long incomingWindow)
     {
         _remoteIncomingWindow = incomingWindow;
     }
 
     void decrementRemoteIncomingWindow()
     {
-        _remoteIncomingWindow = _remoteIncomingWindow.subtract(UnsignedInteger.ONE);
+        _remoteIncomingWindow--;
     }
 
     private void setRemoteOutgoingWindow(UnsignedInteger outgoingWindow)
@@ -356,12 +359,13 @@ class TransportSession
 
         if(inext != null)
         {
-            setRemoteNextIncomingId(inext);
-            setRemoteIncomingWindow(inext.add(iwin).subtract(_nextOutgoingId));
+            setRemoteNextIncomingId(inext.intValue());
+            // the ids are serial numbers but the window is not
+            setRemoteIncomingWindow(iwin.longValue() + (inext.intValue() - _nextOutgoingId));
         }
         else
         {
-            setRemoteIncomingWindow(iwin);
+            setRemoteIncomingWindow(iwin.longValue());
         }
         setRemoteNextOutgoingId(flow.getNextOutgoingId());
         setRemoteOutgoingWindow(flow.getOutgoingWindow());
@@ -380,20 +384,29 @@ class TransportSession
         _remoteNextOutgoingId = nextOutgoingId;
     }
 
-    private void setRemoteNextIncomingId(UnsignedInteger remoteNextIncomingId)
+    private void setRemoteNextIncomingId(int remoteNextIncomingId)
     {
         _remoteNextIncomingId = remoteNextIncomingId;
     }
 
     void handleDisposition(Disposition disposition)
     {
-        UnsignedInteger id = disposition.getFirst();
-        UnsignedInteger last = disposition.getLast() == null ? id : disposition.getLast();
-        final Map<UnsignedInteger, DeliveryImpl> unsettledDeliveries =
+        final DeliveryIdMap unsettledDeliveries =
                 disposition.getRole() == Role.RECEIVER ? _unsettledOutgoingDeliveriesById
                         : _unsettledIncomingDeliveriesById;
+        if(unsettledDeliveries.isEmpty())
+        {
+            return;
+        }
+
+        int first = disposition.getFirst().intValue();
+        int last = disposition.getLast() == null ? first : disposition.getLast().intValue();
+
+        // only the part of the range that overlaps the unsettled deliveries needs to be visited
+        int id = (unsettledDeliveries.getLowestId() - first) > 0 ? unsettledDeliveries.getLowestId() : first;
+        int end = (last - unsettledDeliveries.getHighestId()) > 0 ? unsettledDeliveries.getHighestId() : last;
 
-        while(id.compareTo(last)<=0)
+        while((end - id) >= 0)
         {
             DeliveryImpl delivery = unsettledDeliveries.get(id);
             if(delivery != null)
@@ -411,55 +424,60 @@ class TransportSession
 
                 getSession().getConnection().put(Event.Type.DELIVERY, delivery);
             }
-            id = id.add(UnsignedInteger.ONE);
+            id++;
         }
         //TODO - Implement.
     }
 
     void addUnsettledOutgoing(UnsignedInteger deliveryId, DeliveryImpl delivery)
     {
-        _unsettledOutgoingDeliveriesById.put(deliveryId, delivery);
+        _unsettledOutgoingDeliveriesById.put(deliveryId.intValue(), delivery);
     }
 
     public boolean hasOutgoingCredit()
     {
-        return _remoteIncomingWindow == null ? false
-            : _remoteIncomingWindow.compareTo(UnsignedInteger.ZERO)>0;
+        return _remoteIncomingWindow > 0;
 
     }
 
     void incrementOutgoingId()
     {
-        _nextOutgoingId = _nextOutgoingId.add(UnsignedInteger.ONE);
+        _nextOutgoingId++;
     }
 
     public void settled(TransportDelivery transportDelivery)
     {
         if(transportDelivery.getTransportLink().getLink() instanceof ReceiverImpl)
         {
-            _unsettledIncomingDeliveriesById.remove(transportDelivery.getDeliveryId());
+            _unsettledIncomingDeliveriesById.remove(transportDelivery.getDeliveryId().intValue());
             getSession().modified(false);
         }
         else
         {
-            _unsettledOutgoingDeliveriesById.remove(transportDelivery.getDeliveryId());
+            _unsettledOutgoingDeliveriesById.remove(transportDelivery.getDeliveryId().intValue());
             getSession().modified(false);
         }
     }
 
-    public UnsignedInteger getNextIncomingId()
+    public int getNextIncomingId()
     {
         return _nextIncomingId;
     }
 
-    public void setNextIncomingId(UnsignedInteger nextIncomingId)
+    public boolean isNextIncomingIdSet()
+    {
+        return _nextIncomingIdSet;
+    }
+
+    public void setNextIncomingId(int nextIncomingId)
     {
         _nextIncomingId = nextIncomingId;
+        _nextIncomingIdSet = true;
     }
 
     public void incrementNextIncomingId()
     {
-        _nextIncomingId = _nextIncomingId.add(UnsignedInteger.ONE);
+        _nextIncomingId++;
     }
 
     public boolean endReceived()
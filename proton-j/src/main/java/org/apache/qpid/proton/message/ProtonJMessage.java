@@ -19,6 +19,7 @@
  */
 package org.apache.qpid.proton.message;
 
+import org.apache.qpid.proton.codec.ReadableBuffer;
 import org.apache.qpid.proton.codec.WritableBuffer;
 import org.apache.qpid.proton.message.Message;
 
@@ -29,4 +30,16 @@ public interface ProtonJMessage extends Message
 
     int encode(WritableBuffer buffer);
 
+    /**
+     * Returns the number of bytes {@link #encode(byte[], int, int)} would write, without
+     * encoding the message, so that a buffer of exactly that size can be allocated.
+     */
+    int encodedSize();
+
+    /**
+     * Decodes the message from buffer, which may be split into segments such as the payloads of
+     * the frames that carried it.
+     */
+    void decode(ReadableBuffer buffer);
+
 }
\ No newline at end of file
@@ -45,20 +45,6 @@ public class MessageImpl implements ProtonJMessage
     private Footer _footer;
     private MessageFormat _format = MessageFormat.DATA;
     
-    private static class EncoderDecoderPair {
-      DecoderImpl decoder = new DecoderImpl();
-      EncoderImpl encoder = new EncoderImpl(decoder);
-      {
-          AMQPDefinedTypes.registerAllTypes(decoder, encoder);
-      }
-    }
-
-    private static final ThreadLocal<EncoderDecoderPair> tlsCodec = new ThreadLocal<EncoderDecoderPair>() {
-          @Override protected EncoderDecoderPair initialValue() {
-            return new EncoderDecoderPair();
-          }
-      };
-
     /**
      * @deprecated This constructor's visibility will be reduced to the default scope in a future release.
      * Client code outside this module should use a {@link MessageFactory} instead
@@ -581,9 +567,21 @@ public class MessageImpl implements ProtonJMessage
 
     public void decode(ByteBuffer buffer)
     {
-        DecoderImpl decoder = tlsCodec.get().decoder;
+        DecoderImpl decoder = EncoderDecoderPair.current().getDecoder();
         decoder.setByteBuffer(buffer);
+        decode(decoder, decoder.getBuffer());
+    }
+
+    @Override
+    public void decode(ReadableBuffer buffer)
+    {
+        DecoderImpl decoder = EncoderDecoderPair.current().getDecoder();
+        decoder.setByteBuffer(buffer);
+        decode(decoder, buffer);
+    }
 
+    private void decode(DecoderImpl decoder, ReadableBuffer buffer)
+    {
         _header = null;
         _deliveryAnnotations = null;
         _messageAnnotations = null;
@@ -686,7 +684,7 @@ public class MessageImpl implements ProtonJMessage
 
         }
 
-        decoder.setByteBuffer(null);
+        decoder.setByteBuffer((ReadableBuffer)null);
     }
 
     @Override
@@ -708,11 +706,29 @@ public class MessageImpl implements ProtonJMessage
         return composite.position() - start;
     }
 
+    @Override
+    public int encodedSize()
+    {
+        EncoderImpl encoder = EncoderDecoderPair.current().getEncoder();
+        return encodedSize(encoder, getHeader())
+               + encodedSize(encoder, getDeliveryAnnotations())
+               + encodedSize(encoder, getMessageAnnotations())
+               + encodedSize(encoder, getProperties())
+               + encodedSize(encoder, getApplicationProperties())
+               + encodedSize(encoder, getBody())
+               + encodedSize(encoder, getFooter());
+    }
+
+    private static int encodedSize(EncoderImpl encoder, Object section)
+    {
+        return section == null ? 0 : encoder.getEncodedSize(section);
+    }
+
     @Override
     public int encode(WritableBuffer buffer)
     {
-        int length = buffer.remaining();
-        EncoderImpl encoder = tlsCodec.get().encoder;
+        int start = buffer.position();
+        EncoderImpl encoder = EncoderDecoderPair.current().getEncoder();
         encoder.setByteBuffer(buffer);
 
         if(getHeader() != null)
@@ -745,7 +761,7 @@ public class MessageImpl implements ProtonJMessage
         }
         encoder.setByteBuffer((WritableBuffer)null);
 
-        return length - buffer.remaining();
+        return buffer.position() - start;
     }
 
     @Override
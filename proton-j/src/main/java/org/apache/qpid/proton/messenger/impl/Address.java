@@ -28,6 +28,17 @@ package org.apache.qpid.proton.messenger.impl;
 
 public class Address
 {
+    /**
+     * Addresses of the form <code>unix:[~]path[#name]</code> name a Unix domain socket, with the
+     * path held as the host
+     */
+    public static final String UNIX_SCHEME = "unix";
+
+    /**
+     * Addresses with this scheme name a listener in the same JVM, with the listener's name held
+     * as the host
+     */
+    public static final String LOCAL_SCHEME = "amqp-local";
 
     private String _address;
     private boolean _passive;
@@ -57,6 +68,11 @@ public class Address
     public Address(String address)
     {
         clear();
+        if (address.startsWith(UNIX_SCHEME + ":")) {
+            parseUnix(address.substring(UNIX_SCHEME.length() + 1));
+            return;
+        }
+
         int start = 0;
         int schemeEnd = address.indexOf("://", start);
         if (schemeEnd >= 0) {
@@ -116,8 +132,27 @@ public class Address
         }
     }
 
+    private void parseUnix(String rest)
+    {
+        _scheme = UNIX_SCHEME;
+        int hash = rest.indexOf('#');
+        if (hash >= 0) {
+            _name = rest.substring(hash + 1);
+            rest = rest.substring(0, hash);
+        }
+        if (rest.startsWith("~")) {
+            rest = rest.substring(1);
+            _passive = true;
+        }
+        _host = rest;
+    }
+
     public String toString()
     {
+        if (isUnix()) {
+            return UNIX_SCHEME + ":" + _host + (_name == null ? "" : "#" + _name);
+        }
+
         String  str = new String();
         if (_scheme != null) str += _scheme + "://";
         if (_user != null) str += _user;
@@ -137,6 +172,16 @@ public class Address
         return _passive;
     }
 
+    public boolean isUnix()
+    {
+        return UNIX_SCHEME.equals(_scheme);
+    }
+
+    public boolean isLocal()
+    {
+        return LOCAL_SCHEME.equals(_scheme);
+    }
+
     public String getScheme()
     {
         return _scheme;
@@ -21,7 +21,9 @@
 package org.apache.qpid.proton.messenger.impl;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
@@ -46,6 +48,7 @@ import org.apache.qpid.proton.engine.SslDomain;
 import org.apache.qpid.proton.engine.Ssl;
 import org.apache.qpid.proton.engine.Transport;
 import org.apache.qpid.proton.message.Message;
+import org.apache.qpid.proton.message.ProtonJMessage;
 import org.apache.qpid.proton.messenger.Messenger;
 import org.apache.qpid.proton.messenger.MessengerException;
 import org.apache.qpid.proton.messenger.Status;
@@ -56,6 +59,7 @@ import org.apache.qpid.proton.amqp.transport.ReceiverSettleMode;
 import org.apache.qpid.proton.amqp.transport.SenderSettleMode;
 
 import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.codec.ExpandableWritableBuffer;
 
 public class MessengerImpl implements Messenger
 {
@@ -70,6 +74,8 @@ public class MessengerImpl implements Messenger
     private static final EnumSet<EndpointState> ACTIVE = EnumSet.of(EndpointState.ACTIVE);
     private static final EnumSet<EndpointState> CLOSED = EnumSet.of(EndpointState.CLOSED);
     private static final EnumSet<EndpointState> ANY = EnumSet.allOf(EndpointState.class);
+    private static final int ENCODE_BUFFER_SIZE = 5*1024;
+    private static final int MAX_KEPT_ENCODE_BUFFER_SIZE = 1024*1024;
 
     private final Logger _logger = Logger.getLogger("proton.messenger");
     private final String _name;
@@ -92,6 +98,8 @@ public class MessengerImpl implements Messenger
     private Store _outgoingStore = new Store();
     private List<Connector> _awaitingDestruction = new ArrayList<Connector>();
     private int _sendThreshold;
+    // messages are encoded here, and copied out at their exact size
+    private ExpandableWritableBuffer _encodeBuffer = new ExpandableWritableBuffer(ENCODE_BUFFER_SIZE);
 
     private Transform _routes = new Transform();
     private Transform _rewrites = new Transform();
@@ -314,19 +322,8 @@ public class MessengerImpl implements Messenger
         try {
             adjustReplyTo(m);
 
-            int encoded;
-            byte[] buffer = new byte[5*1024];
-            while (true)
-            {
-                try
-                {
-                    encoded = m.encode(buffer, 0, buffer.length);
-                    break;
-                } catch (java.nio.BufferOverflowException e) {
-                    buffer = new byte[buffer.length*2];
-                }
-            }
-            entry.setEncodedMsg( buffer, encoded );
+            byte[] encoded = encode(m);
+            entry.setEncodedMsg( encoded, encoded.length );
         }
         finally
         {
@@ -337,6 +334,33 @@ public class MessengerImpl implements Messenger
         pumpOut(m.getAddress(), sender);
     }
 
+    private byte[] encode(Message m)
+    {
+        if (m instanceof ProtonJMessage)
+        {
+            _encodeBuffer.clear();
+            ((ProtonJMessage) m).encode(_encodeBuffer);
+            ByteBuffer buffer = _encodeBuffer.getByteBuffer();
+            byte[] encoded = Arrays.copyOf(buffer.array(), buffer.position());
+            if (buffer.capacity() > MAX_KEPT_ENCODE_BUFFER_SIZE)
+            {
+                _encodeBuffer = new ExpandableWritableBuffer(ENCODE_BUFFER_SIZE);
+            }
+            return encoded;
+        }
+
+        byte[] buffer = new byte[ENCODE_BUFFER_SIZE];
+        while (true)
+        {
+            try
+            {
+                return Arrays.copyOf(buffer, m.encode(buffer, 0, buffer.length));
+            } catch (java.nio.BufferOverflowException e) {
+                buffer = new byte[buffer.length*2];
+            }
+        }
+    }
+
     private void reclaimLink(Link link)
     {
         if (link instanceof Receiver)
@@ -536,9 +560,27 @@ public class MessengerImpl implements Messenger
 
         String hostName = address.getHost();
         if (hostName == null) throw new MessengerException("Invalid address (hostname cannot be null): " + routed);
-        int port = Integer.valueOf(address.getImpliedPort());
-        if (address.isPassive())
+        if (address.isPassive() && address.isLocal())
+        {
+            if(_logger.isLoggable(Level.FINE))
+            {
+                _logger.fine(this + " about to subscribe to source " + source + " using local listener " + hostName);
+            }
+            ListenerContext ctx = new ListenerContext(address);
+            _driver.createLocalListener(hostName, ctx);
+        }
+        else if (address.isPassive() && address.isUnix())
         {
+            if(_logger.isLoggable(Level.FINE))
+            {
+                _logger.fine(this + " about to subscribe to source " + source + " using address unix:" + hostName);
+            }
+            ListenerContext ctx = new ListenerContext(address);
+            _driver.createUnixListener(hostName, ctx);
+        }
+        else if (address.isPassive())
+        {
+            int port = Integer.valueOf(address.getImpliedPort());
             if(_logger.isLoggable(Level.FINE))
             {
                 _logger.fine(this + " about to subscribe to source " + source + " using address " + hostName + ":" + port);
@@ -718,7 +760,10 @@ public class MessengerImpl implements Messenger
                 sasl.setMechanisms(new String[]{"ANONYMOUS"});
                 sasl.done(Sasl.SaslOutcome.PN_SASL_OK);
             }
-            transport.ssl(ctx.getDomain());
+            if (ctx.getDomain() != null)
+            {
+                transport.ssl(ctx.getDomain());
+            }
             connection.open();
         }
         // process connectors, reclaiming credit on closed connectors
@@ -1240,12 +1285,26 @@ public class MessengerImpl implements Messenger
         if (connection == null)
         {
             String host = address.getHost();
-            int port = Integer.valueOf(address.getImpliedPort());
-            Connector<?> connector = _driver.createConnector(host, port, null);
-            _logger.log(Level.FINE, "Connecting to " + host + ":" + port);
+            Connector<?> connector;
             connection = Proton.connection();
             connection.setContainer(_name);
-            connection.setHostname(host);
+            if (address.isLocal())
+            {
+                connector = _driver.createLocalConnector(host, null);
+                _logger.log(Level.FINE, "Connecting to local listener " + host);
+            }
+            else if (address.isUnix())
+            {
+                connector = _driver.createUnixConnector(host, null);
+                _logger.log(Level.FINE, "Connecting to unix:" + host);
+            }
+            else
+            {
+                int port = Integer.valueOf(address.getImpliedPort());
+                connector = _driver.createConnector(host, port, null);
+                _logger.log(Level.FINE, "Connecting to " + host + ":" + port);
+                connection.setHostname(host);
+            }
             connection.setContext(new ConnectionContext(address, connector));
             connector.setConnection(connection);
             Sasl sasl = connector.sasl();
@@ -1494,7 +1553,8 @@ public class MessengerImpl implements Messenger
             String port = address.getImpliedPort();
             Connection conn = _connector.getConnection();
             return host.equals(conn.getRemoteContainer()) ||
-                (_address.getHost().equals(host) && _address.getImpliedPort().equals(port));
+                (_address.isUnix() == address.isUnix() && _address.isLocal() == address.isLocal() &&
+                 _address.getHost().equals(host) && _address.getImpliedPort().equals(port));
         }
 
         public Connector getConnector()
@@ -1532,7 +1592,8 @@ public class MessengerImpl implements Messenger
         public ListenerContext(Address address)
         {
             _address = address;
-            _domain = makeDomain(address, SslDomain.Mode.SERVER);
+            // a peer in the same JVM has nothing to gain from TLS
+            _domain = address.isLocal() ? null : makeDomain(address, SslDomain.Mode.SERVER);
         }
 
         public SslDomain getDomain()
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.reactor;
+
+import java.io.IOException;
+
+import org.apache.qpid.proton.engine.Collector;
+import org.apache.qpid.proton.engine.Connection;
+import org.apache.qpid.proton.engine.Handler;
+import org.apache.qpid.proton.engine.Sender;
+import org.apache.qpid.proton.reactor.impl.ReactorImpl;
+
+/**
+ * An event loop that performs the socket IO for its connections and dispatches the resulting
+ * events to handlers.
+ *
+ * Connections collected by the reactor's {@link #collector()} are connected when they are
+ * opened locally and have not been bound to a transport, using the connection's hostname as a
+ * <code>host[:port]</code> address. The reactor keeps its own object in the context of each
+ * transport it creates.
+ *
+ * Events for a connection created with a handler, or accepted by an acceptor with a handler, go
+ * to that handler; events for a task go to the task's handler; everything else goes to the
+ * handlers the reactor was created with.
+ *
+ * A reactor is not thread safe, except for {@link #wakeup()} and the {@link Submitter}s it
+ * creates.
+ */
+public interface Reactor
+{
+
+    public static final class Factory
+    {
+        public static Reactor create(Handler... handlers) throws IOException
+        {
+            return new ReactorImpl(handlers);
+        }
+    }
+
+    /**
+     * The collector the reactor dispatches events from.
+     */
+    Collector collector();
+
+    /**
+     * @return the time in milliseconds at the start of the current iteration of the loop,
+     * on the clock used for task deadlines and {@link org.apache.qpid.proton.engine.Transport#tick(long)}
+     */
+    long now();
+
+    /**
+     * Creates a connection collected by the reactor whose events are dispatched to handler,
+     * or to the reactor's handlers if handler is null.
+     */
+    Connection connection(Handler handler);
+
+    /**
+     * Starts accepting connections on host and port, dispatching their events to handler, or to the
+     * reactor's handlers if handler is null.
+     */
+    Acceptor acceptor(String host, int port, Handler handler) throws IOException;
+
+    /**
+     * Schedules a {@link org.apache.qpid.proton.engine.Event.Type#TIMER_TASK} event for delay
+     * milliseconds from {@link #now()}, dispatched to handler, or to the reactor's handlers if
+     * handler is null.
+     */
+    Task schedule(long delay, Handler handler);
+
+    /**
+     * Returns the submitter for sender, which must be on a connection collected by the reactor,
+     * creating it on the first call.
+     *
+     * Like the rest of the reactor, this must be called on the reactor's thread, or before the
+     * reactor is run. The submitter it returns may then be handed to other threads.
+     */
+    Submitter submitter(Sender sender);
+
+    /**
+     * Runs the reactor until it has no more connections, acceptors or tasks, or it is stopped.
+     */
+    void run();
+
+    /**
+     * Emits {@link org.apache.qpid.proton.engine.Event.Type#REACTOR_INIT}. Use with
+     * {@link #process()} and {@link #stop()} to drive the reactor from an existing loop.
+     */
+    void start();
+
+    /**
+     * Dispatches all pending events and then waits once for IO or the next task.
+     *
+     * @return false if the reactor has no more work, or has been stopped
+     */
+    boolean process();
+
+    /**
+     * Stops the reactor. Called from a handler, this makes {@link #process()} return false once the
+     * pending events have been dispatched; otherwise it emits {@link org.apache.qpid.proton.engine.Event.Type#REACTOR_FINAL}
+     * and closes any remaining sockets.
+     */
+    void stop();
+
+    /**
+     * Interrupts a wait for IO. May be called from any thread.
+     */
+    void wakeup();
+
+}
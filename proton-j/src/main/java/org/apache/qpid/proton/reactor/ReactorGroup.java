@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.reactor;
+
+import java.io.IOException;
+
+import org.apache.qpid.proton.engine.Handler;
+import org.apache.qpid.proton.reactor.impl.ReactorGroupImpl;
+
+/**
+ * Runs each of a set of reactors on its own thread and spreads accepted connections across them.
+ *
+ * A connection belongs to the reactor it was given to for its whole life, so its engine objects
+ * are only ever used from that reactor's thread. The handlers a reactor was created with only see
+ * that reactor's events; a handler passed to {@link #acceptor(String, int, Handler)} sees the
+ * events of all of them and must be thread safe.
+ */
+public interface ReactorGroup
+{
+
+    public static final class Factory
+    {
+        public static ReactorGroup create(Reactor... reactors)
+        {
+            return new ReactorGroupImpl(reactors);
+        }
+    }
+
+    Reactor[] getReactors();
+
+    /**
+     * Starts accepting connections on host and port, handing them to each reactor in turn.
+     * Must be called before {@link #start()}.
+     */
+    Acceptor acceptor(String host, int port, Handler handler) throws IOException;
+
+    /**
+     * Starts a thread for each reactor. The reactors keep running when they have no work,
+     * until the group is stopped.
+     */
+    void start();
+
+    /**
+     * Asks each reactor to stop, closing its connections. May be called from any thread.
+     */
+    void stop();
+
+    void join() throws InterruptedException;
+
+}
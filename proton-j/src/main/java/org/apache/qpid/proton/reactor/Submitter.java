@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.reactor;
+
+import org.apache.qpid.proton.engine.Delivery;
+import org.apache.qpid.proton.engine.Sender;
+
+/**
+ * Sends messages on a sender link of a {@link Reactor} on behalf of other threads. Created with
+ * {@link Reactor#submitter(Sender)}.
+ *
+ * {@link #submit(byte[], Callback)} may be called from any thread. Submissions are queued without
+ * locking and sent in order on the reactor's thread, as many at a time as the link has credit
+ * for, and a burst of submissions wakes the reactor only once.
+ */
+public interface Submitter
+{
+
+    /**
+     * Told on the reactor's thread how a submission ended.
+     */
+    interface Callback
+    {
+        /**
+         * Called when the delivery is settled by the peer, when it is sent on a link whose sender
+         * settle mode is settled, or when the link is closed first. In the last case the delivery
+         * is not remotely settled, or is null if the message was never sent.
+         */
+        void completed(Delivery delivery);
+    }
+
+    /**
+     * Queues an encoded message to be sent.
+     *
+     * @param encoded the message, which must not be changed after it is submitted
+     * @param callback told when the delivery completes, or null
+     */
+    void submit(byte[] encoded, Callback callback);
+
+    Sender getSender();
+
+}
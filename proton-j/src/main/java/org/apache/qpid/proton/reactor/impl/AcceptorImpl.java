@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.reactor.impl;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.qpid.proton.engine.Handler;
+import org.apache.qpid.proton.reactor.Acceptor;
+
+class AcceptorImpl implements Acceptor, Selectable
+{
+    private static final Logger _logger = Logger.getLogger("proton.reactor");
+
+    private final ReactorImpl _reactor;
+    private final ReactorImpl[] _loops;
+    private final Handler _handler;
+    private final ServerSocketChannel _channel;
+    private final SelectionKey _key;
+    private int _next;
+
+    AcceptorImpl(ReactorImpl reactor, String host, int port, Handler handler) throws IOException
+    {
+        this(reactor, host, port, handler, new ReactorImpl[] { reactor });
+    }
+
+    /**
+     * Listens on the thread of reactor, handing accepted connections to each of loops in turn
+     */
+    AcceptorImpl(ReactorImpl reactor, String host, int port, Handler handler, ReactorImpl[] loops)
+        throws IOException
+    {
+        _reactor = reactor;
+        _loops = loops;
+        _handler = handler;
+        _channel = ServerSocketChannel.open();
+        try
+        {
+            _channel.configureBlocking(false);
+            _channel.socket().setReuseAddress(true);
+            _channel.socket().bind(new InetSocketAddress(host, port));
+            _key = reactor.register(_channel, SelectionKey.OP_ACCEPT, this);
+        }
+        catch (IOException e)
+        {
+            _channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getPort()
+    {
+        return _channel.socket().getLocalPort();
+    }
+
+    @Override
+    public void selected()
+    {
+        if (!_key.isValid())
+        {
+            return;
+        }
+
+        try
+        {
+            SocketChannel channel;
+            while ((channel = _channel.accept()) != null)
+            {
+                ReactorImpl loop = _loops[_next];
+                _next = (_next + 1) % _loops.length;
+                if (loop == _reactor)
+                {
+                    _reactor.accepted(channel, _handler);
+                }
+                else
+                {
+                    loop.adopt(channel, _handler);
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            _logger.log(Level.WARNING, "Exception accepting connection on " + _channel.socket(), e);
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if (_key.isValid())
+        {
+            _key.cancel();
+            _reactor.unregister();
+            try
+            {
+                _channel.close();
+            }
+            catch (IOException e)
+            {
+                _logger.log(Level.FINE, "Exception closing " + _channel.socket(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.reactor.impl;
+
+import java.io.IOException;
+
+import org.apache.qpid.proton.engine.Handler;
+import org.apache.qpid.proton.reactor.Acceptor;
+import org.apache.qpid.proton.reactor.Reactor;
+import org.apache.qpid.proton.reactor.ReactorGroup;
+
+public class ReactorGroupImpl implements ReactorGroup
+{
+    private final ReactorImpl[] _reactors;
+    private Thread[] _threads;
+
+    public ReactorGroupImpl(Reactor... reactors)
+    {
+        if (reactors.length == 0)
+        {
+            throw new IllegalArgumentException("A reactor group needs at least one reactor");
+        }
+        _reactors = new ReactorImpl[reactors.length];
+        for (int i = 0; i < reactors.length; i++)
+        {
+            _reactors[i] = (ReactorImpl) reactors[i];
+        }
+    }
+
+    @Override
+    public Reactor[] getReactors()
+    {
+        return _reactors.clone();
+    }
+
+    @Override
+    public synchronized Acceptor acceptor(String host, int port, Handler handler) throws IOException
+    {
+        if (_threads != null)
+        {
+            throw new IllegalStateException("Acceptors must be added before the group is started");
+        }
+        return new AcceptorImpl(_reactors[0], host, port, handler, _reactors);
+    }
+
+    @Override
+    public synchronized void start()
+    {
+        if (_threads != null)
+        {
+            throw new IllegalStateException("The group has already been started");
+        }
+        _threads = new Thread[_reactors.length];
+        for (int i = 0; i < _reactors.length; i++)
+        {
+            final ReactorImpl reactor = _reactors[i];
+            reactor.setHeld(true);
+            _threads[i] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    reactor.run();
+                }
+            }, "proton-reactor-" + i);
+            _threads[i].start();
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        for (final ReactorImpl reactor : _reactors)
+        {
+            reactor.submit(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    reactor.setHeld(false);
+                    reactor.stop();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void join() throws InterruptedException
+    {
+        Thread[] threads;
+        synchronized (this)
+        {
+            threads = _threads;
+        }
+        if (threads != null)
+        {
+            for (Thread thread : threads)
+            {
+                thread.join();
+            }
+        }
+    }
+}
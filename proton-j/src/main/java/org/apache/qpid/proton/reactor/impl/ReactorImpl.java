@@ -0,0 +1,611 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.reactor.impl;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.qpid.proton.ProtonException;
+import org.apache.qpid.proton.engine.BaseHandler;
+import org.apache.qpid.proton.engine.Collector;
+import org.apache.qpid.proton.engine.Connection;
+import org.apache.qpid.proton.engine.Delivery;
+import org.apache.qpid.proton.engine.EndpointState;
+import org.apache.qpid.proton.engine.Event;
+import org.apache.qpid.proton.engine.Handler;
+import org.apache.qpid.proton.engine.Link;
+import org.apache.qpid.proton.engine.Sender;
+import org.apache.qpid.proton.engine.Transport;
+import org.apache.qpid.proton.engine.impl.CollectorImpl;
+import org.apache.qpid.proton.reactor.Acceptor;
+import org.apache.qpid.proton.reactor.Reactor;
+import org.apache.qpid.proton.reactor.Submitter;
+import org.apache.qpid.proton.reactor.Task;
+
+public class ReactorImpl implements Reactor
+{
+    private static final Logger _logger = Logger.getLogger("proton.reactor");
+
+    static final int DEFAULT_PORT = 5672;
+
+    private static final int TICK_SLOTS = Integer.getInteger("proton.reactor_tick_slots", 512);
+    private static final long TICK_RESOLUTION = Long.getLong("proton.reactor_tick_resolution", 100);
+
+    private final Selector _selector;
+    private final CollectorImpl _collector = new CollectorImpl();
+    private final Handler[] _handlers;
+    private final Handler _io = new IOHandler();
+    private final Map<Connection, Handler> _connectionHandlers = new IdentityHashMap<Connection, Handler>();
+    private final Timer _timer = new Timer();
+    private final TimerWheel _ticks;
+    // only used on the reactor's thread; see Reactor#submitter
+    private final Map<Link, SubmitterImpl> _submitters = new IdentityHashMap<Link, SubmitterImpl>();
+    private final Queue<Runnable> _submissions = new ConcurrentLinkedQueue<Runnable>();
+    private final AtomicBoolean _wakeupPending = new AtomicBoolean();
+
+    private long _now;
+    private int _selectables;
+    private boolean _held;
+    private boolean _quiesced;
+    private boolean _processing;
+    private boolean _stopping;
+    private boolean _stopped;
+
+    /**
+     * Does the socket IO for the connections on the collector, after the event has been
+     * dispatched to the application
+     */
+    private final class IOHandler extends BaseHandler
+    {
+        @Override
+        public void onConnectionLocalOpen(Event e)
+        {
+            Connection connection = e.getConnection();
+            if (connection.getTransport() == null &&
+                connection.getRemoteState() == EndpointState.UNINITIALIZED)
+            {
+                connect(connection);
+            }
+        }
+
+        @Override
+        public void onTransport(Event e)
+        {
+            update(e.getTransport());
+        }
+
+        @Override
+        public void onTransportClosed(Event e)
+        {
+            update(e.getTransport());
+        }
+
+        @Override
+        public void onConnectionFinal(Event e)
+        {
+            _connectionHandlers.remove(e.getConnection());
+        }
+
+        @Override
+        public void onLinkFlow(Event e)
+        {
+            SubmitterImpl submitter = _submitters.get(e.getLink());
+            if (submitter != null)
+            {
+                submitter.drain();
+            }
+        }
+
+        @Override
+        public void onDelivery(Event e)
+        {
+            Delivery delivery = e.getDelivery();
+            SubmitterImpl submitter = _submitters.get(delivery.getLink());
+            if (submitter != null)
+            {
+                submitter.delivered(delivery);
+            }
+        }
+
+        @Override
+        public void onLinkLocalClose(Event e)
+        {
+            closeSubmitter(e.getLink());
+        }
+
+        @Override
+        public void onLinkRemoteClose(Event e)
+        {
+            closeSubmitter(e.getLink());
+        }
+
+        @Override
+        public void onLinkFinal(Event e)
+        {
+            closeSubmitter(e.getLink());
+        }
+
+        private void closeSubmitter(Link link)
+        {
+            SubmitterImpl submitter = _submitters.remove(link);
+            if (submitter != null)
+            {
+                submitter.close();
+            }
+        }
+
+        private void update(Transport transport)
+        {
+            Object context = transport.getContext();
+            if (context instanceof TransportChannel)
+            {
+                ((TransportChannel) context).update();
+            }
+        }
+    }
+
+    public ReactorImpl(Handler... handlers) throws IOException
+    {
+        _selector = Selector.open();
+        _handlers = handlers.clone();
+        mark();
+        _ticks = new TimerWheel(TICK_SLOTS, TICK_RESOLUTION, _now);
+    }
+
+    @Override
+    public Collector collector()
+    {
+        return _collector;
+    }
+
+    @Override
+    public long now()
+    {
+        return _now;
+    }
+
+    private void mark()
+    {
+        _now = System.currentTimeMillis();
+    }
+
+    @Override
+    public Connection connection(Handler handler)
+    {
+        Connection connection = Connection.Factory.create();
+        connection.collect(_collector);
+        if (handler != null)
+        {
+            _connectionHandlers.put(connection, handler);
+        }
+        return connection;
+    }
+
+    @Override
+    public Acceptor acceptor(String host, int port, Handler handler) throws IOException
+    {
+        return new AcceptorImpl(this, host, port, handler);
+    }
+
+    @Override
+    public Task schedule(long delay, Handler handler)
+    {
+        TaskImpl task = new TaskImpl(_now + delay, handler);
+        schedule(task);
+        return task;
+    }
+
+    @Override
+    public Submitter submitter(Sender sender)
+    {
+        SubmitterImpl submitter = _submitters.get(sender);
+        if (submitter == null)
+        {
+            submitter = new SubmitterImpl(this, sender);
+            _submitters.put(sender, submitter);
+        }
+        return submitter;
+    }
+
+    void schedule(TaskImpl task)
+    {
+        _timer.schedule(task);
+    }
+
+    /**
+     * Expires timeout at deadline, or shortly after. Meant for the tick deadlines of transports,
+     * which move every time a frame is sent or received.
+     */
+    void scheduleTick(TimerWheel.Timeout timeout, long deadline)
+    {
+        _ticks.schedule(timeout, deadline);
+    }
+
+    void cancelTick(TimerWheel.Timeout timeout)
+    {
+        _ticks.cancel(timeout);
+    }
+
+    void put(Event.Type type, Object context)
+    {
+        _collector.put(type, context);
+    }
+
+    SelectionKey register(SelectableChannel channel, int ops, Selectable selectable)
+        throws ClosedChannelException
+    {
+        SelectionKey key = channel.register(_selector, ops, selectable);
+        _selectables++;
+        return key;
+    }
+
+    void unregister()
+    {
+        _selectables--;
+    }
+
+    /**
+     * Keeps the reactor running while it has nothing to do, as a member of a {@link ReactorGroupImpl}
+     */
+    void setHeld(boolean held)
+    {
+        _held = held;
+    }
+
+    /**
+     * Runs task on the reactor's thread during the next call to {@link #process()}. May be called
+     * from any thread. Only the first task submitted since the reactor last ran its tasks wakes
+     * the selector.
+     */
+    void submit(Runnable task)
+    {
+        _submissions.add(task);
+        if (_wakeupPending.compareAndSet(false, true))
+        {
+            _selector.wakeup();
+        }
+    }
+
+    private void runSubmissions()
+    {
+        _wakeupPending.set(false);
+        Runnable task;
+        while ((task = _submissions.poll()) != null)
+        {
+            task.run();
+        }
+    }
+
+    /**
+     * Takes over a socket accepted on another reactor's thread. May be called from any thread.
+     */
+    void adopt(final SocketChannel channel, final Handler handler)
+    {
+        submit(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                accepted(channel, handler);
+            }
+        });
+    }
+
+    void accepted(SocketChannel channel, Handler handler)
+    {
+        Connection connection = connection(handler);
+        Transport transport = Transport.Factory.create();
+        transport.bind(connection);
+        try
+        {
+            new TransportChannel(this, channel, transport);
+        }
+        catch (IOException e)
+        {
+            _logger.log(Level.WARNING, "Exception setting up accepted connection " + channel.socket(), e);
+            closeQuietly(channel);
+            transport.close_tail();
+            transport.close_head();
+        }
+    }
+
+    private void connect(Connection connection)
+    {
+        String host = connection.getHostname();
+        int port = DEFAULT_PORT;
+        if (host == null)
+        {
+            host = "localhost";
+        }
+        else
+        {
+            int colon = host.lastIndexOf(':');
+            // more than one colon is an IPv6 address without a port
+            if (colon >= 0 && host.indexOf(':') == colon)
+            {
+                port = Integer.parseInt(host.substring(colon + 1));
+                host = host.substring(0, colon);
+            }
+        }
+
+        Transport transport = Transport.Factory.create();
+        transport.bind(connection);
+
+        SocketChannel channel = null;
+        try
+        {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.connect(new InetSocketAddress(host, port));
+            new TransportChannel(this, channel, transport);
+        }
+        catch (IOException e)
+        {
+            connectFailed(connection, channel, transport, e);
+        }
+        catch (UnresolvedAddressException e)
+        {
+            connectFailed(connection, channel, transport, e);
+        }
+    }
+
+    private void connectFailed(Connection connection, SocketChannel channel, Transport transport,
+                               Exception e)
+    {
+        _logger.log(Level.FINE, "Failed to connect to " + connection.getHostname(), e);
+        if (channel != null)
+        {
+            closeQuietly(channel);
+        }
+        transport.close_tail();
+        transport.close_head();
+    }
+
+    private void closeQuietly(SocketChannel channel)
+    {
+        try
+        {
+            channel.close();
+        }
+        catch (IOException e)
+        {
+            _logger.log(Level.FINE, "Exception closing " + channel.socket(), e);
+        }
+    }
+
+    @Override
+    public void run()
+    {
+        start();
+        while (process())
+        {
+        }
+        stop();
+    }
+
+    @Override
+    public void start()
+    {
+        mark();
+        put(Event.Type.REACTOR_INIT, this);
+    }
+
+    @Override
+    public boolean process()
+    {
+        _processing = true;
+        try
+        {
+            mark();
+            runSubmissions();
+            dispatch();
+            if (_stopping || !hasWork())
+            {
+                return false;
+            }
+
+            if (!_quiesced)
+            {
+                _quiesced = true;
+                put(Event.Type.REACTOR_QUIESCED, this);
+                dispatch();
+                if (_stopping)
+                {
+                    return false;
+                }
+            }
+
+            select();
+            return true;
+        }
+        finally
+        {
+            _processing = false;
+        }
+    }
+
+    private boolean hasWork()
+    {
+        return _held || _selectables > 0 || !_timer.isEmpty() || _collector.peek() != null ||
+               !_submissions.isEmpty();
+    }
+
+    private void dispatch()
+    {
+        Event event;
+        while ((event = _collector.peek()) != null)
+        {
+            if (event.getType() != Event.Type.REACTOR_QUIESCED)
+            {
+                _quiesced = false;
+            }
+
+            Handler handler = handlerFor(event);
+            if (handler != null)
+            {
+                event.dispatch(handler);
+            }
+            else
+            {
+                for (int i = 0; i < _handlers.length; i++)
+                {
+                    event.dispatch(_handlers[i]);
+                }
+            }
+            event.dispatch(_io);
+
+            _collector.pop();
+        }
+    }
+
+    private Handler handlerFor(Event event)
+    {
+        Object context = event.getContext();
+        if (context instanceof Task)
+        {
+            return ((Task) context).getHandler();
+        }
+        if (_connectionHandlers.isEmpty())
+        {
+            return null;
+        }
+        Connection connection = event.getConnection();
+        return connection == null ? null : _connectionHandlers.get(connection);
+    }
+
+    private void select()
+    {
+        try
+        {
+            if (_collector.peek() != null || !_submissions.isEmpty())
+            {
+                _selector.selectNow();
+            }
+            else
+            {
+                long deadline = earliest(_timer.deadline(), _ticks.deadline());
+                if (deadline == 0)
+                {
+                    _selector.select();
+                }
+                else
+                {
+                    long timeout = deadline - System.currentTimeMillis();
+                    if (timeout > 0)
+                    {
+                        _selector.select(timeout);
+                    }
+                    else
+                    {
+                        _selector.selectNow();
+                    }
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            _logger.log(Level.SEVERE, "Exception when waiting for IO Event", e);
+            throw new ProtonException(e);
+        }
+
+        mark();
+        for (SelectionKey key : _selector.selectedKeys())
+        {
+            ((Selectable) key.attachment()).selected();
+        }
+        _selector.selectedKeys().clear();
+
+        _timer.tick(_now, this);
+        _ticks.tick(_now);
+    }
+
+    private static long earliest(long deadline, long other)
+    {
+        if (deadline == 0)
+        {
+            return other;
+        }
+        return other == 0 ? deadline : Math.min(deadline, other);
+    }
+
+    @Override
+    public void stop()
+    {
+        _stopping = true;
+        if (_processing || _stopped)
+        {
+            return;
+        }
+        _stopped = true;
+
+        mark();
+        put(Event.Type.REACTOR_FINAL, this);
+        dispatch();
+
+        List<Selectable> selectables = new ArrayList<Selectable>();
+        for (SelectionKey key : _selector.keys())
+        {
+            if (key.isValid())
+            {
+                selectables.add((Selectable) key.attachment());
+            }
+        }
+        for (Selectable selectable : selectables)
+        {
+            selectable.close();
+        }
+        _connectionHandlers.clear();
+        for (SubmitterImpl submitter : new ArrayList<SubmitterImpl>(_submitters.values()))
+        {
+            submitter.close();
+        }
+        _submitters.clear();
+
+        try
+        {
+            _selector.close();
+        }
+        catch (IOException e)
+        {
+            _logger.log(Level.FINE, "Exception closing selector", e);
+        }
+    }
+
+    @Override
+    public void wakeup()
+    {
+        _selector.wakeup();
+    }
+}
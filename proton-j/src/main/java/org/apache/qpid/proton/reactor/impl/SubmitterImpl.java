@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.reactor.impl;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.qpid.proton.amqp.transport.SenderSettleMode;
+import org.apache.qpid.proton.engine.Delivery;
+import org.apache.qpid.proton.engine.EndpointState;
+import org.apache.qpid.proton.engine.Sender;
+import org.apache.qpid.proton.reactor.Submitter;
+
+/**
+ * Producers add to a lock-free queue and the first of a burst schedules a single drain on the
+ * reactor's thread. The drain sends while the link has credit, and is repeated by the reactor
+ * whenever the link's credit changes.
+ */
+class SubmitterImpl implements Submitter
+{
+    private static final class Submission
+    {
+        private final byte[] _encoded;
+        private final Callback _callback;
+
+        Submission(byte[] encoded, Callback callback)
+        {
+            _encoded = encoded;
+            _callback = callback;
+        }
+    }
+
+    private final ReactorImpl _reactor;
+    private final Sender _sender;
+    private final Queue<Submission> _queue = new ConcurrentLinkedQueue<Submission>();
+    private final AtomicBoolean _scheduled = new AtomicBoolean();
+    private final Set<Delivery> _unsettled = Collections.newSetFromMap(new IdentityHashMap<Delivery, Boolean>());
+    private long _nextTag;
+    private boolean _closed;
+
+    private final Runnable _drain = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            // cleared first, so that a submission made during the drain schedules another
+            _scheduled.set(false);
+            drain();
+        }
+    };
+
+    SubmitterImpl(ReactorImpl reactor, Sender sender)
+    {
+        _reactor = reactor;
+        _sender = sender;
+    }
+
+    @Override
+    public Sender getSender()
+    {
+        return _sender;
+    }
+
+    @Override
+    public void submit(byte[] encoded, Callback callback)
+    {
+        _queue.add(new Submission(encoded, callback));
+        if (_scheduled.compareAndSet(false, true))
+        {
+            _reactor.submit(_drain);
+        }
+    }
+
+    /**
+     * Sends queued submissions while the link has credit. Called on the reactor's thread.
+     */
+    void drain()
+    {
+        if (_closed || _sender.getLocalState() == EndpointState.CLOSED ||
+            _sender.getRemoteState() == EndpointState.CLOSED)
+        {
+            close();
+            return;
+        }
+
+        Submission submission;
+        while (_sender.getCredit() > 0 && (submission = _queue.poll()) != null)
+        {
+            Delivery delivery = _sender.delivery(String.valueOf(_nextTag++).getBytes());
+            _sender.send(submission._encoded, 0, submission._encoded.length);
+            _sender.advance();
+            if (_sender.getSenderSettleMode() == SenderSettleMode.SETTLED)
+            {
+                delivery.settle();
+                complete(submission._callback, delivery);
+            }
+            else
+            {
+                delivery.setContext(submission._callback);
+                _unsettled.add(delivery);
+            }
+        }
+    }
+
+    /**
+     * Completes delivery if the peer has settled it. Called on the reactor's thread.
+     */
+    void delivered(Delivery delivery)
+    {
+        if (delivery.remotelySettled() && _unsettled.remove(delivery))
+        {
+            complete((Callback) delivery.getContext(), delivery);
+            delivery.settle();
+        }
+    }
+
+    /**
+     * Completes every submission that is still queued or unsettled. Called on the reactor's thread.
+     */
+    void close()
+    {
+        _closed = true;
+        for (Delivery delivery : _unsettled)
+        {
+            complete((Callback) delivery.getContext(), delivery);
+        }
+        _unsettled.clear();
+
+        Submission submission;
+        while ((submission = _queue.poll()) != null)
+        {
+            complete(submission._callback, null);
+        }
+    }
+
+    private static void complete(Callback callback, Delivery delivery)
+    {
+        if (callback != null)
+        {
+            callback.completed(delivery);
+        }
+    }
+}
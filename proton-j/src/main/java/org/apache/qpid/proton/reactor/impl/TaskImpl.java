@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.reactor.impl;
+
+import org.apache.qpid.proton.engine.Event;
+import org.apache.qpid.proton.engine.Handler;
+import org.apache.qpid.proton.reactor.Task;
+
+class TaskImpl implements Task, Comparable<TaskImpl>
+{
+    private final long _deadline;
+    private final Handler _handler;
+    private long _sequence;
+    private boolean _cancelled;
+
+    TaskImpl(long deadline, Handler handler)
+    {
+        _deadline = deadline;
+        _handler = handler;
+    }
+
+    @Override
+    public long deadline()
+    {
+        return _deadline;
+    }
+
+    @Override
+    public Handler getHandler()
+    {
+        return _handler;
+    }
+
+    @Override
+    public void cancel()
+    {
+        _cancelled = true;
+    }
+
+    boolean isCancelled()
+    {
+        return _cancelled;
+    }
+
+    void setSequence(long sequence)
+    {
+        _sequence = sequence;
+    }
+
+    /**
+     * Called by the {@link Timer} when the deadline has passed
+     */
+    void expired(ReactorImpl reactor)
+    {
+        reactor.put(Event.Type.TIMER_TASK, this);
+    }
+
+    @Override
+    public int compareTo(TaskImpl other)
+    {
+        if (_deadline != other._deadline)
+        {
+            return _deadline < other._deadline ? -1 : 1;
+        }
+        // tasks with the same deadline expire in the order they were scheduled
+        return _sequence < other._sequence ? -1 : (_sequence == other._sequence ? 0 : 1);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TaskImpl{deadline=" + _deadline + ", cancelled=" + _cancelled + "}";
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.reactor.impl;
+
+import java.util.PriorityQueue;
+
+/**
+ * The tasks of a reactor, ordered by deadline. Cancelled tasks stay queued until they reach
+ * the head.
+ */
+class Timer
+{
+    private final PriorityQueue<TaskImpl> _tasks = new PriorityQueue<TaskImpl>();
+    private long _sequence;
+
+    void schedule(TaskImpl task)
+    {
+        task.setSequence(_sequence++);
+        _tasks.add(task);
+    }
+
+    /**
+     * @return the earliest deadline of the tasks not cancelled, or 0 if there are none
+     */
+    long deadline()
+    {
+        purge();
+        TaskImpl head = _tasks.peek();
+        return head == null ? 0 : head.deadline();
+    }
+
+    boolean isEmpty()
+    {
+        purge();
+        return _tasks.isEmpty();
+    }
+
+    /**
+     * Removes the tasks whose deadline is no later than now, notifying those not cancelled.
+     */
+    void tick(long now, ReactorImpl reactor)
+    {
+        TaskImpl task;
+        while ((task = _tasks.peek()) != null && task.deadline() <= now)
+        {
+            _tasks.poll();
+            if (!task.isCancelled())
+            {
+                task.expired(reactor);
+            }
+        }
+    }
+
+    private void purge()
+    {
+        TaskImpl head;
+        while ((head = _tasks.peek()) != null && head.isCancelled())
+        {
+            _tasks.poll();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.reactor.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hashed timer wheel for deadlines that are rescheduled far more often than they expire, such
+ * as the next {@link org.apache.qpid.proton.engine.Transport#tick(long)} of each transport on a
+ * reactor. Deadlines are rounded up to a whole tick of the wheel and each is kept on an intrusive
+ * list for its slot, so scheduling and cancelling cost the same however many are held, and
+ * advancing the wheel only visits the slots that have come due.
+ */
+class TimerWheel
+{
+    /**
+     * A deadline that can be held by at most one wheel at a time
+     */
+    abstract static class Timeout
+    {
+        private long _tick = -1;
+        private Timeout _prev;
+        private Timeout _next;
+
+        boolean isScheduled()
+        {
+            return _tick >= 0;
+        }
+
+        /**
+         * Called by the wheel once the deadline has passed, after the timeout has been removed
+         */
+        abstract void expired();
+    }
+
+    private final Timeout[] _slots;
+    private final int _mask;
+    private final long _resolution;
+    private final List<Timeout> _expired = new ArrayList<Timeout>();
+    private long _current;
+    private int _size;
+
+    /**
+     * @param slots the number of slots, rounded up to a power of two
+     * @param resolution the length of a tick in milliseconds
+     * @param now the current time in milliseconds
+     */
+    TimerWheel(int slots, long resolution, long now)
+    {
+        int size = Integer.highestOneBit(Math.max(slots, 1) - 1) << 1;
+        _slots = new Timeout[Math.max(size, 1)];
+        _mask = _slots.length - 1;
+        _resolution = resolution;
+        _current = now / resolution;
+    }
+
+    int size()
+    {
+        return _size;
+    }
+
+    boolean isEmpty()
+    {
+        return _size == 0;
+    }
+
+    /**
+     * Schedules the timeout to expire no earlier than deadline, moving it if it is already held
+     */
+    void schedule(Timeout timeout, long deadline)
+    {
+        long tick = Math.max((deadline + _resolution - 1) / _resolution, _current);
+        if (timeout._tick == tick)
+        {
+            return;
+        }
+        if (timeout.isScheduled())
+        {
+            unlink(timeout);
+        }
+        else
+        {
+            _size++;
+        }
+        timeout._tick = tick;
+        int slot = (int) (tick & _mask);
+        Timeout head = _slots[slot];
+        timeout._prev = null;
+        timeout._next = head;
+        if (head != null)
+        {
+            head._prev = timeout;
+        }
+        _slots[slot] = timeout;
+    }
+
+    void cancel(Timeout timeout)
+    {
+        if (timeout.isScheduled())
+        {
+            unlink(timeout);
+            timeout._tick = -1;
+            _size--;
+        }
+    }
+
+    private void unlink(Timeout timeout)
+    {
+        if (timeout._prev == null)
+        {
+            _slots[(int) (timeout._tick & _mask)] = timeout._next;
+        }
+        else
+        {
+            timeout._prev._next = timeout._next;
+        }
+        if (timeout._next != null)
+        {
+            timeout._next._prev = timeout._prev;
+        }
+        timeout._prev = null;
+        timeout._next = null;
+    }
+
+    /**
+     * @return the time at which the next occupied slot comes due, or 0 if the wheel is empty. The
+     * timeouts in that slot may belong to a later turn of the wheel, in which case advancing to it
+     * expires nothing.
+     */
+    long deadline()
+    {
+        if (_size == 0)
+        {
+            return 0;
+        }
+        for (int i = 0; i < _slots.length; i++)
+        {
+            if (_slots[(int) ((_current + i) & _mask)] != null)
+            {
+                return (_current + i) * _resolution;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Expires the timeouts whose deadline is no later than now. A timeout scheduled from
+     * {@link Timeout#expired()} for a deadline that has already passed expires a tick later.
+     */
+    void tick(long now)
+    {
+        long target = now / _resolution;
+        if (target < _current)
+        {
+            return;
+        }
+
+        long last = Math.min(target, _current + _mask);
+        for (long tick = _current; tick <= last && _size > 0; tick++)
+        {
+            int slot = (int) (tick & _mask);
+            Timeout timeout = _slots[slot];
+            while (timeout != null)
+            {
+                Timeout next = timeout._next;
+                if (timeout._tick <= target)
+                {
+                    cancel(timeout);
+                    _expired.add(timeout);
+                }
+                timeout = next;
+            }
+        }
+        _current = target + 1;
+
+        for (int i = 0; i < _expired.size(); i++)
+        {
+            _expired.get(i).expired();
+        }
+        _expired.clear();
+    }
+}
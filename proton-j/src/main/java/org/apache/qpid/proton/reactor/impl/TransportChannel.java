@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.reactor.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.qpid.proton.engine.ProtonJTransport;
+import org.apache.qpid.proton.engine.Transport;
+import org.apache.qpid.proton.engine.TransportException;
+
+/**
+ * Moves bytes between a socket and the transport bound to it, and drives the transport's timers.
+ */
+class TransportChannel implements Selectable
+{
+    private static final Logger _logger = Logger.getLogger("proton.reactor");
+
+    static final int MAX_READS = Integer.getInteger("proton.reactor_max_reads", 16);
+    static final int MAX_READ_BYTES = Integer.getInteger("proton.reactor_max_read_bytes", 256 * 1024);
+
+    private final ReactorImpl _reactor;
+    private final SocketChannel _channel;
+    private final Transport _transport;
+    private final SelectionKey _key;
+    private final TickTimeout _tick = new TickTimeout();
+    private boolean _closed;
+
+    /**
+     * Expires when the transport next needs {@link Transport#tick(long)}
+     */
+    private final class TickTimeout extends TimerWheel.Timeout
+    {
+        @Override
+        void expired()
+        {
+            update();
+        }
+    }
+
+    TransportChannel(ReactorImpl reactor, SocketChannel channel, Transport transport) throws IOException
+    {
+        _reactor = reactor;
+        _channel = channel;
+        _transport = transport;
+        channel.configureBlocking(false);
+        // the interest set is left to update() once the socket is writable, so that the transport
+        // is not asked for output before handlers have seen it bound and had a chance to set it up
+        int ops = channel.isConnectionPending() ?
+            SelectionKey.OP_CONNECT : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+        _key = reactor.register(channel, ops, this);
+        transport.setContext(this);
+    }
+
+    @Override
+    public void selected()
+    {
+        if (!_key.isValid())
+        {
+            return;
+        }
+
+        try
+        {
+            if (_key.isConnectable())
+            {
+                _channel.finishConnect();
+            }
+            if (_key.isReadable())
+            {
+                read();
+            }
+            if (_key.isWritable())
+            {
+                write();
+            }
+        }
+        catch (IOException e)
+        {
+            _logger.log(Level.FINE, "Exception on " + _channel.socket(), e);
+            _transport.close_tail();
+            _transport.close_head();
+        }
+
+        update();
+    }
+
+    /**
+     * Reads until the socket is drained or the limits on reads and bytes are reached, processing
+     * the input when the transport's buffer fills and once at the end.
+     */
+    private void read() throws IOException
+    {
+        int total = 0;
+        int unprocessed = 0;
+        boolean eos = false;
+        for (int reads = 0; reads < MAX_READS && total < MAX_READ_BYTES; reads++)
+        {
+            int capacity = _transport.capacity();
+            if (capacity == 0 && unprocessed > 0)
+            {
+                process();
+                unprocessed = 0;
+                capacity = _transport.capacity();
+            }
+            if (capacity <= 0)
+            {
+                break;
+            }
+
+            ByteBuffer tail = _transport.tail();
+            int requested = tail.remaining();
+            int n = _channel.read(tail);
+            if (n < 0)
+            {
+                eos = true;
+                break;
+            }
+            total += n;
+            unprocessed += n;
+            if (n < requested)
+            {
+                // a short read leaves the socket empty, so another would only return 0
+                break;
+            }
+        }
+
+        if (unprocessed > 0)
+        {
+            process();
+        }
+        if (eos)
+        {
+            _transport.close_tail();
+        }
+    }
+
+    private void process()
+    {
+        try
+        {
+            _transport.process();
+        }
+        catch (TransportException e)
+        {
+            _logger.log(Level.FINE, "Error processing input from " + _channel.socket(), e);
+        }
+    }
+
+    /**
+     * Writes until the transport has no more output or the socket will not take it all.
+     */
+    private void write() throws IOException
+    {
+        while (_transport.pending() > 0)
+        {
+            ByteBuffer[] head = ((ProtonJTransport) _transport).headBuffers();
+            long remaining = 0;
+            for (ByteBuffer buffer : head)
+            {
+                remaining += buffer.remaining();
+            }
+            long n = _channel.write(head);
+            if (n > 0)
+            {
+                _transport.pop((int) n);
+            }
+            if (n < remaining)
+            {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Brings the interest set and tick deadline up to date with the transport, closing the socket
+     * once the transport is closed at both ends.
+     */
+    void update()
+    {
+        if (_closed)
+        {
+            return;
+        }
+
+        // ticking first lets any frame it generates, or a close on idle timeout, show up below
+        long deadline = _transport.tick(_reactor.now());
+
+        int capacity = _transport.capacity();
+        int pending = _transport.pending();
+        if (capacity < 0 && pending < 0)
+        {
+            close();
+            return;
+        }
+
+        if (!_channel.isConnectionPending())
+        {
+            int interest = (capacity > 0 ? SelectionKey.OP_READ : 0) |
+                           (pending > 0 ? SelectionKey.OP_WRITE : 0);
+            // every change costs a system call at the next select
+            if (_key.interestOps() != interest)
+            {
+                _key.interestOps(interest);
+            }
+        }
+
+        if (deadline != 0)
+        {
+            _reactor.scheduleTick(_tick, deadline);
+        }
+        else
+        {
+            _reactor.cancelTick(_tick);
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if (_closed)
+        {
+            return;
+        }
+        _closed = true;
+
+        _reactor.cancelTick(_tick);
+        _key.cancel();
+        _reactor.unregister();
+        try
+        {
+            _channel.close();
+        }
+        catch (IOException e)
+        {
+            _logger.log(Level.FINE, "Exception closing " + _channel.socket(), e);
+        }
+        _transport.unbind();
+    }
+}
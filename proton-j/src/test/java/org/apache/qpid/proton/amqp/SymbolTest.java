@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.amqp;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SymbolTest
+{
+    @Test
+    public void testSymbolsAreInterned()
+    {
+        Symbol symbol = Symbol.getSymbol("interned");
+        assertSame(symbol, Symbol.getSymbol(new StringBuilder("inter").append("ned").toString()));
+        assertSame(symbol, Symbol.valueOf("interned"));
+    }
+
+    @Test
+    public void testUnreferencedSymbolsAreCollected() throws Exception
+    {
+        int before = Symbol.getInternedCount();
+        for (int i = 0; i < 10000; i++)
+        {
+            Symbol.getSymbol("unreferenced-" + i);
+        }
+
+        // the map is cleaned up as new symbols are made
+        for (int i = 0; i < 100 && Symbol.getInternedCount() >= before + 10000; i++)
+        {
+            System.gc();
+            Thread.sleep(10);
+            Symbol.getSymbol("collection-trigger-" + i);
+        }
+        assertTrue("Unreferenced symbols were not collected", Symbol.getInternedCount() < before + 10000);
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.blocking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.amqp.messaging.Accepted;
+import org.apache.qpid.proton.amqp.messaging.AmqpValue;
+import org.apache.qpid.proton.engine.BaseHandler;
+import org.apache.qpid.proton.engine.Delivery;
+import org.apache.qpid.proton.engine.Event;
+import org.apache.qpid.proton.engine.Link;
+import org.apache.qpid.proton.engine.Receiver;
+import org.apache.qpid.proton.engine.Sasl;
+import org.apache.qpid.proton.engine.Sender;
+import org.apache.qpid.proton.message.Message;
+import org.apache.qpid.proton.reactor.Acceptor;
+import org.apache.qpid.proton.reactor.Reactor;
+import org.junit.Test;
+
+public class BlockingConnectionTest
+{
+    /**
+     * Accepts the messages sent to it and sends them back to any receiving link, in order
+     */
+    private static class QueueServer extends BaseHandler
+    {
+        private final Queue<byte[]> _messages = new ArrayDeque<byte[]>();
+        private final int _idleTimeout;
+        private Sender _sender;
+        private int _tag;
+
+        QueueServer(int idleTimeout)
+        {
+            _idleTimeout = idleTimeout;
+        }
+
+        @Override
+        public void onConnectionBound(Event e)
+        {
+            e.getConnection().getTransport().setIdleTimeout(_idleTimeout);
+            Sasl sasl = e.getConnection().getTransport().sasl();
+            sasl.server();
+            sasl.setMechanisms(new String[]{"ANONYMOUS"});
+            sasl.done(Sasl.SaslOutcome.PN_SASL_OK);
+        }
+
+        @Override
+        public void onConnectionRemoteOpen(Event e)
+        {
+            e.getConnection().open();
+        }
+
+        @Override
+        public void onSessionRemoteOpen(Event e)
+        {
+            e.getSession().open();
+        }
+
+        @Override
+        public void onLinkRemoteOpen(Event e)
+        {
+            Link link = e.getLink();
+            link.setSource(link.getRemoteSource());
+            link.setTarget(link.getRemoteTarget());
+            link.open();
+            if (link instanceof Receiver)
+            {
+                ((Receiver) link).flow(10);
+            }
+            else
+            {
+                _sender = (Sender) link;
+            }
+        }
+
+        @Override
+        public void onLinkRemoteClose(Event e)
+        {
+            e.getLink().close();
+        }
+
+        @Override
+        public void onConnectionRemoteClose(Event e)
+        {
+            e.getConnection().close();
+        }
+
+        @Override
+        public void onDelivery(Event e)
+        {
+            Delivery delivery = e.getDelivery();
+            if (delivery.getLink() instanceof Receiver && !delivery.isPartial())
+            {
+                Receiver receiver = (Receiver) delivery.getLink();
+                byte[] bytes = new byte[delivery.pending()];
+                receiver.recv(bytes, 0, bytes.length);
+                receiver.advance();
+                delivery.disposition(Accepted.getInstance());
+                delivery.settle();
+                receiver.flow(1);
+                _messages.add(bytes);
+            }
+            else if (delivery.getLink() instanceof Sender && delivery.remotelySettled())
+            {
+                delivery.settle();
+            }
+            pump();
+        }
+
+        @Override
+        public void onLinkFlow(Event e)
+        {
+            pump();
+        }
+
+        private void pump()
+        {
+            while (_sender != null && _sender.getCredit() > 0 && !_messages.isEmpty())
+            {
+                byte[] bytes = _messages.poll();
+                _sender.delivery(String.valueOf(_tag++).getBytes());
+                _sender.send(bytes, 0, bytes.length);
+                _sender.advance();
+            }
+        }
+    }
+
+    private Reactor _reactor;
+    private Thread _thread;
+
+    private Acceptor startServer(int idleTimeout) throws Exception
+    {
+        _reactor = Proton.reactor();
+        Acceptor acceptor = _reactor.acceptor("localhost", 0, new QueueServer(idleTimeout));
+        _thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                _reactor.run();
+            }
+        };
+        _thread.start();
+        return acceptor;
+    }
+
+    private void stopServer() throws Exception
+    {
+        _reactor.stop();
+        _reactor.wakeup();
+        _thread.join();
+    }
+
+    @Test(timeout = 20000)
+    public void testSendAndReceive() throws Exception
+    {
+        Acceptor acceptor = startServer(0);
+
+        BlockingConnection connection =
+            BlockingConnection.Factory.create("localhost", acceptor.getPort(), 5000);
+        BlockingSender sender = connection.createSender("queue");
+        for (int i = 0; i < 100; i++)
+        {
+            Message message = Proton.message();
+            message.setBody(new AmqpValue("message-" + i));
+            sender.send(message);
+        }
+        sender.close();
+
+        BlockingReceiver receiver = connection.createReceiver("queue", 10);
+        for (int i = 0; i < 100; i++)
+        {
+            Message message = receiver.receive(5000);
+            assertEquals("message-" + i, ((AmqpValue) message.getBody()).getValue());
+        }
+        assertNull(receiver.receive(100));
+        receiver.close();
+        connection.close();
+
+        stopServer();
+    }
+
+    @Test(timeout = 20000)
+    public void testHeartbeatsKeepIdleConnectionOpen() throws Exception
+    {
+        Acceptor acceptor = startServer(200);
+
+        BlockingConnection connection =
+            BlockingConnection.Factory.create("localhost", acceptor.getPort(), 5000);
+        BlockingSender sender = connection.createSender("queue");
+        // several of the server's idle timeouts, during which only heartbeats are sent
+        Thread.sleep(1000);
+
+        Message message = Proton.message();
+        message.setBody(new AmqpValue("after idle"));
+        sender.send(message);
+        sender.close();
+        connection.close();
+
+        stopServer();
+    }
+}
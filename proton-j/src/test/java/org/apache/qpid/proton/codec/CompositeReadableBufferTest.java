@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.amqp.messaging.AmqpValue;
+import org.junit.Test;
+
+public class CompositeReadableBufferTest
+{
+    @Test
+    public void testValuesStraddlingSegmentsAreReadWhole()
+    {
+        ByteBuffer whole = ByteBuffer.allocate(27);
+        whole.putShort((short) 0x0102);
+        whole.putInt(0x03040506);
+        whole.putLong(0x0708090a0b0c0d0eL);
+        whole.putFloat(1.5f);
+        whole.putDouble(-2.25);
+        whole.put((byte) 0x7f);
+        whole.flip();
+
+        for (int split = 0; split <= whole.limit(); split++)
+        {
+            CompositeReadableBuffer buffer = split(whole, split, direct(whole));
+
+            assertEquals(27, buffer.remaining());
+            assertEquals(0x0102, buffer.getShort());
+            assertEquals(0x03040506, buffer.getInt());
+            assertEquals(0x0708090a0b0c0d0eL, buffer.getLong());
+            assertEquals(1.5f, buffer.getFloat(), 0f);
+            assertEquals(-2.25, buffer.getDouble(), 0d);
+            assertEquals(0x7f, buffer.get());
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void testPositionMovesAcrossSegments()
+    {
+        ByteBuffer whole = ByteBuffer.wrap(new byte[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+        CompositeReadableBuffer buffer = split(whole, 4, whole);
+        buffer.append(ByteBuffer.allocate(0));
+
+        assertEquals(2, buffer.getSegmentCount());
+        buffer.position(6);
+        assertEquals(6, buffer.get());
+        buffer.position(2);
+        assertEquals(2, buffer.get());
+        assertEquals(3, buffer.position());
+
+        byte[] bytes = new byte[5];
+        buffer.get(bytes, 0, 5);
+        assertEquals(new Binary(new byte[] { 3, 4, 5, 6, 7 }), new Binary(bytes));
+        assertEquals(8, buffer.position());
+        assertEquals(2, buffer.remaining());
+
+        buffer.position(10);
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void testReadingPastTheEndUnderflows()
+    {
+        CompositeReadableBuffer buffer = split(ByteBuffer.wrap(new byte[3]), 1, null);
+        try
+        {
+            buffer.getInt();
+            fail("read an int from 3 bytes");
+        }
+        catch (BufferUnderflowException e)
+        {
+            // expected
+        }
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void testDecoderReadsOverSegments()
+    {
+        DecoderImpl decoder = new DecoderImpl();
+        EncoderImpl encoder = new EncoderImpl(decoder);
+        AMQPDefinedTypes.registerAllTypes(decoder, encoder);
+
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        map.put(Symbol.valueOf("key"), "caf\u00e9");
+        map.put("count", 123456789L);
+        List<Object> list = new ArrayList<Object>();
+        list.add(Symbol.valueOf("a-symbol-long-enough-to-straddle"));
+        list.add(new Binary(new byte[] { 1, 2, 3 }));
+        list.add(map);
+        AmqpValue value = new AmqpValue(list);
+
+        ByteBuffer encoded = ByteBuffer.allocate(encoder.getEncodedSize(value));
+        encoder.setByteBuffer(encoded);
+        encoder.writeObject(value);
+        encoded.flip();
+
+        for (int split = 0; split <= encoded.limit(); split++)
+        {
+            decoder.setByteBuffer(split(encoded, split, direct(encoded)));
+            assertEquals(list, ((AmqpValue) decoder.readObject()).getValue());
+        }
+    }
+
+    /**
+     * Splits the remaining bytes of whole in two at split, taking the second part from other
+     * if it is not null.
+     */
+    private static CompositeReadableBuffer split(ByteBuffer whole, int split, ByteBuffer other)
+    {
+        ByteBuffer first = whole.duplicate();
+        first.limit(first.position() + split);
+        ByteBuffer second = (other == null ? whole : other).duplicate();
+        second.position(second.position() + split);
+        return new CompositeReadableBuffer().append(first).append(second);
+    }
+
+    private static ByteBuffer direct(ByteBuffer heap)
+    {
+        ByteBuffer direct = ByteBuffer.allocateDirect(heap.remaining());
+        direct.put(heap.duplicate());
+        direct.flip();
+        return direct;
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.apache.qpid.proton.amqp.messaging.Accepted;
+import org.apache.qpid.proton.amqp.messaging.Header;
+import org.apache.qpid.proton.amqp.messaging.Modified;
+import org.apache.qpid.proton.amqp.messaging.Properties;
+import org.apache.qpid.proton.amqp.messaging.Source;
+import org.apache.qpid.proton.amqp.messaging.Target;
+import org.apache.qpid.proton.amqp.messaging.TerminusDurability;
+import org.apache.qpid.proton.amqp.transport.Attach;
+import org.apache.qpid.proton.amqp.transport.Begin;
+import org.apache.qpid.proton.amqp.transport.Detach;
+import org.apache.qpid.proton.amqp.transport.Disposition;
+import org.apache.qpid.proton.amqp.transport.End;
+import org.apache.qpid.proton.amqp.transport.ErrorCondition;
+import org.apache.qpid.proton.amqp.transport.Flow;
+import org.apache.qpid.proton.amqp.transport.Open;
+import org.apache.qpid.proton.amqp.transport.Role;
+import org.apache.qpid.proton.amqp.transport.Transfer;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test that described types written field by field encode to the same bytes as
+ * their {@link java.util.List} view.
+ */
+public class DescribedTypeEncodingTest
+{
+    private final DecoderImpl _decoder = new DecoderImpl();
+    private final EncoderImpl _encoder = new EncoderImpl(_decoder);
+
+    @Before
+    public void setUp()
+    {
+        AMQPDefinedTypes.registerAllTypes(_decoder, _encoder);
+    }
+
+    @Test
+    public void testTransfer()
+    {
+        Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.ZERO);
+        transfer.setDeliveryId(UnsignedInteger.valueOf(70000));
+        transfer.setDeliveryTag(new Binary(new byte[] {0, 1, 2, 3}));
+        transfer.setMessageFormat(UnsignedInteger.ZERO);
+        transfer.setSettled(Boolean.FALSE);
+        assertSameEncoding(transfer);
+
+        transfer.setState(Accepted.getInstance());
+        transfer.setMore(true);
+        assertSameEncoding(transfer);
+    }
+
+    @Test
+    public void testDisposition()
+    {
+        Disposition disposition = new Disposition();
+        disposition.setRole(Role.RECEIVER);
+        disposition.setFirst(UnsignedInteger.valueOf(5));
+        assertSameEncoding(disposition);
+
+        disposition.setLast(UnsignedInteger.valueOf(500));
+        disposition.setSettled(true);
+        Modified modified = new Modified();
+        modified.setDeliveryFailed(true);
+        modified.setMessageAnnotations(Collections.singletonMap(Symbol.valueOf("x-opt"), "value"));
+        disposition.setState(modified);
+        assertSameEncoding(disposition);
+    }
+
+    @Test
+    public void testSessionAndConnectionPerformatives()
+    {
+        Open open = new Open();
+        open.setContainerId("container");
+        open.setHostname("localhost");
+        open.setMaxFrameSize(UnsignedInteger.valueOf(16384));
+        open.setOfferedCapabilities(Symbol.valueOf("ANONYMOUS-RELAY"));
+        assertSameEncoding(open);
+
+        Begin begin = new Begin();
+        begin.setNextOutgoingId(UnsignedInteger.ONE);
+        begin.setIncomingWindow(UnsignedInteger.valueOf(2048));
+        begin.setOutgoingWindow(UnsignedInteger.valueOf(2048));
+        assertSameEncoding(begin);
+
+        Flow flow = new Flow();
+        flow.setIncomingWindow(UnsignedInteger.valueOf(2048));
+        flow.setNextOutgoingId(UnsignedInteger.ONE);
+        flow.setOutgoingWindow(UnsignedInteger.valueOf(2048));
+        flow.setHandle(UnsignedInteger.ZERO);
+        flow.setDeliveryCount(UnsignedInteger.ZERO);
+        flow.setLinkCredit(UnsignedInteger.valueOf(100));
+        flow.setEcho(true);
+        assertSameEncoding(flow);
+
+        Detach detach = new Detach();
+        detach.setHandle(UnsignedInteger.ZERO);
+        detach.setClosed(true);
+        detach.setError(new ErrorCondition(Symbol.valueOf("amqp:internal-error"), "description"));
+        assertSameEncoding(detach);
+
+        assertSameEncoding(new End());
+    }
+
+    @Test
+    public void testAttachWithTerminii()
+    {
+        Source source = new Source();
+        source.setAddress("queue");
+        source.setDurable(TerminusDurability.UNSETTLED_STATE);
+        source.setDefaultOutcome(Accepted.getInstance());
+        source.setOutcomes(Symbol.valueOf("amqp:accepted:list"), Symbol.valueOf("amqp:rejected:list"));
+
+        Target target = new Target();
+        target.setAddress("queue");
+        target.setCapabilities(Symbol.valueOf("queue"));
+
+        Attach attach = new Attach();
+        attach.setName("link");
+        attach.setHandle(UnsignedInteger.ZERO);
+        attach.setRole(Role.SENDER);
+        attach.setSource(source);
+        attach.setTarget(target);
+        attach.setInitialDeliveryCount(UnsignedInteger.ZERO);
+        assertSameEncoding(attach);
+    }
+
+    @Test
+    public void testListTooLongForOneByteSize()
+    {
+        Map properties = new HashMap();
+        for(int i = 0; i < 20; i++)
+        {
+            properties.put(Symbol.valueOf("property-" + i), "value-" + i);
+        }
+
+        Attach attach = new Attach();
+        attach.setName("link");
+        attach.setHandle(UnsignedInteger.ZERO);
+        attach.setRole(Role.RECEIVER);
+        attach.setProperties(properties);
+        assertSameEncoding(attach);
+    }
+
+    @Test
+    public void testMessageSections()
+    {
+        Header header = new Header();
+        header.setDurable(true);
+        header.setTtl(UnsignedInteger.valueOf(1000));
+        assertSameEncoding(header);
+
+        Properties properties = new Properties();
+        properties.setMessageId("id");
+        properties.setTo("queue");
+        properties.setContentType(Symbol.valueOf("text/plain"));
+        properties.setCreationTime(new Date(1234567890L));
+        assertSameEncoding(properties);
+    }
+
+    @Test
+    public void testEncodedSizeIsReportedByDroppingBuffer()
+    {
+        Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.ZERO);
+        transfer.setDeliveryId(UnsignedInteger.ONE);
+
+        DroppingWritableBuffer buffer = new DroppingWritableBuffer();
+        _encoder.setByteBuffer(buffer);
+        _encoder.writeObject(transfer);
+
+        assertEquals(encodeAsList(transfer).length, buffer.position());
+    }
+
+    private void assertSameEncoding(Object value)
+    {
+        ByteBuffer buf = ByteBuffer.allocate(2048);
+        _encoder.setByteBuffer(buf);
+        _encoder.writeObject(value);
+        buf.flip();
+        byte[] written = new byte[buf.remaining()];
+        buf.get(written);
+
+        assertArrayEquals(encodeAsList(value), written);
+    }
+
+    private byte[] encodeAsList(Object value)
+    {
+        ByteBuffer buf = ByteBuffer.allocate(2048);
+        _encoder.setByteBuffer(buf);
+        TypeEncoding encoding = _encoder.getType(value).getEncoding(value);
+        encoding.writeConstructor();
+        encoding.writeValue(value);
+        buf.flip();
+        byte[] bytes = new byte[buf.remaining()];
+        buf.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.codec;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.apache.qpid.proton.amqp.messaging.AmqpValue;
+import org.apache.qpid.proton.amqp.messaging.ApplicationProperties;
+import org.apache.qpid.proton.amqp.messaging.Properties;
+import org.apache.qpid.proton.amqp.messaging.Source;
+import org.apache.qpid.proton.amqp.messaging.Target;
+import org.apache.qpid.proton.amqp.transport.Attach;
+import org.apache.qpid.proton.amqp.transport.Role;
+import org.apache.qpid.proton.amqp.transport.Transfer;
+import org.apache.qpid.proton.message.ProtonJMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test that {@link EncoderImpl#getEncodedSize(Object)} and {@link ProtonJMessage#encodedSize()} agree
+ * with the number of bytes actually written.
+ */
+public class EncodedSizeTest
+{
+    private final DecoderImpl _decoder = new DecoderImpl();
+    private final EncoderImpl _encoder = new EncoderImpl(_decoder);
+    private final ByteBuffer _buffer = ByteBuffer.allocate(64 * 1024);
+
+    @Before
+    public void setUp()
+    {
+        AMQPDefinedTypes.registerAllTypes(_decoder, _encoder);
+        _encoder.setByteBuffer(_buffer);
+    }
+
+    private void assertSizeIsExact(Object value)
+    {
+        _buffer.clear();
+        int size = _encoder.getEncodedSize(value);
+        assertEquals("sizing wrote to the buffer", 0, _buffer.position());
+
+        _encoder.writeObject(value);
+        assertEquals("Wrong size for " + value, _buffer.position(), size);
+    }
+
+    @Test
+    public void testPrimitives()
+    {
+        for (Object value : Arrays.asList(null, true, 7, 70000L, "hello", "h\u00e9llo", Symbol.valueOf("sym"),
+                                          new Binary(new byte[300]), UnsignedInteger.valueOf(0), new int[] { 1, 2, 3 }))
+        {
+            assertSizeIsExact(value);
+        }
+    }
+
+    @Test
+    public void testNestedListsAndMaps()
+    {
+        List<Object> inner = new ArrayList<Object>();
+        for (int i = 0; i < 100; i++)
+        {
+            inner.add("element " + i);
+        }
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        map.put("inner", inner);
+        map.put(Symbol.valueOf("small"), Arrays.asList(1, 2));
+        List<Object> outer = new ArrayList<Object>();
+        outer.add(map);
+        outer.add(inner);
+        outer.add(Arrays.asList(Arrays.asList(Arrays.asList("deep"))));
+
+        assertSizeIsExact(outer);
+        assertSizeIsExact(map);
+    }
+
+    @Test
+    public void testSizesAreNotKeptBetweenCalls()
+    {
+        List<Object> list = new ArrayList<Object>();
+        list.add("a");
+        List<Object> outer = new ArrayList<Object>();
+        outer.add(list);
+        assertSizeIsExact(outer);
+
+        for (int i = 0; i < 100; i++)
+        {
+            list.add("more " + i);
+        }
+        assertSizeIsExact(outer);
+    }
+
+    @Test
+    public void testPerformatives()
+    {
+        Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.ZERO);
+        transfer.setDeliveryId(UnsignedInteger.valueOf(70000));
+        transfer.setDeliveryTag(new Binary(new byte[] {0, 1, 2, 3}));
+        transfer.setMessageFormat(UnsignedInteger.ZERO);
+        assertSizeIsExact(transfer);
+
+        Attach attach = new Attach();
+        attach.setName("link");
+        attach.setHandle(UnsignedInteger.ONE);
+        attach.setRole(Role.SENDER);
+        Source source = new Source();
+        source.setAddress("queue");
+        Map<Symbol, Object> filter = new HashMap<Symbol, Object>();
+        filter.put(Symbol.valueOf("selector"), "colour = 'red'");
+        source.setFilter(filter);
+        attach.setSource(source);
+        Target target = new Target();
+        target.setAddress(new String(new char[300]).replace('\0', 't'));
+        attach.setTarget(target);
+        assertSizeIsExact(attach);
+    }
+
+    @Test
+    public void testMessageEncodedSize()
+    {
+        ProtonJMessage message = (ProtonJMessage) Proton.message();
+        assertEquals(0, message.encodedSize());
+
+        Properties properties = new Properties();
+        properties.setMessageId("id-1");
+        properties.setTo("queue");
+        message.setProperties(properties);
+        Map<Object, Object> applicationProperties = new HashMap<Object, Object>();
+        applicationProperties.put("count", 3);
+        message.setApplicationProperties(new ApplicationProperties(applicationProperties));
+        message.setBody(new AmqpValue(new String(new char[5000]).replace('\0', 'x')));
+
+        int size = message.encodedSize();
+        byte[] encoded = new byte[size];
+        assertEquals(size, message.encode(encoded, 0, size));
+    }
+}
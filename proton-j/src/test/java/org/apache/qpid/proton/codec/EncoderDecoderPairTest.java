@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.apache.qpid.proton.amqp.transport.Flow;
+import org.junit.Test;
+
+public class EncoderDecoderPairTest
+{
+    @Test
+    public void testPairIsSharedWithinAThread()
+    {
+        assertSame(EncoderDecoderPair.current(), EncoderDecoderPair.current());
+    }
+
+    @Test
+    public void testEachThreadHasItsOwnPair() throws Exception
+    {
+        final AtomicReference<EncoderDecoderPair> other = new AtomicReference<EncoderDecoderPair>();
+        Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                other.set(EncoderDecoderPair.current());
+            }
+        };
+        thread.start();
+        thread.join();
+
+        assertNotSame(EncoderDecoderPair.current(), other.get());
+        assertNotSame(EncoderDecoderPair.current().getEncoder(), other.get().getEncoder());
+        assertNotSame(EncoderDecoderPair.current().getDecoder(), other.get().getDecoder());
+    }
+
+    @Test
+    public void testPairHasTheDefinedTypesRegistered()
+    {
+        Flow flow = new Flow();
+        flow.setIncomingWindow(UnsignedInteger.valueOf(10));
+        flow.setNextOutgoingId(UnsignedInteger.ONE);
+        flow.setOutgoingWindow(UnsignedInteger.valueOf(10));
+
+        EncoderDecoderPair pair = EncoderDecoderPair.current();
+        ByteBuffer buf = ByteBuffer.allocate(64);
+        pair.getEncoder().setByteBuffer(buf);
+        pair.getEncoder().writeObject(flow);
+        buf.flip();
+        pair.getDecoder().setByteBuffer(buf);
+        Flow decoded = (Flow) pair.getDecoder().readObject();
+
+        assertEquals(flow.getOutgoingWindow(), decoded.getOutgoingWindow());
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.messaging.AmqpValue;
+import org.junit.Test;
+
+public class ExpandableWritableBufferTest
+{
+    @Test
+    public void testWritesBeyondTheInitialCapacityAreKept()
+    {
+        ExpandableWritableBuffer buffer = new ExpandableWritableBuffer(4);
+        ByteBuffer initial = buffer.getByteBuffer();
+
+        buffer.putInt(1);
+        buffer.putLong(2L);
+        buffer.put(new byte[] { 3, 4, 5 }, 0, 3);
+
+        assertEquals(15, buffer.position());
+        assertNotSame(initial, buffer.getByteBuffer());
+        ByteBuffer written = buffer.getByteBuffer().duplicate();
+        written.flip();
+        assertEquals(1, written.getInt());
+        assertEquals(2L, written.getLong());
+        assertEquals(3, written.get());
+        assertEquals(4, written.get());
+        assertEquals(5, written.get());
+    }
+
+    @Test
+    public void testContentsPastThePositionSurviveExpansion()
+    {
+        ExpandableWritableBuffer buffer = new ExpandableWritableBuffer(8);
+        buffer.putLong(-1L);
+        buffer.position(2);
+        buffer.position(12);
+        buffer.position(0);
+
+        assertEquals(-1L, buffer.getByteBuffer().getLong(0));
+    }
+
+    @Test
+    public void testCapacityAtLeastDoubles()
+    {
+        ExpandableWritableBuffer buffer = new ExpandableWritableBuffer(16);
+        buffer.put(new byte[17], 0, 17);
+        assertEquals(32, buffer.getByteBuffer().capacity());
+
+        buffer.put(new byte[100], 0, 100);
+        assertEquals(117, buffer.getByteBuffer().capacity());
+    }
+
+    @Test
+    public void testSubclassSuppliesTheLargerBuffer()
+    {
+        final ByteBuffer larger = ByteBuffer.allocateDirect(64);
+        ExpandableWritableBuffer buffer = new ExpandableWritableBuffer(ByteBuffer.allocateDirect(2))
+        {
+            @Override
+            protected ByteBuffer expand(ByteBuffer old, int capacity)
+            {
+                copy(old, larger);
+                return larger;
+            }
+        };
+        buffer.putShort((short) 7);
+        buffer.put((byte) 8);
+
+        assertSame(larger, buffer.getByteBuffer());
+        assertEquals(7, larger.getShort(0));
+        assertEquals(8, larger.get(2));
+    }
+
+    @Test
+    public void testValueIsEncodedWholeInOnePass()
+    {
+        DecoderImpl decoder = new DecoderImpl();
+        EncoderImpl encoder = new EncoderImpl(decoder);
+        AMQPDefinedTypes.registerAllTypes(decoder, encoder);
+
+        byte[] data = new byte[100000];
+        Arrays.fill(data, (byte) 'x');
+        ExpandableWritableBuffer buffer = new ExpandableWritableBuffer(16);
+        encoder.setByteBuffer(buffer);
+        encoder.writeObject(new AmqpValue(new Binary(data)));
+
+        ByteBuffer encoded = buffer.getByteBuffer();
+        encoded.flip();
+        assertTrue(encoded.remaining() > data.length);
+        decoder.setByteBuffer(encoded);
+        assertEquals(new Binary(data), ((AmqpValue) decoder.readObject()).getValue());
+    }
+}
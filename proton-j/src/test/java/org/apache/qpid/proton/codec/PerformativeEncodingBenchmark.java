@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.codec;
+
+import java.nio.ByteBuffer;
+
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.apache.qpid.proton.amqp.messaging.Accepted;
+import org.apache.qpid.proton.amqp.transport.Disposition;
+import org.apache.qpid.proton.amqp.transport.Role;
+import org.apache.qpid.proton.amqp.transport.Transfer;
+
+/**
+ * Compares writing a {@link Transfer} and a {@link Disposition} field by field against
+ * writing them through their {@link java.util.List} view. Not run as part of the build:
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes org.apache.qpid.proton.codec.PerformativeEncodingBenchmark [iterations]
+ * </pre>
+ */
+public class PerformativeEncodingBenchmark
+{
+    private final DecoderImpl _decoder = new DecoderImpl();
+    private final EncoderImpl _encoder = new EncoderImpl(_decoder);
+    private final ByteBuffer _buffer = ByteBuffer.allocate(1024);
+
+    private PerformativeEncodingBenchmark()
+    {
+        AMQPDefinedTypes.registerAllTypes(_decoder, _encoder);
+        _encoder.setByteBuffer(_buffer);
+    }
+
+    private long writeDirect(Object value, int iterations)
+    {
+        long start = System.nanoTime();
+        for(int i = 0; i < iterations; i++)
+        {
+            _buffer.clear();
+            _encoder.writeObject(value);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long writeAsList(Object value, int iterations)
+    {
+        AMQPType type = _encoder.getType(value);
+        long start = System.nanoTime();
+        for(int i = 0; i < iterations; i++)
+        {
+            _buffer.clear();
+            TypeEncoding encoding = type.getEncoding(value);
+            encoding.writeConstructor();
+            encoding.writeValue(value);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void run(String name, Object value, int iterations)
+    {
+        for(int round = 0; round < 5; round++)
+        {
+            double direct = (double) writeDirect(value, iterations) / iterations;
+            double asList = (double) writeAsList(value, iterations) / iterations;
+            System.out.println(String.format("%-12s direct %7.1f ns/op   list %7.1f ns/op", name, direct, asList));
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+        Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.ZERO);
+        transfer.setDeliveryId(UnsignedInteger.valueOf(12345));
+        transfer.setDeliveryTag(new Binary(new byte[] {0, 0, 0, 1}));
+        transfer.setMessageFormat(UnsignedInteger.ZERO);
+        transfer.setSettled(Boolean.FALSE);
+
+        Disposition disposition = new Disposition();
+        disposition.setRole(Role.RECEIVER);
+        disposition.setFirst(UnsignedInteger.valueOf(12345));
+        disposition.setLast(UnsignedInteger.valueOf(12400));
+        disposition.setSettled(true);
+        disposition.setState(Accepted.getInstance());
+
+        PerformativeEncodingBenchmark benchmark = new PerformativeEncodingBenchmark();
+        benchmark.run("transfer", transfer, iterations);
+        benchmark.run("disposition", disposition, iterations);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+
+/**
+ * Compares encoding and decoding strings through the encoder and decoder against the JDK's UTF-8
+ * charset, which is how strings were read before {@link UTF8}: a CharsetDecoder on a slice of the
+ * buffer for each value. Not run as part of the build:
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes org.apache.qpid.proton.codec.StringCodingBenchmark [iterations]
+ * </pre>
+ */
+public class StringCodingBenchmark
+{
+    private static final Charset UTF8_CHARSET = Charset.forName("UTF-8");
+
+    private final DecoderImpl _decoder = new DecoderImpl();
+    private final EncoderImpl _encoder = new EncoderImpl(_decoder);
+    private final ByteBuffer _buffer;
+    private int _sink;
+
+    private StringCodingBenchmark(ByteBuffer buffer)
+    {
+        AMQPDefinedTypes.registerAllTypes(_decoder, _encoder);
+        _buffer = buffer;
+        _encoder.setByteBuffer(_buffer);
+        _decoder.setByteBuffer(_buffer);
+    }
+
+    private long encode(String value, int iterations)
+    {
+        long start = System.nanoTime();
+        for(int i = 0; i < iterations; i++)
+        {
+            _buffer.clear();
+            _encoder.writeString(value);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long encodeWithCharset(String value, int iterations)
+    {
+        long start = System.nanoTime();
+        for(int i = 0; i < iterations; i++)
+        {
+            _buffer.clear();
+            byte[] bytes = value.getBytes(UTF8_CHARSET);
+            if (bytes.length <= 255)
+            {
+                _buffer.put((byte) 0xa1);
+                _buffer.put((byte) bytes.length);
+            }
+            else
+            {
+                _buffer.put((byte) 0xb1);
+                _buffer.putInt(bytes.length);
+            }
+            _buffer.put(bytes);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long decode(String value, int iterations)
+    {
+        _buffer.clear();
+        _encoder.writeString(value);
+        int limit = _buffer.position();
+        long start = System.nanoTime();
+        for(int i = 0; i < iterations; i++)
+        {
+            _buffer.position(0);
+            _buffer.limit(limit);
+            _sink += _decoder.readString().length();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long decodeWithCharset(String value, int iterations) throws CharacterCodingException
+    {
+        _buffer.clear();
+        _encoder.writeString(value);
+        int limit = _buffer.position();
+        long start = System.nanoTime();
+        for(int i = 0; i < iterations; i++)
+        {
+            _buffer.position(0);
+            _buffer.limit(limit);
+            int size = _buffer.get() == (byte) 0xa1 ? _buffer.get() & 0xff : _buffer.getInt();
+            ByteBuffer slice = _buffer.slice();
+            slice.limit(size);
+            _sink += UTF8_CHARSET.newDecoder().decode(slice).length();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void run(String name, String value, int iterations) throws CharacterCodingException
+    {
+        for(int round = 0; round < 5; round++)
+        {
+            double encode = (double) encode(value, iterations) / iterations;
+            double encodeWithCharset = (double) encodeWithCharset(value, iterations) / iterations;
+            double decode = (double) decode(value, iterations) / iterations;
+            double decodeWithCharset = (double) decodeWithCharset(value, iterations) / iterations;
+            System.out.println(String.format("%-14s encode %7.1f ns/op (charset %7.1f)   decode %7.1f ns/op (charset %7.1f)",
+                                             name, encode, encodeWithCharset, decode, decodeWithCharset));
+        }
+    }
+
+    public static void main(String[] args) throws CharacterCodingException
+    {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+        String address = "queue://orders.incoming.region-eu-west";
+        StringBuilder text = new StringBuilder();
+        for(int i = 0; i < 20; i++)
+        {
+            text.append("Gr\u00fc\u00dfe aus M\u00fcnchen \u2014 ");
+        }
+
+        StringCodingBenchmark heap = new StringCodingBenchmark(ByteBuffer.allocate(4096));
+        heap.run("heap ascii", address, iterations);
+        heap.run("heap mixed", text.toString(), iterations / 10);
+
+        StringCodingBenchmark direct = new StringCodingBenchmark(ByteBuffer.allocateDirect(4096));
+        direct.run("direct ascii", address, iterations);
+        direct.run("direct mixed", text.toString(), iterations / 10);
+
+        if (heap._sink + direct._sink == 42)
+        {
+            System.out.println();
+        }
+    }
+}
@@ -21,6 +21,7 @@
 package org.apache.qpid.proton.codec;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.lang.Character.UnicodeBlock;
 import java.nio.ByteBuffer;
@@ -121,6 +122,107 @@ public class StringTypeTest
         }
     }
 
+    /**
+     * Test decoding from a direct buffer, which cannot be decoded in place
+     */
+    @Test
+    public void encodeDecodeStringsInDirectBuffer()
+    {
+        final DecoderImpl decoder = new DecoderImpl();
+        final EncoderImpl encoder = new EncoderImpl(decoder);
+        AMQPDefinedTypes.registerAllTypes(decoder, encoder);
+        final ByteBuffer bb = ByteBuffer.allocateDirect(16);
+
+        for (final String input : generateTestData())
+        {
+            bb.clear();
+            encoder.setByteBuffer(bb);
+            encoder.writeObject(input);
+            bb.flip();
+            decoder.setByteBuffer(bb);
+            assertEquals("Failed to round trip String correctly: ", input, decoder.readObject());
+            assertEquals(0, bb.remaining());
+        }
+    }
+
+    /**
+     * Test strings long enough to be encoded in more than one chunk, including one with a
+     * surrogate pair straddling the boundary between chunks
+     */
+    @Test
+    public void encodeDecodeLongStrings()
+    {
+        final DecoderImpl decoder = new DecoderImpl();
+        final EncoderImpl encoder = new EncoderImpl(decoder);
+        AMQPDefinedTypes.registerAllTypes(decoder, encoder);
+        final ByteBuffer bb = ByteBuffer.allocate(64 * 1024);
+
+        final StringBuilder ascii = new StringBuilder();
+        final StringBuilder mixed = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+        {
+            ascii.append((char) ('a' + i % 26));
+            mixed.append(i % 3 == 0 ? "\u00e9" : "x");
+        }
+        final StringBuilder straddling = new StringBuilder();
+        for (int i = 0; i < 1023; i++)
+        {
+            straddling.append('x');
+        }
+        straddling.append("\uD834\uDD1E and more");
+
+        for (final String input : Arrays.asList(ascii.toString(), mixed.toString(), straddling.toString()))
+        {
+            bb.clear();
+            encoder.setByteBuffer(bb);
+            encoder.writeObject(input);
+            bb.flip();
+            assertEquals(input.getBytes(CHARSET_UTF8).length, bb.remaining() - 5);
+            decoder.setByteBuffer(bb);
+            assertEquals(input, decoder.readObject());
+        }
+    }
+
+    /**
+     * Test that bytes which are not valid UTF-8 are rejected rather than decoded
+     */
+    @Test
+    public void decodeRejectsMalformedStrings()
+    {
+        final DecoderImpl decoder = new DecoderImpl();
+        final EncoderImpl encoder = new EncoderImpl(decoder);
+        AMQPDefinedTypes.registerAllTypes(decoder, encoder);
+
+        final byte[][] malformed = {
+            { (byte) 0x80 },                                    // unexpected continuation
+            { (byte) 0xC3 },                                    // truncated
+            { (byte) 0xC3, (byte) 0x41 },                       // bad continuation
+            { (byte) 0xC0, (byte) 0xAF },                       // overlong
+            { (byte) 0xED, (byte) 0xA0, (byte) 0x80 },          // encoded surrogate
+            { (byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80 }, // beyond U+10FFFF
+            { (byte) 0xFF }
+        };
+
+        for (final byte[] bytes : malformed)
+        {
+            final ByteBuffer bb = ByteBuffer.allocate(2 + bytes.length);
+            bb.put((byte) 0xa1);
+            bb.put((byte) bytes.length);
+            bb.put(bytes);
+            bb.flip();
+            decoder.setByteBuffer(bb);
+            try
+            {
+                decoder.readObject();
+                fail("Decoded malformed bytes " + Arrays.toString(bytes));
+            }
+            catch (IllegalArgumentException e)
+            {
+                // expected
+            }
+        }
+    }
+
     // build up some test data with a set of suitable Unicode characters
     private Set<String> generateTestData()
     {
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.apache.qpid.proton.amqp.Symbol;
+import org.junit.Test;
+
+public class SymbolTableTest
+{
+    private static ByteBuffer bytes(String s, boolean direct)
+    {
+        byte[] encoded = ("xx" + s).getBytes();
+        ByteBuffer buf = direct ? ByteBuffer.allocateDirect(encoded.length) : ByteBuffer.allocate(encoded.length);
+        buf.put(encoded);
+        buf.flip();
+        return buf;
+    }
+
+    @Test
+    public void testLookupFindsTheSymbolWithoutMovingTheBuffer()
+    {
+        SymbolTable table = new SymbolTable(16, 32);
+        for (boolean direct : new boolean[] { false, true })
+        {
+            ByteBuffer buf = bytes("amqp:accepted:list", direct);
+            Symbol symbol = table.get(buf, 2, buf.limit() - 2);
+
+            assertSame(Symbol.valueOf("amqp:accepted:list"), symbol);
+            assertEquals(0, buf.position());
+            assertEquals(1, table.size());
+        }
+    }
+
+    @Test
+    public void testSymbolsWithTheSameLengthAreToldApart()
+    {
+        SymbolTable table = new SymbolTable(16, 32);
+        ByteBuffer a = bytes("key-a", false);
+        ByteBuffer b = bytes("key-b", false);
+
+        assertSame(Symbol.valueOf("key-a"), table.get(a, 2, 5));
+        assertSame(Symbol.valueOf("key-b"), table.get(b, 2, 5));
+        assertSame(Symbol.valueOf("key-a"), table.get(a, 2, 5));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void testTableDoesNotGrowBeyondItsSize()
+    {
+        SymbolTable table = new SymbolTable(64, 32);
+        for (int i = 0; i < 10000; i++)
+        {
+            String name = "id-" + i;
+            ByteBuffer buf = bytes(name, i % 2 == 0);
+            assertSame(Symbol.valueOf(name), table.get(buf, 2, name.length()));
+        }
+        assertTrue(table.size() <= 64);
+    }
+
+    @Test
+    public void testLongSymbolsAreNotKept()
+    {
+        SymbolTable table = new SymbolTable(16, 4);
+        ByteBuffer buf = bytes("too-long", false);
+
+        assertSame(Symbol.valueOf("too-long"), table.get(buf, 2, 8));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testDecoderReadsSymbolsThroughTheTable()
+    {
+        DecoderImpl decoder = new DecoderImpl();
+        EncoderImpl encoder = new EncoderImpl(decoder);
+        AMQPDefinedTypes.registerAllTypes(decoder, encoder);
+        ByteBuffer buf = ByteBuffer.allocateDirect(64);
+        encoder.setByteBuffer(buf);
+        encoder.writeSymbol(Symbol.valueOf("x-opt-key"));
+        encoder.writeSymbol(Symbol.valueOf("x-opt-key"));
+        buf.flip();
+
+        decoder.setByteBuffer(buf);
+        assertSame(Symbol.valueOf("x-opt-key"), decoder.readSymbol());
+        assertSame(Symbol.valueOf("x-opt-key"), decoder.readSymbol());
+        assertEquals(0, buf.remaining());
+    }
+}
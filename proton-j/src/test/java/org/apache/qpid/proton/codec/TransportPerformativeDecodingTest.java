@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.apache.qpid.proton.amqp.messaging.Accepted;
+import org.apache.qpid.proton.amqp.transport.Disposition;
+import org.apache.qpid.proton.amqp.transport.Flow;
+import org.apache.qpid.proton.amqp.transport.Role;
+import org.apache.qpid.proton.amqp.transport.Transfer;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the decoding of transport performatives read straight from the buffer
+ * rather than through an intermediate {@link java.util.List}.
+ */
+public class TransportPerformativeDecodingTest
+{
+    private final DecoderImpl _decoder = new DecoderImpl();
+    private final EncoderImpl _encoder = new EncoderImpl(_decoder);
+
+    @Before
+    public void setUp()
+    {
+        AMQPDefinedTypes.registerAllTypes(_decoder, _encoder);
+    }
+
+    @Test
+    public void testTransferRoundTrip()
+    {
+        Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.valueOf(3));
+        transfer.setDeliveryId(UnsignedInteger.valueOf(70000));
+        transfer.setDeliveryTag(new Binary(new byte[] {1, 2, 3}));
+        transfer.setMessageFormat(UnsignedInteger.ZERO);
+        transfer.setSettled(Boolean.TRUE);
+        transfer.setMore(true);
+
+        Transfer decoded = (Transfer) roundTrip(transfer);
+
+        assertEquals(transfer.getHandle(), decoded.getHandle());
+        assertEquals(transfer.getDeliveryId(), decoded.getDeliveryId());
+        assertEquals(transfer.getDeliveryTag(), decoded.getDeliveryTag());
+        assertEquals(transfer.getMessageFormat(), decoded.getMessageFormat());
+        assertEquals(Boolean.TRUE, decoded.getSettled());
+        assertTrue(decoded.getMore());
+        assertNull(decoded.getRcvSettleMode());
+        assertNull(decoded.getState());
+        assertFalse(decoded.getAborted());
+    }
+
+    @Test
+    public void testFlowRoundTrip()
+    {
+        Flow flow = new Flow();
+        flow.setNextIncomingId(UnsignedInteger.valueOf(1));
+        flow.setIncomingWindow(UnsignedInteger.valueOf(2048));
+        flow.setNextOutgoingId(UnsignedInteger.valueOf(5));
+        flow.setOutgoingWindow(UnsignedInteger.MAX_VALUE);
+        flow.setHandle(UnsignedInteger.ZERO);
+        flow.setDeliveryCount(UnsignedInteger.valueOf(10));
+        flow.setLinkCredit(UnsignedInteger.valueOf(100));
+        flow.setDrain(true);
+        flow.setProperties(Collections.singletonMap(Symbol.valueOf("key"), "value"));
+
+        Flow decoded = (Flow) roundTrip(flow);
+
+        assertEquals(flow.getNextIncomingId(), decoded.getNextIncomingId());
+        assertEquals(flow.getIncomingWindow(), decoded.getIncomingWindow());
+        assertEquals(flow.getNextOutgoingId(), decoded.getNextOutgoingId());
+        assertEquals(flow.getOutgoingWindow(), decoded.getOutgoingWindow());
+        assertEquals(flow.getHandle(), decoded.getHandle());
+        assertEquals(flow.getDeliveryCount(), decoded.getDeliveryCount());
+        assertEquals(flow.getLinkCredit(), decoded.getLinkCredit());
+        assertNull(decoded.getAvailable());
+        assertTrue(decoded.getDrain());
+        assertFalse(decoded.getEcho());
+        assertEquals(flow.getProperties(), decoded.getProperties());
+    }
+
+    @Test
+    public void testDispositionRoundTrip()
+    {
+        Disposition disposition = new Disposition();
+        disposition.setRole(Role.RECEIVER);
+        disposition.setFirst(UnsignedInteger.valueOf(7));
+        disposition.setLast(UnsignedInteger.valueOf(9));
+        disposition.setSettled(true);
+        disposition.setState(Accepted.getInstance());
+
+        Disposition decoded = (Disposition) roundTrip(disposition);
+
+        assertEquals(Role.RECEIVER, decoded.getRole());
+        assertEquals(disposition.getFirst(), decoded.getFirst());
+        assertEquals(disposition.getLast(), decoded.getLast());
+        assertTrue(decoded.getSettled());
+        assertTrue(decoded.getState() instanceof Accepted);
+    }
+
+    @Test
+    public void testFieldsBeyondTheKnownOnesAreConsumed()
+    {
+        ByteBuffer buf = ByteBuffer.allocate(32);
+        buf.put(EncodingCodes.DESCRIBED_TYPE_INDICATOR);
+        buf.put(EncodingCodes.SMALLULONG);
+        buf.put((byte) 0x14);
+        buf.put(EncodingCodes.LIST8);
+        buf.put((byte) 13);
+        buf.put((byte) 12);
+        buf.put(EncodingCodes.UINT0);
+        for(int i = 0; i < 11; i++)
+        {
+            buf.put(EncodingCodes.NULL);
+        }
+        buf.put(EncodingCodes.BOOLEAN_TRUE);
+        buf.flip();
+
+        _decoder.setByteBuffer(buf);
+        Transfer decoded = (Transfer) _decoder.readObject();
+
+        assertEquals(UnsignedInteger.ZERO, decoded.getHandle());
+        assertEquals(Boolean.TRUE, _decoder.readObject());
+        assertFalse(buf.hasRemaining());
+    }
+
+    @Test
+    public void testMissingMandatoryFieldIsRejected()
+    {
+        ByteBuffer buf = ByteBuffer.allocate(8);
+        buf.put(EncodingCodes.DESCRIBED_TYPE_INDICATOR);
+        buf.put(EncodingCodes.SMALLULONG);
+        buf.put((byte) 0x14);
+        buf.put(EncodingCodes.LIST0);
+        buf.flip();
+
+        _decoder.setByteBuffer(buf);
+        try
+        {
+            _decoder.readObject();
+            fail("Expected a DecodeException");
+        }
+        catch (DecodeException e)
+        {
+            assertEquals("The handle field cannot be omitted", e.getMessage());
+        }
+    }
+
+    private Object roundTrip(Object value)
+    {
+        ByteBuffer buf = ByteBuffer.allocate(1024);
+        _encoder.setByteBuffer(buf);
+        _encoder.writeObject(value);
+        buf.flip();
+
+        _decoder.setByteBuffer(buf);
+        Object decoded = _decoder.readObject();
+        assertFalse(buf.hasRemaining());
+        return decoded;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.driver.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.driver.Connector;
+import org.apache.qpid.proton.driver.Listener;
+import org.apache.qpid.proton.engine.Connection;
+import org.apache.qpid.proton.engine.EndpointState;
+import org.junit.Test;
+
+public class AsyncDriverImplTest
+{
+    private static final long TIMEOUT = 10000;
+
+    private final AsyncDriverImpl _driver = new AsyncDriverImpl(null);
+    private Connector<?> _server;
+
+    @Test
+    public void testConnectionsOpenAndCloseOverAsynchronousSockets() throws Exception
+    {
+        int port = freePort();
+        Listener<String> listener = _driver.createListener("127.0.0.1", port, "listener");
+        assertNotNull(listener);
+
+        Connector<String> client = _driver.createConnector("127.0.0.1", port, "client");
+        Connection connection = Proton.connection();
+        client.setConnection(connection);
+        connection.open();
+
+        try {
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+            while (connection.getRemoteState() != EndpointState.ACTIVE)
+            {
+                assertTrue("timed out opening", System.currentTimeMillis() < deadline);
+                pump(1000);
+            }
+            assertEquals("listener", _server.listener().getContext());
+            assertEquals(EndpointState.ACTIVE, _server.getConnection().getLocalState());
+
+            connection.close();
+            client.process();
+            while (!client.isClosed() || !_server.isClosed())
+            {
+                assertTrue("timed out closing", System.currentTimeMillis() < deadline);
+                pump(1000);
+            }
+        } finally {
+            _driver.destroy();
+        }
+    }
+
+    private void pump(long timeout) throws IOException
+    {
+        _driver.doWait(timeout);
+
+        Listener<?> l;
+        while ((l = _driver.listener()) != null)
+        {
+            Connector<?> c = l.accept();
+            if (c != null) {
+                _server = c;
+                Connection connection = Proton.connection();
+                c.setConnection(connection);
+                connection.open();
+            }
+        }
+
+        Connector<?> c;
+        while ((c = _driver.connector()) != null)
+        {
+            c.process();
+            if (c == _server && c.getConnection().getRemoteState() == EndpointState.CLOSED &&
+                c.getConnection().getLocalState() != EndpointState.CLOSED) {
+                c.getConnection().close();
+            }
+            c.process();
+        }
+    }
+
+    private static int freePort() throws IOException
+    {
+        ServerSocket socket = new ServerSocket(0);
+        try {
+            return socket.getLocalPort();
+        } finally {
+            socket.close();
+        }
+    }
+}
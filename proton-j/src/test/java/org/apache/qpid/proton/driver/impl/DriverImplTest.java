@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.driver.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.driver.Connector;
+import org.apache.qpid.proton.driver.Listener;
+import org.apache.qpid.proton.engine.Connection;
+import org.apache.qpid.proton.engine.Delivery;
+import org.apache.qpid.proton.engine.EndpointState;
+import org.apache.qpid.proton.engine.Link;
+import org.apache.qpid.proton.engine.Receiver;
+import org.apache.qpid.proton.engine.Sender;
+import org.apache.qpid.proton.engine.Session;
+import org.junit.Test;
+
+public class DriverImplTest
+{
+    private static final long TIMEOUT = 10000;
+
+    private Connector<?> _server;
+    private byte[] _echoed;
+
+    @Test
+    public void testLocalConnectionExchangesBytesBothWays() throws Exception
+    {
+        DriverImpl driver = new DriverImpl();
+        String name = "driver-test-" + UUID.randomUUID();
+        try {
+            Listener<String> listener = driver.createLocalListener(name, "listener");
+            assertNotNull(listener);
+            exchange(driver, driver.createLocalConnector(name, "client"));
+        } finally {
+            driver.destroy();
+        }
+    }
+
+    @Test
+    public void testUnixConnectionExchangesBytesBothWays() throws Exception
+    {
+        if (!UnixDomainSockets.isSupported()) {
+            return;
+        }
+
+        DriverImpl driver = new DriverImpl();
+        File socket = File.createTempFile("driver-test", ".sock");
+        socket.delete();
+        try {
+            Listener<String> listener = driver.createUnixListener(socket.getPath(), "listener");
+            assertNotNull(listener);
+            exchange(driver, driver.createUnixConnector(socket.getPath(), "client"));
+
+            listener.close();
+            assertFalse("socket file left behind", socket.exists());
+            // and so the path can be listened on again
+            listener = driver.createUnixListener(socket.getPath(), "listener");
+            assertNotNull(listener);
+            listener.close();
+        } finally {
+            driver.destroy();
+            socket.delete();
+        }
+    }
+
+    /**
+     * Sends a payload larger than a local pipe holds to a server that sends it back, so bytes
+     * cross the connection both ways and each side waits on the other to drain its output.
+     */
+    private void exchange(DriverImpl driver, Connector<String> client) throws IOException
+    {
+        byte[] payload = new byte[3 * LocalPipe.CAPACITY];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) i;
+        }
+
+        Connection connection = Proton.connection();
+        client.setConnection(connection);
+        connection.open();
+        Session session = connection.session();
+        session.open();
+        Sender sender = session.sender("out");
+        sender.open();
+        Receiver receiver = session.receiver("in");
+        receiver.open();
+        receiver.flow(1);
+        sender.delivery("tag".getBytes());
+        sender.send(payload, 0, payload.length);
+        sender.advance();
+        client.process();
+
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        Delivery delivery;
+        while ((delivery = receiver.current()) == null || delivery.isPartial())
+        {
+            assertTrue("timed out exchanging", System.currentTimeMillis() < deadline);
+            pump(driver, 1000);
+        }
+        assertEquals("listener", _server.listener().getContext());
+        assertArrayEquals(payload, _echoed);
+
+        byte[] echo = new byte[delivery.pending()];
+        receiver.recv(echo, 0, echo.length);
+        assertArrayEquals(payload, echo);
+
+        connection.close();
+        client.process();
+        while (!client.isClosed() || !_server.isClosed())
+        {
+            assertTrue("timed out closing", System.currentTimeMillis() < deadline);
+            pump(driver, 1000);
+        }
+    }
+
+    private void pump(DriverImpl driver, long timeout) throws IOException
+    {
+        driver.doWait(timeout);
+
+        Listener<?> l;
+        while ((l = driver.listener()) != null)
+        {
+            Connector<?> c = l.accept();
+            if (c != null) {
+                _server = c;
+                Connection connection = Proton.connection();
+                c.setConnection(connection);
+                connection.open();
+            }
+        }
+
+        Connector<?> c;
+        while ((c = driver.connector()) != null)
+        {
+            c.process();
+            if (c == _server) {
+                serve(c.getConnection());
+            }
+            c.process();
+        }
+    }
+
+    /**
+     * Opens what the client opens, and sends each message it receives back on its own sender
+     */
+    private void serve(Connection connection)
+    {
+        EnumSet<EndpointState> uninitialized = EnumSet.of(EndpointState.UNINITIALIZED);
+        EnumSet<EndpointState> active = EnumSet.of(EndpointState.ACTIVE);
+        for (Session s = connection.sessionHead(uninitialized, active); s != null; s = s.next(uninitialized, active))
+        {
+            s.open();
+        }
+        for (Link link = connection.linkHead(uninitialized, active); link != null; link = link.next(uninitialized, active))
+        {
+            link.open();
+            if (link instanceof Receiver) {
+                ((Receiver) link).flow(1);
+            }
+        }
+
+        for (Link link = connection.linkHead(active, active); link != null; link = link.next(active, active))
+        {
+            if (link instanceof Receiver) {
+                Delivery delivery = ((Receiver) link).current();
+                if (delivery != null && !delivery.isPartial() && _echoed == null) {
+                    _echoed = new byte[delivery.pending()];
+                    ((Receiver) link).recv(_echoed, 0, _echoed.length);
+                    link.advance();
+                }
+            } else if (_echoed != null && link.getCredit() > 0 && link.getQueued() == 0 && link.current() == null) {
+                Sender sender = (Sender) link;
+                sender.delivery("echo".getBytes());
+                sender.send(_echoed, 0, _echoed.length);
+                sender.advance();
+            }
+        }
+        if (connection.getRemoteState() == EndpointState.CLOSED &&
+            connection.getLocalState() != EndpointState.CLOSED) {
+            connection.close();
+        }
+    }
+}
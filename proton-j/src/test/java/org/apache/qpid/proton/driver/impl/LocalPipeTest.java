@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.driver.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class LocalPipeTest
+{
+    private final LocalPipe _pipe = new LocalPipe();
+
+    @Test
+    public void testWritesAreReadInOrderAcrossSmallReads()
+    {
+        ByteBuffer first = ByteBuffer.wrap(new byte[] { 1, 2, 3 });
+        ByteBuffer second = ByteBuffer.wrap(new byte[] { 4, 5 });
+        assertEquals(5, _pipe.write(new ByteBuffer[] { first, second }));
+        assertEquals(0, first.remaining());
+        assertEquals(1, _pipe.write(new ByteBuffer[] { ByteBuffer.wrap(new byte[] { 6 }) }));
+
+        ByteBuffer dst = ByteBuffer.allocate(4);
+        assertEquals(4, _pipe.read(dst));
+        dst.flip();
+        assertEquals(1, dst.get(0));
+        assertEquals(4, dst.get(3));
+
+        dst.clear();
+        assertEquals(2, _pipe.read(dst));
+        assertEquals(5, dst.get(0));
+        assertEquals(6, dst.get(1));
+
+        dst.clear();
+        assertEquals(0, _pipe.read(dst));
+    }
+
+    @Test
+    public void testWritesStopAtCapacityUntilRead()
+    {
+        LocalPipe pipe = new LocalPipe(4);
+        ByteBuffer first = ByteBuffer.wrap(new byte[] { 1, 2, 3 });
+        ByteBuffer second = ByteBuffer.wrap(new byte[] { 4, 5, 6 });
+        assertEquals(4, pipe.write(new ByteBuffer[] { first, second }));
+        assertEquals(0, first.remaining());
+        assertEquals(2, second.remaining());
+        assertEquals(0, pipe.write(new ByteBuffer[] { second }));
+
+        ByteBuffer dst = ByteBuffer.allocate(3);
+        assertEquals(3, pipe.read(dst));
+        assertEquals(2, pipe.write(new ByteBuffer[] { second }));
+
+        dst = ByteBuffer.allocate(8);
+        assertEquals(3, pipe.read(dst));
+        assertEquals(4, dst.get(0));
+        assertEquals(6, dst.get(2));
+    }
+
+    @Test
+    public void testCloseIsSeenOnceDrained()
+    {
+        _pipe.write(new ByteBuffer[] { ByteBuffer.wrap(new byte[] { 1, 2 }) });
+        _pipe.close();
+
+        assertEquals(2, _pipe.read(ByteBuffer.allocate(8)));
+        assertEquals(-1, _pipe.read(ByteBuffer.allocate(8)));
+    }
+
+    @Test
+    public void testWritesAfterCloseAreDropped()
+    {
+        _pipe.close();
+
+        assertEquals(3, _pipe.write(new ByteBuffer[] { ByteBuffer.wrap(new byte[] { 1, 2, 3 }) }));
+        assertEquals(-1, _pipe.read(ByteBuffer.allocate(8)));
+    }
+}
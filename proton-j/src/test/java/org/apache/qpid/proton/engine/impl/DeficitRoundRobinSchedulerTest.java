@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.engine.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+import org.apache.qpid.proton.engine.Sender;
+import org.junit.Test;
+
+public class DeficitRoundRobinSchedulerTest
+{
+    private final DeficitRoundRobinScheduler _scheduler = new DeficitRoundRobinScheduler(1000);
+    private final Sender _bulk = mock(Sender.class);
+    private final Sender _small = mock(Sender.class);
+
+    @Test
+    public void testEmptySchedulerHasNoNextSender()
+    {
+        assertNull(_scheduler.next());
+    }
+
+    @Test
+    public void testSenderKeepsTurnUntilQuantumIsSpent()
+    {
+        _scheduler.ready(_bulk);
+        _scheduler.ready(_small);
+
+        assertSame(_bulk, _scheduler.next());
+        _scheduler.sent(_bulk, 600, true);
+        assertSame(_bulk, _scheduler.next());
+        _scheduler.sent(_bulk, 600, true);
+
+        assertSame(_small, _scheduler.next());
+        _scheduler.sent(_small, 100, false);
+
+        assertSame(_bulk, _scheduler.next());
+    }
+
+    @Test
+    public void testOverdraftIsRepaidOnLaterRounds()
+    {
+        _scheduler.ready(_bulk);
+        _scheduler.ready(_small);
+
+        // a 2500 byte frame overdraws the bulk sender by 1500, so it sits out the next round
+        assertSame(_bulk, _scheduler.next());
+        _scheduler.sent(_bulk, 2500, true);
+
+        assertSame(_small, _scheduler.next());
+        _scheduler.sent(_small, 1000, true);
+        assertSame(_small, _scheduler.next());
+        _scheduler.sent(_small, 1000, true);
+
+        assertSame(_bulk, _scheduler.next());
+        _scheduler.sent(_bulk, 500, true);
+        assertSame(_small, _scheduler.next());
+    }
+
+    @Test
+    public void testOverdraftIsKeptWhileSenderIsNotReady()
+    {
+        _scheduler.ready(_bulk);
+        _scheduler.ready(_small);
+
+        // the bulk sender overdraws by 1500 and then has nothing more to send for a while
+        assertSame(_bulk, _scheduler.next());
+        _scheduler.sent(_bulk, 2500, false);
+        assertSame(_small, _scheduler.next());
+        _scheduler.sent(_small, 1000, true);
+
+        // ready again, it still owes 500 after the next round's quantum, so the small sender
+        // goes first, where a fresh quantum would have let the bulk sender straight in
+        _scheduler.ready(_bulk);
+        assertSame(_small, _scheduler.next());
+        _scheduler.sent(_small, 1000, true);
+        assertSame(_bulk, _scheduler.next());
+    }
+
+    @Test
+    public void testWeightScalesShare()
+    {
+        _scheduler.setWeight(_bulk, 3);
+        assertEquals(3, _scheduler.getWeight(_bulk));
+        assertEquals(1, _scheduler.getWeight(_small));
+
+        _scheduler.ready(_bulk);
+        _scheduler.ready(_small);
+
+        int bulkFrames = 0;
+        int smallFrames = 0;
+        for (int i = 0; i < 400; i++)
+        {
+            Sender next = _scheduler.next();
+            if (next == _bulk)
+            {
+                bulkFrames++;
+            }
+            else
+            {
+                smallFrames++;
+            }
+            _scheduler.sent(next, 100, true);
+        }
+        assertEquals(300, bulkFrames);
+        assertEquals(100, smallFrames);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWeightMustBePositive()
+    {
+        _scheduler.setWeight(_bulk, 0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSentMustMatchNext()
+    {
+        _scheduler.ready(_bulk);
+        _scheduler.ready(_small);
+        _scheduler.next();
+        _scheduler.sent(_small, 10, true);
+    }
+}
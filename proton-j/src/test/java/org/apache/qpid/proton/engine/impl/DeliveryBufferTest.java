@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.engine.impl;
+
+import static org.apache.qpid.proton.engine.impl.TransportTestHelper.assertByteArrayContentEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.codec.WritableBuffer;
+import org.junit.Test;
+
+public class DeliveryBufferTest
+{
+    private final DeliveryBuffer _buffer = new DeliveryBuffer();
+
+    @Test
+    public void testSmallAppendsAreCopiedIntoGrowingSegments()
+    {
+        byte[] bytes = new byte[100];
+        for (int i = 0; i < 1000; i++)
+        {
+            _buffer.append(bytes, 0, bytes.length);
+        }
+
+        assertEquals(100000, _buffer.length());
+        assertTrue("Expected segments to grow geometrically but had " + _buffer.getSegmentCount(),
+                   _buffer.getSegmentCount() < 20);
+    }
+
+    @Test
+    public void testGetWalksSegmentsInOrder()
+    {
+        _buffer.append("hello ".getBytes(), 0, 6);
+        _buffer.append("big world".getBytes(), 4, 5, null);
+        _buffer.append("!".getBytes(), 0, 1);
+
+        byte[] first = new byte[4];
+        assertEquals(4, _buffer.get(first, 0, first.length));
+        assertByteArrayContentEquals("hell".getBytes(), first);
+
+        byte[] rest = new byte[20];
+        assertEquals(8, _buffer.get(rest, 0, rest.length));
+        assertEquals(new Binary("o world!".getBytes()), new Binary(rest, 0, 8));
+
+        assertTrue(_buffer.isEmpty());
+        assertEquals(0, _buffer.getSegmentCount());
+        assertEquals(0, _buffer.get(rest, 0, rest.length));
+    }
+
+    @Test
+    public void testGetIntoWritableBufferConsumesOnlyRequestedLength()
+    {
+        _buffer.append("abc".getBytes(), 0, 3);
+        _buffer.append("defg".getBytes(), 0, 4, null);
+
+        ByteBuffer out = ByteBuffer.allocate(10);
+        assertEquals(5, _buffer.get(new WritableBuffer.ByteBufferWrapper(out), 5));
+        assertEquals(new Binary("abcde".getBytes()), new Binary(out.array(), 0, out.position()));
+        assertEquals(2, _buffer.length());
+    }
+
+    @Test
+    public void testPeekReturnsViewOfSingleSegment()
+    {
+        byte[] bytes = "payload".getBytes();
+        _buffer.append(bytes, 0, bytes.length, null);
+
+        Binary peeked = _buffer.peek(3);
+        assertSame(bytes, peeked.getArray());
+        assertEquals(new Binary("pay".getBytes()), peeked);
+        assertEquals(bytes.length, _buffer.length());
+    }
+
+    @Test
+    public void testChunksAreReleasedOnceConsumed()
+    {
+        InputChunkPool pool = new InputChunkPool(16);
+        InputChunk chunk = pool.acquire();
+        _buffer.append(chunk.getBytes(), 0, 8, chunk);
+        chunk.release();
+
+        assertTrue(_buffer.isPooled());
+        assertEquals(1, chunk.getReferenceCount());
+
+        _buffer.get(new byte[8], 0, 8);
+
+        assertFalse(_buffer.isPooled());
+        assertEquals(0, chunk.getReferenceCount());
+        assertEquals(1, pool.getPooledCount());
+    }
+
+    @Test
+    public void testClearReleasesChunks()
+    {
+        InputChunkPool pool = new InputChunkPool(16);
+        InputChunk chunk = pool.acquire();
+        _buffer.append(chunk.getBytes(), 0, 8, chunk);
+        _buffer.append(chunk.getBytes(), 8, 8, chunk);
+
+        _buffer.clear();
+
+        assertTrue(_buffer.isEmpty());
+        assertEquals(1, chunk.getReferenceCount());
+    }
+}
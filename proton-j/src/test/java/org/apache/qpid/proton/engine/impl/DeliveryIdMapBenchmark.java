@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.engine.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.apache.qpid.proton.engine.Connection;
+import org.apache.qpid.proton.engine.Sender;
+
+/**
+ * Compares tracking unsettled deliveries in a {@link DeliveryIdMap} against the
+ * HashMap&lt;UnsignedInteger, DeliveryImpl&gt; that {@link TransportSession} used before: putting
+ * every delivery, looking each one up, then settling them all with one ranged disposition the
+ * way {@link TransportSession#handleDisposition} walks the range. Prints the median of each
+ * over the rounds. Not run as part of the build:
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes org.apache.qpid.proton.engine.impl.DeliveryIdMapBenchmark [deliveries] [rounds]
+ * </pre>
+ */
+public class DeliveryIdMapBenchmark
+{
+    private final DeliveryImpl[] _deliveries;
+    private int _sink;
+
+    private DeliveryIdMapBenchmark(int count)
+    {
+        Connection connection = Proton.connection();
+        Sender sender = connection.session().sender("sender");
+        _deliveries = new DeliveryImpl[count];
+        for(int i = 0; i < count; i++)
+        {
+            _deliveries[i] = (DeliveryImpl) sender.delivery(new byte[] {(byte) i});
+        }
+    }
+
+    private long[] runHashMap()
+    {
+        Map<UnsignedInteger, DeliveryImpl> map = new HashMap<UnsignedInteger, DeliveryImpl>();
+        long[] times = new long[3];
+
+        long start = System.nanoTime();
+        for(int i = 0; i < _deliveries.length; i++)
+        {
+            map.put(UnsignedInteger.valueOf(i), _deliveries[i]);
+        }
+        times[0] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for(int i = 0; i < _deliveries.length; i++)
+        {
+            _sink += map.get(UnsignedInteger.valueOf(i)) == null ? 0 : 1;
+        }
+        times[1] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        UnsignedInteger id = UnsignedInteger.ZERO;
+        UnsignedInteger last = UnsignedInteger.valueOf(_deliveries.length - 1);
+        while(id.compareTo(last) <= 0)
+        {
+            if(map.get(id) != null)
+            {
+                map.remove(id);
+            }
+            id = id.add(UnsignedInteger.ONE);
+        }
+        times[2] = System.nanoTime() - start;
+        return times;
+    }
+
+    private long[] runDeliveryIdMap()
+    {
+        DeliveryIdMap map = new DeliveryIdMap();
+        long[] times = new long[3];
+
+        long start = System.nanoTime();
+        for(int i = 0; i < _deliveries.length; i++)
+        {
+            map.put(i, _deliveries[i]);
+        }
+        times[0] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for(int i = 0; i < _deliveries.length; i++)
+        {
+            _sink += map.get(i) == null ? 0 : 1;
+        }
+        times[1] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int end = map.getHighestId();
+        for(int i = map.getLowestId(); (end - i) >= 0; i++)
+        {
+            if(map.get(i) != null)
+            {
+                map.remove(i);
+            }
+        }
+        times[2] = System.nanoTime() - start;
+        return times;
+    }
+
+    private static double median(long[] values)
+    {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1e6;
+    }
+
+    private void run(int rounds)
+    {
+        long[][] hashMap = new long[3][rounds];
+        long[][] idMap = new long[3][rounds];
+        for(int round = 0; round < rounds; round++)
+        {
+            long[] times = runHashMap();
+            long[] idTimes = runDeliveryIdMap();
+            for(int i = 0; i < 3; i++)
+            {
+                hashMap[i][round] = times[i];
+                idMap[i][round] = idTimes[i];
+            }
+        }
+
+        System.out.println(String.format("%d deliveries, median of %d rounds", _deliveries.length, rounds));
+        System.out.println(String.format("%-15s %9s %9s %9s", "", "insert", "lookup", "settle"));
+        System.out.println(String.format("%-15s %6.2f ms %6.2f ms %6.2f ms", "HashMap",
+                                         median(hashMap[0]), median(hashMap[1]), median(hashMap[2])));
+        System.out.println(String.format("%-15s %6.2f ms %6.2f ms %6.2f ms", "DeliveryIdMap",
+                                         median(idMap[0]), median(idMap[1]), median(idMap[2])));
+    }
+
+    public static void main(String[] args)
+    {
+        int deliveries = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+        DeliveryIdMapBenchmark benchmark = new DeliveryIdMapBenchmark(deliveries);
+        benchmark.run(rounds);
+        if(benchmark._sink != 2 * deliveries * rounds)
+        {
+            throw new IllegalStateException("lookups missed deliveries");
+        }
+    }
+}
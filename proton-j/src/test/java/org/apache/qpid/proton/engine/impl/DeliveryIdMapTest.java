@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.engine.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.apache.qpid.proton.engine.TransportException;
+import org.junit.Test;
+
+public class DeliveryIdMapTest
+{
+    private final DeliveryIdMap _map = new DeliveryIdMap();
+
+    @Test
+    public void testPutGetRemoveSequentialIds()
+    {
+        DeliveryImpl[] deliveries = putDeliveries(1000, 1000);
+
+        assertEquals(1000, _map.size());
+        assertEquals(1000, _map.getLowestId());
+        assertEquals(1999, _map.getHighestId());
+        for (int i = 0; i < deliveries.length; i++)
+        {
+            assertSame(deliveries[i], _map.get(1000 + i));
+        }
+        assertNull(_map.get(999));
+        assertNull(_map.get(2000));
+
+        for (int i = 0; i < deliveries.length; i++)
+        {
+            assertSame(deliveries[i], _map.remove(1000 + i));
+        }
+        assertTrue(_map.isEmpty());
+        assertNull(_map.get(1500));
+    }
+
+    @Test
+    public void testRemovingOldestAdvancesPastGaps()
+    {
+        putDeliveries(0, 10);
+
+        _map.remove(1);
+        _map.remove(2);
+        _map.remove(0);
+
+        assertEquals(3, _map.getLowestId());
+        assertEquals(7, _map.size());
+
+        _map.remove(9);
+        _map.remove(8);
+        assertEquals(7, _map.getHighestId());
+    }
+
+    @Test
+    public void testIdsWrapAroundTopOfRange()
+    {
+        int first = 0xFFFFFFF0;
+        DeliveryImpl[] deliveries = putDeliveries(first, 64);
+
+        assertEquals(first, _map.getLowestId());
+        assertEquals(first + 63, _map.getHighestId());
+        for (int i = 0; i < deliveries.length; i++)
+        {
+            assertSame(deliveries[i], _map.get(first + i));
+        }
+
+        assertSame(deliveries[16], _map.remove(0));
+        assertNull(_map.get(0));
+        assertSame(deliveries[17], _map.get(1));
+    }
+
+    @Test
+    public void testIdBelowOldestIsInserted()
+    {
+        putDeliveries(100, 20);
+        DeliveryImpl delivery = mock(DeliveryImpl.class);
+
+        _map.put(90, delivery);
+
+        assertEquals(90, _map.getLowestId());
+        assertSame(delivery, _map.get(90));
+        assertNull(_map.get(95));
+        assertEquals(21, _map.size());
+    }
+
+    @Test(expected = TransportException.class)
+    public void testIdFarBeyondOldestIsRejected()
+    {
+        putDeliveries(0, 1);
+
+        _map.put(Integer.MAX_VALUE, mock(DeliveryImpl.class));
+    }
+
+    private DeliveryImpl[] putDeliveries(int firstId, int count)
+    {
+        DeliveryImpl[] deliveries = new DeliveryImpl[count];
+        for (int i = 0; i < count; i++)
+        {
+            deliveries[i] = mock(DeliveryImpl.class);
+            _map.put(firstId + i, deliveries[i]);
+        }
+        return deliveries;
+    }
+}
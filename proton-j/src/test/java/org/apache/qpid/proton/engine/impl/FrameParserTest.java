@@ -22,6 +22,9 @@ import static org.apache.qpid.proton.engine.Transport.DEFAULT_MAX_FRAME_SIZE;
 import static org.apache.qpid.proton.engine.impl.AmqpHeader.HEADER;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.junit.matchers.JUnitMatchers.containsString;
@@ -35,9 +38,12 @@ import static org.mockito.Mockito.when;
 
 import java.nio.ByteBuffer;
 
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.UnsignedInteger;
 import org.apache.qpid.proton.amqp.transport.Close;
 import org.apache.qpid.proton.amqp.transport.FrameBody;
 import org.apache.qpid.proton.amqp.transport.Open;
+import org.apache.qpid.proton.amqp.transport.Transfer;
 import org.apache.qpid.proton.codec.AMQPDefinedTypes;
 import org.apache.qpid.proton.codec.DecoderImpl;
 import org.apache.qpid.proton.codec.EncoderImpl;
@@ -276,11 +282,113 @@ public class FrameParserTest
         inOrder.verify(_mockFrameHandler).handleFrame(frameMatching(channel, closeFrame));
     }
 
+    @Test
+    public void testZeroCopyInput_payloadIsSliceOfInputChunk()
+    {
+        PayloadCapturingFrameHandler handler = new PayloadCapturingFrameHandler();
+        FrameParser frameParser = new FrameParser(handler, _decoder, DEFAULT_MAX_FRAME_SIZE, true);
+        sendHeader(frameParser);
+
+        ByteBuffer buffer = frameParser.tail();
+        buffer.put(generateTransferFrame(0, "hello".getBytes()));
+        frameParser.process();
+
+        assertTrue(handler.frame instanceof ChunkedTransportFrame);
+        assertSame(buffer.array(), handler.frame.getPayload().getArray());
+        assertEquals(new Binary("hello".getBytes()), handler.frame.getPayload());
+        assertEquals("frame should hold a reference while being handled", 2, handler.referencesWhileHandling);
+        assertSame("unshared chunk should be reused", buffer, frameParser.tail());
+    }
+
+    @Test
+    public void testZeroCopyInput_retainedChunkIsNotOverwrittenByLaterInput()
+    {
+        PayloadCapturingFrameHandler handler = new PayloadCapturingFrameHandler();
+        handler.retainChunk = true;
+        FrameParser frameParser = new FrameParser(handler, _decoder, DEFAULT_MAX_FRAME_SIZE, true);
+        sendHeader(frameParser);
+
+        ByteBuffer buffer = frameParser.tail();
+        byte[] first = generateTransferFrame(0, "first".getBytes());
+        byte[] second = generateTransferFrame(0, "second".getBytes());
+        buffer.put(first).put(second, 0, 3);
+        frameParser.process();
+
+        Binary firstPayload = handler.frame.getPayload();
+        InputChunk firstChunk = handler.chunk;
+        assertEquals(1, firstChunk.getReferenceCount());
+
+        ByteBuffer nextBuffer = frameParser.tail();
+        assertNotSame("shared chunk must not be reused for input", buffer, nextBuffer);
+        nextBuffer.put(second, 3, second.length - 3);
+        frameParser.process();
+
+        assertEquals(new Binary("first".getBytes()), firstPayload);
+        assertEquals(new Binary("second".getBytes()), handler.frame.getPayload());
+
+        firstChunk.release();
+        assertEquals(0, firstChunk.getReferenceCount());
+    }
+
     private void sendHeader() throws TransportException
     {
-        ByteBuffer buffer = _frameParser.tail();
+        sendHeader(_frameParser);
+    }
+
+    private void sendHeader(FrameParser frameParser) throws TransportException
+    {
+        ByteBuffer buffer = frameParser.tail();
         buffer.put(HEADER);
-        _frameParser.process();
+        frameParser.process();
+    }
+
+    private byte[] generateTransferFrame(int channel, byte[] payload)
+    {
+        Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.ZERO);
+        transfer.setDeliveryId(UnsignedInteger.ZERO);
+        transfer.setDeliveryTag(new Binary(new byte[] {0}));
+
+        byte[] header = _amqpFramer.generateFrame(channel, transfer);
+        ByteBuffer frame = ByteBuffer.allocate(header.length + payload.length);
+        frame.put(header).put(payload);
+        frame.putInt(0, frame.capacity());
+        return frame.array();
+    }
+
+    private static class PayloadCapturingFrameHandler implements FrameHandler
+    {
+        TransportFrame frame;
+        InputChunk chunk;
+        int referencesWhileHandling;
+        boolean retainChunk;
+
+        @Override
+        public boolean handleFrame(TransportFrame frame)
+        {
+            this.frame = frame;
+            if (frame instanceof ChunkedTransportFrame)
+            {
+                InputChunk frameChunk = ((ChunkedTransportFrame) frame).getChunk();
+                referencesWhileHandling = frameChunk.getReferenceCount();
+                if (retainChunk && chunk == null)
+                {
+                    chunk = frameChunk.retain();
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void closed(TransportException error)
+        {
+        }
+
+        @Override
+        public boolean isHandlingFrames()
+        {
+            return true;
+        }
     }
 
     private Open generateOpenFrame()
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.engine.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class PooledBufferProviderTest
+{
+    private final PooledBufferProvider _provider = new PooledBufferProvider(4096, 2048);
+
+    @Test
+    public void testReleasedBufferIsReusedEmpty()
+    {
+        ByteBuffer buffer = _provider.acquire(1024);
+        assertTrue(buffer.isDirect());
+        assertEquals(1024, buffer.capacity());
+        buffer.put((byte) 1);
+        _provider.release(buffer);
+
+        ByteBuffer reused = _provider.acquire(1024);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(1024, reused.remaining());
+    }
+
+    @Test
+    public void testSizesArePooledSeparately()
+    {
+        ByteBuffer small = _provider.acquire(512);
+        _provider.release(small);
+
+        ByteBuffer large = _provider.acquire(1024);
+        assertNotSame(small, large);
+        assertEquals(1024, large.capacity());
+        assertEquals(1, _provider.getFreeCount(512));
+    }
+
+    @Test
+    public void testSizesAreRoundedUpToPowersOfTwo()
+    {
+        ByteBuffer buffer = _provider.acquire(700);
+        assertEquals(1024, buffer.capacity());
+        assertEquals(1024, buffer.remaining());
+        _provider.release(buffer);
+
+        assertSame(buffer, _provider.acquire(1000));
+    }
+
+    @Test
+    public void testForeignBufferIsPooledInTheClassBelowItsCapacity()
+    {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1500);
+        _provider.release(buffer);
+
+        assertEquals(1, _provider.getFreeCount(1024));
+        assertEquals(0, _provider.getFreeCount(2048));
+        assertSame(buffer, _provider.acquire(1024));
+    }
+
+    @Test
+    public void testEachSizeClassIsBounded()
+    {
+        ByteBuffer[] buffers = new ByteBuffer[3];
+        for (int i = 0; i < buffers.length; i++)
+        {
+            buffers[i] = _provider.acquire(1024);
+        }
+        for (ByteBuffer buffer : buffers)
+        {
+            _provider.release(buffer);
+        }
+
+        assertEquals(2, _provider.getFreeCount(1024));
+    }
+
+    @Test
+    public void testOversizedAndHeapBuffersAreNotPooled()
+    {
+        ByteBuffer oversized = _provider.acquire(8192);
+        assertEquals(8192, oversized.capacity());
+        _provider.release(oversized);
+        _provider.release(ByteBuffer.allocate(1024));
+
+        assertEquals(0, _provider.getFreeCount(8192));
+        assertEquals(0, _provider.getFreeCount(1024));
+    }
+}
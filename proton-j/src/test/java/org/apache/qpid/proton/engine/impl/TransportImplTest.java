@@ -26,18 +26,27 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.nio.ByteBuffer;
 import java.util.LinkedList;
 
 import org.apache.qpid.proton.Proton;
 import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.UnsignedShort;
 import org.apache.qpid.proton.amqp.transport.Attach;
 import org.apache.qpid.proton.amqp.transport.Begin;
+import org.apache.qpid.proton.amqp.transport.Flow;
 import org.apache.qpid.proton.amqp.transport.FrameBody;
 import org.apache.qpid.proton.amqp.transport.Open;
+import org.apache.qpid.proton.amqp.transport.Role;
+import org.apache.qpid.proton.amqp.transport.Transfer;
 import org.apache.qpid.proton.engine.Connection;
 import org.apache.qpid.proton.engine.EndpointState;
+import org.apache.qpid.proton.engine.Receiver;
+import org.apache.qpid.proton.engine.Sender;
+import org.apache.qpid.proton.engine.Session;
 import org.apache.qpid.proton.engine.Transport;
 import org.apache.qpid.proton.engine.TransportException;
 import org.apache.qpid.proton.framing.TransportFrame;
@@ -321,4 +330,205 @@ public class TransportImplTest
         deadline = transport.tick(7000);
         assertEquals("Calling tick() after the deadline should result in the connection being closed", EndpointState.CLOSED, connection.getLocalState());
     }
+
+    @Test
+    public void testLargeIncomingWindowAllowsTransfers()
+    {
+        MockTransportImpl transport = new MockTransportImpl();
+        Sender sender = attachSender(transport);
+        transport.handleFrame(flowFrame(UnsignedInteger.valueOf(0xFFFFFFFF), UnsignedInteger.valueOf(10)));
+
+        assertTrue(((SessionImpl) sender.getSession()).getTransportSession().hasOutgoingCredit());
+        assertTransferWritten(transport, sender);
+    }
+
+    @Test
+    public void testLargeLinkCreditAllowsTransfers()
+    {
+        MockTransportImpl transport = new MockTransportImpl();
+        Sender sender = attachSender(transport);
+        transport.handleFrame(flowFrame(UnsignedInteger.valueOf(10), UnsignedInteger.valueOf(0x80000000)));
+
+        assertTrue(((SenderImpl) sender).getTransportLink().hasCredit());
+        assertEquals(Integer.MAX_VALUE, sender.getCredit());
+        assertTransferWritten(transport, sender);
+    }
+
+    @Test
+    public void testTransferWithDeliveryIdFarBeyondUnsettledFailsTransport()
+    {
+        TransportImpl transport = new TransportImpl();
+        Connection connection = Proton.connection();
+        transport.bind(connection);
+        connection.open();
+        Session session = connection.session();
+        session.open();
+        Receiver receiver = session.receiver("receiver");
+        receiver.open();
+        receiver.flow(10);
+        transport.pending();
+
+        AmqpFramer framer = new AmqpFramer();
+        ByteBuffer input = transport.tail();
+        input.put(HEADER);
+        Open open = new Open();
+        open.setContainerId("peer");
+        input.put(framer.generateFrame(0, open));
+        Begin begin = new Begin();
+        begin.setRemoteChannel(UnsignedShort.valueOf((short) 0));
+        begin.setNextOutgoingId(UnsignedInteger.ZERO);
+        begin.setIncomingWindow(UnsignedInteger.valueOf(1024));
+        begin.setOutgoingWindow(UnsignedInteger.valueOf(1024));
+        input.put(framer.generateFrame(0, begin));
+        Attach attach = new Attach();
+        attach.setName("receiver");
+        attach.setHandle(UnsignedInteger.ZERO);
+        attach.setRole(Role.SENDER);
+        attach.setInitialDeliveryCount(UnsignedInteger.ZERO);
+        input.put(framer.generateFrame(0, attach));
+        input.put(framer.generateFrame(0, transfer(0)));
+        input.put(framer.generateFrame(0, transfer(1 << 25)));
+
+        try
+        {
+            transport.process();
+            fail("Expected the transport to fail");
+        }
+        catch (TransportException e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().contains("too far"));
+        }
+        assertNotNull(receiver.current());
+    }
+
+    private static Transfer transfer(int deliveryId)
+    {
+        Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.ZERO);
+        transfer.setDeliveryId(UnsignedInteger.valueOf(deliveryId));
+        transfer.setDeliveryTag(new Binary(new byte[] { (byte) deliveryId }));
+        transfer.setMessageFormat(UnsignedInteger.ZERO);
+        return transfer;
+    }
+
+    /**
+     * Opens a sender over transport and has the peer answer the open, begin and attach
+     */
+    private Sender attachSender(MockTransportImpl transport)
+    {
+        Connection connection = Proton.connection();
+        transport.bind(connection);
+        connection.open();
+        Session session = connection.session();
+        session.open();
+        Sender sender = session.sender("sender");
+        sender.open();
+        transport.pending();
+
+        transport.handleFrame(TRANSPORT_FRAME_OPEN);
+        Begin begin = new Begin();
+        begin.setRemoteChannel(UnsignedShort.valueOf((short) 0));
+        begin.setNextOutgoingId(UnsignedInteger.ONE);
+        begin.setIncomingWindow(UnsignedInteger.ZERO);
+        begin.setOutgoingWindow(UnsignedInteger.ZERO);
+        transport.handleFrame(new TransportFrame(CHANNEL_ID, begin, null));
+        Attach attach = new Attach();
+        attach.setName("sender");
+        attach.setHandle(UnsignedInteger.ZERO);
+        attach.setRole(Role.RECEIVER);
+        transport.handleFrame(new TransportFrame(CHANNEL_ID, attach, null));
+        return sender;
+    }
+
+    private static TransportFrame flowFrame(UnsignedInteger incomingWindow, UnsignedInteger linkCredit)
+    {
+        Flow flow = new Flow();
+        flow.setNextIncomingId(UnsignedInteger.ONE);
+        flow.setIncomingWindow(incomingWindow);
+        flow.setNextOutgoingId(UnsignedInteger.ONE);
+        flow.setOutgoingWindow(UnsignedInteger.ZERO);
+        flow.setHandle(UnsignedInteger.ZERO);
+        flow.setDeliveryCount(UnsignedInteger.ZERO);
+        flow.setLinkCredit(linkCredit);
+        return new TransportFrame(CHANNEL_ID, flow, null);
+    }
+
+    private static void assertTransferWritten(MockTransportImpl transport, Sender sender)
+    {
+        DeliveryImpl delivery = (DeliveryImpl) sender.delivery(new byte[] { 1 });
+        sender.send(new byte[] { 2 }, 0, 1);
+        sender.advance();
+        transport.pending();
+
+        assertNotNull("Expected a transfer to be written", delivery.getTransportDelivery());
+    }
+
+    /**
+     * Lends heap buffers and counts those not yet given back
+     */
+    private static class CountingBufferProvider implements BufferProvider
+    {
+        private int _outstanding;
+
+        @Override
+        public ByteBuffer acquire(int capacity)
+        {
+            _outstanding++;
+            return ByteBuffer.allocate(capacity);
+        }
+
+        @Override
+        public void release(ByteBuffer buffer)
+        {
+            _outstanding--;
+        }
+    }
+
+    @Test
+    public void testBuffersAreReturnedWhenTransportIsIdle()
+    {
+        CountingBufferProvider provider = new CountingBufferProvider();
+        TransportImpl client = (TransportImpl) Proton.transport();
+        TransportImpl server = (TransportImpl) Proton.transport();
+        client.setBufferProvider(provider);
+        server.setBufferProvider(provider);
+
+        Connection clientConnection = Proton.connection();
+        client.bind(clientConnection);
+        clientConnection.open();
+        Connection serverConnection = Proton.connection();
+        server.bind(serverConnection);
+        serverConnection.open();
+
+        while (pumpOnce(client, server) | pumpOnce(server, client))
+        {
+        }
+
+        assertEquals(EndpointState.ACTIVE, clientConnection.getRemoteState());
+        assertEquals(EndpointState.ACTIVE, serverConnection.getRemoteState());
+        assertEquals(0, provider._outstanding);
+    }
+
+    private static boolean pumpOnce(Transport from, Transport to)
+    {
+        ByteBuffer head = from.head();
+        int size = head.remaining();
+        if (size == 0)
+        {
+            return false;
+        }
+        to.tail().put(head);
+        from.pop(size);
+        to.process();
+        return true;
+    }
+
+    @Test
+    public void testBufferProviderCannotBeChangedOnceUsed()
+    {
+        _transport.tail();
+
+        _expectedException.expect(IllegalStateException.class);
+        _transport.setBufferProvider(new CountingBufferProvider());
+    }
 }
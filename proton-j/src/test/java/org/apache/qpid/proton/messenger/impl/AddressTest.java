@@ -48,4 +48,29 @@ public class AddressTest {
         testParse("amqp://host/queue@host", "amqp", null, null, "host", null, "queue@host");
         testParse("amqp://host:9765/queue@host", "amqp", null, null, "host", "9765", "queue@host");
     }
+
+    @Test
+    public void unixAddressTests()
+    {
+        testParse("unix:/var/run/amqp.sock", "unix", null, null, "/var/run/amqp.sock", null, null);
+        testParse("unix:/var/run/amqp.sock#queue", "unix", null, null, "/var/run/amqp.sock", null, "queue");
+        testParse("unix:relative/amqp.sock#a/b@c", "unix", null, null, "relative/amqp.sock", null, "a/b@c");
+
+        Address address = new Address("unix:~/tmp/amqp.sock#queue");
+        assertTrue(address.isUnix());
+        assertTrue(address.isPassive());
+        assertEquals("/tmp/amqp.sock", address.getHost());
+        assertEquals("queue", address.getName());
+        assertFalse(new Address("amqp://host/queue").isUnix());
+    }
+
+    @Test
+    public void localAddressTests()
+    {
+        testParse("amqp-local://service/queue", "amqp-local", null, null, "service", null, "queue");
+
+        assertTrue(new Address("amqp-local://~service").isLocal());
+        assertTrue(new Address("amqp-local://~service").isPassive());
+        assertFalse(new Address("amqp://service/queue").isLocal());
+    }
 }
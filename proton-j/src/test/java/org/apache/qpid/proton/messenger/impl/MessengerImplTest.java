@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.messenger.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.amqp.messaging.AmqpValue;
+import org.apache.qpid.proton.message.Message;
+import org.apache.qpid.proton.messenger.Messenger;
+import org.junit.Test;
+
+public class MessengerImplTest
+{
+    private static final int COUNT = 1000;
+
+    @Test(timeout = 20000)
+    public void testMessagesCrossLocalConnection() throws Exception
+    {
+        String name = "messenger-test-" + UUID.randomUUID();
+        final Messenger server = Proton.messenger();
+        server.start();
+        server.subscribe("amqp-local://~" + name);
+
+        final List<Object> received = new ArrayList<Object>();
+        Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                while (received.size() < COUNT)
+                {
+                    server.recv(100);
+                    Message message;
+                    // incoming() also counts deliveries still on their links, which get() does not return
+                    while (server.incoming() > 0 && (message = server.get()) != null)
+                    {
+                        received.add(((AmqpValue) message.getBody()).getValue());
+                    }
+                }
+                server.stop();
+            }
+        };
+        thread.start();
+
+        Messenger client = Proton.messenger();
+        client.start();
+        for (int i = 0; i < COUNT; i++)
+        {
+            Message message = Proton.message();
+            message.setAddress("amqp-local://" + name + "/queue");
+            message.setBody(new AmqpValue("message-" + i));
+            client.put(message);
+        }
+        client.send(-1);
+        // stopping waits for the server to close its end, so the two stop together
+        client.stop();
+        thread.join();
+
+        for (int i = 0; i < COUNT; i++)
+        {
+            assertEquals("message-" + i, received.get(i));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.reactor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.engine.BaseHandler;
+import org.apache.qpid.proton.engine.Connection;
+import org.apache.qpid.proton.engine.Delivery;
+import org.apache.qpid.proton.engine.Event;
+import org.apache.qpid.proton.engine.Link;
+import org.apache.qpid.proton.engine.Receiver;
+import org.apache.qpid.proton.engine.Sender;
+import org.apache.qpid.proton.engine.Session;
+
+/**
+ * Measures how message throughput over many connections grows with the number of reactors
+ * sharing them. The clients get as many reactors as the server. Not run as part of the build:
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes org.apache.qpid.proton.reactor.ReactorGroupBenchmark [connections] [messages] [max reactors]
+ * </pre>
+ */
+public class ReactorGroupBenchmark
+{
+    private static final byte[] PAYLOAD = new byte[64];
+    private static final int WINDOW = 1000;
+
+    /**
+     * Accepts everything and keeps the senders topped up with credit
+     */
+    private static class Sink extends BaseHandler
+    {
+        private final CountDownLatch _done;
+
+        Sink(CountDownLatch done)
+        {
+            _done = done;
+        }
+
+        @Override
+        public void onConnectionRemoteOpen(Event e)
+        {
+            e.getConnection().open();
+        }
+
+        @Override
+        public void onSessionRemoteOpen(Event e)
+        {
+            e.getSession().open();
+        }
+
+        @Override
+        public void onLinkRemoteOpen(Event e)
+        {
+            Link link = e.getLink();
+            link.setSource(link.getRemoteSource());
+            link.setTarget(link.getRemoteTarget());
+            link.open();
+            ((Receiver) link).flow(WINDOW);
+        }
+
+        @Override
+        public void onDelivery(Event e)
+        {
+            Delivery delivery = e.getDelivery();
+            if (!delivery.isPartial())
+            {
+                Receiver receiver = (Receiver) delivery.getLink();
+                receiver.advance();
+                delivery.settle();
+                if (receiver.getCredit() < WINDOW / 2)
+                {
+                    receiver.flow(WINDOW - receiver.getCredit());
+                }
+                _done.countDown();
+            }
+        }
+    }
+
+    /**
+     * Sends pre-settled messages as fast as credit allows
+     */
+    private static class Source extends BaseHandler
+    {
+        private final int _messages;
+
+        Source(int messages)
+        {
+            _messages = messages;
+        }
+
+        @Override
+        public void onLinkFlow(Event e)
+        {
+            Sender sender = (Sender) e.getLink();
+            Integer sent = (Integer) sender.getContext();
+            int count = sent == null ? 0 : sent;
+            while (sender.getCredit() > 0 && count < _messages)
+            {
+                Delivery delivery = sender.delivery(new byte[0]);
+                sender.send(PAYLOAD, 0, PAYLOAD.length);
+                sender.advance();
+                delivery.settle();
+                count++;
+            }
+            sender.setContext(count);
+        }
+    }
+
+    private static double run(int loops, int connections, int messages) throws Exception
+    {
+        CountDownLatch done = new CountDownLatch(connections * messages);
+        Reactor[] servers = new Reactor[loops];
+        Reactor[] clients = new Reactor[loops];
+        for (int i = 0; i < loops; i++)
+        {
+            servers[i] = Proton.reactor(new Sink(done));
+            clients[i] = Proton.reactor(new Source(messages));
+        }
+        ReactorGroup server = ReactorGroup.Factory.create(servers);
+        Acceptor acceptor = server.acceptor("localhost", 0, null);
+        server.start();
+
+        for (int i = 0; i < connections; i++)
+        {
+            Connection connection = clients[i % loops].connection(null);
+            connection.setHostname("localhost:" + acceptor.getPort());
+            connection.open();
+            Session session = connection.session();
+            session.open();
+            session.sender("sender").open();
+        }
+        ReactorGroup client = ReactorGroup.Factory.create(clients);
+
+        long start = System.nanoTime();
+        client.start();
+        if (!done.await(5, TimeUnit.MINUTES))
+        {
+            throw new IllegalStateException("Timed out with " + done.getCount() + " messages outstanding");
+        }
+        long elapsed = System.nanoTime() - start;
+
+        client.stop();
+        server.stop();
+        client.join();
+        server.join();
+
+        return (double) connections * messages * TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int maxLoops = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        // warm up
+        run(1, connections, messages / 10);
+
+        for (int loops = 1; loops <= maxLoops; loops *= 2)
+        {
+            System.out.printf("%d reactors: %.0f msgs/s%n", loops, run(loops, connections, messages));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.reactor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.engine.BaseHandler;
+import org.apache.qpid.proton.engine.Connection;
+import org.apache.qpid.proton.engine.Delivery;
+import org.apache.qpid.proton.engine.Event;
+import org.apache.qpid.proton.engine.Link;
+import org.apache.qpid.proton.engine.Receiver;
+import org.apache.qpid.proton.engine.Sender;
+import org.apache.qpid.proton.engine.Session;
+import org.junit.Test;
+
+public class ReactorGroupTest
+{
+    /**
+     * Receives a delivery on each connection and then closes it, noting which threads did the work
+     */
+    private static class Server extends BaseHandler
+    {
+        private final Set<String> _threads = Collections.synchronizedSet(new HashSet<String>());
+        private final AtomicInteger _received = new AtomicInteger();
+
+        @Override
+        public void onConnectionRemoteOpen(Event e)
+        {
+            _threads.add(Thread.currentThread().getName());
+            e.getConnection().open();
+        }
+
+        @Override
+        public void onSessionRemoteOpen(Event e)
+        {
+            e.getSession().open();
+        }
+
+        @Override
+        public void onLinkRemoteOpen(Event e)
+        {
+            Link link = e.getLink();
+            link.setSource(link.getRemoteSource());
+            link.setTarget(link.getRemoteTarget());
+            link.open();
+            ((Receiver) link).flow(1);
+        }
+
+        @Override
+        public void onDelivery(Event e)
+        {
+            Delivery delivery = e.getDelivery();
+            if (!delivery.isPartial())
+            {
+                delivery.settle();
+                _received.incrementAndGet();
+                e.getConnection().close();
+            }
+        }
+    }
+
+    private static class Client extends BaseHandler
+    {
+        @Override
+        public void onLinkFlow(Event e)
+        {
+            Sender sender = (Sender) e.getLink();
+            if (sender.getCredit() > 0 && sender.current() == null && sender.getUnsettled() == 0)
+            {
+                sender.delivery("tag".getBytes());
+                sender.send(new byte[] { 0, 0x53, 0x77, 0x40 }, 0, 4);
+                sender.advance();
+            }
+        }
+
+        @Override
+        public void onConnectionRemoteClose(Event e)
+        {
+            e.getConnection().close();
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testAcceptedConnectionsAreSpreadAcrossReactors() throws Exception
+    {
+        Server server = new Server();
+        ReactorGroup group = ReactorGroup.Factory.create(Proton.reactor(), Proton.reactor());
+        Acceptor acceptor = group.acceptor("localhost", 0, server);
+        group.start();
+
+        Reactor clients = Proton.reactor(new Client());
+        for (int i = 0; i < 4; i++)
+        {
+            Connection connection = clients.connection(null);
+            connection.setHostname("localhost:" + acceptor.getPort());
+            connection.open();
+            Session session = connection.session();
+            session.open();
+            session.sender("sender").open();
+        }
+        clients.run();
+
+        group.stop();
+        group.join();
+
+        assertEquals(4, server._received.get());
+        assertEquals(new HashSet<String>(Arrays.asList("proton-reactor-0", "proton-reactor-1")),
+                     server._threads);
+    }
+
+    @Test(timeout = 10000)
+    public void testIdleGroupRunsUntilStopped() throws Exception
+    {
+        ReactorGroup group = ReactorGroup.Factory.create(Proton.reactor(), Proton.reactor());
+        group.start();
+        Thread.sleep(100);
+        group.stop();
+        group.join();
+    }
+}
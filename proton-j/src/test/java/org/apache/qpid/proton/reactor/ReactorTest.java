@@ -0,0 +1,357 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.reactor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.amqp.messaging.Accepted;
+import org.apache.qpid.proton.amqp.messaging.AmqpValue;
+import org.apache.qpid.proton.engine.BaseHandler;
+import org.apache.qpid.proton.engine.Connection;
+import org.apache.qpid.proton.engine.Delivery;
+import org.apache.qpid.proton.engine.EndpointState;
+import org.apache.qpid.proton.engine.Event;
+import org.apache.qpid.proton.engine.Link;
+import org.apache.qpid.proton.engine.Receiver;
+import org.apache.qpid.proton.engine.Sender;
+import org.apache.qpid.proton.engine.Session;
+import org.apache.qpid.proton.message.Message;
+import org.junit.Test;
+
+public class ReactorTest
+{
+    private static class Recorder extends BaseHandler
+    {
+        private final List<Object> _events = new ArrayList<Object>();
+
+        @Override
+        public void onUnhandled(Event e)
+        {
+            _events.add(e.getType());
+        }
+
+        @Override
+        public void onTimerTask(Event e)
+        {
+            _events.add(e.getContext());
+        }
+    }
+
+    @Test
+    public void testTasksExpireInDeadlineOrder() throws Exception
+    {
+        Recorder recorder = new Recorder();
+        Reactor reactor = Proton.reactor(recorder);
+        Task late = reactor.schedule(40, null);
+        Task early = reactor.schedule(20, null);
+        Task cancelled = reactor.schedule(10, null);
+        cancelled.cancel();
+
+        reactor.run();
+
+        assertEquals(Arrays.asList(Event.Type.REACTOR_INIT, Event.Type.REACTOR_QUIESCED,
+                                   early, Event.Type.REACTOR_QUIESCED,
+                                   late, Event.Type.REACTOR_FINAL),
+                     recorder._events);
+    }
+
+    @Test
+    public void testTaskEventsGoToTaskHandler() throws Exception
+    {
+        Recorder reactorHandler = new Recorder();
+        Recorder taskHandler = new Recorder();
+        Reactor reactor = Proton.reactor(reactorHandler);
+        Task task = reactor.schedule(0, taskHandler);
+
+        reactor.run();
+
+        assertEquals(Arrays.<Object>asList(task), taskHandler._events);
+        assertEquals(Arrays.<Object>asList(Event.Type.REACTOR_INIT, Event.Type.REACTOR_QUIESCED,
+                                           Event.Type.REACTOR_FINAL),
+                     reactorHandler._events);
+    }
+
+    @Test(timeout = 10000)
+    public void testStopFromHandler() throws Exception
+    {
+        final Recorder recorder = new Recorder();
+        final Reactor reactor = Proton.reactor(recorder);
+        reactor.schedule(0, new BaseHandler()
+        {
+            @Override
+            public void onTimerTask(Event e)
+            {
+                reactor.stop();
+            }
+        });
+        reactor.schedule(60000, null);
+
+        reactor.run();
+
+        assertEquals(Event.Type.REACTOR_FINAL, recorder._events.get(recorder._events.size() - 1));
+    }
+
+    /**
+     * Accepts a link and receives one message, then closes the connection and the acceptor
+     */
+    private static class Server extends BaseHandler
+    {
+        private Acceptor _acceptor;
+        private String _received;
+
+        @Override
+        public void onConnectionRemoteOpen(Event e)
+        {
+            e.getConnection().open();
+        }
+
+        @Override
+        public void onSessionRemoteOpen(Event e)
+        {
+            e.getSession().open();
+        }
+
+        @Override
+        public void onLinkRemoteOpen(Event e)
+        {
+            Link link = e.getLink();
+            link.setSource(link.getRemoteSource());
+            link.setTarget(link.getRemoteTarget());
+            link.open();
+            ((Receiver) link).flow(1);
+        }
+
+        @Override
+        public void onDelivery(Event e)
+        {
+            Delivery delivery = e.getDelivery();
+            if (delivery.isPartial())
+            {
+                return;
+            }
+
+            Receiver receiver = (Receiver) delivery.getLink();
+            byte[] bytes = new byte[delivery.pending()];
+            int length = receiver.recv(bytes, 0, bytes.length);
+            Message message = Proton.message();
+            message.decode(bytes, 0, length);
+            _received = (String) ((AmqpValue) message.getBody()).getValue();
+            delivery.settle();
+
+            e.getConnection().close();
+            _acceptor.close();
+        }
+    }
+
+    /**
+     * Sends one message once it has credit and closes the connection when the peer does
+     */
+    private static class Client extends BaseHandler
+    {
+        private boolean _sent;
+        private EndpointState _remoteState;
+
+        @Override
+        public void onLinkFlow(Event e)
+        {
+            Sender sender = (Sender) e.getLink();
+            if (!_sent && sender.getCredit() > 0)
+            {
+                Message message = Proton.message();
+                message.setBody(new AmqpValue("hello"));
+                byte[] bytes = new byte[1024];
+                int length = message.encode(bytes, 0, bytes.length);
+
+                sender.delivery("tag".getBytes());
+                sender.send(bytes, 0, length);
+                sender.advance();
+                _sent = true;
+            }
+        }
+
+        @Override
+        public void onConnectionRemoteClose(Event e)
+        {
+            _remoteState = e.getConnection().getRemoteState();
+            e.getConnection().close();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testSendMessageOverSocket() throws Exception
+    {
+        Reactor reactor = Proton.reactor();
+
+        Server server = new Server();
+        server._acceptor = reactor.acceptor("localhost", 0, server);
+
+        Client client = new Client();
+        Connection connection = reactor.connection(client);
+        connection.setHostname("localhost:" + server._acceptor.getPort());
+        connection.open();
+        Session session = connection.session();
+        session.open();
+        Sender sender = session.sender("sender");
+        sender.open();
+
+        reactor.run();
+
+        assertEquals("hello", server._received);
+        assertEquals(EndpointState.CLOSED, client._remoteState);
+    }
+
+    /**
+     * Accepts every message, and closes the connection and the acceptor after the last one
+     */
+    private static class CountingServer extends BaseHandler
+    {
+        private final int _expected;
+        private Acceptor _acceptor;
+        private int _received;
+
+        CountingServer(int expected)
+        {
+            _expected = expected;
+        }
+
+        @Override
+        public void onConnectionRemoteOpen(Event e)
+        {
+            e.getConnection().open();
+        }
+
+        @Override
+        public void onSessionRemoteOpen(Event e)
+        {
+            e.getSession().open();
+        }
+
+        @Override
+        public void onLinkRemoteOpen(Event e)
+        {
+            Link link = e.getLink();
+            link.setSource(link.getRemoteSource());
+            link.setTarget(link.getRemoteTarget());
+            link.open();
+            ((Receiver) link).flow(10);
+        }
+
+        @Override
+        public void onDelivery(Event e)
+        {
+            Delivery delivery = e.getDelivery();
+            if (delivery.isPartial())
+            {
+                return;
+            }
+
+            Receiver receiver = (Receiver) delivery.getLink();
+            receiver.recv(new byte[delivery.pending()], 0, delivery.pending());
+            receiver.advance();
+            delivery.disposition(Accepted.getInstance());
+            delivery.settle();
+            receiver.flow(1);
+
+            if (++_received == _expected)
+            {
+                e.getConnection().close();
+                _acceptor.close();
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testSubmitterSendsFromOtherThreads() throws Exception
+    {
+        final int producers = 4;
+        final int perProducer = 50;
+        Reactor reactor = Proton.reactor();
+
+        CountingServer server = new CountingServer(producers * perProducer);
+        server._acceptor = reactor.acceptor("localhost", 0, server);
+
+        Connection connection = reactor.connection(new BaseHandler()
+        {
+            @Override
+            public void onConnectionRemoteClose(Event e)
+            {
+                e.getConnection().close();
+            }
+        });
+        connection.setHostname("localhost:" + server._acceptor.getPort());
+        connection.open();
+        Session session = connection.session();
+        session.open();
+        Sender sender = session.sender("sender");
+        sender.open();
+
+        final Submitter submitter = reactor.submitter(sender);
+        final List<Delivery> completed = new ArrayList<Delivery>();
+        final Submitter.Callback callback = new Submitter.Callback()
+        {
+            @Override
+            public void completed(Delivery delivery)
+            {
+                completed.add(delivery);
+            }
+        };
+
+        Message message = Proton.message();
+        message.setBody(new AmqpValue("hello"));
+        byte[] bytes = new byte[1024];
+        final byte[] encoded = Arrays.copyOf(bytes, message.encode(bytes, 0, bytes.length));
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < producers; i++)
+        {
+            Thread thread = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for (int j = 0; j < perProducer; j++)
+                    {
+                        submitter.submit(encoded, callback);
+                    }
+                }
+            };
+            thread.start();
+            threads.add(thread);
+        }
+
+        reactor.run();
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertEquals(producers * perProducer, server._received);
+        assertEquals(producers * perProducer, completed.size());
+        for (Delivery delivery : completed)
+        {
+            assertTrue(delivery.remotelySettled());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.proton.reactor.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TimerWheelTest
+{
+    private final List<RecordingTimeout> _expired = new ArrayList<RecordingTimeout>();
+    private final TimerWheel _wheel = new TimerWheel(8, 10, 1000);
+
+    private class RecordingTimeout extends TimerWheel.Timeout
+    {
+        private final String _name;
+
+        RecordingTimeout(String name)
+        {
+            _name = name;
+        }
+
+        @Override
+        void expired()
+        {
+            _expired.add(this);
+        }
+
+        @Override
+        public String toString()
+        {
+            return _name;
+        }
+    }
+
+    @Test
+    public void testExpiresOnlyTimeoutsThatAreDue()
+    {
+        RecordingTimeout early = new RecordingTimeout("early");
+        RecordingTimeout late = new RecordingTimeout("late");
+        _wheel.schedule(early, 1025);
+        _wheel.schedule(late, 1050);
+
+        _wheel.tick(1029);
+        assertTrue(_expired.isEmpty());
+
+        _wheel.tick(1030);
+        assertEquals(1, _expired.size());
+        assertEquals(early, _expired.get(0));
+        assertFalse(early.isScheduled());
+        assertTrue(late.isScheduled());
+        assertEquals(1, _wheel.size());
+    }
+
+    @Test
+    public void testRescheduleMovesTimeout()
+    {
+        RecordingTimeout timeout = new RecordingTimeout("timeout");
+        _wheel.schedule(timeout, 1020);
+        _wheel.schedule(timeout, 1060);
+        assertEquals(1, _wheel.size());
+
+        _wheel.tick(1040);
+        assertTrue(_expired.isEmpty());
+
+        _wheel.tick(1060);
+        assertEquals(1, _expired.size());
+        assertTrue(_wheel.isEmpty());
+    }
+
+    @Test
+    public void testCancelledTimeoutDoesNotExpire()
+    {
+        RecordingTimeout timeout = new RecordingTimeout("timeout");
+        _wheel.schedule(timeout, 1020);
+        _wheel.cancel(timeout);
+        _wheel.cancel(timeout);
+
+        assertTrue(_wheel.isEmpty());
+        assertEquals(0, _wheel.deadline());
+        _wheel.tick(1100);
+        assertTrue(_expired.isEmpty());
+    }
+
+    @Test
+    public void testTimeoutBeyondOneTurnWaitsForItsRound()
+    {
+        // 8 slots of 10ms make an 80ms turn, so this shares a slot with 1010
+        RecordingTimeout timeout = new RecordingTimeout("timeout");
+        _wheel.schedule(timeout, 1090);
+
+        assertEquals(1010, _wheel.deadline());
+        _wheel.tick(1010);
+        assertTrue(_expired.isEmpty());
+
+        _wheel.tick(1090);
+        assertEquals(1, _expired.size());
+    }
+
+    @Test
+    public void testLongPauseExpiresEverythingDue()
+    {
+        for (int i = 0; i < 20; i++)
+        {
+            _wheel.schedule(new RecordingTimeout("t" + i), 1000 + i * 25);
+        }
+
+        _wheel.tick(2000);
+        assertEquals(20, _expired.size());
+        assertTrue(_wheel.isEmpty());
+    }
+
+    @Test
+    public void testPastDeadlineExpiresOnNextTick()
+    {
+        _wheel.tick(1050);
+        RecordingTimeout timeout = new RecordingTimeout("timeout");
+        _wheel.schedule(timeout, 900);
+
+        assertEquals(1060, _wheel.deadline());
+        _wheel.tick(1060);
+        assertEquals(1, _expired.size());
+    }
+}
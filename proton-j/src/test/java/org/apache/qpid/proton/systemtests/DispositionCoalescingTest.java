@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.systemtests;
+
+import static java.util.EnumSet.of;
+import static org.apache.qpid.proton.engine.EndpointState.ACTIVE;
+import static org.apache.qpid.proton.engine.EndpointState.UNINITIALIZED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.apache.qpid.proton.amqp.messaging.Accepted;
+import org.apache.qpid.proton.amqp.messaging.Released;
+import org.apache.qpid.proton.amqp.messaging.Target;
+import org.apache.qpid.proton.amqp.transport.Disposition;
+import org.apache.qpid.proton.engine.Delivery;
+import org.apache.qpid.proton.engine.ProtonJTransport;
+import org.apache.qpid.proton.engine.Receiver;
+import org.apache.qpid.proton.engine.impl.ProtocolTracer;
+import org.apache.qpid.proton.framing.TransportFrame;
+import org.junit.Test;
+
+/**
+ * Checks that settling a batch of deliveries produces ranged dispositions rather than one
+ * disposition frame per delivery.
+ */
+public class DispositionCoalescingTest extends EngineTestBase
+{
+    private static final int DELIVERY_COUNT = 100;
+
+    private final List<Disposition> _sentDispositions = new ArrayList<Disposition>();
+
+    @Test
+    public void testSettlingContiguousDeliveriesSendsOneDisposition() throws Exception
+    {
+        List<Delivery> sent = sendDeliveries();
+
+        for (Delivery delivery : receiveDeliveries())
+        {
+            delivery.disposition(Accepted.getInstance());
+            delivery.settle();
+        }
+        pumpServerToClient();
+
+        assertEquals(1, _sentDispositions.size());
+        Disposition disposition = _sentDispositions.get(0);
+        assertEquals(UnsignedInteger.ZERO, disposition.getFirst());
+        assertEquals(UnsignedInteger.valueOf(DELIVERY_COUNT - 1), disposition.getLast());
+        assertTrue(disposition.getSettled());
+
+        for (Delivery delivery : sent)
+        {
+            assertTrue(delivery.remotelySettled());
+            assertTrue(delivery.getRemoteState() instanceof Accepted);
+        }
+    }
+
+    @Test
+    public void testDeliveriesWithDifferentOutcomesAreNotCoalesced() throws Exception
+    {
+        sendDeliveries();
+
+        List<Delivery> received = receiveDeliveries();
+        for (int i = 0; i < received.size(); i++)
+        {
+            Delivery delivery = received.get(i);
+            delivery.disposition(i < DELIVERY_COUNT / 2 ? Accepted.getInstance() : Released.getInstance());
+            delivery.settle();
+        }
+        pumpServerToClient();
+
+        assertEquals(2, _sentDispositions.size());
+        assertEquals(UnsignedInteger.valueOf(DELIVERY_COUNT / 2 - 1), _sentDispositions.get(0).getLast());
+        assertTrue(_sentDispositions.get(1).getState() instanceof Released);
+        assertEquals(UnsignedInteger.valueOf(DELIVERY_COUNT / 2), _sentDispositions.get(1).getFirst());
+        assertEquals(UnsignedInteger.valueOf(DELIVERY_COUNT - 1), _sentDispositions.get(1).getLast());
+    }
+
+    private List<Delivery> sendDeliveries() throws Exception
+    {
+        openLink();
+
+        getServer().receiver.flow(DELIVERY_COUNT);
+        pumpServerToClient();
+
+        List<Delivery> sent = new ArrayList<Delivery>();
+        for (int i = 0; i < DELIVERY_COUNT; i++)
+        {
+            Delivery delivery = getClient().sender.delivery(("tag" + i).getBytes());
+            getClient().sender.send(new byte[] { (byte) i }, 0, 1);
+            getClient().sender.advance();
+            sent.add(delivery);
+        }
+        pumpClientToServer();
+        return sent;
+    }
+
+    private List<Delivery> receiveDeliveries()
+    {
+        List<Delivery> received = new ArrayList<Delivery>();
+        Delivery delivery = getServer().receiver.current();
+        while (delivery != null && !delivery.isPartial())
+        {
+            received.add(delivery);
+            getServer().receiver.advance();
+            delivery = getServer().receiver.current();
+        }
+        assertEquals(DELIVERY_COUNT, received.size());
+        return received;
+    }
+
+    private void openLink() throws Exception
+    {
+        getClient().transport = Proton.transport();
+        getServer().transport = Proton.transport();
+        getClient().connection = Proton.connection();
+        getClient().transport.bind(getClient().connection);
+        getServer().connection = Proton.connection();
+        getServer().transport.bind(getServer().connection);
+
+        ((ProtonJTransport) getServer().transport).setProtocolTracer(new ProtocolTracer()
+        {
+            @Override
+            public void receivedFrame(TransportFrame transportFrame)
+            {
+            }
+
+            @Override
+            public void sentFrame(TransportFrame transportFrame)
+            {
+                if (transportFrame.getBody() instanceof Disposition)
+                {
+                    _sentDispositions.add((Disposition) transportFrame.getBody());
+                }
+            }
+        });
+
+        getClient().connection.open();
+        getServer().connection.open();
+        doOutputInputCycle();
+
+        getClient().session = getClient().connection.session();
+        getClient().session.open();
+        getClient().sender = getClient().session.sender("link1");
+        Target target = new Target();
+        target.setAddress("target");
+        getClient().sender.setTarget(target);
+        getClient().sender.open();
+        pumpClientToServer();
+
+        getServer().session = getServer().connection.sessionHead(of(UNINITIALIZED), of(ACTIVE));
+        getServer().session.open();
+        getServer().receiver = (Receiver) getServer().connection.linkHead(of(UNINITIALIZED), of(ACTIVE));
+        getServer().receiver.setTarget(getServer().receiver.getRemoteTarget());
+        getServer().receiver.open();
+        pumpServerToClient();
+    }
+}
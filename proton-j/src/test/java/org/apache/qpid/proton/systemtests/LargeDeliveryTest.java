@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.proton.systemtests;
+
+import static java.util.EnumSet.of;
+import static org.apache.qpid.proton.engine.EndpointState.ACTIVE;
+import static org.apache.qpid.proton.engine.EndpointState.UNINITIALIZED;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.amqp.messaging.Target;
+import org.apache.qpid.proton.engine.Delivery;
+import org.apache.qpid.proton.engine.ProtonJTransport;
+import org.apache.qpid.proton.engine.Receiver;
+import org.junit.Test;
+
+/**
+ * Sends a delivery that spans many frames, moving the output of each transport with
+ * gathering writes rather than through a single head buffer.
+ */
+public class LargeDeliveryTest extends EngineTestBase
+{
+    private static final int DELIVERY_SIZE = 300 * 1024;
+
+    private int _maxBuffersInOneWrite;
+
+    @Test
+    public void testLargeDeliverySentInPiecesArrivesIntact() throws Exception
+    {
+        byte[] data = new byte[DELIVERY_SIZE];
+        new Random(1).nextBytes(data);
+
+        openLink();
+
+        getServer().receiver.flow(1);
+        gather(getServer(), getClient());
+
+        getClient().delivery = getClient().sender.delivery("tag".getBytes());
+        for (int offset = 0; offset < data.length; offset += 1000)
+        {
+            getClient().sender.send(data, offset, Math.min(1000, data.length - offset));
+        }
+        getClient().sender.advance();
+
+        while (gather(getClient(), getServer()) > 0)
+        {
+            // keep pumping until the whole delivery has been transferred
+        }
+
+        Delivery delivery = getServer().connection.getWorkHead();
+        assertFalse(delivery.isPartial());
+        assertEquals(DELIVERY_SIZE, delivery.pending());
+
+        byte[] received = new byte[DELIVERY_SIZE + 1];
+        int length = 0;
+        int read;
+        while ((read = getServer().receiver.recv(received, length, received.length - length)) > 0)
+        {
+            length += read;
+        }
+        assertEquals(DELIVERY_SIZE, length);
+        assertArrayEquals(data, Arrays.copyOf(received, length));
+
+        assertTrue("Expected payloads to be written as separate buffers", _maxBuffersInOneWrite > 1);
+    }
+
+    private void openLink() throws Exception
+    {
+        getClient().transport = Proton.transport();
+        getServer().transport = Proton.transport();
+        getClient().connection = Proton.connection();
+        getClient().transport.bind(getClient().connection);
+        getServer().connection = Proton.connection();
+        getServer().transport.bind(getServer().connection);
+
+        getClient().connection.open();
+        getServer().connection.open();
+        doOutputInputCycle();
+
+        getClient().session = getClient().connection.session();
+        getClient().session.open();
+        getClient().sender = getClient().session.sender("link1");
+        Target target = new Target();
+        target.setAddress("target");
+        getClient().sender.setTarget(target);
+        getClient().sender.open();
+        pumpClientToServer();
+
+        getServer().session = getServer().connection.sessionHead(of(UNINITIALIZED), of(ACTIVE));
+        getServer().session.open();
+        getServer().receiver = (Receiver) getServer().connection.linkHead(of(UNINITIALIZED), of(ACTIVE));
+        getServer().receiver.setTarget(getServer().receiver.getRemoteTarget());
+        getServer().receiver.open();
+        pumpServerToClient();
+    }
+
+    /**
+     * Moves the pending output of one container's transport into the input of the other's.
+     *
+     * @return the number of bytes moved
+     */
+    private int gather(ProtonContainer from, ProtonContainer to)
+    {
+        ByteBuffer[] buffers = ((ProtonJTransport) from.transport).headBuffers();
+        _maxBuffersInOneWrite = Math.max(_maxBuffersInOneWrite, buffers.length);
+
+        int moved = 0;
+        for (ByteBuffer buffer : buffers)
+        {
+            while (buffer.hasRemaining())
+            {
+                ByteBuffer tail = to.transport.tail();
+                int count = Math.min(tail.remaining(), buffer.remaining());
+                ByteBuffer slice = buffer.duplicate();
+                slice.limit(slice.position() + count);
+                tail.put(slice);
+                buffer.position(buffer.position() + count);
+                to.transport.process();
+                moved += count;
+            }
+        }
+        from.transport.pop(moved);
+        return moved;
+    }
+}